@@ -39,6 +39,10 @@ class NumberToken extends CalculationToken {
 		this.doubleValue = Double.parseDouble(value);
 	}
 
+	double getDoubleValue() {
+		return doubleValue;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj instanceof NumberToken) {
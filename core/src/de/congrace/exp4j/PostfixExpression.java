@@ -16,6 +16,8 @@
  */
 package de.congrace.exp4j;
 
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 
@@ -28,8 +30,26 @@ import java.util.Stack;
  */
 public final class PostfixExpression extends AbstractExpression implements Calculable {
 	
+	// Instructions of the compiled expression, see compile(Map)
+	private static final int PUSH_NUMBER = 0;
+	private static final int PUSH_VARIABLE = 1;
+	private static final int ADD = 2;
+	private static final int SUBTRACT = 3;
+	private static final int MULTIPLY = 4;
+	private static final int DIVIDE = 5;
+	private static final int MODULO = 6;
+	private static final int POWER = 7;
+	private static final int NEGATE = 8;
+	private static final int FUNCTION = 9;
+	
 	private VariableSet variables = new VariableSet();
 	
+	private int[] program;
+	private double[] numbers;
+	private int[] slots;
+	private FunctionToken[] functions;
+	private double[] stack;
+	
 	/**
 	 * Factory method for creating {@link PostfixExpression}s from human
 	 * readable infix expressions
@@ -115,4 +135,166 @@ public final class PostfixExpression extends AbstractExpression implements Calcu
 	public void setVariable(Variable value) {
 		variables.add(value);
 	}
+	
+	/**
+	 * Return the names of the variables referenced by the expression.
+	 */
+	public Set<String> getReferencedVariables() {
+		Set<String> names = new LinkedHashSet<String>();
+		for (final Token t : getTokens()) {
+			if (t instanceof VariableToken) {
+				names.add(t.getValue());
+			}
+		}
+		return names;
+	}
+	
+	/**
+	 * Compile the expression for repeated evaluation with {@link #calculate(double[])}.
+	 * Each variable is bound to the index given for its name, at which its value is
+	 * read from the value array.  The compiled expression operates on a primitive
+	 * stack and does not allocate during calculation.
+	 * 
+	 * @param variableSlots
+	 *            the index of each variable in the value array
+	 * @return true if the expression was compiled, false if it cannot be calculated
+	 *         with primitive values because it uses custom functions, references a
+	 *         variable not in <code>variableSlots</code> or is malformed
+	 */
+	public boolean compile(Map<String, Integer> variableSlots) {
+		final Token[] tokens = getTokens();
+		final int[] program = new int[tokens.length];
+		final double[] numbers = new double[tokens.length];
+		final int[] slots = new int[tokens.length];
+		final FunctionToken[] functions = new FunctionToken[tokens.length];
+		int depth = 0;
+		int maxDepth = 0;
+		for (int i = 0; i < tokens.length; i++) {
+			final Token t = tokens[i];
+			if (t instanceof NumberToken) {
+				program[i] = PUSH_NUMBER;
+				numbers[i] = ((NumberToken) t).getDoubleValue();
+				depth++;
+			} else if (t instanceof VariableToken) {
+				final Integer slot = variableSlots.get(t.getValue());
+				if (slot == null) {
+					return false;
+				}
+				program[i] = PUSH_VARIABLE;
+				slots[i] = slot;
+				depth++;
+			} else if (t instanceof FunctionToken) {
+				if (depth < 1) {
+					return false;
+				}
+				program[i] = FUNCTION;
+				functions[i] = (FunctionToken) t;
+			} else if (t instanceof OperatorToken) {
+				final OperatorToken operator = (OperatorToken) t;
+				if (depth < operator.getOperandCount()) {
+					return false;
+				}
+				program[i] = getInstruction(operator.getOperation());
+				if (operator.getOperandCount() == 2) {
+					depth--;
+				}
+			} else {
+				// Custom functions may operate on arrays
+				return false;
+			}
+			maxDepth = Math.max(maxDepth, depth);
+		}
+		if (depth < 1) {
+			return false;
+		}
+		
+		this.program = program;
+		this.numbers = numbers;
+		this.slots = slots;
+		this.functions = functions;
+		this.stack = new double[maxDepth];
+		return true;
+	}
+	
+	private static int getInstruction(OperatorToken.Operation operation) {
+		switch (operation) {
+		case ADDITION:
+			return ADD;
+		case SUBTRACTION:
+			return SUBTRACT;
+		case MULTIPLICATION:
+			return MULTIPLY;
+		case DIVISION:
+			return DIVIDE;
+		case MODULO:
+			return MODULO;
+		case EXPONENTIATION:
+			return POWER;
+		case UNARY_MINUS:
+			return NEGATE;
+		default:
+			// Unary plus, nothing to do
+			return -1;
+		}
+	}
+	
+	/**
+	 * Calculate the compiled expression.  This gives the same result as
+	 * {@link #calculate()} with all referenced variables set to the corresponding
+	 * values.  The method is not thread-safe.
+	 * 
+	 * @param values
+	 *            the variable values, indexed as given to {@link #compile(Map)}
+	 * @return the value of the expression
+	 * @throws IllegalStateException
+	 *             if the expression has not been compiled
+	 */
+	public double calculate(double[] values) {
+		if (program == null) {
+			throw new IllegalStateException("Expression has not been compiled");
+		}
+		final double[] stack = this.stack;
+		int sp = 0;
+		for (int i = 0; i < program.length; i++) {
+			switch (program[i]) {
+			case PUSH_NUMBER:
+				stack[sp++] = numbers[i];
+				break;
+			case PUSH_VARIABLE:
+				stack[sp++] = values[slots[i]];
+				break;
+			case ADD:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] + stack[sp];
+				break;
+			case SUBTRACT:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] - stack[sp];
+				break;
+			case MULTIPLY:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] * stack[sp];
+				break;
+			case DIVIDE:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] / stack[sp];
+				break;
+			case MODULO:
+				sp--;
+				stack[sp - 1] = stack[sp - 1] % stack[sp];
+				break;
+			case POWER:
+				sp--;
+				stack[sp - 1] = Math.pow(stack[sp - 1], stack[sp]);
+				break;
+			case NEGATE:
+				stack[sp - 1] = -stack[sp - 1];
+				break;
+			case FUNCTION:
+				stack[sp - 1] = functions[i].applyFunction(stack[sp - 1]);
+				break;
+			}
+		}
+		return stack[sp - 1];
+	}
 }
@@ -3,12 +3,14 @@ package net.sf.openrocket.aerodynamics;
 import static net.sf.openrocket.util.MathUtil.pow2;
 
 import java.util.*;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.sf.openrocket.aerodynamics.barrowman.FinSetCalc;
 import net.sf.openrocket.aerodynamics.barrowman.RocketComponentCalc;
+import net.sf.openrocket.rocketcomponent.AxialStage;
 import net.sf.openrocket.rocketcomponent.ComponentAssembly;
 import net.sf.openrocket.rocketcomponent.ExternalComponent;
 import net.sf.openrocket.rocketcomponent.ExternalComponent.Finish;
@@ -19,10 +21,12 @@ import net.sf.openrocket.rocketcomponent.InstanceMap;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.rocketcomponent.SymmetricComponent;
+import net.sf.openrocket.util.BugException;
+import net.sf.openrocket.util.ComponentHandlerRegistry;
 import net.sf.openrocket.util.Coordinate;
 import net.sf.openrocket.util.MathUtil;
 import net.sf.openrocket.util.PolyInterpolator;
-import net.sf.openrocket.util.Reflection;
+import net.sf.openrocket.util.Transformation;
 
 
 /**
@@ -36,8 +40,11 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	
 	private static final String BARROWMAN_PACKAGE = "net.sf.openrocket.aerodynamics.barrowman";
 	private static final String BARROWMAN_SUFFIX = "Calc";
+	private static final ComponentHandlerRegistry<Function<RocketComponent, Object>> CALC_FACTORIES =
+			ComponentHandlerRegistry.forConstructor(BARROWMAN_PACKAGE, BARROWMAN_SUFFIX);
 	
 	private Map<RocketComponent, RocketComponentCalc> calcMap = null;
+	private AeroPlan plan = null;
 	
 	private double cacheDiameter = -1;
 	private double cacheLength = -1;
@@ -71,9 +78,8 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	public Map<RocketComponent, AerodynamicForces> getForceAnalysis(FlightConfiguration configuration,
 																	FlightConditions conditions,
 																	WarningSet warnings) {
-		if (calcMap == null){
-			buildCalcMap(configuration);
-		}
+		checkCache(configuration);
+		final AeroPlan plan = getAeroPlan(configuration);
 
 		InstanceMap instMap = configuration.getActiveInstances();
 		Map<RocketComponent, AerodynamicForces> eachMap = new LinkedHashMap<>();
@@ -84,9 +90,10 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 
 		// Calculate friction data
 		AerodynamicForces rocketForces = assemblyMap.get(configuration.getRocket());
-		rocketForces.setFrictionCD(calculateFrictionDrag(configuration, conditions, eachMap, warnings));
-		rocketForces.setPressureCD(calculatePressureDrag(configuration, conditions, eachMap, warnings));
-		rocketForces.setBaseCD(calculateBaseDrag(configuration, conditions, eachMap, warnings));
+		AerodynamicForces planForces = calculatePlanForces(plan, conditions, eachMap, warnings);
+		rocketForces.setFrictionCD(planForces.getFrictionCD());
+		rocketForces.setPressureCD(planForces.getPressureCD());
+		rocketForces.setBaseCD(planForces.getBaseCD());
 
 		Map<RocketComponent, AerodynamicForces> finalMap = new LinkedHashMap<>();
 		for(final RocketComponent comp : instMap.keySet()){
@@ -143,9 +150,9 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			if (null == calcObj) {
 				throw new NullPointerException("Could not find a CalculationObject for aerodynamic Component!: " + comp.getComponentName());
 			} else {
-				List<InstanceContext> contextList = instances.get(comp);
+				Transformation[] transforms = getTransforms(instances.get(comp));
 				// across every instance of this component:
-				AerodynamicForces compForces = calculateComponentNonAxialForces(conds, comp, calcObj, contextList, warnings);
+				AerodynamicForces compForces = calculateComponentNonAxialForces(conds, comp, calcObj, transforms, warnings);
 				eachForces.put(comp, compForces);
 				aggregateForces.merge(compForces);
 			}
@@ -173,20 +180,17 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		if (warnings == null)
 			warnings = ignoreWarningSet;
 		
-		// Calculate non-axial force data
-		AerodynamicForces total = calculateNonAxialForces(configuration, conditions, warnings);
-		
-		// Calculate friction data
-		total.setFrictionCD(calculateFrictionDrag(configuration, conditions, null, warnings));
-		total.setPressureCD(calculatePressureDrag(configuration, conditions, null, warnings));
-		total.setBaseCD(calculateBaseDrag(configuration, conditions, null, warnings));
+		// Calculate non-axial force data and friction, pressure and base drag in a single pass
+		final AeroPlan plan = getAeroPlan(configuration);
+		checkPlanWarnings(plan, conditions, warnings);
+		AerodynamicForces total = calculatePlanForces(plan, conditions, null, warnings);
 		
 		total.setCD(total.getFrictionCD() + total.getPressureCD() + total.getBaseCD());
 		
 		total.setCaxial(calculateAxialDrag(conditions, total.getCD()));
 		
 		// Calculate pitch and yaw damping moments
-		calculateDampingMoments(configuration, conditions, total);
+		calculateDampingMoments(plan, conditions, total);
 		total.setCm(total.getCm() - total.getPitchDampingMoment());
 		total.setCyaw(total.getCyaw() - total.getYawDampingMoment());
 
@@ -197,20 +201,21 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	private AerodynamicForces calculateComponentNonAxialForces( FlightConditions conditions,
 																RocketComponent comp,
 																RocketComponentCalc calcObj,
-																List<InstanceContext> contextList,
+																Transformation[] transforms,
 																WarningSet warnings)
 	{
 		// across every instance of this component:
 		final AerodynamicForces componentForces = new AerodynamicForces().zero();
+		final AerodynamicForces instanceForces = new AerodynamicForces();
 
 		// iterate across component instances
-		for(InstanceContext context: contextList ) {
+		for (Transformation transform : transforms) {
 			// specific to this _instance_ of this component:
-			AerodynamicForces instanceForces = new AerodynamicForces().zero();
-			calcObj.calculateNonaxialForces(conditions, context.transform, instanceForces, warnings);
+			instanceForces.zero();
+			calcObj.calculateNonaxialForces(conditions, transform, instanceForces, warnings);
 
 			Coordinate cp_inst = instanceForces.getCP();
-			Coordinate cp_abs = context.transform.transform(cp_inst);
+			Coordinate cp_abs = transform.transform(cp_inst);
 			cp_abs = cp_abs.setY(0.0).setZ(0.0);
 
 			instanceForces.setCP(cp_abs);
@@ -234,36 +239,30 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		if (warnings == null)
 			warnings = ignoreWarningSet;
 
-		if (conditions.getAOA() > 17.5 * Math.PI / 180)
-			warnings.add(new Warning.LargeAOA(conditions.getAOA()));
-
-		if (calcMap == null)
-			buildCalcMap(configuration);
-		
-		if( ! isContinuous(  configuration.getRocket() ) ){
-			warnings.add( Warning.DIAMETER_DISCONTINUITY);
-		}
-		
-		final InstanceMap imap = configuration.getActiveInstances();
+		final AeroPlan plan = getAeroPlan(configuration);
+		checkPlanWarnings(plan, conditions, warnings);
 
 		// across the _entire_ assembly -- like a rocket, or a stage
 		final AerodynamicForces assemblyForces= new AerodynamicForces().zero();
 
-		for(Map.Entry<RocketComponent, ArrayList<InstanceContext>> mapEntry: imap.entrySet() ) {
-			final RocketComponent comp = mapEntry.getKey();
-			final List<InstanceContext> contextList = mapEntry.getValue();
-
-			RocketComponentCalc calcObj = calcMap.get(comp);
-			if (null != calcObj) {
+		for (PlanEntry entry : plan.entries) {
+			if (entry.calc != null) {
 				// calculated across all component instances
-				final AerodynamicForces componentForces = calculateComponentNonAxialForces(conditions, comp, calcObj, contextList, warnings);
-
-				assemblyForces.merge(componentForces);
+				assemblyForces.merge(calculateComponentNonAxialForces(conditions, entry.component, entry.calc, entry.transforms, warnings));
 			}
 		}
 
 		return assemblyForces;
 	}
+
+	private void checkPlanWarnings(AeroPlan plan, FlightConditions conditions, WarningSet warnings) {
+		if (conditions.getAOA() > 17.5 * Math.PI / 180)
+			warnings.add(new Warning.LargeAOA(conditions.getAOA()));
+
+		if (!plan.continuous) {
+			warnings.add(Warning.DIAMETER_DISCONTINUITY);
+		}
+	}
 	
 	@Override
 	public boolean isContinuous( final Rocket rkt){
@@ -314,147 +313,60 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	
 	////////////////  DRAG CALCULATIONS  ////////////////
 	/**
-	 * Calculation of drag coefficient due to air friction
+	 * Calculate the non-axial forces and the friction, pressure and base drag
+	 * coefficients of the rocket in a single pass over the aerodynamic plan.
 	 * 
-	 * @param configuration		Rocket configuration
+	 * @param plan				the aerodynamic plan of the configuration
 	 * @param conditions		Flight conditions taken into account
-	 * @param map				?
-	 * @param set				Set to handle 
-	 * @return friction drag for entire rocket
+	 * @param map				map to store the drag coefficients of each component in, or <code>null</code>
+	 * @param warnings			all current warnings
+	 * @return the non-axial forces and drag coefficients of the entire rocket
 	 */
-	private double calculateFrictionDrag(FlightConfiguration configuration, FlightConditions conditions,
-			Map<RocketComponent, AerodynamicForces> map, WarningSet set) {
-		double c1 = 1.0, c2 = 1.0;
-		
-		double mach = conditions.getMach();
-		double Re;
-		double Cf;
-		
-		if (calcMap == null)
-			buildCalcMap(configuration);
-
-		Re = conditions.getVelocity() * configuration.getLength() /
+	private AerodynamicForces calculatePlanForces(AeroPlan plan, FlightConditions conditions,
+			Map<RocketComponent, AerodynamicForces> map, WarningSet warnings) {
+		final FlightConfiguration configuration = plan.configuration;
+		final boolean perfectFinish = configuration.getRocket().isPerfectFinish();
+		final double mach = conditions.getMach();
+		final double refArea = conditions.getRefArea();
+		
+		final double Re = conditions.getVelocity() * configuration.getLength() /
 				conditions.getAtmosphericConditions().getKinematicViscosity();
+		final double Cf = calculateSkinFrictionCoefficient(perfectFinish, mach, Re);
+		final double roughnessCorrection = calculateRoughnessCorrection(mach);
 		
-		// Calculate the skin friction coefficient (assume non-roughness limited)
-		if (configuration.getRocket().isPerfectFinish()) {
-			
-			// Assume partial laminar layer.  Roughness-limitation is checked later.
-			if (Re < 1e4) {
-				// Too low, constant
-				Cf = 1.33e-2;
-			} else if (Re < 5.39e5) {
-				// Fully laminar
-				Cf = 1.328 / MathUtil.safeSqrt(Re);
-			} else {
-				// Transitional
-				Cf = 1.0 / pow2(1.50 * Math.log(Re) - 5.6) - 1700 / Re;
-			}
-			
-			// Compressibility correction
-			
-			if (mach < 1.1) {
-				// Below Re=1e6 no correction
-				if (Re > 1e6) {
-					if (Re < 3e6) {
-						c1 = 1 - 0.1 * pow2(mach) * (Re - 1e6) / 2e6; // transition to turbulent
-					} else {
-						c1 = 1 - 0.1 * pow2(mach);
-					}
-				}
-			}
-			if (mach > 0.9) {
-				if (Re > 1e6) {
-					if (Re < 3e6) {
-						c2 = 1 + (1.0 / Math.pow(1 + 0.045 * pow2(mach), 0.25) - 1) * (Re - 1e6) / 2e6;
-					} else {
-						c2 = 1.0 / Math.pow(1 + 0.045 * pow2(mach), 0.25);
-					}
-				}
-			}
-			
-			// Applying continuously around Mach 1
-			if (mach < 0.9) {
-				Cf *= c1;
-			} else if (mach < 1.1) {
-				Cf *= (c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2);
-			} else {
-				Cf *= c2;
-			}
-			
-			
-		} else {
-			
-			// Assume fully turbulent.  Roughness-limitation is checked later.
-			if (Re < 1e4) {
-				// Too low, constant
-				Cf = 1.48e-2;
-			} else {
-				// Turbulent
-				Cf = 1.0 / pow2(1.50 * Math.log(Re) - 5.6);
-			}
-			
-			// Compressibility correction
-			
-			if (mach < 1.1) {
-				c1 = 1 - 0.1 * pow2(mach);
-			}
-			if (mach > 0.9) {
-				c2 = 1 / Math.pow(1 + 0.15 * pow2(mach), 0.58);
-			}
-			// Applying continuously around Mach 1
-			if (mach < 0.9) {
-				Cf *= c1;
-			} else if (mach < 1.1) {
-				Cf *= c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2;
-			} else {
-				Cf *= c2;
-			}
-			
-		}
-		
-		// Roughness-limited value correction term
-		double roughnessCorrection;
-		if (mach < 0.9) {
-			roughnessCorrection = 1 - 0.1 * pow2(mach);
-		} else if (mach > 1.1) {
-			roughnessCorrection = 1 / (1 + 0.18 * pow2(mach));
-		} else {
-			c1 = 1 - 0.1 * pow2(0.9);
-			c2 = 1.0 / (1 + 0.18 * pow2(1.1));
-			roughnessCorrection = c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2;
-		}
-		
-		
+		final double stagnation = calculateStagnationCD(mach);
+		final double base = calculateBaseCD(mach);
 		
 		/*
-		 * Calculate the friction drag coefficient.
-		 * 
 		 * The body wetted area is summed up and finally corrected with the rocket
 		 * fineness ratio (calculated in the same iteration).  The fins are corrected
 		 * for thickness as we go on.
 		 */
-		
 		double finFriction = 0;
 		double bodyFriction = 0;
 		double maxR = 0, minX = Double.MAX_VALUE, maxX = 0;
+		double pressureCD = 0;
+		double baseCD = 0;
 		
 		double[] roughnessLimited = new double[Finish.values().length];
 		Arrays.fill(roughnessLimited, Double.NaN);
-
-		final InstanceMap imap = configuration.getActiveInstances();
-	    for(Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry: imap.entrySet() ) {
-			final RocketComponent c = entry.getKey();
+		
+		// across the _entire_ assembly -- like a rocket, or a stage
+		final AerodynamicForces total = new AerodynamicForces().zero();
+		
+		for (PlanEntry entry : plan.entries) {
+			final RocketComponent c = entry.component;
+			final int count = entry.transforms.length;
+			final SymmetricComponent s = entry.symmetric;
 			
-			// Consider only SymmetricComponents and FinSets:
-			if (!(c instanceof SymmetricComponent) &&
-					!(c instanceof FinSet))
-				continue;
-
-			// iterate across component instances
-			final ArrayList<InstanceContext> contextList = entry.getValue();
-			for(InstanceContext context: contextList ) {
+			// Non-axial forces, calculated across all component instances
+			if (entry.calc != null) {
+				total.merge(calculateComponentNonAxialForces(conditions, c, entry.calc, entry.transforms, warnings));
+			}
 			
+			// Friction drag, only SymmetricComponents and FinSets
+			if (s != null || entry.finSet != null) {
+				
 				// Calculate the roughness-limited friction coefficient
 				Finish finish = ((ExternalComponent) c).getFinish();
 				if (Double.isNaN(roughnessLimited[finish.ordinal()])) {
@@ -462,13 +374,13 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 						0.032 * Math.pow(finish.getRoughnessSize() / configuration.getLength(), 0.2) *
 						roughnessCorrection;
 				}
-			
+				
 				/*
 				 * Actual Cf is maximum of Cf and the roughness-limited value.
 				 * For perfect finish require additionally that Re > 1e6
 				 */
 				double componentCf;
-				if (configuration.getRocket().isPerfectFinish()) {
+				if (perfectFinish) {
 					
 					// For perfect finish require Re > 1e6
 					if ((Re > 1.0e6) && (roughnessLimited[finish.ordinal()] > Cf)) {
@@ -483,49 +395,126 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 					componentCf = Math.max(Cf, roughnessLimited[finish.ordinal()]);
 					
 				}
-			
-				//Handle Overriden CD for Whole Rocket
-				if(c.isCDOverridden()) {
-					continue;
-				}
-			
-			
-				// Calculate the friction drag:
-				if (c instanceof SymmetricComponent) {
 				
-					SymmetricComponent s = (SymmetricComponent) c;
+				//Handle Overriden CD for Whole Rocket
+				if (c.isCDOverridden()) {
+					// No friction drag
+				} else if (s != null) {
+					
+					final double cd = componentCf * s.getComponentWetArea();
+					final double componentMaxR = Math.max(s.getForeRadius(), s.getAftRadius());
+					for (int i = 0; i < count; i++) {
+						bodyFriction += cd;
+						
+						final double componentMinX = entry.locationX[i];
+						minX = Math.min(minX, componentMinX);
+						
+						final double componentMaxX = componentMinX + c.getLength();
+						maxX = Math.max(maxX, componentMaxX);
+						
+						maxR = Math.max(maxR, componentMaxR);
+					}
 					
-					bodyFriction += componentCf * s.getComponentWetArea();
-				
 					if (map != null) {
 						// Corrected later
-						map.get(c).setFrictionCD(componentCf * s.getComponentWetArea()
-												 / conditions.getRefArea());
+						map.get(c).setFrictionCD(cd / refArea);
 					}
-
-					final double componentMinX = context.getLocation().x;
-					minX = Math.min(minX, componentMinX);
-
-					final double componentMaxX = componentMinX + c.getLength();
-					maxX = Math.max(maxX, componentMaxX);
-
-					final double componentMaxR = Math.max(s.getForeRadius(), s.getAftRadius());
-					maxR = Math.max(maxR, componentMaxR);
 					
-				} else if (c instanceof FinSet) {
-				
-					FinSet f = (FinSet) c;
-					double mac = ((FinSetCalc) calcMap.get(c)).getMACLength();
+				} else {
+					
+					FinSet f = entry.finSet;
+					double mac = entry.finCalc.getMACLength();
 					double cd = componentCf * (1 + 2 * f.getThickness() / mac) *
 						2 * f.getPlanformArea();
-					finFriction += cd;
+					for (int i = 0; i < count; i++) {
+						finFriction += cd;
+					}
 					
 					if (map != null) {
-						map.get(c).setFrictionCD(cd / conditions.getRefArea());
+						map.get(c).setFrictionCD(cd / refArea);
 					}
 					
 				}
+			}
+			
+			// Pressure drag
+			if (entry.calc != null) {
+				
+				// Pressure fore drag
+				final double foreCD = entry.calc.calculatePressureDragForce(conditions, stagnation, base, warnings);
 				
+				// Stagnation drag
+				boolean hasStagnation = false;
+				double stagnationCD = 0;
+				if (s != null && !c.isCDOverridden()) {
+					double radius = 0;
+					if (entry.previous != null)
+						radius = entry.previous.getAftRadius();
+					
+					if (radius < s.getForeRadius()) {
+						double area = Math.PI * (pow2(s.getForeRadius()) - pow2(radius));
+						stagnationCD = stagnation * area / refArea;
+						hasStagnation = true;
+					}
+				}
+				
+				for (int i = 0; i < count; i++) {
+					pressureCD += foreCD;
+					if (hasStagnation) {
+						pressureCD += stagnationCD;
+					}
+				}
+				
+				if (map != null) {
+					map.get(c).setPressureCD(foreCD);
+					if (hasStagnation) {
+						map.get(c).setPressureCD(map.get(c).getPressureCD() + stagnationCD);
+					}
+				}
+			}
+			
+			// Base drag
+			if (s != null && c.isCDOverridden()) {
+				for (int i = 0; i < count; i++) {
+					baseCD += c.getOverrideCD();
+				}
+			} else if (s != null) {
+				
+				// if aft radius of previous component is greater than my forward radius, set
+				// its aft CD
+				double radius = 0;
+				if (entry.previous != null) {
+					radius = entry.previous.getAftRadius();
+				}
+				
+				final boolean hasShoulder = radius > s.getForeRadius();
+				double shoulderCD = 0;
+				if (hasShoulder) {
+					double area = Math.PI * (pow2(radius) - pow2(s.getForeRadius()));
+					shoulderCD = base * area / refArea;
+					if ((map != null) && (entry.previous != null)) {
+						map.get(entry.previous).setBaseCD(shoulderCD);
+					}
+				}
+				
+				// if I'm the last component, set my base CD
+				double aftCD = 0;
+				if (entry.last) {
+					double area = Math.PI * pow2(s.getAftRadius());
+					aftCD = base * area / refArea;
+					if (map != null) {
+						map.get(s).setBaseCD(aftCD);
+					}
+				}
+				
+				for (int i = 0; i < count; i++) {
+					if (hasShoulder) {
+						baseCD += shoulderCD;
+					}
+					if (entry.last) {
+						baseCD += aftCD;
+					}
+				}
 			}
 		}
 		
@@ -542,149 +531,126 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			}
 		}
 		
-		return (finFriction + correction * bodyFriction) / conditions.getRefArea();
+		total.setFrictionCD((finFriction + correction * bodyFriction) / refArea);
+		total.setPressureCD(pressureCD);
+		total.setBaseCD(baseCD);
+		return total;
 	}
 	
 	
 	/**
-	 * Calculation of drag coefficient due to pressure
+	 * Calculate the skin friction coefficient, not limited by roughness.
 	 * 
-	 * @param configuration		Rocket configuration
-	 * @param conditions		Flight conditions taken into account
-	 * @param forceMap
-	 * @param warningSet			all current warnings
-	 * @return
+	 * @param perfectFinish		whether the rocket has a perfect finish, in which case a
+	 * 							partially laminar layer is assumed
+	 * @param mach				Mach number
+	 * @param Re				Reynolds number
+	 * @return					the skin friction coefficient
 	 */
-	private double calculatePressureDrag(FlightConfiguration configuration, FlightConditions conditions,
-			Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warningSet) {
-		
-		double stagnation, base, total;
-		
-		if (calcMap == null)
-			buildCalcMap(configuration);
-		
-		stagnation = calculateStagnationCD(conditions.getMach());
-		base = calculateBaseCD(conditions.getMach());
+	private static double calculateSkinFrictionCoefficient(boolean perfectFinish, double mach, double Re) {
+		double c1 = 1.0, c2 = 1.0;
+		double Cf;
 		
-		total = 0;
-		final InstanceMap imap = configuration.getActiveInstances();
-	    for(Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry: imap.entrySet() ) {
-			final RocketComponent c = entry.getKey();
-			if (!c.isAerodynamic())
-				continue;
-
-			// iterate across component instances
-			final ArrayList<InstanceContext> contextList = entry.getValue();
-			for(InstanceContext context: contextList ) {
-
-				// Pressure fore drag
-				double cd = calcMap.get(c).calculatePressureDragForce(conditions, stagnation, base,
-																	  warningSet);
-				total += cd;
-
-				if (forceMap != null) {
-					forceMap.get(c).setPressureCD(cd);
+		// Calculate the skin friction coefficient (assume non-roughness limited)
+		if (perfectFinish) {
+			
+			// Assume partial laminar layer.  Roughness-limitation is checked later.
+			if (Re < 1e4) {
+				// Too low, constant
+				Cf = 1.33e-2;
+			} else if (Re < 5.39e5) {
+				// Fully laminar
+				Cf = 1.328 / MathUtil.safeSqrt(Re);
+			} else {
+				// Transitional
+				Cf = 1.0 / pow2(1.50 * Math.log(Re) - 5.6) - 1700 / Re;
+			}
+			
+			// Compressibility correction
+			
+			if (mach < 1.1) {
+				// Below Re=1e6 no correction
+				if (Re > 1e6) {
+					if (Re < 3e6) {
+						c1 = 1 - 0.1 * pow2(mach) * (Re - 1e6) / 2e6; // transition to turbulent
+					} else {
+						c1 = 1 - 0.1 * pow2(mach);
+					}
 				}
-				
-				if(c.isCDOverridden())
-					continue;					
-				
-				// Stagnation drag
-				if (c instanceof SymmetricComponent) {
-					SymmetricComponent s = (SymmetricComponent) c;
-
-					double radius = 0;
-					final SymmetricComponent prevComponent = s.getPreviousSymmetricComponent();
-					if (prevComponent != null)
-						radius = prevComponent.getAftRadius();
-					
-					if (radius < s.getForeRadius()) {
-						double area = Math.PI * (pow2(s.getForeRadius()) - pow2(radius));
-						cd = stagnation * area / conditions.getRefArea();
-						total += cd;
-						
-						if (forceMap != null) {
-							forceMap.get(c).setPressureCD(forceMap.get(c).getPressureCD() + cd);
-						}
+			}
+			if (mach > 0.9) {
+				if (Re > 1e6) {
+					if (Re < 3e6) {
+						c2 = 1 + (1.0 / Math.pow(1 + 0.045 * pow2(mach), 0.25) - 1) * (Re - 1e6) / 2e6;
+					} else {
+						c2 = 1.0 / Math.pow(1 + 0.045 * pow2(mach), 0.25);
 					}
 				}
 			}
-		}
 			
-		return total;
+			// Applying continuously around Mach 1
+			if (mach < 0.9) {
+				Cf *= c1;
+			} else if (mach < 1.1) {
+				Cf *= (c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2);
+			} else {
+				Cf *= c2;
+			}
+			
+			
+		} else {
+			
+			// Assume fully turbulent.  Roughness-limitation is checked later.
+			if (Re < 1e4) {
+				// Too low, constant
+				Cf = 1.48e-2;
+			} else {
+				// Turbulent
+				Cf = 1.0 / pow2(1.50 * Math.log(Re) - 5.6);
+			}
+			
+			// Compressibility correction
+			
+			if (mach < 1.1) {
+				c1 = 1 - 0.1 * pow2(mach);
+			}
+			if (mach > 0.9) {
+				c2 = 1 / Math.pow(1 + 0.15 * pow2(mach), 0.58);
+			}
+			// Applying continuously around Mach 1
+			if (mach < 0.9) {
+				Cf *= c1;
+			} else if (mach < 1.1) {
+				Cf *= c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2;
+			} else {
+				Cf *= c2;
+			}
+			
+		}
+		
+		return Cf;
 	}
 	
-
+	
 	/**
-	 * Calculation of drag coefficient due to base
+	 * Calculate the roughness-limited value correction term.
 	 * 
-	 * @param configuration		Rocket configuration
-	 * @param conditions		Flight conditions taken into account
-	 * @param map				?
-	 * @param warnings				all current warnings
-	 * @return
+	 * @param mach	Mach number
+	 * @return		the correction term
 	 */
-	private double calculateBaseDrag(FlightConfiguration configuration, FlightConditions conditions,
-									 Map<RocketComponent, AerodynamicForces> map, WarningSet warnings) {
-		
-		double base, total;
-		
-		if (calcMap == null)
-			buildCalcMap(configuration);
-		
-		base = calculateBaseCD(conditions.getMach());
-		total = 0;
-		
-		final InstanceMap imap = configuration.getActiveInstances();
-	    for(Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry: imap.entrySet() ) {
-			final RocketComponent c = entry.getKey();
-			
-			if (!(c instanceof SymmetricComponent))
-				continue;
-
-			SymmetricComponent s = (SymmetricComponent) c;
-			
-			// iterate across component instances
-			final ArrayList<InstanceContext> contextList = entry.getValue();
-			for(InstanceContext context: contextList ) {
-				if(c.isCDOverridden()) {
-					total += c.getOverrideCD();
-					continue;
-				}
-				
-				// if aft radius of previous component is greater than my forward radius, set
-				// its aft CD
-				double radius = 0;
-				final SymmetricComponent prevComponent = s.getPreviousSymmetricComponent();
-				if (prevComponent != null) {
-					radius = prevComponent.getAftRadius();
-				}
-				
-				if (radius > s.getForeRadius()) {
-					double area = Math.PI * (pow2(radius) - pow2(s.getForeRadius()));
-					double cd = base * area / conditions.getRefArea();
-					total += cd;
-					if ((map != null) && (prevComponent != null)) {
-						map.get(prevComponent).setBaseCD(cd);
-					}
-				}
-				
-				// if I'm the last component, set my base CD
-				// note:  the iterator *should* serve up the next component.... buuuut ....
-				//        this code has is tested, and there's no compelling reason to change.
-				final SymmetricComponent n = s.getNextSymmetricComponent();
-				if ((n == null) || !configuration.isStageActive(n.getStageNumber())) {
-					double area = Math.PI * pow2(s.getAftRadius());
-					double cd = base * area / conditions.getRefArea();
-					total += cd;
-					if (map != null) {
-						map.get(s).setBaseCD(cd);
-					}
-				}
-			}
+	private static double calculateRoughnessCorrection(double mach) {
+		double c1, c2;
+		double roughnessCorrection;
+		if (mach < 0.9) {
+			roughnessCorrection = 1 - 0.1 * pow2(mach);
+		} else if (mach > 1.1) {
+			roughnessCorrection = 1 / (1 + 0.18 * pow2(mach));
+		} else {
+			c1 = 1 - 0.1 * pow2(0.9);
+			c2 = 1.0 / (1 + 0.18 * pow2(1.1));
+			roughnessCorrection = c2 * (mach - 0.9) / 0.2 + c1 * (1.1 - mach) / 0.2;
 		}
-		
-		return total;
+		return roughnessCorrection;
 	}
 	
 	
@@ -769,15 +735,15 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	
 	/**
 	 * get damping moments from a rocket in a flight
-	 * @param configuration		Rocket configuration
+	 * @param plan				aerodynamic plan of the rocket configuration
 	 * @param conditions		flight conditions in consideration
 	 * @param total				acting aerodynamic forces
 	 */
-	private void calculateDampingMoments(FlightConfiguration configuration, FlightConditions conditions,
+	private void calculateDampingMoments(AeroPlan plan, FlightConditions conditions,
 			AerodynamicForces total) {
 		
 		// Calculate pitch and yaw damping moments
-		double mul = getDampingMultiplier(configuration, conditions,
+		double mul = getDampingMultiplier(plan, conditions,
 										  conditions.getPitchCenter().x);
 		double pitchRate = conditions.getPitchRate();
 		double yawRate = conditions.getYawRate();
@@ -795,14 +761,14 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		total.setYawDampingMoment(MathUtil.sign(yawRate) * yawDampingMomentMagnitude);
 	}
 
-	private double getDampingMultiplier(FlightConfiguration configuration, FlightConditions conditions,
+	private double getDampingMultiplier(AeroPlan plan, FlightConditions conditions,
 			double cgx) {
 		if (cacheDiameter < 0) {
 			double area = 0;
 			cacheLength = 0;
 			cacheDiameter = 0;
 			
-			for (RocketComponent c : configuration.getActiveComponents()) {
+			for (RocketComponent c : plan.configuration.getActiveComponents()) {
 				if (c instanceof SymmetricComponent) {
 					SymmetricComponent s = (SymmetricComponent) c;
 					area += s.getComponentPlanformArea();
@@ -819,17 +785,11 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		mul = 0.275 * cacheDiameter / (conditions.getRefArea() * conditions.getRefLength());
 		mul *= (MathUtil.pow4(cgx) + MathUtil.pow4(cacheLength - cgx));
 		
-		// Fins
-		// TODO: LOW: This could be optimized a lot...
-		for (RocketComponent c : configuration.getActiveComponents()) {
-			if (c instanceof FinSet) {
-				FinSet f = (FinSet) c;
-				mul += 0.6 * Math.min(f.getFinCount(), 4) * f.getPlanformArea() *
-						MathUtil.pow3(Math.abs(f.toAbsolute(new Coordinate(
-								((FinSetCalc) calcMap.get(f)).getMidchordPos()))[0].x
-								- cgx)) /
-						(conditions.getRefArea() * conditions.getRefLength());
-			}
+		// Fins, midchord positions precalculated in the plan
+		for (int i = 0; i < plan.finFactors.length; i++) {
+			mul += plan.finFactors[i] *
+					MathUtil.pow3(Math.abs(plan.finMidchordX[i] - cgx)) /
+					(conditions.getRefArea() * conditions.getRefLength());
 		}
 		
 		return mul;
@@ -844,11 +804,20 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		super.voidAerodynamicCache();
 		
 		calcMap = null;
+		plan = null;
 		cacheDiameter = -1;
 		cacheLength = -1;
 	}
 	
 	
+	private static RocketComponentCalc newCalc(RocketComponent comp) {
+		Function<RocketComponent, Object> factory = CALC_FACTORIES.get(comp);
+		if (factory == null) {
+			throw new BugException("Suitable constructor for component " + comp + " not found");
+		}
+		return (RocketComponentCalc) factory.apply(comp);
+	}
+	
 	private void buildCalcMap(FlightConfiguration configuration) {
 		calcMap = new HashMap<>();
 
@@ -857,16 +826,177 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			if (!comp.isAerodynamic())
 				continue;
 
-			RocketComponentCalc calcObj = (RocketComponentCalc) Reflection.construct(BARROWMAN_PACKAGE, comp, BARROWMAN_SUFFIX, comp);
+			RocketComponentCalc calcObj = newCalc(comp);
 
 			calcMap.put(comp, calcObj ); 
 		}
 	}
 	
+	
+	/**
+	 * Return the aerodynamic plan of the configuration, building it if the configuration
+	 * has changed since the plan was built.
+	 */
+	private AeroPlan getAeroPlan(FlightConfiguration configuration) {
+		// Stages may be toggled without changing the modification ID of the configuration
+		final long activeStages = getActiveStages(configuration);
+		if (plan == null || plan.configuration != configuration || plan.modID != configuration.getModID() ||
+				activeStages < 0 || plan.activeStages != activeStages) {
+			plan = buildAeroPlan(configuration, activeStages);
+		}
+		return plan;
+	}
+	
+	/**
+	 * Return a bit mask of the active stages of the configuration, or -1 if the stage
+	 * numbers do not fit in the mask.
+	 */
+	private static long getActiveStages(FlightConfiguration configuration) {
+		long activeStages = 0;
+		for (AxialStage stage : configuration.getActiveStages()) {
+			final int stageNumber = stage.getStageNumber();
+			if ((stageNumber < 0) || (stageNumber >= Long.SIZE - 1)) {
+				return -1;
+			}
+			activeStages |= 1L << stageNumber;
+		}
+		return activeStages;
+	}
+	
+	private AeroPlan buildAeroPlan(FlightConfiguration configuration, long activeStages) {
+		if (calcMap == null)
+			buildCalcMap(configuration);
+		
+		// The entries are kept in the iteration order of the instance map, so that the
+		// forces are summed up in the same order as when iterating the map itself.
+		final InstanceMap imap = configuration.getActiveInstances();
+		final List<PlanEntry> entries = new ArrayList<>(imap.size());
+		for (Map.Entry<RocketComponent, List<InstanceContext>> mapEntry : imap.entrySet()) {
+			final RocketComponent comp = mapEntry.getKey();
+			
+			RocketComponentCalc calcObj = null;
+			if (comp.isAerodynamic()) {
+				calcObj = calcMap.get(comp);
+				if (calcObj == null) {
+					calcObj = newCalc(comp);
+					calcMap.put(comp, calcObj);
+				}
+			} else if (!(comp instanceof SymmetricComponent) && !(comp instanceof FinSet)) {
+				continue;
+			}
+			
+			entries.add(new PlanEntry(configuration, comp, calcObj, getTransforms(mapEntry.getValue())));
+		}
+		
+		// Fin damping terms, in the order of the active components
+		final List<FinSet> fins = new ArrayList<>();
+		for (RocketComponent c : configuration.getActiveComponents()) {
+			if (c instanceof FinSet) {
+				fins.add((FinSet) c);
+			}
+		}
+		final double[] finFactors = new double[fins.size()];
+		final double[] finMidchordX = new double[fins.size()];
+		for (int i = 0; i < fins.size(); i++) {
+			FinSet f = fins.get(i);
+			finFactors[i] = 0.6 * Math.min(f.getFinCount(), 4) * f.getPlanformArea();
+			finMidchordX[i] = f.toAbsolute(new Coordinate(((FinSetCalc) calcMap.get(f)).getMidchordPos()))[0].x;
+		}
+		
+		return new AeroPlan(configuration, activeStages, entries.toArray(new PlanEntry[0]),
+				isContinuous(configuration.getRocket()), finFactors, finMidchordX);
+	}
+	
+	private static Transformation[] getTransforms(List<InstanceContext> contextList) {
+		final Transformation[] transforms = new Transformation[contextList.size()];
+		for (int i = 0; i < transforms.length; i++) {
+			transforms[i] = contextList.get(i).transform;
+		}
+		return transforms;
+	}
+	
 	@Override
 	public int getModID() {
 		// Only cached data is stored, return constant mod ID
 		return 0;
 	}
 	
+	
+	/**
+	 * The aerodynamic plan of a flight configuration: a flat array of the components
+	 * taking part in the aerodynamic calculations, with their calculators and instance
+	 * transformations.  The plan is valid as long as the modification ID and the
+	 * active stages of the configuration do not change.
+	 */
+	private static final class AeroPlan {
+		private final FlightConfiguration configuration;
+		private final int modID;
+		private final long activeStages;
+		private final PlanEntry[] entries;
+		private final boolean continuous;
+		private final double[] finFactors;
+		private final double[] finMidchordX;
+		
+		AeroPlan(FlightConfiguration configuration, long activeStages, PlanEntry[] entries, boolean continuous,
+				double[] finFactors, double[] finMidchordX) {
+			this.configuration = configuration;
+			this.modID = configuration.getModID();
+			this.activeStages = activeStages;
+			this.entries = entries;
+			this.continuous = continuous;
+			this.finFactors = finFactors;
+			this.finMidchordX = finMidchordX;
+		}
+	}
+	
+	/**
+	 * A single component of an aerodynamic plan.
+	 */
+	private static final class PlanEntry {
+		private final RocketComponent component;
+		/** The calculator, or <code>null</code> if the component is not aerodynamic */
+		private final RocketComponentCalc calc;
+		private final Transformation[] transforms;
+		/** Axial position of each instance */
+		private final double[] locationX;
+		
+		private final SymmetricComponent symmetric;
+		private final SymmetricComponent previous;
+		/** Whether this is the last active symmetric component */
+		private final boolean last;
+		
+		private final FinSet finSet;
+		private final FinSetCalc finCalc;
+		
+		PlanEntry(FlightConfiguration configuration, RocketComponent component, RocketComponentCalc calc,
+				Transformation[] transforms) {
+			this.component = component;
+			this.calc = calc;
+			this.transforms = transforms;
+			this.locationX = new double[transforms.length];
+			for (int i = 0; i < transforms.length; i++) {
+				locationX[i] = transforms[i].transform(Coordinate.ZERO).x;
+			}
+			
+			if (component instanceof SymmetricComponent) {
+				symmetric = (SymmetricComponent) component;
+				previous = symmetric.getPreviousSymmetricComponent();
+				final SymmetricComponent next = symmetric.getNextSymmetricComponent();
+				last = (next == null) || !configuration.isStageActive(next.getStageNumber());
+			} else {
+				symmetric = null;
+				previous = null;
+				last = false;
+			}
+			
+			if (component instanceof FinSet) {
+				finSet = (FinSet) component;
+				finCalc = (FinSetCalc) calc;
+			} else {
+				finSet = null;
+				finCalc = null;
+			}
+		}
+	}
+	
 }
@@ -3,6 +3,7 @@ package net.sf.openrocket.database;
 import java.util.List;
 
 import net.sf.openrocket.preset.ComponentPreset;
+import net.sf.openrocket.preset.TypedKey;
 
 public interface ComponentPresetDao {
 
@@ -49,6 +50,18 @@ public interface ComponentPresetDao {
 	 */
 	public List<ComponentPreset> listForTypes( List<ComponentPreset.Type> types );
 
+	/**
+	 * Returns a list of component presets of the given type having a dimension within
+	 * a range, sorted by the dimension.  Lookups by the outer diameter, inner diameter
+	 * and length are indexed.
+	 * @param type	the searched type
+	 * @param key	the dimension, for example {@link ComponentPreset#OUTER_DIAMETER}
+	 * @param min	the minimum value of the dimension, inclusive
+	 * @param max	the maximum value of the dimension, inclusive
+	 * @return		the list of components matching the type and range
+	 */
+	public List<ComponentPreset> listForType( ComponentPreset.Type type, TypedKey<Double> key, double min, double max );
+
 	/**
 	 * set or reset a component preset as favorite
 	 * @param preset	the preset to be set as favorite
@@ -1,22 +1,57 @@
 package net.sf.openrocket.database;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.sf.openrocket.preset.ComponentPreset;
+import net.sf.openrocket.preset.TypedKey;
 import net.sf.openrocket.startup.Application;
 
+/**
+ * The database of component presets.
+ * <p>
+ * The presets are indexed by type, by manufacturer and part number, and by their outer
+ * diameter, inner diameter and length, so that the lookups do not need to scan all the
+ * presets.  The indexes are updated on {@link #insert(ComponentPreset)}, rebuilt when presets
+ * are otherwise added or removed, and rebuilt only once after adding many presets with
+ * {@link #addAll(Collection)}, so the lookups never modify them.  The favorite presets of each type are cached
+ * until the favorites are changed with {@link #setFavorite(ComponentPreset, ComponentPreset.Type, boolean)}.
+ */
 public class ComponentPresetDatabase extends Database<ComponentPreset> implements ComponentPresetDao {
 
 	private static final Logger logger = LoggerFactory.getLogger(ComponentPresetDatabase.class);
 	
+	/** The dimensions with a sorted index. */
+	private static final List<TypedKey<Double>> INDEXED_DIMENSIONS = Collections.unmodifiableList(Arrays.asList(
+			ComponentPreset.OUTER_DIAMETER,
+			ComponentPreset.INNER_DIAMETER,
+			ComponentPreset.LENGTH));
+	
+	private final Map<ComponentPreset.Type, TypeBucket> typeIndex = new EnumMap<ComponentPreset.Type, TypeBucket>(ComponentPreset.Type.class);
+	private final Map<PartKey, List<ComponentPreset>> partIndex = new HashMap<PartKey, List<ComponentPreset>>();
+	private final Map<TypedKey<Double>, DimensionIndex> dimensionIndex = new HashMap<TypedKey<Double>, DimensionIndex>();
+	private final Map<ComponentPreset.Type, List<ComponentPreset>> favoritesCache =
+			new ConcurrentHashMap<ComponentPreset.Type, List<ComponentPreset>>();
+	
+	/** Whether presets are being added by addAll, which rebuilds the indexes once at the end. */
+	private boolean bulkAdding = false;
+	
 	public ComponentPresetDatabase() {
 		super();
+		rebuildIndexes();
 	}
 	
 	@Override
@@ -27,6 +62,8 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 	@Override
 	public void insert( ComponentPreset preset ) {
 		list.add(preset);
+		index(preset, list.size() - 1);
+		favoritesCache.remove(preset.getType());
 	}
 
 	@Override
@@ -35,15 +72,11 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return Collections.<ComponentPreset>emptyList();
 		}
 
-		List<ComponentPreset> result = new ArrayList<ComponentPreset>(list.size()/6);
-
-		for( ComponentPreset preset : list ) {
-			if ( preset.get(ComponentPreset.TYPE).equals(type) ) {
-				result.add(preset);
-			}
+		TypeBucket bucket = typeIndex.get(type);
+		if ( bucket == null ) {
+			return new ArrayList<ComponentPreset>();
 		}
-		return result;
-
+		return bucket.toList();
 	}
 
 	/**
@@ -60,16 +93,18 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return listForType(type);
 		}
 
-		List<ComponentPreset> result = new ArrayList<ComponentPreset>(list.size()/6);
-
-		Set<String> favorites = Application.getPreferences().getComponentFavorites(type);
-
-		for( ComponentPreset preset : list ) {
-			if ( preset.get(ComponentPreset.TYPE).equals(type) && favorites.contains(preset.preferenceKey())) {
-				result.add(preset);
+		List<ComponentPreset> favorites = favoritesCache.get(type);
+		if ( favorites == null ) {
+			favorites = new ArrayList<ComponentPreset>();
+			Set<String> keys = Application.getPreferences().getComponentFavorites(type);
+			for( ComponentPreset preset : listForType(type) ) {
+				if ( keys.contains(preset.preferenceKey()) ) {
+					favorites.add(preset);
+				}
 			}
+			favoritesCache.put(type, favorites);
 		}
-		return result;
+		return new ArrayList<ComponentPreset>(favorites);
 	}
 
 	@Override
@@ -82,17 +117,29 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 			return listForType(type[0]);
 		}
 
-		List<ComponentPreset> result = new ArrayList<ComponentPreset>(list.size()/6);
-
-		for( ComponentPreset preset : list ) {
-			ComponentPreset.Type presetType = preset.get(ComponentPreset.TYPE);
-			typeLoop: for( int i=0; i<type.length; i++ ) {
-				if ( presetType.equals(type[i]) ) {
-					result.add(preset);
-					break typeLoop; // from inner loop.
+		// Merge the buckets in database order
+		List<TypeBucket> buckets = new ArrayList<TypeBucket>(type.length);
+		int size = 0;
+		for( ComponentPreset.Type t : type ) {
+			TypeBucket bucket = typeIndex.get(t);
+			if ( bucket != null && !buckets.contains(bucket) ) {
+				buckets.add(bucket);
+				size += bucket.size;
+			}
+		}
+		
+		List<ComponentPreset> result = new ArrayList<ComponentPreset>(size);
+		int[] next = new int[buckets.size()];
+		while ( result.size() < size ) {
+			int first = -1;
+			for( int i=0; i<next.length; i++ ) {
+				TypeBucket bucket = buckets.get(i);
+				if ( next[i] < bucket.size && (first < 0 ||
+						bucket.positions[next[i]] < buckets.get(first).positions[next[first]]) ) {
+					first = i;
 				}
 			}
-
+			result.add(buckets.get(first).presets[next[first]++]);
 		}
 		return result;
 	}
@@ -103,20 +150,269 @@ public class ComponentPresetDatabase extends Database<ComponentPreset> implement
 	}
 
 	@Override
-	public List<ComponentPreset> find(String manufacturer, String partNo) {
-		List<ComponentPreset> presets = new ArrayList<ComponentPreset>();
-		for( ComponentPreset preset : list ) {
-			if ( preset.getManufacturer().getSimpleName().equals(manufacturer) && preset.getPartNo().equals(partNo) ) {
-				presets.add(preset);
+	public List<ComponentPreset> listForType( ComponentPreset.Type type, final TypedKey<Double> key, double min, double max ) {
+		if ( type == null ) {
+			return Collections.<ComponentPreset>emptyList();
+		}
+
+		List<ComponentPreset> result = new ArrayList<ComponentPreset>();
+		DimensionIndex index = dimensionIndex.get(key);
+		if ( index != null ) {
+			index.find(type, min, max, result);
+			return result;
+		}
+
+		// Not an indexed dimension
+		for( ComponentPreset preset : listForType(type) ) {
+			if ( preset.has(key) ) {
+				double value = preset.get(key);
+				if ( value >= min && value <= max ) {
+					result.add(preset);
+				}
+			}
+		}
+		Collections.sort(result, new Comparator<ComponentPreset>() {
+			@Override
+			public int compare(ComponentPreset a, ComponentPreset b) {
+				return Double.compare(a.get(key), b.get(key));
 			}
+		});
+		return result;
+	}
+
+	@Override
+	public List<ComponentPreset> find(String manufacturer, String partNo) {
+		List<ComponentPreset> presets = partIndex.get(new PartKey(manufacturer, partNo));
+		if ( presets == null ) {
+			return new ArrayList<ComponentPreset>();
 		}
-		return presets;
+		return new ArrayList<ComponentPreset>(presets);
 	}
 
 	@Override
 	public void setFavorite( ComponentPreset preset, ComponentPreset.Type type, boolean favorite ) {
 		Application.getPreferences().setComponentFavorite( preset, type, favorite );
-		this.fireAddEvent(preset);
+		favoritesCache.remove(type);
+		super.fireAddEvent(preset);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The indexes are rebuilt once after all the presets have been added.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends ComponentPreset> presets) {
+		bulkAdding = true;
+		try {
+			return super.addAll(presets);
+		} finally {
+			bulkAdding = false;
+			rebuildIndexes();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The preset has been inserted into the list, so the indexes are rebuilt unless more
+	 * presets are being added.
+	 */
+	@Override
+	protected void fireAddEvent(ComponentPreset element) {
+		if ( !bulkAdding ) {
+			rebuildIndexes();
+		}
+		super.fireAddEvent(element);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The preset has been removed from the list, so the indexes are rebuilt.
+	 */
+	@Override
+	protected void fireRemoveEvent(ComponentPreset element) {
+		rebuildIndexes();
+		super.fireRemoveEvent(element);
+	}
+
+
+	private void rebuildIndexes() {
+		typeIndex.clear();
+		partIndex.clear();
+		dimensionIndex.clear();
+		favoritesCache.clear();
+		for( int i=0; i<list.size(); i++ ) {
+			index(list.get(i), i);
+		}
+		for( TypedKey<Double> key : INDEXED_DIMENSIONS ) {
+			dimensionIndex.put(key, DimensionIndex.build(list, key));
+		}
+		logger.debug("Indexed " + list.size() + " component presets");
 	}
 
+	private void index(ComponentPreset preset, int position) {
+		ComponentPreset.Type type = preset.getType();
+		TypeBucket bucket = typeIndex.get(type);
+		if ( bucket == null ) {
+			bucket = new TypeBucket();
+			typeIndex.put(type, bucket);
+		}
+		bucket.add(preset, position);
+
+		PartKey part = new PartKey(preset.getManufacturer().getSimpleName(), preset.getPartNo());
+		List<ComponentPreset> presets = partIndex.get(part);
+		if ( presets == null ) {
+			presets = new ArrayList<ComponentPreset>(1);
+			partIndex.put(part, presets);
+		}
+		presets.add(preset);
+
+		for( Map.Entry<TypedKey<Double>, DimensionIndex> e : dimensionIndex.entrySet() ) {
+			if ( preset.has(e.getKey()) ) {
+				e.getValue().add(preset.get(e.getKey()), preset);
+			}
+		}
+	}
+
+
+	/**
+	 * The presets of one type in database order, with their positions in the database.
+	 */
+	private static final class TypeBucket {
+		private ComponentPreset[] presets = new ComponentPreset[16];
+		private int[] positions = new int[16];
+		private int size = 0;
+
+		void add(ComponentPreset preset, int position) {
+			if ( size == presets.length ) {
+				presets = Arrays.copyOf(presets, size * 2);
+				positions = Arrays.copyOf(positions, size * 2);
+			}
+			presets[size] = preset;
+			positions[size] = position;
+			size++;
+		}
+
+		List<ComponentPreset> toList() {
+			return new ArrayList<ComponentPreset>(Arrays.asList(presets).subList(0, size));
+		}
+	}
+
+	/**
+	 * The presets having a dimension, sorted by its value.  Presets with equal values are
+	 * kept in the order they were added.
+	 */
+	private static final class DimensionIndex {
+		private double[] values = new double[16];
+		private ComponentPreset[] presets = new ComponentPreset[16];
+		private int size = 0;
+
+		/**
+		 * Build the index of a dimension of the presets, sorting them once instead of
+		 * inserting them one by one.
+		 */
+		static DimensionIndex build(List<ComponentPreset> list, final TypedKey<Double> key) {
+			List<ComponentPreset> sorted = new ArrayList<ComponentPreset>();
+			for( ComponentPreset preset : list ) {
+				if ( preset.has(key) ) {
+					sorted.add(preset);
+				}
+			}
+			// Stable, so equal values are kept in database order
+			Collections.sort(sorted, new Comparator<ComponentPreset>() {
+				@Override
+				public int compare(ComponentPreset a, ComponentPreset b) {
+					return Double.compare(a.get(key), b.get(key));
+				}
+			});
+
+			DimensionIndex index = new DimensionIndex();
+			index.size = sorted.size();
+			index.values = new double[Math.max(index.size, 16)];
+			index.presets = new ComponentPreset[index.values.length];
+			for( int i=0; i<index.size; i++ ) {
+				index.presets[i] = sorted.get(i);
+				index.values[i] = sorted.get(i).get(key);
+			}
+			return index;
+		}
+
+		void add(double value, ComponentPreset preset) {
+			if ( size == values.length ) {
+				values = Arrays.copyOf(values, size * 2);
+				presets = Arrays.copyOf(presets, size * 2);
+			}
+			int index = upperBound(value);
+			System.arraycopy(values, index, values, index + 1, size - index);
+			System.arraycopy(presets, index, presets, index + 1, size - index);
+			values[index] = value;
+			presets[index] = preset;
+			size++;
+		}
+
+		void find(ComponentPreset.Type type, double min, double max, List<ComponentPreset> result) {
+			for( int i = lowerBound(min); i < size && values[i] <= max; i++ ) {
+				if ( presets[i].getType() == type ) {
+					result.add(presets[i]);
+				}
+			}
+		}
+
+		/** Return the index of the first value greater than the given value. */
+		private int upperBound(double value) {
+			int low = 0;
+			int high = size;
+			while ( low < high ) {
+				int mid = (low + high) >>> 1;
+				if ( values[mid] <= value ) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		/** Return the index of the first value not less than the given value. */
+		private int lowerBound(double value) {
+			int low = 0;
+			int high = size;
+			while ( low < high ) {
+				int mid = (low + high) >>> 1;
+				if ( values[mid] < value ) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	/**
+	 * The manufacturer name and part number of a preset.
+	 */
+	private static final class PartKey {
+		private final String manufacturer;
+		private final String partNo;
+
+		PartKey(String manufacturer, String partNo) {
+			this.manufacturer = manufacturer;
+			this.partNo = partNo;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( !(o instanceof PartKey) ) {
+				return false;
+			}
+			PartKey other = (PartKey) o;
+			return Objects.equals(manufacturer, other.manufacturer) && Objects.equals(partNo, other.partNo);
+		}
+
+		@Override
+		public int hashCode() {
+			// The searched names may be null
+			return 31 * Objects.hashCode(manufacturer) + Objects.hashCode(partNo);
+		}
+	}
 }
@@ -1,106 +1,326 @@
 package net.sf.openrocket.database.motor;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.sf.openrocket.motor.Manufacturer;
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.motor.ThrustCurveMotor;
 
 /**
  * A database containing ThrustCurveMotorSet objects and allowing adding a motor
  * to the database.
- * 
+ * <p>
+ * The motors are indexed by digest, designation, manufacturer, diameter and length,
+ * so that lookups and insertions do not need to scan the whole database.  The indexes
+ * are only used to select candidates; the results are the same, and in the same order,
+ * as when scanning all motor sets.
+ *
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	private static final Logger log = LoggerFactory.getLogger(ThrustCurveMotorSetDatabase.class);
-	
+
+	/** Tolerance of diameter and length in searches. */
+	private static final double DIMENSION_TOLERANCE = 0.005;
+
 	private final List<ThrustCurveMotorSet> motorSets = new ArrayList<ThrustCurveMotorSet>();
-	
+
+	/** Position of each set in motorSets. */
+	private final Map<ThrustCurveMotorSet, Integer> setIndex = new IdentityHashMap<ThrustCurveMotorSet, Integer>();
+	/** The motors of each set, as they were indexed. */
+	private final Map<ThrustCurveMotorSet, List<ThrustCurveMotor>> setMotors = new IdentityHashMap<ThrustCurveMotorSet, List<ThrustCurveMotor>>();
+	/** The set containing each motor. */
+	private final Map<ThrustCurveMotor, ThrustCurveMotorSet> motorSet = new IdentityHashMap<ThrustCurveMotor, ThrustCurveMotorSet>();
+
+	/** Sets by manufacturer and simplified designation, in insertion order. */
+	private final Map<String, List<ThrustCurveMotorSet>> setsByKey = new HashMap<String, List<ThrustCurveMotorSet>>();
+
+	private final Map<String, List<ThrustCurveMotor>> byDigest = new HashMap<String, List<ThrustCurveMotor>>();
+	private final Map<String, List<ThrustCurveMotor>> byDesignation = new HashMap<String, List<ThrustCurveMotor>>();
+	private final Map<Manufacturer, List<ThrustCurveMotor>> byManufacturer = new IdentityHashMap<Manufacturer, List<ThrustCurveMotor>>();
+	private final TreeMap<Double, List<ThrustCurveMotor>> byDiameter = new TreeMap<Double, List<ThrustCurveMotor>>();
+	private final TreeMap<Double, List<ThrustCurveMotor>> byLength = new TreeMap<Double, List<ThrustCurveMotor>>();
+
 	@Override
 	public List<ThrustCurveMotor> findMotors(String digest, Motor.Type type, String manufacturer, String designation,
 			double diameter, double length) {
-		ArrayList<ThrustCurveMotor> fullMatches = new ArrayList<ThrustCurveMotor>();
-		ArrayList<ThrustCurveMotor> digestMatches = new ArrayList<ThrustCurveMotor>();
-		ArrayList<ThrustCurveMotor> descriptionMatches = new ArrayList<ThrustCurveMotor>();
 
 		// Apply filters to see if we can find any motors that match the given criteria.  We'll return
 		// the most restrictive nonempty list we find, or empty list if no matches at all
-		for (ThrustCurveMotorSet set : motorSets) {
-			for (ThrustCurveMotor m : set.getMotors()) {
-				boolean matchDescription = true;
-				boolean matchDigest = true;
-
-				// unlike the description, digest must be present in search criteria to get a match
-				if (digest == null || digest != m.getDigest())
-					matchDigest = false;
-
-				// match description
-				if (type != null && type != set.getType())
-					matchDescription = false;
-				else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
-					matchDescription = false;
-				else if (designation != null && !designation.equalsIgnoreCase(m.getDesignation()))
-					matchDescription = false;
-				else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > 0.005))
-					matchDescription = false;
-				else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > 0.005))
-					matchDescription = false;
-
-				if (matchDigest)
-					digestMatches.add(m);
-
-				if (matchDescription)
-					descriptionMatches.add(m);
-
-				if (matchDigest && matchDescription)
-					fullMatches.add(m);
+
+		// unlike the description, digest must be present in search criteria to get a match
+		List<ThrustCurveMotor> digestMatches = Collections.emptyList();
+		if (digest != null) {
+			digestMatches = get(byDigest, digest);
+		}
+
+		List<ThrustCurveMotor> fullMatches = new ArrayList<ThrustCurveMotor>();
+		for (ThrustCurveMotor m : digestMatches) {
+			if (matchesDescription(m, type, manufacturer, designation, diameter, length)) {
+				fullMatches.add(m);
 			}
 		}
-		
 		if (!fullMatches.isEmpty())
-			return fullMatches;
+			return inDatabaseOrder(fullMatches);
 
 		if (!digestMatches.isEmpty())
-			return digestMatches;
+			return inDatabaseOrder(digestMatches);
+
+		List<ThrustCurveMotor> descriptionMatches = new ArrayList<ThrustCurveMotor>();
+		for (ThrustCurveMotor m : descriptionCandidates(manufacturer, designation, diameter, length)) {
+			if (matchesDescription(m, type, manufacturer, designation, diameter, length)) {
+				descriptionMatches.add(m);
+			}
+		}
+		return inDatabaseOrder(descriptionMatches);
+	}
+
+
+	private boolean matchesDescription(ThrustCurveMotor m, Motor.Type type, String manufacturer, String designation,
+			double diameter, double length) {
+		if (type != null && type != motorSet.get(m).getType())
+			return false;
+		if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
+			return false;
+		if (designation != null && !designation.equalsIgnoreCase(m.getDesignation()))
+			return false;
+		if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > DIMENSION_TOLERANCE))
+			return false;
+		if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > DIMENSION_TOLERANCE))
+			return false;
+		return true;
+	}
 
-		return descriptionMatches;
 
+	/**
+	 * Return a superset of the motors matching the description, using the most
+	 * selective index available for the given criteria.
+	 */
+	private Collection<ThrustCurveMotor> descriptionCandidates(String manufacturer, String designation,
+			double diameter, double length) {
+		Collection<ThrustCurveMotor> candidates = motorSet.keySet();
+
+		if (designation != null) {
+			candidates = smaller(candidates, get(byDesignation, designationKey(designation)));
+		}
+		if (manufacturer != null) {
+			List<ThrustCurveMotor> list = new ArrayList<ThrustCurveMotor>();
+			for (Map.Entry<Manufacturer, List<ThrustCurveMotor>> entry : byManufacturer.entrySet()) {
+				if (entry.getKey().matches(manufacturer)) {
+					list.addAll(entry.getValue());
+				}
+			}
+			candidates = smaller(candidates, list);
+		}
+		if (!Double.isNaN(diameter)) {
+			candidates = smaller(candidates, range(byDiameter, diameter));
+		}
+		if (!Double.isNaN(length)) {
+			candidates = smaller(candidates, range(byLength, length));
+		}
+		return candidates;
+	}
+
+	private static Collection<ThrustCurveMotor> smaller(Collection<ThrustCurveMotor> a, Collection<ThrustCurveMotor> b) {
+		return (b.size() < a.size()) ? b : a;
+	}
+
+	private static List<ThrustCurveMotor> range(TreeMap<Double, List<ThrustCurveMotor>> index, double value) {
+		List<ThrustCurveMotor> list = new ArrayList<ThrustCurveMotor>();
+		for (List<ThrustCurveMotor> motors : index.subMap(value - DIMENSION_TOLERANCE, true, value + DIMENSION_TOLERANCE, true).values()) {
+			list.addAll(motors);
+		}
+		return list;
+	}
+
+
+	/**
+	 * Return the given motors in the order of the motor sets of the database, and the
+	 * order of the motors within each set.
+	 */
+	private List<ThrustCurveMotor> inDatabaseOrder(Collection<ThrustCurveMotor> motors) {
+		if (motors.size() <= 1) {
+			return new ArrayList<ThrustCurveMotor>(motors);
+		}
+
+		Set<ThrustCurveMotor> selected = Collections.newSetFromMap(new IdentityHashMap<ThrustCurveMotor, Boolean>());
+		Set<ThrustCurveMotorSet> sets = Collections.newSetFromMap(new IdentityHashMap<ThrustCurveMotorSet, Boolean>());
+		for (ThrustCurveMotor m : motors) {
+			selected.add(m);
+			sets.add(motorSet.get(m));
+		}
+
+		List<ThrustCurveMotorSet> orderedSets = new ArrayList<ThrustCurveMotorSet>(sets);
+		Collections.sort(orderedSets, new Comparator<ThrustCurveMotorSet>() {
+			@Override
+			public int compare(ThrustCurveMotorSet o1, ThrustCurveMotorSet o2) {
+				return setIndex.get(o1) - setIndex.get(o2);
+			}
+		});
+
+		List<ThrustCurveMotor> list = new ArrayList<ThrustCurveMotor>(selected.size());
+		for (ThrustCurveMotorSet set : orderedSets) {
+			for (ThrustCurveMotor m : setMotors.get(set)) {
+				if (selected.contains(m)) {
+					list.add(m);
+				}
+			}
+		}
+		return list;
 	}
-	
-	
+
+
 	/**
 	 * Return a list of all ThrustCurveMotorSets.
 	 */
 	public List<ThrustCurveMotorSet> getMotorSets() {
 		return Collections.unmodifiableList(motorSets);
 	}
-	
-	
+
+
 	/**
-	 * Add a motor to the database.  If a matching ThrustCurveMototSet is found, 
+	 * Add a motor to the database.  If a matching ThrustCurveMototSet is found,
 	 * the motor is added to that set, otherwise a new set is created and added to the
 	 * database.
-	 * 
+	 *
 	 * @param motor		the motor to add
 	 */
 	public void addMotor(ThrustCurveMotor motor) {
+		// Only sets with the same manufacturer and simplified designation can match.
 		// Iterate from last to first, as this is most likely to hit early when loading files
-		for (int i = motorSets.size() - 1; i >= 0; i--) {
-			ThrustCurveMotorSet set = motorSets.get(i);
-			if (set.matches(motor)) {
-				set.addMotor(motor);
-				return;
+		String key = setKey(motor.getManufacturer(), motor.getDesignation());
+		List<ThrustCurveMotorSet> candidates = setsByKey.get(key);
+		if (candidates != null) {
+			for (int i = candidates.size() - 1; i >= 0; i--) {
+				ThrustCurveMotorSet set = candidates.get(i);
+				if (set.matches(motor)) {
+					set.addMotor(motor);
+					reindex(set, motor);
+					return;
+				}
 			}
+		} else {
+			candidates = new ArrayList<ThrustCurveMotorSet>();
+			setsByKey.put(key, candidates);
 		}
-		
+
 		ThrustCurveMotorSet newSet = new ThrustCurveMotorSet();
 		newSet.addMotor(motor);
+		setIndex.put(newSet, motorSets.size());
 		motorSets.add(newSet);
+		candidates.add(newSet);
+		reindex(newSet, motor);
+	}
+
+
+	/**
+	 * Update the motor indexes after a motor has been added to a set.  Adding a motor to
+	 * a set may sort its motors, or replace or discard a motor with the same digest, so
+	 * only the added motor and a replaced motor need to be updated.
+	 */
+	private void reindex(ThrustCurveMotorSet set, ThrustCurveMotor added) {
+		List<ThrustCurveMotor> old = setMotors.get(set);
+		List<ThrustCurveMotor> motors = set.getMotors();
+		setMotors.put(set, motors);
+
+		if (old != null) {
+			for (ThrustCurveMotor m : old) {
+				if (!containsMotor(motors, m)) {
+					unindex(m);
+				}
+			}
+		}
+		if (containsMotor(motors, added) && !motorSet.containsKey(added)) {
+			index(added, set);
+		}
+	}
+
+	private void index(ThrustCurveMotor m, ThrustCurveMotorSet set) {
+		motorSet.put(m, set);
+		add(byDigest, m.getDigest(), m);
+		add(byDesignation, designationKey(m.getDesignation()), m);
+		add(byManufacturer, m.getManufacturer(), m);
+		add(byDiameter, m.getDiameter(), m);
+		add(byLength, m.getLength(), m);
 	}
-	
+
+	private void unindex(ThrustCurveMotor m) {
+		motorSet.remove(m);
+		remove(byDigest, m.getDigest(), m);
+		remove(byDesignation, designationKey(m.getDesignation()), m);
+		remove(byManufacturer, m.getManufacturer(), m);
+		remove(byDiameter, m.getDiameter(), m);
+		remove(byLength, m.getLength(), m);
+	}
+
+
+	private static boolean containsMotor(List<ThrustCurveMotor> motors, ThrustCurveMotor m) {
+		for (ThrustCurveMotor motor : motors) {
+			if (motor == m) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String designationKey(String designation) {
+		return designation.toUpperCase(Locale.ENGLISH);
+	}
+
+	private static String setKey(Manufacturer manufacturer, String designation) {
+		return manufacturer.getSimpleName() + "\n" + designationKey(ThrustCurveMotorSet.simplifyDesignation(designation));
+	}
+
+	private static <K> List<ThrustCurveMotor> get(Map<K, List<ThrustCurveMotor>> index, K key) {
+		List<ThrustCurveMotor> list = index.get(key);
+		if (list == null) {
+			return Collections.emptyList();
+		}
+		return list;
+	}
+
+	private static <K> void add(Map<K, List<ThrustCurveMotor>> index, K key, ThrustCurveMotor m) {
+		if (key == null) {
+			return;
+		}
+		List<ThrustCurveMotor> list = index.get(key);
+		if (list == null) {
+			list = new ArrayList<ThrustCurveMotor>(1);
+			index.put(key, list);
+		}
+		list.add(m);
+	}
+
+	private static <K> void remove(Map<K, List<ThrustCurveMotor>> index, K key, ThrustCurveMotor m) {
+		if (key == null) {
+			return;
+		}
+		List<ThrustCurveMotor> list = index.get(key);
+		if (list == null) {
+			return;
+		}
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i) == m) {
+				list.remove(i);
+				break;
+			}
+		}
+		if (list.isEmpty()) {
+			index.remove(key);
+		}
+	}
+
 }
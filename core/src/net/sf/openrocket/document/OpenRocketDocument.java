@@ -3,6 +3,7 @@ package net.sf.openrocket.document;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -25,6 +26,7 @@ import net.sf.openrocket.rocketcomponent.FlightConfiguration;
 import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.rocketcomponent.RocketSnapshot;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.customexpression.CustomExpression;
 import net.sf.openrocket.simulation.extension.SimulationExtension;
@@ -55,6 +57,10 @@ public class OpenRocketDocument implements ComponentChangeListener {
 	 * UNDO_LEVELS by this amount the undo is purged to that length.
 	 */
 	public static final int UNDO_MARGIN = 10;
+	/**
+	 * The default maximum number of component copies kept in the undo history.
+	 */
+	public static final int DEFAULT_UNDO_BUDGET = 10000;
 	
 	public static final String SIMULATION_NAME_PREFIX = "Simulation ";
 	
@@ -72,11 +78,24 @@ public class OpenRocketDocument implements ComponentChangeListener {
 	
 	/** 
 	 * The undo history of the rocket.   Whenever a new undo position is created while the
-	 * rocket is in "dirty" state, the rocket is copied here.
+	 * rocket is in "dirty" state, a snapshot of the rocket is stored here.  Components that
+	 * have not changed are shared with the previous snapshot.
 	 */
-	private LinkedList<Rocket> undoHistory = new LinkedList<Rocket>();
+	private LinkedList<RocketSnapshot> undoHistory = new LinkedList<RocketSnapshot>();
 	private LinkedList<String> undoDescription = new LinkedList<String>();
 	
+	/**
+	 * The snapshot the rocket was last known to be equal to, and the IDs of the components
+	 * changed since then.  A <code>null</code> set means that all components may have changed.
+	 */
+	private RocketSnapshot baseSnapshot = null;
+	private Set<String> changedComponents = null;
+	
+	/**
+	 * The maximum number of component copies kept in the undo history.
+	 */
+	private int undoBudget = DEFAULT_UNDO_BUDGET;
+	
 	/**
 	 * The position in the undoHistory we are currently at.  If modifications have been
 	 * made to the rocket, the rocket is in "dirty" state and this points to the previous
@@ -476,6 +495,85 @@ public class OpenRocketDocument implements ComponentChangeListener {
 				undoPosition--;
 			}
 		}
+		while (undoPosition > 0 && getRetainedUndoCopies() > undoBudget) {
+			undoHistory.removeFirst();
+			undoDescription.removeFirst();
+			undoPosition--;
+		}
+	}
+	
+	/**
+	 * Return the number of component copies retained by the undo history.  The oldest
+	 * snapshot holds a copy of every component, later ones only of the changed components.
+	 */
+	private int getRetainedUndoCopies() {
+		Iterator<RocketSnapshot> iterator = undoHistory.iterator();
+		int count = iterator.next().getComponentCount();
+		while (iterator.hasNext()) {
+			count += iterator.next().getCopyCount();
+		}
+		return count;
+	}
+	
+	/**
+	 * Return the maximum number of component copies kept in the undo history.
+	 */
+	public int getUndoBudget() {
+		return undoBudget;
+	}
+	
+	/**
+	 * Set the maximum number of component copies kept in the undo history.  When the budget
+	 * is exceeded the oldest undo positions are discarded.  The current undo position is
+	 * always kept.
+	 * 
+	 * @param undoBudget	the maximum number of component copies, must be positive.
+	 */
+	public void setUndoBudget(int undoBudget) {
+		if (undoBudget <= 0) {
+			throw new IllegalArgumentException("Undo budget must be positive, budget=" + undoBudget);
+		}
+		this.undoBudget = undoBudget;
+		maintainMaximumUndoSize();
+		fireUndoRedoChangeEvent();
+	}
+	
+	/**
+	 * Take a snapshot of the current state of the rocket, sharing the unchanged components
+	 * with the snapshot the rocket was last known to be equal to.
+	 */
+	private RocketSnapshot takeSnapshot() {
+		RocketSnapshot snapshot = RocketSnapshot.create(rocket, baseSnapshot, changedComponents);
+		setBaseSnapshot(snapshot);
+		return snapshot;
+	}
+	
+	/**
+	 * Mark the rocket equal to the given snapshot.
+	 */
+	private void setBaseSnapshot(RocketSnapshot snapshot) {
+		baseSnapshot = snapshot;
+		changedComponents = new HashSet<String>();
+	}
+	
+	/**
+	 * Record the components modified by a change event.  Changes of the whole rocket or of the
+	 * tree structure may affect any component, so they mark all components as changed.
+	 */
+	private void markChanged(ComponentChangeEvent e) {
+		if (changedComponents == null) {
+			return;
+		}
+		RocketComponent source = e.getSource();
+		if (source == null || source instanceof Rocket || e.isTreeChange()) {
+			changedComponents = null;
+			return;
+		}
+		// Changes of a component may be reflected in its subcomponents
+		Iterator<RocketComponent> iterator = source.iterator(true);
+		while (iterator.hasNext()) {
+			changedComponents.add(iterator.next().getID());
+		}
 	}
 
 	/**
@@ -483,7 +581,7 @@ public class OpenRocketDocument implements ComponentChangeListener {
 	 */
 	private void addStateToUndoHistory(String description) {
 		// Add the current state to the undo history
-		undoHistory.add(rocket.copyWithOriginalID());
+		undoHistory.add(takeSnapshot());
 		undoDescription.add(null);
 		nextDescription = description;
 		undoPosition++;
@@ -572,7 +670,8 @@ public class OpenRocketDocument implements ComponentChangeListener {
 		undoHistory.clear();
 		undoDescription.clear();
 		
-		undoHistory.add(rocket.copyWithOriginalID());
+		baseSnapshot = null;
+		undoHistory.add(takeSnapshot());
 		undoDescription.add(null);
 		undoPosition = 0;
 		
@@ -584,6 +683,7 @@ public class OpenRocketDocument implements ComponentChangeListener {
 	public void componentChanged(ComponentChangeEvent e) {
 		
 		if (!e.isUndoChange()) {
+			markChanged(e);
 			if (undoPosition < undoHistory.size() - 1) {
 				log.info("Rocket changed while in undo history, removing redo information for " + this +
 						" undoPosition=" + undoPosition + " undoHistory.size=" + undoHistory.size() +
@@ -686,14 +786,12 @@ public class OpenRocketDocument implements ComponentChangeListener {
 				logUndoError("undo position inconsistency");
 			}
 			// Modifications have been made, save the state and restore previous state
-			undoHistory.add(rocket.copyWithOriginalID());
+			undoHistory.add(takeSnapshot());
 			undoDescription.add(null);
 		}
 		
 		rocket.checkComponentStructure();
-		undoHistory.get(undoPosition).checkComponentStructure();
-		undoHistory.get(undoPosition).copyWithOriginalID().checkComponentStructure();
-		rocket.loadFrom(undoHistory.get(undoPosition).copyWithOriginalID());
+		loadSnapshot(undoHistory.get(undoPosition));
 		rocket.checkComponentStructure();
 	}
 	
@@ -715,7 +813,13 @@ public class OpenRocketDocument implements ComponentChangeListener {
 		
 		undoPosition++;
 		
-		rocket.loadFrom(undoHistory.get(undoPosition).copyWithOriginalID());
+		loadSnapshot(undoHistory.get(undoPosition));
+	}
+	
+	
+	private void loadSnapshot(RocketSnapshot snapshot) {
+		rocket.loadFrom(snapshot.restore());
+		setBaseSnapshot(snapshot);
 	}
 	
 	
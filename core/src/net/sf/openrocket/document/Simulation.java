@@ -16,8 +16,10 @@ import net.sf.openrocket.rocketcomponent.FlightConfiguration;
 import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.simulation.BasicEventSimulationEngine;
+import net.sf.openrocket.simulation.CancellationToken;
 import net.sf.openrocket.simulation.DefaultSimulationOptionFactory;
 import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightEvent;
 import net.sf.openrocket.simulation.RK4SimulationStepper;
 import net.sf.openrocket.simulation.SimulationConditions;
 import net.sf.openrocket.simulation.SimulationEngine;
@@ -44,6 +46,11 @@ import net.sf.openrocket.util.StateChangeListener;
 public class Simulation implements ChangeSource, Cloneable {
 	private static final Logger log = LoggerFactory.getLogger(Simulation.class);
 	
+	/** The minimum time step of preview simulations. */
+	public static final double PREVIEW_TIME_STEP = 0.2;
+	/** The minimum maximum step angle of preview simulations. */
+	public static final double PREVIEW_ANGLE_STEP = 10 * Math.PI / 180;
+	
 	public static enum Status {
 		/** Up-to-date */
 		UPTODATE,
@@ -340,6 +347,35 @@ public class Simulation implements ChangeSource, Cloneable {
 	 */
 	public void simulate(SimulationListener... additionalListeners)
 			throws SimulationException {
+		simulate(new CancellationToken(), additionalListeners);
+	}
+	
+	/**
+	 * Simulate the flight, stopping with a {@link net.sf.openrocket.simulation.exception.SimulationCancelledException}
+	 * within one step when the token is cancelled.
+	 *
+	 * @param cancellationToken		the token used to cancel the simulation
+	 * @param additionalListeners	additional simulation listeners (those defined by the simulation are used in any case)
+	 * @throws SimulationException	if a problem occurs during simulation
+	 */
+	public void simulate(CancellationToken cancellationToken, SimulationListener... additionalListeners)
+			throws SimulationException {
+		simulate(cancellationToken, null, additionalListeners);
+	}
+	
+	/**
+	 * Simulate the flight up to the given event.  Only the main branch of the flight is
+	 * simulated, and it ends when the event occurs.  This is meant for evaluating values
+	 * which are final at that point, such as the apogee altitude.
+	 *
+	 * @param cancellationToken		the token used to cancel the simulation
+	 * @param endEvent				the event at which the simulation ends, or <code>null</code> to
+	 * 								simulate the whole flight
+	 * @param additionalListeners	additional simulation listeners (those defined by the simulation are used in any case)
+	 * @throws SimulationException	if a problem occurs during simulation
+	 */
+	public void simulate(CancellationToken cancellationToken, FlightEvent.Type endEvent,
+			SimulationListener... additionalListeners) throws SimulationException {
 		mutex.lock("simulate");
 		try {
 			
@@ -347,30 +383,13 @@ public class Simulation implements ChangeSource, Cloneable {
 				throw new SimulationException("Cannot simulate imported simulation.");
 			}
 			
-			SimulationEngine simulator;
-			
-			try {
-				simulator = simulationEngineClass.newInstance();
-			} catch (InstantiationException e) {
-				throw new IllegalStateException("Cannot instantiate simulator.", e);
-			} catch (IllegalAccessException e) {
-				throw new IllegalStateException("Cannot access simulator instance?! BUG!", e);
-			}
-			
 			SimulationConditions simulationConditions = options.toSimulationConditions();
-			simulationConditions.setSimulation(this);
-			for (SimulationListener l : additionalListeners) {
-				simulationConditions.getSimulationListenerList().add(l);
-			}
-			
-			for (SimulationExtension extension : simulationExtensions) {
-				extension.initialize(simulationConditions);
-			}
+			simulationConditions.setEndEvent(endEvent);
 			
 			long t1, t2;
 			log.debug("Simulation: calling simulator");
 			t1 = System.currentTimeMillis();
-			simulatedData = simulator.simulate(simulationConditions);
+			simulatedData = runSimulator(simulationConditions, cancellationToken, additionalListeners);
 			t2 = System.currentTimeMillis();
 			log.debug("Simulation: returning from simulator, simulation took " + (t2 - t1) + "ms");
 			
@@ -386,6 +405,63 @@ public class Simulation implements ChangeSource, Cloneable {
 		}
 	}
 	
+	/**
+	 * Simulate the flight quickly with a coarse time step, for example to show the
+	 * approximate results of a design while it is being edited.  The time step and
+	 * maximum step angle are at least {@link #PREVIEW_TIME_STEP} and {@link #PREVIEW_ANGLE_STEP}.
+	 * The results are not stored in this simulation, and are marked as approximate.
+	 *
+	 * @param cancellationToken		the token used to cancel the simulation
+	 * @param additionalListeners	additional simulation listeners (those defined by the simulation are used in any case)
+	 * @return						the approximate flight data
+	 * @throws SimulationException	if a problem occurs during simulation
+	 */
+	public FlightData simulatePreview(CancellationToken cancellationToken, SimulationListener... additionalListeners)
+			throws SimulationException {
+		mutex.lock("simulatePreview");
+		try {
+			
+			if (this.status == Status.EXTERNAL) {
+				throw new SimulationException("Cannot simulate imported simulation.");
+			}
+			
+			SimulationConditions simulationConditions = options.toSimulationConditions();
+			simulationConditions.setTimeStep(Math.max(simulationConditions.getTimeStep(), PREVIEW_TIME_STEP));
+			simulationConditions.setMaximumAngleStep(Math.max(simulationConditions.getMaximumAngleStep(), PREVIEW_ANGLE_STEP));
+			
+			FlightData data = runSimulator(simulationConditions, cancellationToken, additionalListeners);
+			data.setApproximate(true);
+			return data;
+		} finally {
+			mutex.unlock("simulatePreview");
+		}
+	}
+	
+	private FlightData runSimulator(SimulationConditions simulationConditions, CancellationToken cancellationToken,
+			SimulationListener... additionalListeners) throws SimulationException {
+		SimulationEngine simulator;
+		
+		try {
+			simulator = simulationEngineClass.newInstance();
+		} catch (InstantiationException e) {
+			throw new IllegalStateException("Cannot instantiate simulator.", e);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Cannot access simulator instance?! BUG!", e);
+		}
+		
+		simulationConditions.setSimulation(this);
+		simulationConditions.setCancellationToken(cancellationToken);
+		for (SimulationListener l : additionalListeners) {
+			simulationConditions.getSimulationListenerList().add(l);
+		}
+		
+		for (SimulationExtension extension : simulationExtensions) {
+			extension.initialize(simulationConditions);
+		}
+		
+		return simulator.simulate(simulationConditions);
+	}
+	
 	
 	/**
 	 * Return the conditions used in the previous simulation, or <code>null</code>
@@ -18,6 +18,8 @@ public class StorageOptions implements Cloneable {
 
 	private boolean explicitlySet = false;
 	
+	private boolean parallelCompression = true;
+	
 	public FileType getFileType() {
 		return fileType;
 	}
@@ -42,6 +44,18 @@ public class StorageOptions implements Cloneable {
 		this.explicitlySet = explicitlySet;
 	}
 
+	/**
+	 * Return whether the document is compressed in a background thread while it is
+	 * being written.
+	 */
+	public boolean isParallelCompression() {
+		return parallelCompression;
+	}
+	
+	public void setParallelCompression(boolean parallelCompression) {
+		this.parallelCompression = parallelCompression;
+	}
+	
 	@Override
 	public StorageOptions clone() {
 		try {
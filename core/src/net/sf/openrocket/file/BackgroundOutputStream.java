@@ -0,0 +1,238 @@
+package net.sf.openrocket.file;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * An output stream that writes to another stream in a background thread.  The data is
+ * collected into blocks which are handed to the writer thread through a bounded queue,
+ * so that producing the data and writing it to the underlying stream (for example
+ * compressing it) run in parallel.
+ * <p>
+ * Errors of the underlying stream are reported by the next call to write, flush,
+ * finish or close.  The stream is not thread-safe; it must be written by a single thread.
+ */
+final class BackgroundOutputStream extends OutputStream {
+
+	private static final int BLOCK_SIZE = 64 * 1024;
+	private static final int QUEUE_SIZE = 8;
+
+	/** Markers passed through the queue, compared by identity. */
+	private static final Block FLUSH = new Block(new byte[0]);
+	private static final Block END = new Block(new byte[0]);
+
+	private final OutputStream out;
+	private final BlockingQueue<Block> queue = new ArrayBlockingQueue<Block>(QUEUE_SIZE);
+	private final BlockingQueue<byte[]> free = new ArrayBlockingQueue<byte[]>(QUEUE_SIZE + 1);
+	private final Semaphore flushed = new Semaphore(0);
+	private final Thread writer;
+
+	private volatile IOException error = null;
+
+	private byte[] buffer = new byte[BLOCK_SIZE];
+	private int count = 0;
+	private boolean finished = false;
+
+
+	/**
+	 * Create a stream writing to the given stream, and start its writer thread.
+	 *
+	 * @param out	the underlying stream, only written by the writer thread until
+	 * 				{@link #finish()} returns.
+	 */
+	public BackgroundOutputStream(OutputStream out) {
+		this.out = out;
+		this.writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeBlocks();
+			}
+		}, "BackgroundOutputStream writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+
+	@Override
+	public void write(int b) throws IOException {
+		if (count == buffer.length) {
+			submitBuffer();
+		}
+		buffer[count++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (count == buffer.length) {
+				submitBuffer();
+			}
+			int n = Math.min(len, buffer.length - count);
+			System.arraycopy(b, off, buffer, count, n);
+			count += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	/**
+	 * Write all data written so far to the underlying stream and flush it.
+	 */
+	@Override
+	public void flush() throws IOException {
+		checkNotFinished();
+		if (count > 0) {
+			submitBuffer();
+		}
+		put(FLUSH);
+		try {
+			flushed.acquire();
+		} catch (InterruptedException e) {
+			throw interrupted(e);
+		}
+		checkError();
+	}
+
+	/**
+	 * Write all remaining data to the underlying stream and stop the writer thread.
+	 * The underlying stream is neither flushed nor closed.  Calling this method more than
+	 * once has no effect.
+	 */
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		try {
+			if (count > 0) {
+				submitBuffer();
+			}
+		} finally {
+			// Always stop the writer thread
+			finished = true;
+			put(END);
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				throw interrupted(e);
+			}
+		}
+		checkError();
+	}
+
+	/**
+	 * Finish writing and close the underlying stream.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		} finally {
+			out.close();
+		}
+	}
+
+
+	private void submitBuffer() throws IOException {
+		checkNotFinished();
+		checkError();
+		put(new Block(buffer, count));
+		buffer = free.poll();
+		if (buffer == null) {
+			buffer = new byte[BLOCK_SIZE];
+		}
+		count = 0;
+	}
+
+	private void put(Block block) throws IOException {
+		try {
+			queue.put(block);
+		} catch (InterruptedException e) {
+			throw interrupted(e);
+		}
+	}
+
+	private void checkNotFinished() throws IOException {
+		if (finished) {
+			throw new IOException("Stream already finished");
+		}
+	}
+
+	private void checkError() throws IOException {
+		IOException e = error;
+		if (e != null) {
+			throw new IOException("Error writing in background: " + e.getMessage(), e);
+		}
+	}
+
+	private static InterruptedIOException interrupted(InterruptedException e) {
+		Thread.currentThread().interrupt();
+		InterruptedIOException ex = new InterruptedIOException("Interrupted while writing");
+		ex.initCause(e);
+		return ex;
+	}
+
+
+	/**
+	 * Writer thread main loop.  After an error the remaining blocks are discarded so that
+	 * the producing thread never blocks.
+	 */
+	private void writeBlocks() {
+		while (true) {
+			Block block;
+			try {
+				block = queue.take();
+			} catch (InterruptedException e) {
+				// Only the stream itself uses the writer thread
+				continue;
+			}
+
+			if (block == END) {
+				return;
+			}
+
+			if (block == FLUSH) {
+				if (error == null) {
+					try {
+						out.flush();
+					} catch (IOException e) {
+						error = e;
+					} catch (RuntimeException e) {
+						error = new IOException(e);
+					}
+				}
+				flushed.release();
+				continue;
+			}
+
+			if (error == null) {
+				try {
+					out.write(block.data, 0, block.length);
+				} catch (IOException e) {
+					error = e;
+				} catch (RuntimeException e) {
+					error = new IOException(e);
+				}
+			}
+			free.offer(block.data);
+		}
+	}
+
+
+	private static final class Block {
+		private final byte[] data;
+		private final int length;
+
+		Block(byte[] data) {
+			this(data, data.length);
+		}
+
+		Block(byte[] data, int length) {
+			this.data = data;
+			this.length = length;
+		}
+	}
+}
@@ -12,6 +12,7 @@ import net.sf.openrocket.aerodynamics.WarningSet;
 import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.simulation.FlightData;
 import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataColumn;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.FlightEvent;
 import net.sf.openrocket.unit.Unit;
@@ -98,13 +99,13 @@ public class CSVExport {
 		int eventPosition = 0;
 		
 		// List of field values
-		List<List<Double>> fieldValues = new ArrayList<List<Double>>();
-		for (FlightDataType t : fields) {
-			fieldValues.add(branch.get(t));
+		FlightDataColumn[] fieldValues = new FlightDataColumn[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			fieldValues[i] = branch.getColumn(fields[i]);
 		}
 		
 		// Time variable
-		List<Double> time = branch.get(FlightDataType.TYPE_TIME);
+		FlightDataColumn time = branch.getColumn(FlightDataType.TYPE_TIME);
 		if (eventComments && time == null) {
 			// If time information is not available, print events at beginning of file
 			for (FlightEvent e : events) {
@@ -130,7 +131,7 @@ public class CSVExport {
 			
 			// Store CSV line
 			for (int i = 0; i < fields.length; i++) {
-				double value = fieldValues.get(i).get(pos);
+				double value = fieldValues[i].get(pos);
 				writer.print(TextUtil.doubleToString(units[i].toUnit(value)));
 				if (i < fields.length - 1) {
 					writer.print(fieldSeparator);
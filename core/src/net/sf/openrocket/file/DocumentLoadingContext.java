@@ -8,6 +8,8 @@ public class DocumentLoadingContext {
 	private MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory = new FileSystemAttachmentFactory();
 	private OpenRocketDocument document;
+	private boolean lazyFlightData = false;
+	private double minimumTimeStep = Double.POSITIVE_INFINITY;
 	
 	public int getFileVersion() {
 		return fileVersion;
@@ -41,4 +43,31 @@ public class DocumentLoadingContext {
 		this.attachmentFactory = attachmentFactory;
 	}
 	
+	/**
+	 * Return whether the data points of stored simulations are read only when first
+	 * needed, such as when plotting or exporting them.  The summary values of the
+	 * simulations are available immediately.
+	 */
+	public boolean isLazyFlightData() {
+		return lazyFlightData;
+	}
+	
+	public void setLazyFlightData(boolean lazyFlightData) {
+		this.lazyFlightData = lazyFlightData;
+	}
+	
+	/**
+	 * Return the smallest time step between the stored data points of the loaded
+	 * simulations, or positive infinity if no data points have been loaded.
+	 */
+	public double getMinimumTimeStep() {
+		return minimumTimeStep;
+	}
+	
+	public void updateMinimumTimeStep(double timeStep) {
+		if (timeStep < minimumTimeStep) {
+			minimumTimeStep = timeStep;
+		}
+	}
+	
 }
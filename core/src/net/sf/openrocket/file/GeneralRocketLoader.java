@@ -46,6 +46,7 @@ public class GeneralRocketLoader {
 	private File baseFile;
 	private URL jarURL;
 	private boolean isContainer;
+	private boolean lazyFlightData = false;
 	
 	private final MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory;
@@ -103,6 +104,17 @@ public class GeneralRocketLoader {
 		return warnings;
 	}
 	
+	/**
+	 * Set whether the data points of stored simulations are read only when first needed.
+	 * This speeds up loading documents with large simulations, but data point format
+	 * errors are then logged instead of reported as warnings.
+	 * 
+	 * @see DocumentLoadingContext#setLazyFlightData(boolean)
+	 */
+	public void setLazyFlightData(boolean lazyFlightData) {
+		this.lazyFlightData = lazyFlightData;
+	}
+	
 	/**
 	 * This method determines the type file contained in the stream then calls the appropriate loading mecahnism.
 	 * 
@@ -237,6 +249,7 @@ public class GeneralRocketLoader {
 		context.setOpenRocketDocument(doc);
 		context.setMotorFinder(motorFinder);
 		context.setAttachmentFactory(attachmentFactory);
+		context.setLazyFlightData(lazyFlightData);
 		loader.load(context, source);
 		warnings.addAll(loader.getWarnings());
 	}
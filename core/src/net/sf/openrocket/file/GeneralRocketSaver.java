@@ -186,7 +186,24 @@ public class GeneralRocketSaver {
 			
 			ZipEntry mainFile = new ZipEntry("rocket.ork");
 			zos.putNextEntry(mainFile);
-			saveInternal(zos, document, options);
+			if (options.isParallelCompression()) {
+				// Compress in a background thread while the document is being written
+				BackgroundOutputStream background = new BackgroundOutputStream(zos);
+				try {
+					saveInternal(background, document, options);
+				} catch (Throwable e) {
+					// Stop the writer thread without hiding the original error
+					try {
+						background.finish();
+					} catch (IOException suppressed) {
+						e.addSuppressed(suppressed);
+					}
+					throw e;
+				}
+				background.finish();
+			} else {
+				saveInternal(zos, document, options);
+			}
 			zos.closeEntry();
 			
 			// Now we write out all the decal images files.
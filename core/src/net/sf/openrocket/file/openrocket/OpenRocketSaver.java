@@ -5,7 +5,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -22,6 +21,7 @@ import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.simulation.FlightData;
 import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataColumn;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.FlightEvent;
 import net.sf.openrocket.simulation.SimulationOptions;
@@ -29,6 +29,7 @@ import net.sf.openrocket.simulation.customexpression.CustomExpression;
 import net.sf.openrocket.simulation.extension.SimulationExtension;
 import net.sf.openrocket.util.BugException;
 import net.sf.openrocket.util.BuildProperties;
+import net.sf.openrocket.util.ComponentHandlerRegistry;
 import net.sf.openrocket.util.Config;
 import net.sf.openrocket.util.Reflection;
 import net.sf.openrocket.util.TextUtil;
@@ -48,6 +49,8 @@ public class OpenRocketSaver extends RocketSaver {
 	
 	private static final String METHOD_PACKAGE = "net.sf.openrocket.file.openrocket.savers";
 	private static final String METHOD_SUFFIX = "Saver";
+	private static final ComponentHandlerRegistry<Reflection.Method> GET_ELEMENTS_METHODS =
+			ComponentHandlerRegistry.forMethod(METHOD_PACKAGE, METHOD_SUFFIX, "getElements", RocketComponent.class);
 	
 	
 	// Estimated storage used by different portions
@@ -60,6 +63,10 @@ public class OpenRocketSaver extends RocketSaver {
 	private int indent;
 	private Writer dest;
 	
+	/** Line buffer and character buffer reused for writing each line. */
+	private final StringBuilder line = new StringBuilder(256);
+	private char[] lineChars = new char[256];
+	
 	@Override
 	public void save(OutputStream output, OpenRocketDocument document, StorageOptions options) throws IOException {
 		
@@ -235,36 +242,13 @@ public class OpenRocketSaver extends RocketSaver {
 	/**
 	 * Finds a getElements method somewhere in the *saver class hiearchy corresponding to the given component. 
 	 */
-	private static Reflection.Method findGetElementsMethod(RocketComponent component) {
-		String currentclassname;
-		Class<?> currentclass;
-		String saverclassname;
-		Class<?> saverClass;
-		
-		Reflection.Method mtr = null; // method-to-return
-		
-		currentclass = component.getClass();
-		while ((currentclass != null) && (currentclass != Object.class)) {
-			currentclassname = currentclass.getSimpleName();
-			saverclassname = METHOD_PACKAGE + "." + currentclassname + METHOD_SUFFIX;
-			
-			try {
-				saverClass = Class.forName(saverclassname);
-				
-				// if class exists
-				java.lang.reflect.Method m = saverClass.getMethod("getElements", RocketComponent.class);
-				mtr = new Reflection.Method(m);
-				
-				return mtr;
-			} catch (Exception ignore) {
-			}
-			
-			currentclass = currentclass.getSuperclass();
+	static Reflection.Method findGetElementsMethod(RocketComponent component) {
+		Reflection.Method m = GET_ELEMENTS_METHODS.get(component);
+		if (m == null) {
+			throw new BugException("Unable to find saving class for component " +
+					METHOD_PACKAGE + "." + component.getClass().getSimpleName() + " ... " + METHOD_SUFFIX);
 		}
-		
-		// if( null == mtr ){
-		throw new BugException("Unable to find saving class for component " +
-				METHOD_PACKAGE + "." + component.getClass().getSimpleName() + " ... " + METHOD_SUFFIX);
+		return m;
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -469,12 +453,12 @@ public class OpenRocketSaver extends RocketSaver {
 		if (types.length == 0)
 			return;
 		
-		// Retrieve the data from the branch
-		List<List<Double>> data = new ArrayList<List<Double>>(types.length);
+		// Retrieve the data columns from the branch, the values are written directly from them
+		FlightDataColumn[] data = new FlightDataColumn[types.length];
 		for (int i = 0; i < types.length; i++) {
-			data.add(branch.get(types[i]));
+			data[i] = branch.getColumn(types[i]);
 		}
-		List<Double> timeData = branch.get(FlightDataType.TYPE_TIME);
+		FlightDataColumn timeData = branch.getColumn(FlightDataType.TYPE_TIME);
 		
 		// Build the <databranch> tag
 		StringBuilder sb = new StringBuilder();
@@ -523,24 +507,25 @@ public class OpenRocketSaver extends RocketSaver {
 		// Write the data
 		int length = branch.getLength();
 		if (length > 0) {
-			writeDataPointString(data, 0, sb);
-			previousTime = timeData.get(0);
+			writeDataPoint(data, 0);
+			if (timeData != null)
+				previousTime = timeData.get(0);
 		}
 		
 		for (int i = 1; i < length - 1; i++) {
 			if (timeData != null) {
 				if (Math.abs(timeData.get(i) - previousTime - timeSkip) < Math.abs(timeData.get(i + 1) - previousTime - timeSkip)) {
-					writeDataPointString(data, i, sb);
+					writeDataPoint(data, i);
 					previousTime = timeData.get(i);
 				}
 			} else {
 				// If time data is not available, write all points
-				writeDataPointString(data, i, sb);
+				writeDataPoint(data, i);
 			}
 		}
 		
 		if (length > 1) {
-			writeDataPointString(data, length - 1, sb);
+			writeDataPoint(data, length - 1);
 		}
 		
 		indent--;
@@ -562,7 +547,7 @@ public class OpenRocketSaver extends RocketSaver {
 		if (types.length == 0)
 			return 0;
 		
-		List<Double> timeData = branch.get(FlightDataType.TYPE_TIME);
+		FlightDataColumn timeData = branch.getColumn(FlightDataType.TYPE_TIME);
 		if (timeData == null) {
 			// If time data not available, store all points
 			return branch.getLength();
@@ -591,17 +576,16 @@ public class OpenRocketSaver extends RocketSaver {
 	
 	
 	
-	private void writeDataPointString(List<List<Double>> data, int index, StringBuilder sb)
-			throws IOException {
-		sb.setLength(0);
-		sb.append("<datapoint>");
-		for (int j = 0; j < data.size(); j++) {
+	private void writeDataPoint(FlightDataColumn[] data, int index) throws IOException {
+		startLine();
+		line.append("<datapoint>");
+		for (int j = 0; j < data.length; j++) {
 			if (j > 0)
-				sb.append(",");
-			sb.append(TextUtil.doubleToString(data.get(j).get(index)));
+				line.append(',');
+			TextUtil.appendDouble(line, data[j].get(index));
 		}
-		sb.append("</datapoint>");
-		writeln(sb.toString());
+		line.append("</datapoint>");
+		endLine();
 	}
 	
 	
@@ -619,11 +603,31 @@ public class OpenRocketSaver extends RocketSaver {
 			dest.write("\n");
 			return;
 		}
-		String s = "";
+		startLine();
+		line.append(str);
+		endLine();
+	}
+	
+	/**
+	 * Clear the line buffer and append the current indentation to it.
+	 */
+	private void startLine() {
+		line.setLength(0);
 		for (int i = 0; i < indent; i++)
-			s = s + "  ";
-		s = s + str + "\n";
-		dest.write(s);
+			line.append("  ");
+	}
+	
+	/**
+	 * Write the line buffer and a newline to the destination without creating a string.
+	 */
+	private void endLine() throws IOException {
+		line.append('\n');
+		int length = line.length();
+		if (lineChars.length < length) {
+			lineChars = new char[Math.max(length, 2 * lineChars.length)];
+		}
+		line.getChars(0, length, lineChars, 0);
+		dest.write(lineChars, 0, length);
 	}
 	
 	
@@ -0,0 +1,113 @@
+package net.sf.openrocket.file.openrocket;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.TreeSet;
+
+import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.simulation.extension.SimulationExtension;
+import net.sf.openrocket.util.BugException;
+import net.sf.openrocket.util.Config;
+import net.sf.openrocket.util.TextUtil;
+
+/**
+ * Computes a digest of the inputs of a simulation: the rocket design, the flight
+ * configuration, the simulation options and the simulation extensions.  Simulations
+ * with equal digests produce the same results, so the digest can be used as the key
+ * of a cache of simulation results.
+ * <p>
+ * The rocket is digested in the form it would be saved in an OpenRocket file, so the
+ * digest depends only on the content of the design and not on the identity of its
+ * components or on its modification history.
+ */
+public final class SimulationDigest {
+
+	private SimulationDigest() {
+	}
+
+	/**
+	 * Return the digest of the simulation inputs.
+	 *
+	 * @param rocket		the rocket.
+	 * @param fcid			the simulated flight configuration.
+	 * @param options		the simulation options.
+	 * @param extensions	the simulation extensions, or <code>null</code> if none.
+	 * @return				the digest as a hexadecimal string.
+	 */
+	public static String digest(Rocket rocket, FlightConfigurationId fcid, SimulationOptions options,
+			List<SimulationExtension> extensions) {
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			DataOutputStream os = new DataOutputStream(bos);
+
+			writeComponent(os, rocket);
+
+			writeString(os, fcid.key.toString());
+
+			os.writeDouble(options.getLaunchRodLength());
+			os.writeBoolean(options.getLaunchIntoWind());
+			os.writeDouble(options.getLaunchRodAngle());
+			os.writeDouble(options.getLaunchRodDirection());
+			os.writeDouble(options.getWindSpeedAverage());
+			os.writeDouble(options.getWindTurbulenceIntensity());
+			os.writeDouble(options.getWindDirection());
+			os.writeDouble(options.getLaunchAltitude());
+			os.writeDouble(options.getLaunchLatitude());
+			os.writeDouble(options.getLaunchLongitude());
+			writeString(os, options.getGeodeticComputation().name());
+			os.writeBoolean(options.isISAAtmosphere());
+			os.writeDouble(options.getLaunchTemperature());
+			os.writeDouble(options.getLaunchPressure());
+			os.writeDouble(options.getTimeStep());
+			os.writeDouble(options.getMaximumStepAngle());
+			os.writeBoolean(options.getCalculateExtras());
+			os.writeInt(options.getRandomSeed());
+
+			if (extensions != null) {
+				for (SimulationExtension extension : extensions) {
+					writeString(os, extension.getId());
+					Config config = extension.getConfig();
+					for (String key : new TreeSet<String>(config.keySet())) {
+						writeString(os, key);
+						writeString(os, String.valueOf(config.get(key, null)));
+					}
+				}
+			}
+			os.flush();
+
+			MessageDigest md5 = MessageDigest.getInstance("MD5");
+			return TextUtil.hexString(md5.digest(bos.toByteArray()));
+		} catch (IOException e) {
+			throw new BugException(e);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("MD5 digest not supported by JRE", e);
+		}
+	}
+
+	private static void writeString(DataOutputStream os, String str) throws IOException {
+		// Not writeUTF, which is limited to 64 kB
+		byte[] bytes = str.getBytes("UTF-8");
+		os.writeInt(bytes.length);
+		os.write(bytes);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void writeComponent(DataOutputStream os, RocketComponent component) throws IOException {
+		List<String> elements = (List<String>) OpenRocketSaver.findGetElementsMethod(component).invokeStatic(component);
+		os.writeInt(elements.size());
+		for (String element : elements) {
+			writeString(os, element);
+		}
+		os.writeInt(component.getChildCount());
+		for (RocketComponent child : component.getChildren()) {
+			writeComponent(os, child);
+		}
+	}
+}
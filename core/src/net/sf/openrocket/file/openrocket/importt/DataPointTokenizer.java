@@ -0,0 +1,189 @@
+package net.sf.openrocket.file.openrocket.importt;
+
+/**
+ * Parses the comma separated values of datapoint elements directly from a character
+ * array, without creating strings or other objects.
+ * <p>
+ * The values are parsed as by {@link DocumentConfig#stringToDouble(String)}.  Decimal
+ * values of at most 15 significant digits and a decimal exponent of at most 22, which
+ * includes the values written by OpenRocket, are converted exactly by a single
+ * multiplication or division of exactly representable values, so the result is the
+ * correctly rounded value like that of {@link Double#parseDouble(String)}.  Other values
+ * fall back to <code>DocumentConfig.stringToDouble</code>.
+ */
+final class DataPointTokenizer {
+
+	/** Maximum number of significant digits stored exactly in a double. */
+	private static final int MAX_DIGITS = 15;
+
+	/** Powers of ten stored exactly in a double. */
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+			1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private DataPointTokenizer() {
+	}
+
+
+	/**
+	 * Return the number of comma separated values in a range of characters.
+	 */
+	public static int countValues(char[] chars, int start, int end) {
+		int count = 1;
+		for (int i = start; i < end; i++) {
+			if (chars[i] == ',') {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Parse the comma separated values of a range of characters.  The number of values
+	 * must be checked beforehand using {@link #countValues(char[], int, int)}.
+	 *
+	 * @param chars		the characters.
+	 * @param start		the start of the range.
+	 * @param end		the end of the range (exclusive).
+	 * @param values	the array to store the values in.
+	 * @throws NumberFormatException	if a value cannot be parsed.
+	 */
+	public static void parseValues(char[] chars, int start, int end, double[] values) throws NumberFormatException {
+		int n = 0;
+		int valueStart = start;
+		for (int i = start; i < end; i++) {
+			if (chars[i] == ',') {
+				values[n++] = parseValue(chars, valueStart, i);
+				valueStart = i + 1;
+			}
+		}
+		values[n] = parseValue(chars, valueStart, end);
+	}
+
+	/**
+	 * Parse the value at the specified index of the comma separated values of a range of
+	 * characters.  The number of values must be checked beforehand using
+	 * {@link #countValues(char[], int, int)}.
+	 *
+	 * @throws NumberFormatException	if the value cannot be parsed.
+	 */
+	public static double parseValue(char[] chars, int start, int end, int index) throws NumberFormatException {
+		int n = 0;
+		int valueStart = start;
+		for (int i = start; i < end; i++) {
+			if (chars[i] == ',') {
+				if (n == index) {
+					return parseValue(chars, valueStart, i);
+				}
+				n++;
+				valueStart = i + 1;
+			}
+		}
+		return parseValue(chars, valueStart, end);
+	}
+
+
+	/**
+	 * Parse a single value from a range of characters.  Surrounding whitespace is ignored.
+	 *
+	 * @param chars		the characters.
+	 * @param start		the start of the range.
+	 * @param end		the end of the range (exclusive).
+	 * @return			the value.
+	 * @throws NumberFormatException	if the value cannot be parsed.
+	 */
+	public static double parseValue(char[] chars, int start, int end) throws NumberFormatException {
+		while (start < end && chars[start] <= ' ') {
+			start++;
+		}
+		while (end > start && chars[end - 1] <= ' ') {
+			end--;
+		}
+
+		int i = start;
+		boolean negative = false;
+		if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+			negative = (chars[i] == '-');
+			i++;
+		}
+
+		// Mantissa, ignoring leading zeros
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean anyDigits = false;
+		for (; i < end && isDigit(chars[i]); i++) {
+			anyDigits = true;
+			int d = chars[i] - '0';
+			if (mantissa != 0 || d != 0) {
+				if (++digits > MAX_DIGITS) {
+					return parseSlow(chars, start, end);
+				}
+				mantissa = mantissa * 10 + d;
+			}
+		}
+		if (i < end && chars[i] == '.') {
+			i++;
+			for (; i < end && isDigit(chars[i]); i++) {
+				anyDigits = true;
+				int d = chars[i] - '0';
+				if (mantissa != 0 || d != 0) {
+					if (++digits > MAX_DIGITS) {
+						return parseSlow(chars, start, end);
+					}
+					mantissa = mantissa * 10 + d;
+				}
+				exponent--;
+			}
+		}
+		if (!anyDigits) {
+			// NaN, Inf or invalid
+			return parseSlow(chars, start, end);
+		}
+
+		// Exponent
+		if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+				negativeExponent = (chars[i] == '-');
+				i++;
+			}
+			if (i == end) {
+				return parseSlow(chars, start, end);
+			}
+			int e = 0;
+			for (; i < end && isDigit(chars[i]); i++) {
+				if (e > POWERS_OF_TEN.length * 2) {
+					return parseSlow(chars, start, end);
+				}
+				e = e * 10 + (chars[i] - '0');
+			}
+			exponent += negativeExponent ? -e : e;
+		}
+		if (i != end) {
+			return parseSlow(chars, start, end);
+		}
+
+		double value;
+		if (mantissa == 0) {
+			value = 0;
+		} else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+			value = mantissa * POWERS_OF_TEN[exponent];
+		} else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+			value = mantissa / POWERS_OF_TEN[-exponent];
+		} else {
+			return parseSlow(chars, start, end);
+		}
+		return negative ? -value : value;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static double parseSlow(char[] chars, int start, int end) throws NumberFormatException {
+		return DocumentConfig.stringToDouble(new String(chars, start, end - start));
+	}
+}
@@ -1,10 +1,13 @@
 package net.sf.openrocket.file.openrocket.importt;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
+import net.sf.openrocket.aerodynamics.Warning;
 import net.sf.openrocket.aerodynamics.WarningSet;
 import net.sf.openrocket.file.DocumentLoadingContext;
 import net.sf.openrocket.file.simplesax.AbstractElementHandler;
+import net.sf.openrocket.file.simplesax.CharacterHandler;
 import net.sf.openrocket.file.simplesax.ElementHandler;
 import net.sf.openrocket.file.simplesax.PlainTextHandler;
 import net.sf.openrocket.simulation.FlightDataBranch;
@@ -17,29 +20,72 @@ import net.sf.openrocket.unit.UnitGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Handler for a databranch element.  The data points are either parsed immediately, or
+ * if {@link DocumentLoadingContext#isLazyFlightData()} is set, their text is stored and
+ * parsed only when the values of the branch are first needed.  In both cases the time
+ * step between the data points is tracked for deducing the default storage options.
+ * <p>
+ * The text of the data points is collected from the SAX parser into a character buffer
+ * and parsed by {@link DataPointTokenizer}, so no objects are created per data point.
+ * The text stored for lazy loading is kept as one byte per character, since data points
+ * contain only ASCII characters.
+ */
 class FlightDataBranchHandler extends AbstractElementHandler {
-	@SuppressWarnings("unused")
 	private final DocumentLoadingContext context;
+	private final String name;
 	private final FlightDataType[] types;
 	private final FlightDataBranch branch;
 	
+	/** Index of the time in the data points, or -1 if not present. */
+	private int timeIndex = -1;
+	private double previousTime = Double.NaN;
+	private double timeStep = Double.POSITIVE_INFINITY;
+	private int pointCount = 0;
+	
+	/** Handler collecting the text of the data points into pointChars. */
+	private final DataPointHandler pointHandler = new DataPointHandler();
+	private final double[] values;
+	
+	/** Text of the current data point. */
+	private char[] pointChars = new char[256];
+	private int pointLength = 0;
+	
+	/**
+	 * Text of the data points not parsed yet in the lazy mode, and the end offset of each
+	 * of these data points.
+	 */
+	private byte[] storedBytes;
+	private int storedLength = 0;
+	private int[] pointEnds;
+	
 	private static final Logger log = LoggerFactory.getLogger(FlightDataBranchHandler.class);
 	private final SingleSimulationHandler simHandler;
 	
 	public FlightDataBranchHandler(String name, String typeList, SingleSimulationHandler simHandler, DocumentLoadingContext context) {
 		this.simHandler = simHandler;
 		this.context = context;
+		this.name = name;
 		String[] split = typeList.split(",");
 		types = new FlightDataType[split.length];
 		for (int i = 0; i < split.length; i++) {
 			String typeName = split[i];
 			FlightDataType matching = findFlightDataType(typeName);
 			types[i] = matching;
+			if (matching == FlightDataType.TYPE_TIME) {
+				timeIndex = i;
+			}
 			//types[i] = FlightDataType.getType(typeName, matching.getSymbol(), matching.getUnitGroup());
 		}
 		
 		// TODO: LOW: May throw an IllegalArgumentException
 		branch = new FlightDataBranch(name, types);
+		values = new double[types.length];
+		
+		if (this.context.isLazyFlightData()) {
+			storedBytes = new byte[4096];
+			pointEnds = new int[64];
+		}
 	}
 	
 	/**
@@ -93,16 +139,42 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 	}
 	
 	public FlightDataBranch getBranch() {
+		if (pointEnds != null && pointCount > 0 && branch.isMutable()) {
+			final String name = this.name;
+			final FlightDataType[] types = this.types;
+			final byte[] bytes = Arrays.copyOf(storedBytes, storedLength);
+			final int[] ends = Arrays.copyOf(pointEnds, pointCount);
+			storedBytes = null;
+			pointEnds = null;
+			branch.setDeferredPoints(() -> parsePoints(name, types, bytes, ends));
+		}
 		branch.immute();
 		return branch;
 	}
 	
+	/**
+	 * Return the number of valid data points of the branch.
+	 */
+	public int getPointCount() {
+		return pointCount;
+	}
+	
+	/**
+	 * Return the smallest time step between the data points, or positive infinity if
+	 * not available.
+	 */
+	public double getTimeStep() {
+		return timeStep;
+	}
+	
 	@Override
 	public ElementHandler openElement(String element, HashMap<String, String> attributes,
 			WarningSet warnings) {
 		
-		if (element.equals("datapoint"))
-			return PlainTextHandler.INSTANCE;
+		if (element.equals("datapoint")) {
+			pointLength = 0;
+			return pointHandler;
+		}
 		if (element.equals("event"))
 			return PlainTextHandler.INSTANCE;
 		
@@ -143,29 +215,138 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		
 		// element == "datapoint"
 		
-		
 		// Check line format
-		String[] split = content.split(",");
-		if (split.length != types.length) {
+		if (DataPointTokenizer.countValues(pointChars, 0, pointLength) != types.length) {
 			warnings.add("Data point did not contain correct amount of values, ignoring point.");
 			return;
 		}
 		
+		if (pointEnds != null) {
+			storePoint(warnings);
+			return;
+		}
+		
 		// Parse the doubles
-		double[] values = new double[split.length];
-		for (int i = 0; i < values.length; i++) {
+		try {
+			DataPointTokenizer.parseValues(pointChars, 0, pointLength, values);
+		} catch (NumberFormatException e) {
+			warnings.add("Data point format error, ignoring point.");
+			return;
+		}
+		
+		// Add point to branch
+		branch.addPoint();
+		for (int i = 0; i < types.length; i++) {
+			branch.setValue(types[i], values[i]);
+		}
+		if (timeIndex >= 0) {
+			updateTimeStep(values[timeIndex]);
+		}
+		pointCount++;
+	}
+	
+	
+	/**
+	 * Keep the text of the current data point for parsing later.  Only the time is parsed now.
+	 */
+	private void storePoint(WarningSet warnings) {
+		if (timeIndex >= 0) {
+			double time;
 			try {
-				values[i] = DocumentConfig.stringToDouble(split[i]);
+				time = DataPointTokenizer.parseValue(pointChars, 0, pointLength, timeIndex);
 			} catch (NumberFormatException e) {
 				warnings.add("Data point format error, ignoring point.");
 				return;
 			}
+			updateTimeStep(time);
 		}
 		
-		// Add point to branch
-		branch.addPoint();
-		for (int i = 0; i < types.length; i++) {
-			branch.setValue(types[i], values[i]);
+		if (storedLength + pointLength > storedBytes.length) {
+			storedBytes = Arrays.copyOf(storedBytes, Math.max(storedBytes.length * 2, storedLength + pointLength));
+		}
+		for (int i = 0; i < pointLength; i++) {
+			// Other characters are not valid in a value, keep them invalid
+			char c = pointChars[i];
+			storedBytes[storedLength++] = (c < 0x80) ? (byte) c : (byte) '?';
+		}
+		
+		if (pointCount == pointEnds.length) {
+			pointEnds = Arrays.copyOf(pointEnds, pointCount * 2);
+		}
+		pointEnds[pointCount] = storedLength;
+		pointCount++;
+	}
+	
+	private void updateTimeStep(double time) {
+		if (time - previousTime < timeStep) {
+			timeStep = time - previousTime;
+		}
+		previousTime = time;
+	}
+	
+	
+	/**
+	 * Parse the data points stored by a lazily loaded branch.  Invalid points have been
+	 * reported when storing them, except for format errors in values other than the time,
+	 * which are logged here.
+	 */
+	private static FlightDataBranch parsePoints(String name, FlightDataType[] types, byte[] bytes, int[] ends) {
+		FlightDataBranch loaded = new FlightDataBranch(name, types);
+		loaded.ensureCapacity(ends.length);
+		double[] values = new double[types.length];
+		char[] chars = new char[256];
+		int start = 0;
+		for (int end : ends) {
+			int length = end - start;
+			if (length > chars.length) {
+				chars = new char[Math.max(chars.length * 2, length)];
+			}
+			for (int i = 0; i < length; i++) {
+				chars[i] = (char) bytes[start + i];
+			}
+			try {
+				DataPointTokenizer.parseValues(chars, 0, length, values);
+			} catch (NumberFormatException e) {
+				log.warn("Data point format error in branch '" + name + "', ignoring point.");
+				start = end;
+				continue;
+			}
+			start = end;
+			
+			loaded.addPoint();
+			for (int i = 0; i < types.length; i++) {
+				loaded.setValue(types[i], values[i]);
+			}
+		}
+		return loaded;
+	}
+	
+	
+	/**
+	 * Handler of the datapoint elements, appending their text to pointChars.
+	 */
+	private class DataPointHandler extends AbstractElementHandler implements CharacterHandler {
+		
+		@Override
+		public ElementHandler openElement(String element, HashMap<String, String> attributes,
+				WarningSet warnings) {
+			warnings.add(Warning.fromString("Unknown element " + element + ", ignoring."));
+			return null;
+		}
+		
+		@Override
+		public void closeElement(String element, HashMap<String, String> attributes,
+				String content, WarningSet warnings) {
+			// Warning from openElement is sufficient.
+		}
+		
+		@Override
+		public void characters(char[] chars, int start, int length) {
+			if (pointLength + length > pointChars.length) {
+				pointChars = Arrays.copyOf(pointChars, Math.max(pointChars.length * 2, pointLength + length));
+			}
+			System.arraycopy(chars, start, pointChars, pointLength, length);
+			pointLength += length;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -14,11 +14,17 @@ import net.sf.openrocket.simulation.FlightData;
 import net.sf.openrocket.simulation.FlightDataBranch;
 
 class FlightDataHandler extends AbstractElementHandler {
+	/**
+	 * File version since which all the summary values are stored, missing values being NaN.
+	 */
+	private static final int SUMMARY_VERSION = 108;
+	
 	private final DocumentLoadingContext context;
 	
 	private FlightDataBranchHandler dataHandler;
 	private WarningSet warningSet = new WarningSet();
 	private List<FlightDataBranch> branches = new ArrayList<FlightDataBranch>();
+	private double timeStep = Double.POSITIVE_INFINITY;
 	
 	private SingleSimulationHandler simHandler;
 	private FlightData data;
@@ -33,6 +39,14 @@ class FlightDataHandler extends AbstractElementHandler {
 		return data;
 	}
 	
+	/**
+	 * Return the smallest time step between the data points of the first branch,
+	 * or positive infinity if not available.
+	 */
+	public double getTimeStep() {
+		return timeStep;
+	}
+	
 	@Override
 	public ElementHandler openElement(String element, HashMap<String, String> attributes,
 			WarningSet warnings) {
@@ -79,7 +93,10 @@ class FlightDataHandler extends AbstractElementHandler {
 		
 		if (element.equals("databranch")) {
 			FlightDataBranch branch = dataHandler.getBranch();
-			if (branch.getLength() > 0) {
+			if (dataHandler.getPointCount() > 0) {
+				if (branches.isEmpty()) {
+					timeStep = dataHandler.getTimeStep();
+				}
 				branches.add(branch);
 			}
 		} else if (element.equals("warning")) {
@@ -92,7 +109,7 @@ class FlightDataHandler extends AbstractElementHandler {
 	public void endHandler(String element, HashMap<String, String> attributes,
 			String content, WarningSet warnings) {
 		
-		if (branches.size() > 0) {
+		if (branches.size() > 0 && !(context.isLazyFlightData() && hasSummary(attributes))) {
 			data = new FlightData(branches.toArray(new FlightDataBranch[0]));
 		} else {
 			double maxAltitude = Double.NaN;
@@ -143,8 +160,15 @@ class FlightDataHandler extends AbstractElementHandler {
 			} catch (NumberFormatException ignore) {
 			}
 			
-			data = new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
-					timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity);
+			if (branches.size() > 0) {
+				// Lazily loaded branches are read only when needed
+				data = new FlightData(branches.toArray(new FlightDataBranch[0]), maxAltitude, maxVelocity,
+						maxAcceleration, maxMach, timeToApogee, flightTime, groundHitVelocity, launchRodVelocity,
+						deploymentVelocity);
+			} else {
+				data = new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
+						timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity);
+			}
 		}
 		
 		data.getWarningSet().addAll(warningSet);
@@ -152,4 +176,11 @@ class FlightDataHandler extends AbstractElementHandler {
 	}
 	
 	
-}
\ No newline at end of file
+	/**
+	 * Return whether the summary values are stored as attributes, so that they need not
+	 * be calculated from the data points.
+	 */
+	private boolean hasSummary(HashMap<String, String> attributes) {
+		return context.getFileVersion() >= SUMMARY_VERSION && attributes.get("maxaltitude") != null;
+	}
+}
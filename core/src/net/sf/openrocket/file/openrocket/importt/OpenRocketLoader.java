@@ -2,7 +2,6 @@ package net.sf.openrocket.file.openrocket.importt;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,14 +10,11 @@ import org.xml.sax.SAXException;
 
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.document.Simulation;
-import net.sf.openrocket.document.StorageOptions;
 import net.sf.openrocket.document.StorageOptions.FileType;
 import net.sf.openrocket.file.AbstractRocketLoader;
 import net.sf.openrocket.file.DocumentLoadingContext;
 import net.sf.openrocket.file.RocketLoadException;
 import net.sf.openrocket.file.simplesax.SimpleSAX;
-import net.sf.openrocket.simulation.FlightDataBranch;
-import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.extension.SimulationExtension;
 
 
@@ -55,30 +51,8 @@ public class OpenRocketLoader extends AbstractRocketLoader {
 		
 		doc.getSelectedConfiguration().setAllStages();
 		
-		// Deduce suitable time skip
-		double timeSkip = StorageOptions.SIMULATION_DATA_NONE;
-		for (Simulation s : doc.getSimulations()) {
-			if (s.getStatus() == Simulation.Status.EXTERNAL ||
-					s.getStatus() == Simulation.Status.NOT_SIMULATED)
-				continue;
-			if (s.getSimulatedData() == null)
-				continue;
-			if (s.getSimulatedData().getBranchCount() == 0)
-				continue;
-			FlightDataBranch branch = s.getSimulatedData().getBranch(0);
-			if (branch == null)
-				continue;
-			List<Double> list = branch.get(FlightDataType.TYPE_TIME);
-			if (list == null)
-				continue;
-				
-			double previousTime = Double.NaN;
-			for (double time : list) {
-				if (time - previousTime < timeSkip)
-					timeSkip = time - previousTime;
-				previousTime = time;
-			}
-		}
+		// Deduce suitable time skip from the stored data, see SingleSimulationHandler
+		double timeSkip = context.getMinimumTimeStep();
 		timeSkip = Math.rint(timeSkip * 100) / 100;
 		doc.getDefaultStorageOptions().setSimulationTimeSkip(timeSkip);
 		doc.getDefaultStorageOptions().setExplicitlySet(false);
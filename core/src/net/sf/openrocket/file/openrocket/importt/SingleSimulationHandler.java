@@ -140,6 +140,13 @@ class SingleSimulationHandler extends AbstractElementHandler {
 		simulation.setFlightConfigurationId( idToSet );
 		
 		doc.addSimulation(simulation);
+		
+		// The time step of the stored data determines the default storage options
+		if (dataHandler != null && simulation.getSimulatedData() != null &&
+				simulation.getStatus() != Simulation.Status.EXTERNAL &&
+				simulation.getStatus() != Simulation.Status.NOT_SIMULATED) {
+			context.updateMinimumTimeStep(dataHandler.getTimeStep());
+		}
 	}
 	
 	
@@ -0,0 +1,27 @@
+package net.sf.openrocket.file.simplesax;
+
+import org.xml.sax.SAXException;
+
+
+/**
+ * An element handler that receives the textual content of its element directly from the
+ * character buffer of the SAX parser.  This avoids creating a string of the content of
+ * every element, which is useful for elements that occur in large numbers.
+ * <p>
+ * The content of the element is not collected, so the content passed to
+ * <code>endHandler</code> and to the <code>closeElement</code> method of the enclosing
+ * handler is empty.  The content of an element may be passed in several pieces.
+ */
+public interface CharacterHandler extends ElementHandler {
+
+	/**
+	 * Called for a piece of the textual content of the element.  The array must not be
+	 * modified, and its contents are valid only during the call.
+	 *
+	 * @param chars		the characters.
+	 * @param start		the start position in the array.
+	 * @param length	the number of characters.
+	 */
+	public void characters(char[] chars, int start, int length) throws SAXException;
+
+}
@@ -15,6 +15,9 @@ import net.sf.openrocket.aerodynamics.WarningSet;
  * Delegates the actual content parsing to {@link ElementHandler} objects.
  */
 class DelegatorHandler extends DefaultHandler {
+	/** Placeholder for the content of elements without textual content, never modified. */
+	private static final StringBuilder NO_CONTENT = new StringBuilder(0);
+	
 	private final WarningSet warnings;
 	
 	private final Deque<ElementHandler> handlerStack = new ArrayDeque<ElementHandler>();
@@ -44,8 +47,8 @@ class DelegatorHandler extends DefaultHandler {
 			return;
 		}
 		
-		// Add layer to data stacks
-		elementData.push(new StringBuilder());
+		// Add layer to data stacks, the content is collected when encountered
+		elementData.push(NO_CONTENT);
 		elementAttributes.push(copyAttributes(attributes));
 		
 		// Call the handler
@@ -61,7 +64,8 @@ class DelegatorHandler extends DefaultHandler {
 	
 	
 	/**
-	 * Stores encountered characters in the elementData stack.
+	 * Stores encountered characters in the elementData stack, or passes them to the
+	 * current handler if it is a {@link CharacterHandler}.
 	 */
 	@Override
 	public void characters(char[] chars, int start, int length) throws SAXException {
@@ -69,7 +73,18 @@ class DelegatorHandler extends DefaultHandler {
 		if (ignore > 0)
 			return;
 		
+		ElementHandler h = handlerStack.peek();
+		if (h instanceof CharacterHandler) {
+			((CharacterHandler) h).characters(chars, start, length);
+			return;
+		}
+		
 		StringBuilder sb = elementData.peek();
+		if (sb == NO_CONTENT) {
+			sb = new StringBuilder();
+			elementData.pop();
+			elementData.push(sb);
+		}
 		sb.append(chars, start, length);
 	}
 	
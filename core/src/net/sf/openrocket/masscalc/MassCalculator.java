@@ -1,11 +1,16 @@
 package net.sf.openrocket.masscalc;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.MotorConfiguration;
+import net.sf.openrocket.rocketcomponent.AxialStage;
 import net.sf.openrocket.rocketcomponent.FlightConfiguration;
+import net.sf.openrocket.rocketcomponent.MotorMount;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.simulation.MotorClusterState;
 import net.sf.openrocket.simulation.SimulationStatus;
@@ -17,11 +22,13 @@ public class MassCalculator implements Monitorable {
 
 	/*
 	 * Cached data.  All CG data is in absolute coordinates.  All moments of inertia
-	 * are relative to their respective CG.
+	 * are relative to their respective CG.  The caches are keyed on the configuration
+	 * state and cleared whenever the rocket changes.
 	 */
-	//	private HashMap< Integer, MassData> stageMassCache = new HashMap<Integer, MassData >();
-	//	private MassData rocketSpentMassCache;
-	//	private MassData motorMassCache;
+	private final Map<CacheKey, RigidBody> structureCache = new HashMap<CacheKey, RigidBody>();
+	private final Map<CacheKey, MotorClusterMass[]> motorCache = new HashMap<CacheKey, MotorClusterMass[]>();
+	private Object cachedRocket = null;
+	private int cachedRocketModID = -1;
 
 	private int modId = 0;
 	
@@ -96,6 +103,152 @@ public class MassCalculator implements Monitorable {
 		return calculate( MassCalculation.Type.MOTOR, status ); 
 	}
 
+	////////////////// Cached calculations  ///////////////////
+	
+	/**
+	 * Return the structure mass data of a configuration, as {@link #calculateStructure(FlightConfiguration)}.
+	 * The result is cached until the configuration, its active stages or the rocket change.
+	 * 
+	 * @param config		the rocket configuration to calculate for
+	 * @return				the MassData struct of the rocket structure
+	 */
+	public RigidBody getStructure( final FlightConfiguration config ){
+		final CacheKey key = getCacheKey( config );
+		if( null == key ){
+			return calculateStructure( config );
+		}
+		
+		RigidBody structure = structureCache.get( key );
+		if( null == structure ){
+			structure = calculateStructure( config );
+			structureCache.put( key, structure );
+		}
+		return structure;
+	}
+	
+	/**
+	 * Return the mass data of all motors in the simulation, as {@link #calculateMotor(SimulationStatus)}.
+	 * The motor clusters of the configuration are resolved once per configuration state, so each call
+	 * only evaluates the motor mass curves at the current time.
+	 * 
+	 * @param status  current simulation status
+	 * @return  combined mass data for all motors, including propellant
+	 */
+	public RigidBody getMotor( final SimulationStatus status ){
+		final FlightConfiguration config = status.getConfiguration();
+		final CacheKey key = getCacheKey( config );
+		if( null == key ){
+			return calculateMotor( status );
+		}
+		
+		MotorClusterMass[] clusters = motorCache.get( key );
+		if( null == clusters ){
+			List<MotorClusterMass> clusterList = new ArrayList<MotorClusterMass>();
+			collectMotorClusters( config, config.getRocket(), Transformation.IDENTITY, clusterList );
+			clusters = clusterList.toArray( new MotorClusterMass[0] );
+			motorCache.put( key, clusters );
+		}
+		
+		final double time = status.getSimulationTime();
+		final Collection<MotorClusterState> activeMotorList = status.getMotors();
+		final RigidBody[] bodies = new RigidBody[clusters.length];
+		Coordinate centerOfMass = Coordinate.ZERO;
+		for( int i = 0; i < clusters.length; i++ ){
+			bodies[i] = clusters[i].calculate( time, activeMotorList );
+			if( MIN_MASS > centerOfMass.weight ){
+				centerOfMass = bodies[i].cm;
+			}else{
+				centerOfMass = centerOfMass.average( bodies[i].cm );
+			}
+		}
+		
+		double Ir=0, It=0;
+		for( final RigidBody eachLocal : bodies ){
+			final RigidBody eachGlobal = eachLocal.rebase( centerOfMass );
+			Ir += eachGlobal.Ixx;
+			It += eachGlobal.Iyy;
+		}
+		return new RigidBody( centerOfMass, Ir, It, It );
+	}
+	
+	/**
+	 * Walk the component tree the same way as MassCalculation.calculateMotors() and
+	 * record each active motor cluster instance with its transformation.
+	 */
+	private static void collectMotorClusters( final FlightConfiguration config, final RocketComponent component,
+			final Transformation parentTransform, final List<MotorClusterMass> clusters ){
+		if( component.isMotorMount() && config.isComponentActive( component )){
+			final MotorConfiguration motorConfig = ((MotorMount) component).getMotorConfig( config.getId() );
+			if( ! motorConfig.isEmpty() ){
+				clusters.add( new MotorClusterMass( component, motorConfig, parentTransform ));
+			}
+		}
+		
+		final Coordinate[] instanceLocations = component.getInstanceLocations();
+		for( int instanceNumber = 0; instanceNumber < component.getInstanceCount(); ++instanceNumber ){
+			final Transformation currentTransform = parentTransform.applyTransformation(
+					Transformation.getTranslationTransform( instanceLocations[instanceNumber] ));
+			for( RocketComponent child : component.getChildren() ){
+				collectMotorClusters( config, child, currentTransform, clusters );
+			}
+		}
+	}
+	
+	/**
+	 * Return the cache key of the current state of a configuration, or <code>null</code> if the
+	 * state cannot be cached.  Clears the caches if the rocket has changed.
+	 */
+	private CacheKey getCacheKey( final FlightConfiguration config ){
+		final int rocketModID = config.getRocket().getModID();
+		if(( cachedRocket != config.getRocket() ) || ( cachedRocketModID != rocketModID )){
+			structureCache.clear();
+			motorCache.clear();
+			cachedRocket = config.getRocket();
+			cachedRocketModID = rocketModID;
+		}
+		
+		long activeStages = 0;
+		for( AxialStage stage : config.getActiveStages() ){
+			final int stageNumber = stage.getStageNumber();
+			if(( stageNumber < 0 ) || ( stageNumber >= Long.SIZE )){
+				return null;
+			}
+			activeStages |= 1L << stageNumber;
+		}
+		return new CacheKey( config.getId(), config.getModID(), activeStages );
+	}
+	
+	/**
+	 * Identifies a configuration state within a single rocket state.
+	 */
+	private static final class CacheKey {
+		private final Object configurationId;
+		private final int configurationModID;
+		private final long activeStages;
+		
+		CacheKey( final Object configurationId, final int configurationModID, final long activeStages ){
+			this.configurationId = configurationId;
+			this.configurationModID = configurationModID;
+			this.activeStages = activeStages;
+		}
+		
+		@Override
+		public boolean equals( Object obj ){
+			if( !( obj instanceof CacheKey )){
+				return false;
+			}
+			final CacheKey other = (CacheKey) obj;
+			return ( configurationModID == other.configurationModID ) &&
+					( activeStages == other.activeStages ) &&
+					configurationId.equals( other.configurationId );
+		}
+		
+		@Override
+		public int hashCode(){
+			return configurationId.hashCode() * 31 + configurationModID * 17 + Long.hashCode( activeStages );
+		}
+	}
+	
 	////////////////// Mass property Wrappers  ///////////////////
 	// all mass calculation calls should probably call through one of these two wrappers. 
 	
@@ -0,0 +1,90 @@
+package net.sf.openrocket.masscalc;
+
+import java.util.Collection;
+
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.MotorConfiguration;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.simulation.MotorClusterState;
+import net.sf.openrocket.util.Coordinate;
+import net.sf.openrocket.util.Transformation;
+
+/**
+ * The time-independent part of the mass contribution of one motor cluster instance.
+ * <p>
+ * All geometry that {@link MassCalculation} derives from the component tree is
+ * resolved once, so evaluating the cluster at a given time only requires the motor
+ * mass and CG lookups.  The arithmetic is kept in the same order as in
+ * {@link MassCalculation} so that the results are identical.
+ *
+ * @see MassCalculator#calculateMotor(net.sf.openrocket.simulation.SimulationStatus)
+ */
+class MotorClusterMass {
+
+	private final Motor motor;
+	private final Transformation transform;
+
+	/** Mount position plus motor position within the mount. */
+	private final double baseX;
+	private final int instanceCount;
+	private final double unitRotationalInertia;
+	private final double unitLongitudinalInertia;
+
+	/** Squared radial distances of the instances, empty for a single motor. */
+	private final double[] radialDistances2;
+
+	MotorClusterMass(final RocketComponent mount, final MotorConfiguration motorConfig, final Transformation transform) {
+		this.motor = motorConfig.getMotor();
+		this.transform = transform;
+
+		this.baseX = mount.getPosition().x + motorConfig.getX();
+		this.instanceCount = mount.getInstanceCount();
+		this.unitRotationalInertia = motorConfig.getUnitRotationalInertia() * instanceCount;
+		this.unitLongitudinalInertia = motorConfig.getUnitLongitudinalInertia() * instanceCount;
+
+		if (1 < instanceCount) {
+			final Coordinate[] offsets = mount.getInstanceOffsets();
+			radialDistances2 = new double[offsets.length];
+			for (int i = 0; i < offsets.length; i++) {
+				double distance = Math.hypot(offsets[i].y, offsets[i].z);
+				radialDistances2[i] = Math.pow(distance, 2);
+			}
+		} else {
+			radialDistances2 = new double[0];
+		}
+	}
+
+	/**
+	 * Return the mass data of the motor cluster, including casing and propellant.
+	 *
+	 * @param simulationTime	the simulation time
+	 * @param activeMotorList	the motor states of the simulation, or <code>null</code>
+	 * 							to interpret the time as motor time.
+	 */
+	RigidBody calculate(final double simulationTime, final Collection<MotorClusterState> activeMotorList) {
+		double motorTime = simulationTime;
+		if (activeMotorList != null) {
+			for (MotorClusterState currentMotorState : activeMotorList) {
+				if (currentMotorState.getMotor() == motor) {
+					motorTime = currentMotorState.getMotorTime(simulationTime);
+					break;
+				}
+			}
+		}
+
+		final double eachMass = motor.getTotalMass(motorTime);
+		final double eachCMx = motor.getCMx(motorTime);
+
+		final Coordinate clusterLocalCM = new Coordinate(baseX + eachCMx, 0, 0, eachMass * instanceCount);
+
+		double clusterIr = unitRotationalInertia * eachMass;
+		final double clusterIt = unitLongitudinalInertia * eachMass;
+		for (double d2 : radialDistances2) {
+			clusterIr += eachMass * d2;
+		}
+
+		final Coordinate clusterCM = transform.transform(clusterLocalCM);
+		return new RigidBody(clusterCM, clusterIr, clusterIt, clusterIt);
+	}
+
+}
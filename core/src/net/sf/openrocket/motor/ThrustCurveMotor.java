@@ -1,5 +1,7 @@
 package net.sf.openrocket.motor;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.Collator;
 import java.util.Arrays;
@@ -56,6 +58,29 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	private double unitRotationalInertia;
 	private double unitLongitudinalInertia;
 	
+	/** Source of the time, thrust and CG points until they are first used, otherwise null. */
+	private transient volatile CurveSource curveSource;
+	
+	/**
+	 * A thrust curve that is read on first use.
+	 */
+	interface CurveSource {
+		
+		/**
+		 * Return the number of data points of the curve.
+		 */
+		int getSampleSize();
+		
+		/**
+		 * Read the data points of the curve.
+		 * 
+		 * @param time		the array to fill with the time points.
+		 * @param thrust	the array to fill with the thrust points.
+		 * @param cg		the array to fill with the CG points.
+		 */
+		void read(double[] time, double[] thrust, Coordinate[] cg);
+	}
+	
 	public static class Builder {
 		
 		ThrustCurveMotor motor = new ThrustCurveMotor();
@@ -207,6 +232,62 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 			return motor;
 		}
 		
+		/**
+		 * Build a motor whose thrust curve is read from the source when it is first used.
+		 * The curve is not validated, and the statistics are those computed when the
+		 * motor was originally built.
+		 */
+		ThrustCurveMotor build(CurveSource source, double maxThrust, double burnTimeEstimate,
+				double averageThrust, double totalImpulse) {
+			motor.curveSource = source;
+			motor.maxThrust = maxThrust;
+			motor.burnTimeEstimate = burnTimeEstimate;
+			motor.averageThrust = averageThrust;
+			motor.totalImpulse = totalImpulse;
+			
+			motor.unitRotationalInertia = Inertia.filledCylinderRotational( motor.diameter / 2);
+			motor.unitLongitudinalInertia = Inertia.filledCylinderLongitudinal( motor.diameter / 2, motor.length);
+			
+			return motor;
+		}
+		
+	}
+	
+	
+	/**
+	 * Read the thrust curve from the curve source, if it has not been read yet.
+	 */
+	private void loadCurve() {
+		if (curveSource == null) {
+			return;
+		}
+		synchronized (this) {
+			CurveSource source = curveSource;
+			if (source != null) {
+				int n = source.getSampleSize();
+				double[] t = new double[n];
+				double[] f = new double[n];
+				Coordinate[] c = new Coordinate[n];
+				source.read(t, f, c);
+				time = t;
+				thrust = f;
+				cg = c;
+				curveSource = null;
+			}
+		}
+	}
+	
+	/**
+	 * Return whether the thrust curve of this motor has been read.  Motors read from a
+	 * {@link ThrustCurveMotorFile} read their curve when it is first needed.
+	 */
+	public boolean isCurveLoaded() {
+		return curveSource == null;
+	}
+	
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		loadCurve();
+		out.defaultWriteObject();
 	}
 	
 	
@@ -225,6 +306,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return	an array of time points where the thrust is sampled
 	 */
 	public double[] getTimePoints() {
+		loadCurve();
 		return time.clone();
 	}
 	
@@ -239,6 +321,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return a pseudo index to this motor's data. 
 	 */
 	protected double getPseudoIndex( final double motorTime ){
+		loadCurve();
 		if(( time.length == 0 )||( 0 > motorTime )){
 			return Double.NaN;
 		}
@@ -289,6 +372,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	
 	@Override
 	public double getAverageThrust( final double startTime, final double endTime ) {
+		loadCurve();
 		
 		int timeIndex = 0;
 		
@@ -376,6 +460,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return	an array of thrust samples
 	 */
 	public double[] getThrustPoints() {
+		loadCurve();
 		return thrust.clone();
 	}
 	
@@ -388,6 +473,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	//	}
 	
 	public Coordinate[] getCGPoints(){
+		loadCurve();
 		return cg;
 	}
 	
@@ -469,26 +555,31 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	
 	@Override
 	public double getLaunchCGx() {
+		loadCurve();
 		return cg[0].x;//cgx[0];
 	}
 	
 	@Override
 	public double getBurnoutCGx() {
+		loadCurve();
 		return cg[cg.length - 1].x;// cgx[ cg.length - 1];
 	}
 	
 	@Override
 	public double getLaunchMass() {
+		loadCurve();
 		return cg[0].weight;//mass[0];
 	}
 	
 	@Override
 	public double getBurnoutMass() {
+		loadCurve();
 		return cg[cg.length-1].weight; //mass[mass.length - 1];
 	}	
 	
 	@Override
 	public double getBurnTime() {
+		loadCurve();
 		return time[time.length-1];
 	}
 	
@@ -549,6 +640,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 	
 	protected Coordinate interpolateCenterOfMassAtIndex( final double pseudoIndex ){
+		loadCurve();
 		final double SNAP_TOLERANCE = 0.0001;
 		
 		final double upperFrac = pseudoIndex%1;
@@ -571,7 +663,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 	
 	public int getDataSize() {
-		return this.time.length;
+		return getSampleSize();
 	}
 	
 	@Override
@@ -600,6 +692,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 	
 	public double getCutOffTime() {
+		loadCurve();
 		return time[time.length - 1];
 	}
 	
@@ -737,6 +830,10 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return return the size of the data arrays
 	 */
 	public int getSampleSize(){
+		CurveSource source = curveSource;
+		if (source != null) {
+			return source.getSampleSize();
+		}
 		return time.length;
 	}
 	
@@ -0,0 +1,325 @@
+package net.sf.openrocket.motor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.openrocket.util.Coordinate;
+
+/**
+ * A compact binary file format for a database of thrust curve motors.
+ * <p>
+ * The file consists of a header, a string table, a table of fixed-size motor metadata
+ * records and a packed array of doubles containing the standard delays and the thrust
+ * curves.  All values are big-endian.
+ * <pre>
+ *   header:    int magic, int version, int string count, int motor count, int double count
+ *   strings:   for each string: int byte count, UTF-8 bytes
+ *   motors:    for each motor: int manufacturer, designation, description, digest,
+ *              case info, propellant info and motor type (string indices, -1 for null),
+ *              int available, double diameter, length, initial mass, max thrust,
+ *              burn time, average thrust and total impulse, int delay offset,
+ *              delay count, curve offset and sample count
+ *   doubles:   delays; and for each curve the time, thrust, CG x, y, z and mass points
+ * </pre>
+ * The reader only decodes the strings and the metadata.  The thrust curve of a motor is
+ * read from the buffer when it is first used, so the file should be kept as a single
+ * buffer, for example by memory-mapping it.
+ */
+public class ThrustCurveMotorFile {
+
+	/** The file name extension of motor database files. */
+	public static final String EXTENSION = "motors";
+
+	private static final int MAGIC = 0x4F524D44; // "ORMD"
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 5 * 4;
+	private static final int RECORD_SIZE = 8 * 4 + 7 * 8 + 4 * 4;
+
+	private ThrustCurveMotorFile() {
+	}
+
+
+	/**
+	 * Write the motors to a stream.
+	 *
+	 * @param motors	the motors to write.
+	 * @param out		the stream to write to, not closed by this method.
+	 */
+	public static void write(Collection<ThrustCurveMotor> motors, OutputStream out) throws IOException {
+		List<String> strings = new ArrayList<String>();
+		Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+
+		ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(motors.size() * RECORD_SIZE);
+		DataOutputStream records = new DataOutputStream(recordBytes);
+		ByteArrayOutputStream doubleBytes = new ByteArrayOutputStream();
+		DataOutputStream doubles = new DataOutputStream(doubleBytes);
+		int doubleCount = 0;
+
+		for (ThrustCurveMotor motor : motors) {
+			records.writeInt(index(motor.getManufacturer().getDisplayName(), strings, stringIndex));
+			records.writeInt(index(motor.getDesignation(), strings, stringIndex));
+			records.writeInt(index(motor.getDescription(), strings, stringIndex));
+			records.writeInt(index(motor.getDigest(), strings, stringIndex));
+			records.writeInt(index(motor.getCaseInfo(), strings, stringIndex));
+			records.writeInt(index(motor.getPropellantInfo(), strings, stringIndex));
+			records.writeInt(index(motor.getMotorType().name(), strings, stringIndex));
+			records.writeInt(motor.isAvailable() ? 1 : 0);
+
+			records.writeDouble(motor.getDiameter());
+			records.writeDouble(motor.getLength());
+			records.writeDouble(motor.getInitialMass());
+			records.writeDouble(motor.getMaxThrustEstimate());
+			records.writeDouble(motor.getBurnTimeEstimate());
+			records.writeDouble(motor.getAverageThrustEstimate());
+			records.writeDouble(motor.getTotalImpulseEstimate());
+
+			double[] delays = motor.getStandardDelays();
+			records.writeInt(doubleCount);
+			records.writeInt(delays.length);
+			for (double d : delays) {
+				doubles.writeDouble(d);
+			}
+			doubleCount += delays.length;
+
+			double[] time = motor.getTimePoints();
+			double[] thrust = motor.getThrustPoints();
+			Coordinate[] cg = motor.getCGPoints();
+			records.writeInt(doubleCount);
+			records.writeInt(time.length);
+			for (double t : time) {
+				doubles.writeDouble(t);
+			}
+			for (double f : thrust) {
+				doubles.writeDouble(f);
+			}
+			for (Coordinate c : cg) {
+				doubles.writeDouble(c.x);
+			}
+			for (Coordinate c : cg) {
+				doubles.writeDouble(c.y);
+			}
+			for (Coordinate c : cg) {
+				doubles.writeDouble(c.z);
+			}
+			for (Coordinate c : cg) {
+				doubles.writeDouble(c.weight);
+			}
+			doubleCount += 6 * time.length;
+		}
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(strings.size());
+		data.writeInt(motors.size());
+		data.writeInt(doubleCount);
+		for (String s : strings) {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			data.writeInt(bytes.length);
+			data.write(bytes);
+		}
+		records.flush();
+		recordBytes.writeTo(data);
+		doubles.flush();
+		doubleBytes.writeTo(data);
+		data.flush();
+	}
+
+	private static int index(String s, List<String> strings, Map<String, Integer> stringIndex) {
+		if (s == null) {
+			return -1;
+		}
+		Integer index = stringIndex.get(s);
+		if (index == null) {
+			index = strings.size();
+			strings.add(s);
+			stringIndex.put(s, index);
+		}
+		return index;
+	}
+
+
+	/**
+	 * Read the motors of a file by memory-mapping it.
+	 *
+	 * @param file	the file to read.
+	 * @return		the motors of the file.
+	 */
+	public static List<ThrustCurveMotor> read(File file) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Read the motors from a stream.  The contents of the stream are kept in memory,
+	 * and the stream is not closed by this method.
+	 *
+	 * @param in	the stream to read.
+	 * @return		the motors of the stream.
+	 */
+	public static List<ThrustCurveMotor> read(InputStream in) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+		byte[] buffer = new byte[1 << 16];
+		int n;
+		while ((n = in.read(buffer)) >= 0) {
+			bytes.write(buffer, 0, n);
+		}
+		return read(ByteBuffer.wrap(bytes.toByteArray()));
+	}
+
+	/**
+	 * Read the motors from a buffer.  The buffer must not be modified afterwards, since
+	 * the thrust curves are read from it when they are first used.
+	 *
+	 * @param buffer	the buffer containing the file, starting at its position.
+	 * @return			the motors of the buffer.
+	 */
+	public static List<ThrustCurveMotor> read(ByteBuffer buffer) throws IOException {
+		ByteBuffer data = buffer.slice();
+		if (data.remaining() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+			throw new IOException("Not a motor database file");
+		}
+		int version = data.getInt(4);
+		if (version != VERSION) {
+			throw new IOException("Unsupported motor database version " + version);
+		}
+		int stringCount = data.getInt(8);
+		int motorCount = data.getInt(12);
+		int doubleCount = data.getInt(16);
+
+		try {
+			int pos = HEADER_SIZE;
+			String[] strings = new String[stringCount];
+			for (int i = 0; i < stringCount; i++) {
+				int length = data.getInt(pos);
+				byte[] bytes = new byte[length];
+				data.position(pos + 4);
+				data.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+				pos += 4 + length;
+			}
+
+			int doubles = pos + motorCount * RECORD_SIZE;
+			if (doubles + 8L * doubleCount > data.limit()) {
+				throw new IOException("Truncated motor database file");
+			}
+
+			List<ThrustCurveMotor> motors = new ArrayList<ThrustCurveMotor>(motorCount);
+			for (int i = 0; i < motorCount; i++) {
+				motors.add(readMotor(data, pos, strings, doubles, doubleCount));
+				pos += RECORD_SIZE;
+			}
+			return motors;
+		} catch (RuntimeException e) {
+			throw new IOException("Invalid motor database file", e);
+		}
+	}
+
+	private static ThrustCurveMotor readMotor(ByteBuffer data, int pos, String[] strings, int doubles, int doubleCount)
+			throws IOException {
+		ThrustCurveMotor.Builder builder = new ThrustCurveMotor.Builder();
+		builder.setManufacturer(Manufacturer.getManufacturer(string(data.getInt(pos), strings)));
+		builder.setDesignation(string(data.getInt(pos + 4), strings));
+		builder.setDescription(string(data.getInt(pos + 8), strings));
+		builder.setDigest(string(data.getInt(pos + 12), strings));
+		builder.setCaseInfo(string(data.getInt(pos + 16), strings));
+		builder.setPropellantInfo(string(data.getInt(pos + 20), strings));
+		builder.setMotorType(Motor.Type.valueOf(string(data.getInt(pos + 24), strings)));
+		builder.setAvailablity(data.getInt(pos + 28) != 0);
+		pos += 32;
+
+		builder.setDiameter(data.getDouble(pos));
+		builder.setLength(data.getDouble(pos + 8));
+		builder.setInitialMass(data.getDouble(pos + 16));
+		double maxThrust = data.getDouble(pos + 24);
+		double burnTime = data.getDouble(pos + 32);
+		double averageThrust = data.getDouble(pos + 40);
+		double totalImpulse = data.getDouble(pos + 48);
+		pos += 56;
+
+		int delayOffset = data.getInt(pos);
+		int delayCount = data.getInt(pos + 4);
+		int curveOffset = data.getInt(pos + 8);
+		int sampleCount = data.getInt(pos + 12);
+		if (delayOffset < 0 || delayCount < 0 || delayOffset + delayCount > doubleCount ||
+				curveOffset < 0 || sampleCount < 2 || curveOffset + 6L * sampleCount > doubleCount) {
+			throw new IOException("Invalid data offsets in motor database file");
+		}
+
+		double[] delays = new double[delayCount];
+		for (int i = 0; i < delayCount; i++) {
+			delays[i] = data.getDouble(doubles + 8 * (delayOffset + i));
+		}
+		builder.setStandardDelays(delays);
+
+		Curve curve = new Curve(data, doubles + 8 * curveOffset, sampleCount);
+		return builder.build(curve, maxThrust, burnTime, averageThrust, totalImpulse);
+	}
+
+	private static String string(int index, String[] strings) {
+		if (index < 0) {
+			return null;
+		}
+		return strings[index];
+	}
+
+
+	/**
+	 * A thrust curve stored in the buffer of a motor database file.
+	 */
+	private static class Curve implements ThrustCurveMotor.CurveSource {
+		private final ByteBuffer data;
+		private final int offset;
+		private final int count;
+
+		Curve(ByteBuffer data, int offset, int count) {
+			this.data = data;
+			this.offset = offset;
+			this.count = count;
+		}
+
+		@Override
+		public int getSampleSize() {
+			return count;
+		}
+
+		@Override
+		public void read(double[] time, double[] thrust, Coordinate[] cg) {
+			// Only absolute reads are used, so the buffer may be shared between threads
+			int pos = offset;
+			for (int i = 0; i < count; i++, pos += 8) {
+				time[i] = data.getDouble(pos);
+			}
+			for (int i = 0; i < count; i++, pos += 8) {
+				thrust[i] = data.getDouble(pos);
+			}
+			int y = pos + 8 * count;
+			int z = y + 8 * count;
+			int w = z + 8 * count;
+			for (int i = 0; i < count; i++) {
+				cg[i] = new Coordinate(data.getDouble(pos + 8 * i), data.getDouble(y + 8 * i),
+						data.getDouble(z + 8 * i), data.getDouble(w + 8 * i));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,254 @@
+package net.sf.openrocket.optimization.rocketoptimization;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.openrocket.optimization.general.Point;
+import net.sf.openrocket.util.BugException;
+import net.sf.openrocket.util.TextUtil;
+
+/**
+ * A store of optimization parameter values which can be shared between optimization runs
+ * and saved to a file.
+ * <p>
+ * The values are stored by a key identifying the optimized function, see
+ * {@link #createKey(String...)}, and the point at which the function was evaluated.  The
+ * coordinates of the point are quantized to multiples of {@link #POINT_QUANTUM}, so that
+ * points differing only by rounding errors share their value.  The store holds at most a
+ * given number of values, and evicts the least recently used values when full.
+ * <p>
+ * This class is thread-safe.
+ */
+public class EvaluationStore {
+
+	private static final Logger log = LoggerFactory.getLogger(EvaluationStore.class);
+
+	/** The resolution of the stored points in the scaled optimization space. */
+	public static final double POINT_QUANTUM = 1e-6;
+
+	/** The default maximum number of stored values. */
+	public static final int DEFAULT_MAX_SIZE = 50000;
+
+	private static final int MAGIC = 0x4f524556; // "OREV"
+	private static final int VERSION = 1;
+
+	private final int maxSize;
+	private final LinkedHashMap<Key, Double> values;
+	private boolean modified = false;
+
+
+	/**
+	 * Create an empty store.
+	 *
+	 * @param maxSize	the maximum number of values to store.
+	 */
+	public EvaluationStore(final int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Invalid maximum size " + maxSize);
+		}
+		this.maxSize = maxSize;
+		this.values = new LinkedHashMap<Key, Double>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+				return size() > EvaluationStore.this.maxSize;
+			}
+		};
+	}
+
+
+	/**
+	 * Return the stored value of a function at a point.
+	 *
+	 * @param functionKey	the key of the function.
+	 * @param point			the point.
+	 * @return				the stored value, or <code>null</code> if none is stored.
+	 */
+	public synchronized Double get(String functionKey, Point point) {
+		return values.get(new Key(functionKey, quantize(point)));
+	}
+
+	/**
+	 * Store the value of a function at a point.
+	 *
+	 * @param functionKey	the key of the function.
+	 * @param point			the point.
+	 * @param value			the function value (may be NaN).
+	 */
+	public synchronized void put(String functionKey, Point point, double value) {
+		values.put(new Key(functionKey, quantize(point)), value);
+		modified = true;
+	}
+
+	/**
+	 * Return the number of stored values.
+	 */
+	public synchronized int size() {
+		return values.size();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Return whether values have been added since the store was created, loaded or saved.
+	 */
+	public synchronized boolean isModified() {
+		return modified;
+	}
+
+
+	/**
+	 * Load a store from a file.  A missing, unreadable or incompatible file results in an
+	 * empty store.  If the file contains more values than the maximum size, the least
+	 * recently used ones are dropped.
+	 *
+	 * @param file		the file to read.
+	 * @param maxSize	the maximum number of values to store.
+	 * @return			the loaded store.
+	 */
+	public static EvaluationStore load(File file, int maxSize) {
+		EvaluationStore store = new EvaluationStore(maxSize);
+		if (!file.isFile()) {
+			return store;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				log.info("Ignoring incompatible optimization evaluation store " + file);
+				return store;
+			}
+
+			// Values are stored from the least to the most recently used
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String functionKey = in.readUTF();
+				long[] point = new long[in.readInt()];
+				for (int j = 0; j < point.length; j++) {
+					point[j] = in.readLong();
+				}
+				double value = in.readDouble();
+				store.values.put(new Key(functionKey, point), value);
+			}
+			log.info("Loaded " + store.size() + " optimization evaluations from " + file);
+		} catch (IOException e) {
+			log.warn("Unable to read optimization evaluation store " + file, e);
+			return new EvaluationStore(maxSize);
+		}
+		return store;
+	}
+
+	/**
+	 * Save the store to a file.  The file is replaced only after all values have been
+	 * written successfully.
+	 *
+	 * @param file	the file to write.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public synchronized void save(File file) throws IOException {
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Unable to create directory " + dir);
+		}
+
+		File tmp = new File(dir, file.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(values.size());
+			for (Map.Entry<Key, Double> entry : values.entrySet()) {
+				Key key = entry.getKey();
+				out.writeUTF(key.function);
+				out.writeInt(key.point.length);
+				for (long l : key.point) {
+					out.writeLong(l);
+				}
+				out.writeDouble(entry.getValue());
+			}
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		modified = false;
+		log.info("Saved " + values.size() + " optimization evaluations to " + file);
+	}
+
+
+	/**
+	 * Create a function key from strings describing the function.  Equal descriptions
+	 * produce equal keys.
+	 *
+	 * @param parts		the strings describing the function.
+	 * @return			the key as a hexadecimal string.
+	 */
+	public static String createKey(String... parts) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("MD5");
+			for (String part : parts) {
+				byte[] bytes = String.valueOf(part).getBytes(StandardCharsets.UTF_8);
+				md.update((byte) (bytes.length >>> 24));
+				md.update((byte) (bytes.length >>> 16));
+				md.update((byte) (bytes.length >>> 8));
+				md.update((byte) bytes.length);
+				md.update(bytes);
+			}
+			return TextUtil.hexString(md.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new BugException("MD5 digest not available", e);
+		}
+	}
+
+
+	private static long[] quantize(Point point) {
+		long[] q = new long[point.dim()];
+		for (int i = 0; i < q.length; i++) {
+			q[i] = Math.round(point.get(i) / POINT_QUANTUM);
+		}
+		return q;
+	}
+
+
+	private static final class Key {
+		private final String function;
+		private final long[] point;
+		private final int hash;
+
+		Key(String function, long[] point) {
+			this.function = function;
+			this.point = point;
+			this.hash = 31 * function.hashCode() + Arrays.hashCode(point);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hash == other.hash && function.equals(other.function) && Arrays.equals(point, other.point);
+		}
+	}
+}
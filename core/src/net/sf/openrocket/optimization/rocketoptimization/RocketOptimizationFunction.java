@@ -8,12 +8,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.file.openrocket.SimulationDigest;
 import net.sf.openrocket.optimization.general.Function;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.Point;
 import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.unit.UnitGroup;
 import net.sf.openrocket.unit.Value;
+import net.sf.openrocket.util.BuildProperties;
 import net.sf.openrocket.util.Pair;
 
 /**
@@ -40,6 +43,9 @@ public class RocketOptimizationFunction implements Function {
 
 	private final List<RocketOptimizationListener> listeners = new ArrayList<>();
 	
+	private volatile EvaluationStore evaluationStore = null;
+	private String evaluationKey = null;
+	
 	
 	/**
 	 * Sole constructor.
@@ -106,8 +112,8 @@ public class RocketOptimizationFunction implements Function {
 			return goalValue;
 		}
 		
-		// Compute the optimization value
-		parameterValue = parameter.computeValue(simulation);
+		// Compute the optimization value, or use the value stored by an earlier run
+		parameterValue = computeParameterValue(simulation, point);
 		goalValue = goal.getMinimizationParameter(parameterValue);
 		
 		if (Double.isNaN(goalValue)) {
@@ -125,6 +131,89 @@ public class RocketOptimizationFunction implements Function {
 	}
 
 
+	private double computeParameterValue(Simulation simulation, Point point)
+			throws InterruptedException, OptimizationException {
+		final EvaluationStore store = evaluationStore;
+		if (store == null) {
+			return parameter.computeValue(simulation);
+		}
+		
+		final String key = getEvaluationKey();
+		Double stored = store.get(key, point);
+		if (stored != null) {
+			log.debug("Using stored parameter value " + stored + " at point " + point);
+			return stored;
+		}
+		
+		double value = parameter.computeValue(simulation);
+		store.put(key, point, value);
+		return value;
+	}
+	
+	/**
+	 * Return the key of this function in the evaluation store.  The key is computed from
+	 * the base simulation with all modifiers set to their minimum, so that it does not depend
+	 * on the current values of the modified quantities, together with the parameter and the
+	 * modifiers and their ranges.
+	 */
+	private synchronized String getEvaluationKey() throws OptimizationException {
+		if (evaluationKey == null) {
+			final Simulation normalized = newSimulationInstance(baseSimulation);
+			for (SimulationModifier modifier : modifiers) {
+				modifier.modify(normalized, 0.0);
+			}
+			
+			List<String> parts = new ArrayList<>();
+			parts.add(BuildProperties.getVersion());
+			parts.add(SimulationDigest.digest(normalized.getRocket(), normalized.getId(),
+					normalized.getOptions(), normalized.getSimulationExtensions()));
+			parts.add(parameter.getClass().getName());
+			parts.add(parameter.getName());
+			for (SimulationModifier modifier : modifiers) {
+				parts.add(modifier.getClass().getName());
+				parts.add(modifier.getName());
+				parts.add(modifier.getDescription());
+				parts.add(describeRelatedObject(modifier.getRelatedObject()));
+				parts.add(Double.toString(modifier.getMinValue()));
+				parts.add(Double.toString(modifier.getMaxValue()));
+			}
+			evaluationKey = EvaluationStore.createKey(parts.toArray(new String[0]));
+		}
+		return evaluationKey;
+	}
+	
+	/**
+	 * Describe a related object by content.  Components are identified by their position in
+	 * the rocket, since their IDs are not preserved when the design is saved and loaded.
+	 */
+	private static String describeRelatedObject(Object related) {
+		if (related instanceof RocketComponent) {
+			StringBuilder sb = new StringBuilder();
+			RocketComponent c = (RocketComponent) related;
+			while (c.getParent() != null) {
+				sb.insert(0, "/" + c.getParent().getChildPosition(c));
+				c = c.getParent();
+			}
+			return related.getClass().getName() + sb;
+		}
+		return String.valueOf(related);
+	}
+	
+	/**
+	 * Set the store used to look up and store the parameter values, which allows sharing
+	 * the values between optimization runs.  Values are looked up only after the point has
+	 * been checked to be within the simulation domain.
+	 * 
+	 * @param store		the evaluation store, or <code>null</code> to always compute the values.
+	 */
+	public void setEvaluationStore(EvaluationStore store) {
+		this.evaluationStore = store;
+	}
+	
+	public EvaluationStore getEvaluationStore() {
+		return evaluationStore;
+	}
+	
 	/**
 	 * Returns a new deep copy of the simulation and rocket.
 	 * <p>
@@ -3,8 +3,7 @@ package net.sf.openrocket.optimization.rocketoptimization.parameters;
 import net.sf.openrocket.l10n.Translator;
 import net.sf.openrocket.simulation.FlightData;
 import net.sf.openrocket.simulation.FlightDataType;
-import net.sf.openrocket.simulation.listeners.SimulationListener;
-import net.sf.openrocket.simulation.listeners.system.RecoveryDeviceDeploymentEndListener;
+import net.sf.openrocket.simulation.FlightEvent;
 import net.sf.openrocket.startup.Application;
 import net.sf.openrocket.unit.UnitGroup;
 
@@ -23,8 +22,8 @@ public class DeploymentVelocityParameter extends SimulationBasedParameter {
 	}
 	
 	@Override
-	protected SimulationListener[] getSimulationListeners() {
-		return new SimulationListener[] { new RecoveryDeviceDeploymentEndListener() };
+	protected FlightEvent.Type getEndEvent() {
+		return FlightEvent.Type.RECOVERY_DEVICE_DEPLOYMENT;
 	}
 	
 	@Override
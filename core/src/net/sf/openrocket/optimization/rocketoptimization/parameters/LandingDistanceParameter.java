@@ -3,6 +3,7 @@ package net.sf.openrocket.optimization.rocketoptimization.parameters;
 import net.sf.openrocket.l10n.Translator;
 import net.sf.openrocket.simulation.FlightData;
 import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.FlightEvent;
 import net.sf.openrocket.startup.Application;
 import net.sf.openrocket.unit.UnitGroup;
 
@@ -20,6 +21,11 @@ public class LandingDistanceParameter extends SimulationBasedParameter {
 		return trans.get("name");
 	}
 	
+	@Override
+	protected FlightEvent.Type getEndEvent() {
+		return FlightEvent.Type.GROUND_HIT;
+	}
+	
 	@Override
 	protected double getResultValue(FlightData simulatedData) {
 		return simulatedData.getBranch(0).getLast(FlightDataType.TYPE_POSITION_XY);
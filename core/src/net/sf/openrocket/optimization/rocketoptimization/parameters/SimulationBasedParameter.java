@@ -1,21 +1,20 @@
 package net.sf.openrocket.optimization.rocketoptimization.parameters;
 
-import java.util.Arrays;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.rocketoptimization.OptimizableParameter;
+import net.sf.openrocket.simulation.CancellationToken;
 import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightEvent;
 import net.sf.openrocket.simulation.exception.MotorIgnitionException;
 import net.sf.openrocket.simulation.exception.SimulationCalculationException;
 import net.sf.openrocket.simulation.exception.SimulationCancelledException;
 import net.sf.openrocket.simulation.exception.SimulationException;
 import net.sf.openrocket.simulation.exception.SimulationLaunchException;
 import net.sf.openrocket.simulation.listeners.SimulationListener;
-import net.sf.openrocket.simulation.listeners.system.InterruptListener;
 
 /**
  * An abstract optimization parameter that simulates a rocket flight and obtains
@@ -32,10 +31,8 @@ public abstract class SimulationBasedParameter implements OptimizableParameter {
 		try {
 			log.debug("Running simulation for " + getName());
 			
-			SimulationListener[] listeners = getSimulationListeners();
-			listeners = Arrays.copyOf(listeners, listeners.length + 1);
-			listeners[listeners.length - 1] = new InterruptListener();
-			simulation.simulate(listeners);
+			// Interrupting the evaluation thread cancels the simulation
+			simulation.simulate(new CancellationToken(), getEndEvent(), getSimulationListeners());
 			
 			double value = getResultValue(simulation.getSimulatedData());
 			log.debug("Parameter '" + getName() + " was " + value);
@@ -67,12 +64,24 @@ public abstract class SimulationBasedParameter implements OptimizableParameter {
 	 */
 	protected abstract double getResultValue(FlightData simulatedData);
 	
+	/**
+	 * Return the earliest flight event at which the parameter value is final.  The
+	 * simulation ends at this event, and only the main branch of the flight is simulated,
+	 * so the value must be obtainable from the first branch of the flight data.
+	 * 
+	 * @return	the event type, or <code>null</code> to simulate the whole flight.
+	 */
+	protected FlightEvent.Type getEndEvent() {
+		return null;
+	}
+	
 	/**
 	 * Return an array of simulation listeners to provide to the simulation.
 	 * This may include a listener that stops the simulation after the necessary value
 	 * has been computed.
 	 * <p>
-	 * This array should NOT contain InterruptListener, it will be added implicitly.
+	 * The simulation is cancelled when the evaluating thread is interrupted, so the
+	 * array does not need to contain an InterruptListener.
 	 * 
 	 * @return	an array of simulation listeners to include.
 	 */
@@ -2,90 +2,126 @@ package net.sf.openrocket.plugin;
 
 import java.io.File;
 import java.io.IOException;
-import java.lang.annotation.Annotation;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import net.sf.openrocket.util.BugException;
 import net.sf.openrocket.util.JarUtil;
-import eu.infomas.annotation.AnnotationDetector;
-import eu.infomas.annotation.AnnotationDetector.TypeReporter;
 
 /**
- * An AnnotationFinder that uses annotation-detector library to scan
- * the class path.  Compatible with the JIJ loader.
+ * An AnnotationFinder that finds the {@link Plugin} classes of the class path.
+ * Compatible with the JIJ loader.
+ * <p>
+ * Class path entries containing a {@link PluginIndex}, generated at build time, are not
+ * scanned.  Other entries are scanned with the annotation-detector library.  If a cache
+ * file is given, the results of scanning JAR files, such as the plugins of the user, are
+ * cached and the JARs are rescanned only when their size or modification time changes.
  */
 public class AnnotationFinderImpl implements AnnotationFinder {
-	
+
+	private static final Logger log = LoggerFactory.getLogger(AnnotationFinderImpl.class);
+
+	private final File cacheFile;
+
+	/**
+	 * Create a finder that does not cache the scanned JARs.
+	 */
+	public AnnotationFinderImpl() {
+		this(null);
+	}
+
+	/**
+	 * @param cacheFile		the file caching the plugin classes of the scanned JARs,
+	 * 						or <code>null</code> for no cache.
+	 */
+	public AnnotationFinderImpl(File cacheFile) {
+		this.cacheFile = cacheFile;
+	}
+
+
 	@Override
 	public List<Class<?>> findAnnotatedTypes(Class<?> annotation) {
-		final List<Class<?>> classes = new ArrayList<Class<?>>();
-		
-		TypeReporter reporter = new ListReporter(classes);
-		final AnnotationDetector cf = new AnnotationDetector(reporter);
+		final Set<String> names = new LinkedHashSet<String>();
+		final PluginScanCache cache = (cacheFile != null) ? PluginScanCache.load(cacheFile) : null;
+
 		try {
-			ClassLoader loader = this.getClass().getClassLoader();
-			if (loader instanceof URLClassLoader) {
-				
-				/*
-				 * In case of URLClassLoader (which may be our own instantiation)
-				 * use the URLs from there, as java.class.path may not be up-to-date.
-				 */
-				
-				URLClassLoader urlClassLoader = (URLClassLoader) loader;
-				URL[] urls = urlClassLoader.getURLs();
-				
-				List<File> files = new ArrayList<File>();
-				for (URL url : urls) {
-					if (url.getProtocol().equals("file")) {
-						files.add(JarUtil.urlToFile(url));
+			for (File entry : getClassPath()) {
+				List<String> indexed = PluginIndex.read(entry);
+				if (indexed != null) {
+					names.addAll(indexed);
+				} else if (entry.isFile()) {
+					List<String> cached = (cache != null) ? cache.get(entry) : null;
+					if (cached == null) {
+						cached = new ArrayList<String>(PluginIndex.scan(entry));
+						if (cache != null) {
+							cache.put(entry, cached);
+						}
 					}
+					names.addAll(cached);
+				} else if (entry.isDirectory()) {
+					names.addAll(PluginIndex.scan(entry));
 				}
-				
-				cf.detect(files.toArray(new File[0]));
-			} else {
-				
-				/*
-				 * If not using a URLClassLoader, just do the default.
-				 */
-				cf.detect();
 			}
-			
 		} catch (IOException e) {
 			throw new BugException("Unable to search class path", e);
 		}
-		
-		return classes;
-	}
-	
-	
-	private static class ListReporter implements TypeReporter {
-		private final List<Class<?>> classes;
-		private final Set<String> names = new HashSet<String>();
-		
-		public ListReporter(List<Class<?>> classes) {
-			this.classes = classes;
+
+		if (cache != null && cache.isModified()) {
+			try {
+				cache.save();
+			} catch (IOException e) {
+				log.warn("Unable to save plugin scan cache " + cacheFile, e);
+			}
 		}
-		
-		@SuppressWarnings("unchecked")
-		@Override
-		public Class<? extends Annotation>[] annotations() {
-			return new Class[] { Plugin.class };
+
+		final List<Class<?>> classes = new ArrayList<Class<?>>();
+		for (String name : names) {
+			try {
+				classes.add(this.getClass().getClassLoader().loadClass(name));
+			} catch (ClassNotFoundException e) {
+				// Ignore
+			}
 		}
-		
-		@Override
-		public void reportTypeAnnotation(Class<? extends Annotation> annotation, String className) {
-			if (names.add(className)) {
-				try {
-					classes.add(this.getClass().getClassLoader().loadClass(className));
-				} catch (ClassNotFoundException e) {
-					// Ignore
+		return classes;
+	}
+
+
+	private List<File> getClassPath() {
+		List<File> files = new ArrayList<File>();
+
+		ClassLoader loader = this.getClass().getClassLoader();
+		if (loader instanceof URLClassLoader) {
+
+			/*
+			 * In case of URLClassLoader (which may be our own instantiation)
+			 * use the URLs from there, as java.class.path may not be up-to-date.
+			 */
+
+			URLClassLoader urlClassLoader = (URLClassLoader) loader;
+			for (URL url : urlClassLoader.getURLs()) {
+				if (url.getProtocol().equals("file")) {
+					files.add(JarUtil.urlToFile(url));
+				}
+			}
+		} else {
+
+			/*
+			 * If not using a URLClassLoader, use the system class path.
+			 */
+			for (String path : System.getProperty("java.class.path").split(File.pathSeparator)) {
+				if (path.length() > 0) {
+					files.add(new File(path));
 				}
 			}
 		}
+
+		return files;
 	}
 }
@@ -0,0 +1,162 @@
+package net.sf.openrocket.plugin;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import eu.infomas.annotation.AnnotationDetector;
+import eu.infomas.annotation.AnnotationDetector.TypeReporter;
+
+/**
+ * The plugin index of a class path entry, listing the names of the classes annotated
+ * with {@link Plugin} in the entry.
+ * <p>
+ * The index is stored in the resource {@link #INDEX_RESOURCE} of a class directory or
+ * JAR file, one class name per line.  It is generated at build time by {@link #main(String[])},
+ * so that the entries containing an index need not be scanned for annotations at startup.
+ */
+public final class PluginIndex {
+
+	/** The resource name of the plugin index. */
+	public static final String INDEX_RESOURCE = "META-INF/openrocket/plugins.index";
+
+	private PluginIndex() {
+	}
+
+
+	/**
+	 * Read the plugin index of a class path entry.
+	 *
+	 * @param entry		a class directory or JAR file.
+	 * @return			the indexed class names, or <code>null</code> if the entry contains no index.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public static List<String> read(File entry) throws IOException {
+		if (entry.isDirectory()) {
+			File index = new File(entry, INDEX_RESOURCE);
+			if (!index.isFile()) {
+				return null;
+			}
+			try (InputStream in = new FileInputStream(index)) {
+				return read(in);
+			}
+		}
+
+		if (entry.isFile()) {
+			try (ZipFile zip = new ZipFile(entry)) {
+				ZipEntry index = zip.getEntry(INDEX_RESOURCE);
+				if (index == null) {
+					return null;
+				}
+				try (InputStream in = zip.getInputStream(index)) {
+					return read(in);
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Read a plugin index from a stream.  Empty lines and lines starting with '#' are ignored.
+	 * The stream is not closed.
+	 */
+	public static List<String> read(InputStream in) throws IOException {
+		List<String> names = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (line.length() > 0 && !line.startsWith("#")) {
+				names.add(line);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Write a plugin index file.
+	 *
+	 * @param names		the plugin class names.
+	 * @param file		the index file to write.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public static void write(Collection<String> names, File file) throws IOException {
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Unable to create directory " + dir);
+		}
+
+		try (PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			out.print("# Classes annotated with @Plugin, generated at build time\n");
+			for (String name : names) {
+				out.print(name + "\n");
+			}
+		}
+	}
+
+
+	/**
+	 * Scan class directories and JAR files for classes annotated with {@link Plugin}.
+	 *
+	 * @param entries	the class directories and JAR files to scan.
+	 * @return			the names of the annotated classes, sorted.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public static Set<String> scan(File... entries) throws IOException {
+		final Set<String> names = new TreeSet<String>();
+		AnnotationDetector detector = new AnnotationDetector(new TypeReporter() {
+			@SuppressWarnings("unchecked")
+			@Override
+			public Class<? extends Annotation>[] annotations() {
+				return new Class[] { Plugin.class };
+			}
+
+			@Override
+			public void reportTypeAnnotation(Class<? extends Annotation> annotation, String className) {
+				names.add(className);
+			}
+		});
+		detector.detect(entries);
+		return names;
+	}
+
+
+	/**
+	 * Generate a plugin index at build time.
+	 * <p>
+	 * Usage: <code>PluginIndex &lt;index file&gt; &lt;class directory or JAR&gt;...</code>
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: PluginIndex <index file> <class directory or JAR>...");
+			System.exit(1);
+		}
+
+		File index = new File(args[0]);
+		List<File> entries = new ArrayList<File>();
+		for (String arg : Arrays.asList(args).subList(1, args.length)) {
+			entries.add(new File(arg));
+		}
+
+		Set<String> names = scan(entries.toArray(new File[0]));
+		write(names, index);
+		System.out.println("Wrote " + names.size() + " plugin classes to " + index);
+	}
+}
@@ -18,7 +18,19 @@ public class PluginModule extends AbstractModule {
 	
 	
 	private Map<Class<?>, Multibinder<?>> binders = new HashMap<Class<?>, Multibinder<?>>();
-	private AnnotationFinder finder = new AnnotationFinderImpl();
+	private final AnnotationFinder finder;
+	
+	
+	public PluginModule() {
+		this(new AnnotationFinderImpl());
+	}
+	
+	/**
+	 * @param finder	the finder used to find the plugin classes.
+	 */
+	public PluginModule(AnnotationFinder finder) {
+		this.finder = finder;
+	}
 	
 	
 	@SuppressWarnings("unchecked")
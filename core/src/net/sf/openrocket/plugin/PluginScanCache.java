@@ -0,0 +1,120 @@
+package net.sf.openrocket.plugin;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of the plugin classes found by scanning JAR files without a plugin index.
+ * <p>
+ * The classes are stored by the absolute path of the JAR, and are valid as long as the
+ * size and modification time of the file do not change.  The cache is stored as a
+ * properties file.  Only the JARs looked up since loading are kept when saving, so
+ * removed plugins do not accumulate.
+ */
+class PluginScanCache {
+
+	private static final Logger log = LoggerFactory.getLogger(PluginScanCache.class);
+
+	private final File file;
+	private final Properties entries = new Properties();
+	private final Set<String> used = new HashSet<String>();
+	private boolean modified = false;
+
+
+	private PluginScanCache(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Load the cache from a file.  A missing or unreadable file results in an empty cache.
+	 */
+	public static PluginScanCache load(File file) {
+		PluginScanCache cache = new PluginScanCache(file);
+		if (file.isFile()) {
+			try (InputStream in = new FileInputStream(file)) {
+				cache.entries.load(in);
+			} catch (IOException | IllegalArgumentException e) {
+				log.warn("Unable to read plugin scan cache " + file, e);
+				cache.entries.clear();
+			}
+		}
+		return cache;
+	}
+
+
+	/**
+	 * Return the cached plugin classes of a JAR file.
+	 *
+	 * @param jar	the JAR file.
+	 * @return		the plugin class names, or <code>null</code> if the JAR has not been
+	 * 				scanned or has changed since.
+	 */
+	public List<String> get(File jar) {
+		String key = jar.getAbsolutePath();
+		String value = entries.getProperty(key);
+		if (value == null) {
+			return null;
+		}
+
+		String[] fields = value.split(" ");
+		if (fields.length < 2 || !fields[0].equals(Long.toString(jar.length())) ||
+				!fields[1].equals(Long.toString(jar.lastModified()))) {
+			return null;
+		}
+		used.add(key);
+		return new ArrayList<String>(Arrays.asList(fields).subList(2, fields.length));
+	}
+
+	/**
+	 * Store the plugin classes of a JAR file.
+	 */
+	public void put(File jar, Collection<String> classNames) {
+		String key = jar.getAbsolutePath();
+		List<String> fields = new ArrayList<String>();
+		fields.add(Long.toString(jar.length()));
+		fields.add(Long.toString(jar.lastModified()));
+		fields.addAll(classNames);
+		entries.setProperty(key, String.join(" ", fields));
+		used.add(key);
+		modified = true;
+	}
+
+	/**
+	 * Return whether JARs have been added or removed since loading.
+	 */
+	public boolean isModified() {
+		return modified || !used.containsAll(entries.stringPropertyNames());
+	}
+
+	/**
+	 * Save the entries of the JARs looked up since loading.
+	 *
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public void save() throws IOException {
+		entries.keySet().retainAll(used);
+
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Unable to create directory " + dir);
+		}
+		try (OutputStream out = new FileOutputStream(file)) {
+			entries.store(out, "OpenRocket plugin scan cache");
+		}
+		modified = false;
+	}
+}
@@ -74,8 +74,8 @@ public class AxialStage extends ComponentAssembly implements FlightConfigurableC
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		AxialStage copy = (AxialStage) super.copyWithOriginalID();
+	protected RocketComponent shallowCopyWithOriginalID() {
+		AxialStage copy = (AxialStage) super.shallowCopyWithOriginalID();
 		copy.separations = new FlightConfigurableParameterSet<StageSeparationConfiguration>(separations);
 		return copy;
 	}
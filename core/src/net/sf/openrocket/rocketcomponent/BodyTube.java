@@ -444,8 +444,8 @@ public class BodyTube extends SymmetricComponent implements BoxBounded, MotorMou
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		BodyTube copy = (BodyTube) super.copyWithOriginalID();
+	protected RocketComponent shallowCopyWithOriginalID() {
+		BodyTube copy = (BodyTube) super.shallowCopyWithOriginalID();
 		
 		copy.motors = new MotorConfigurationSet( this.motors, copy );
 		return copy;
@@ -59,6 +59,19 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		}
 	}
 	
+	/** The cached instance map and the modification IDs it was generated for. */
+	private static class InstanceCache {
+		public final int rocketModID;
+		public final int stageModID;
+		public final InstanceMap instances;
+		
+		public InstanceCache(int rocketModID, int stageModID, InstanceMap instances) {
+			this.rocketModID = rocketModID;
+			this.stageModID = stageModID;
+			this.instances = instances;
+		}
+	}
+	
 	/* Cached data */
 	final protected HashMap<Integer, StageFlags> stages = new HashMap<Integer, StageFlags>();
 	final protected HashMap<MotorConfigurationId, MotorConfiguration> motors = new HashMap<MotorConfigurationId, MotorConfiguration>();
@@ -71,6 +84,10 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	private double cachedRefLength = -1;
 	
 	private int modID = 0;
+	
+	/** Incremented whenever a stage flag changes. */
+	private int stageModID = 0;
+	private volatile InstanceCache instanceCache = null;
 
 	/**
 	 * Create a Default configuration with the specified <code>Rocket</code>.
@@ -120,11 +137,13 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		for (StageFlags cur : stages.values()) {
 			cur.active = _active;
 		}
+		stageModID++;
 	}
 
 	public void copyStages(FlightConfiguration other) {
 		for (StageFlags cur : other.stages.values())
 			stages.put(cur.stageNumber, new StageFlags(cur.stageNumber, cur.active));
+		stageModID++;
 	}
 	
 	/** 
@@ -182,6 +201,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	private void _setStageActive(final int stageNumber, final boolean _active ) {
 		if ((0 <= stageNumber) && (stages.containsKey(stageNumber))) {
 			stages.get(stageNumber).active = _active;
+			stageModID++;
 			fireChangeEvent();
 			return;
 		}
@@ -193,6 +213,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		if ((0 <= stageNumber) && (stages.containsKey(stageNumber))) {
 			StageFlags flags = stages.get(stageNumber);
 			flags.active = !flags.active;
+			stageModID++;
 			return;
 		}
 		this.updateMotors();
@@ -286,12 +307,29 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	/*
 	 * Generates a read-only, instance-aware collection of the components for this rocket & configuration
 	 * 
+	 * The map is frozen and cached until the rocket or the stage flags change, so the same
+	 * instance may be returned to several callers and threads.  It is not cached while the
+	 * events of the rocket are disabled.
+	 * 
 	 *  TODO: swap in this function for the 'getActiveComponents() function, above;  ONLY WHEN READY / MATURE! 
 	 */
 	public InstanceMap getActiveInstances() {
-		InstanceMap contexts = new InstanceMap();
-		getActiveContextListAt( this.rocket, contexts, Transformation.IDENTITY);
-		return contexts;
+		final int rocketModID = rocket.getModID();
+		final int currentStageModID = stageModID;
+		InstanceCache cache = instanceCache;
+		if (cache == null || cache.rocketModID != rocketModID || cache.stageModID != currentStageModID
+				|| !rocket.isEventsEnabled()) {
+			InstanceMap contexts = new InstanceMap();
+			getActiveContextListAt( this.rocket, contexts, Transformation.IDENTITY);
+			contexts.freeze();
+			if (!rocket.isEventsEnabled()) {
+				// modifications are not tracked by the modID, so the map cannot be cached
+				return contexts;
+			}
+			cache = new InstanceCache(rocketModID, currentStageModID, contexts);
+			instanceCache = cache;
+		}
+		return cache.instances;
 	}
 
 	private InstanceMap getActiveContextListAt(final RocketComponent component, final InstanceMap results, final Transformation parentTransform ){
@@ -411,6 +449,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 			StageFlags flagsToAdd = new StageFlags( curStage.getStageNumber(), true);
 			this.stages.put(curStage.getStageNumber(), flagsToAdd);
 		}
+		stageModID++;
 	}
 	
 	public boolean isNameOverridden(){
@@ -564,7 +603,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		BoundingBox rocketBounds = new BoundingBox();
 
 		InstanceMap map = getActiveInstances();
-		for (Map.Entry<RocketComponent, java.util.ArrayList<InstanceContext>>  entry : map.entrySet()) {
+		for (Map.Entry<RocketComponent, List<InstanceContext>>  entry : map.entrySet()) {
 			final RocketComponent component = entry.getKey();
 			final BoundingBox componentBounds = new BoundingBox();
 			final List<InstanceContext> contexts = entry.getValue();
@@ -295,8 +295,8 @@ public class FreeformFinSet extends FinSet {
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		RocketComponent c = super.copyWithOriginalID();
+	protected RocketComponent shallowCopyWithOriginalID() {
+		RocketComponent c = super.shallowCopyWithOriginalID();
 		
 		((FreeformFinSet) c).points = new ArrayList<>(this.points);
 		
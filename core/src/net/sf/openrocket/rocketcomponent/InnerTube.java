@@ -368,13 +368,13 @@ public class InnerTube extends ThicknessRingComponent implements AxialPositionab
 	}
 	
 	@Override
-	protected RocketComponent copyWithOriginalID() {
-		InnerTube copy = (InnerTube) super.copyWithOriginalID();
+	protected RocketComponent shallowCopyWithOriginalID() {
+		InnerTube copy = (InnerTube) super.shallowCopyWithOriginalID();
 		if( copy == this ){
-			new IllegalArgumentException(" copyWithOriginalID should return a different instance! ");
+			new IllegalArgumentException(" shallowCopyWithOriginalID should return a different instance! ");
 		}
 		if( copy.motors == this.motors ){
-			new IllegalArgumentException(" copyWithOriginalID should produce different motorSet instances! ");
+			new IllegalArgumentException(" shallowCopyWithOriginalID should produce different motorSet instances! ");
 		}
 		
 		copy.motors = new MotorConfigurationSet( this.motors, copy );
@@ -1,23 +1,32 @@
 package net.sf.openrocket.rocketcomponent;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import net.sf.openrocket.util.Transformation;
 
 
 /**
+ * The instance contexts of the components of a rocket configuration, by component.
+ * <p>
+ * The map is filled with {@link #emplace(RocketComponent, boolean, int, Transformation)} and
+ * is read-only through the <code>Map</code> interface.  Once frozen it can no longer be
+ * modified at all, which allows the configuration to cache it and to share it between
+ * threads.
  *
  * @author teyrana (aka Daniel Williams) <equipoise@gmail.com>
  *
  */
-public class InstanceMap extends HashMap<RocketComponent, ArrayList<InstanceContext>> {
+public class InstanceMap extends AbstractMap<RocketComponent, List<InstanceContext>> {
 
 	// =========== Public Functions ========================
 
-	// public InstanceMap() {}
+	public InstanceMap() {}
 
 	public int count(final RocketComponent key) {
 		if(containsKey(key)){
@@ -28,29 +37,88 @@ public class InstanceMap extends HashMap<RocketComponent, ArrayList<InstanceCont
 	}
 
 	public void emplace(final RocketComponent component, boolean active, int number, final Transformation xform) {
-		final RocketComponent key = component;
+		if (frozen) {
+			throw new IllegalStateException("InstanceMap is frozen");
+		}
 
-		if(!containsKey(component)) {
-			put(key, new ArrayList<InstanceContext>());
+		List<InstanceContext> contexts = contextMap.get(component);
+		if (contexts == null) {
+			contexts = new ArrayList<InstanceContext>();
+			contextMap.put(component, contexts);
+			components.add(component);
 		}
 
-		final InstanceContext context = new InstanceContext(component, active, number, xform);
-		get(key).add(context);
+		contexts.add(new InstanceContext(component, active, number, xform));
 	}
 
 	public List<InstanceContext> getInstanceContexts(final RocketComponent key) {
 		return get(key);
 	}
 
+	/**
+	 * Return the components of the map in the order they were first added, i.e. depth-first
+	 * for the maps generated by {@link FlightConfiguration#getActiveInstances()}.
+	 */
+	public List<RocketComponent> getComponents() {
+		return Collections.unmodifiableList(components);
+	}
+
+	/**
+	 * Return whether the map has been frozen.
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Prevent any further modification of the map.
+	 *
+	 * @return	this map.
+	 */
+	InstanceMap freeze() {
+		if (!frozen) {
+			for (Map.Entry<RocketComponent, List<InstanceContext>> entry : contextMap.entrySet()) {
+				entry.setValue(Collections.unmodifiableList(entry.getValue()));
+			}
+			frozen = true;
+		}
+		return this;
+	}
+
+	@Override
+	public List<InstanceContext> get(Object key) {
+		return contextMap.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return contextMap.containsKey(key);
+	}
+
+	@Override
+	public int size() {
+		return contextMap.size();
+	}
+
+	@Override
+	public Set<Map.Entry<RocketComponent, List<InstanceContext>>> entrySet() {
+		return readOnlyMap.entrySet();
+	}
+
+	@Override
+	public Set<RocketComponent> keySet() {
+		return readOnlyMap.keySet();
+	}
+
 	// this is primarily for debugging.
 	@Override
 	public String toString() {
 		StringBuffer buffer = new StringBuffer();
 		int outerIndex = 0;
 		buffer.append(">> Printing InstanceMap:\n");
-		for(Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry: entrySet() ) {
+		for(Map.Entry<RocketComponent, List<InstanceContext>> entry: entrySet() ) {
 			final RocketComponent key = entry.getKey();
-			final ArrayList<InstanceContext> contexts = entry.getValue();
+			final List<InstanceContext> contexts = entry.getValue();
 			buffer.append(String.format("....[% 2d]:[%s]\n", outerIndex, key.getName()));
 			outerIndex++;
 
@@ -66,8 +134,12 @@ public class InstanceMap extends HashMap<RocketComponent, ArrayList<InstanceCont
 
 	// =========== Instance Member Variables ========================
 
+	private final HashMap<RocketComponent, List<InstanceContext>> contextMap = new HashMap<RocketComponent, List<InstanceContext>>();
+	private final Map<RocketComponent, List<InstanceContext>> readOnlyMap = Collections.unmodifiableMap(contextMap);
+	private final List<RocketComponent> components = new ArrayList<RocketComponent>();
+	private volatile boolean frozen = false;
+
 	// =========== Private Instance Functions ========================
 
 
 }
-
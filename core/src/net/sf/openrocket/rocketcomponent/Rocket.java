@@ -331,27 +331,51 @@ public class Rocket extends ComponentAssembly {
 	@Override
 	public Rocket copyWithOriginalID() {
 		final Rocket copyRocket = (Rocket) super.copyWithOriginalID();
-
-		// Rocket copy is cloned, so non-trivial members must be cloned as well:
-		copyRocket.stageMap = new HashMap<>();
-		for( Map.Entry<Integer,AxialStage> entry : this.stageMap.entrySet()){
-			final AxialStage stage = (AxialStage)copyRocket.findComponent(entry.getValue().getID());
-			copyRocket.stageMap.put(entry.getKey(), stage);
-		}
-
-		// these flight configurations need to reference the _new_ Rocket copy
-		// the default value needs to be explicitly set, because it has different semantics
+		copyRocket.relinkCopy(this);
+		return copyRocket;
+	}
+	
+	@Override
+	protected RocketComponent shallowCopyWithOriginalID() {
+		final Rocket copyRocket = (Rocket) super.shallowCopyWithOriginalID();
+		
+		// The stages are found again once the children of the copy are in place
+		copyRocket.stageMap = new HashMap<>(this.stageMap);
 		copyRocket.configSet = new FlightConfigurableParameterSet<>(new FlightConfiguration(copyRocket));
 		for (FlightConfigurationId key : this.configSet.getIds()) {
 			copyRocket.configSet.set(key, new FlightConfiguration(copyRocket, key));
 		}
-
-		copyRocket.selectedConfiguration = copyRocket.configSet.get( this.getSelectedConfiguration().getId());
+		copyRocket.selectedConfiguration = copyRocket.configSet.get(this.selectedConfiguration.getId());
 		copyRocket.listenerList = new HashSet<>();
 		
 		return copyRocket;
 	}
 	
+	/**
+	 * Link the stages and flight configurations of this copy to its own components,
+	 * after its children have been copied from the given original.
+	 * 
+	 * @param original	the rocket (or copy of the rocket) this rocket was copied from.
+	 */
+	/*package-local*/ void relinkCopy(final Rocket original) {
+		// Rocket copy is cloned, so non-trivial members must be cloned as well:
+		this.stageMap = new HashMap<>();
+		for( Map.Entry<Integer,AxialStage> entry : original.stageMap.entrySet()){
+			final AxialStage stage = (AxialStage)this.findComponent(entry.getValue().getID());
+			this.stageMap.put(entry.getKey(), stage);
+		}
+
+		// these flight configurations need to reference the _new_ Rocket copy
+		// the default value needs to be explicitly set, because it has different semantics
+		this.configSet = new FlightConfigurableParameterSet<>(new FlightConfiguration(this));
+		for (FlightConfigurationId key : original.configSet.getIds()) {
+			this.configSet.set(key, new FlightConfiguration(this, key));
+		}
+
+		this.selectedConfiguration = this.configSet.get( original.selectedConfiguration.getId());
+		this.listenerList = new HashSet<>();
+	}
+	
 	public int getFlightConfigurationCount() {
 		checkState();
 		return this.configSet.size();
@@ -836,6 +860,14 @@ public class Rocket extends ComponentAssembly {
 		}
 	}
 	
+	/**
+	 * Return whether change events are produced.  While events are disabled, modifications
+	 * do not change the modification IDs of the rocket.
+	 */
+	public boolean isEventsEnabled() {
+		return this.eventsEnabled;
+	}
+	
 	public String toDebugConfigs(){
 		StringBuilder buf = new StringBuilder();
 		buf.append(String.format("====== Dumping %d Configurations from rocket: %s ======\n", 
@@ -365,10 +365,8 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 	 * undo/redo mechanism.  This method should not be used for other purposes,
 	 * such as copy/paste.  This method does not fire any events.
 	 * <p>
-	 * This method must be overridden by any component that refers to mutable objects,
-	 * or if some fields should not be copied.  This should be performed by
-	 * <code>RocketComponent c = super.copyWithOriginalID();</code> and then cloning/modifying
-	 * the appropriate fields.
+	 * Components that refer to mutable objects, or whose fields should not be copied,
+	 * override {@link #shallowCopyWithOriginalID()} instead of this method.
 	 * <p>
 	 * This is not performed as serializing/deserializing for performance reasons.
 	 *
@@ -378,19 +376,7 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		mutex.lock("copyWithOriginalID");
 		try {
 			checkState();
-			RocketComponent clone;
-			try {
-				clone = (RocketComponent) this.clone();
-			} catch (CloneNotSupportedException e) {
-				throw new BugException("CloneNotSupportedException encountered, report a bug!", e);
-			}
-			
-			// Reset the mutex
-			clone.mutex = SafetyMutex.newInstance();
-			
-			// Reset all parent/child information
-			clone.parent = null;
-			clone.children = new ArrayList<RocketComponent>();
+			RocketComponent clone = shallowCopyWithOriginalID();
 			
 			// Add copied children to the structure without firing events.
 			for (RocketComponent child : this.children) {
@@ -409,6 +395,35 @@ public abstract class RocketComponent implements ChangeSource, Cloneable, Iterab
 		}
 	}
 	
+	/**
+	 * Make a copy of this component alone while maintaining the component ID.  The copy
+	 * has no parent and no children.  This method does not fire any events.
+	 * <p>
+	 * This method must be overridden by any component that refers to mutable objects,
+	 * or if some fields should not be copied.  This should be performed by
+	 * <code>RocketComponent c = super.shallowCopyWithOriginalID();</code> and then
+	 * cloning/modifying the appropriate fields.
+	 *
+	 * @return A copy of this component without parent or children.
+	 */
+	protected RocketComponent shallowCopyWithOriginalID() {
+		RocketComponent clone;
+		try {
+			clone = (RocketComponent) this.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new BugException("CloneNotSupportedException encountered, report a bug!", e);
+		}
+		
+		// Reset the mutex
+		clone.mutex = SafetyMutex.newInstance();
+		
+		// Reset all parent/child information
+		clone.parent = null;
+		clone.children = new ArrayList<RocketComponent>();
+		
+		return clone;
+	}
+	
 	
 	//////////////  Methods that may not be overridden  ////////////
 	
@@ -0,0 +1,166 @@
+package net.sf.openrocket.rocketcomponent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of a rocket structure, used by the undo/redo mechanism.
+ * <p>
+ * Each component is stored as a copy without parent or children.  A snapshot can be
+ * created relative to a previous snapshot of the same rocket, in which case the copies
+ * of unchanged components, and whole unchanged subtrees, are shared with the previous
+ * snapshot instead of being copied again.  The rocket itself, which holds the
+ * modification IDs, is always copied.  The stored copies are never modified;
+ * {@link #restore()} always creates new components.
+ */
+public final class RocketSnapshot {
+
+	private final Node root;
+	private final int modID;
+	private final int componentCount;
+	private final int copyCount;
+
+	private RocketSnapshot(Node root, int componentCount, int copyCount) {
+		this.root = root;
+		this.modID = ((Rocket) root.component).getModID();
+		this.componentCount = componentCount;
+		this.copyCount = copyCount;
+	}
+
+
+	/**
+	 * Create a snapshot of the current state of a rocket.
+	 *
+	 * @param rocket		the rocket to store.
+	 * @param previous		a previous snapshot of the rocket, or <code>null</code> to copy all components.
+	 * @param changedIDs	the IDs of the components that have been modified since the previous
+	 * 						snapshot was taken, or <code>null</code> if unknown.
+	 * @return				a snapshot of the rocket.
+	 */
+	public static RocketSnapshot create(Rocket rocket, RocketSnapshot previous, Set<String> changedIDs) {
+		Map<String, Node> previousNodes = new HashMap<String, Node>();
+		if (previous != null && changedIDs != null) {
+			previous.root.collect(previousNodes);
+		}
+		int[] counts = new int[2];
+		Node root = createNode(rocket, previousNodes, changedIDs, counts);
+		return new RocketSnapshot(root, counts[0], counts[1]);
+	}
+
+	private static Node createNode(RocketComponent component, Map<String, Node> previousNodes,
+			Set<String> changedIDs, int[] counts) {
+		component.checkState();
+
+		Node old = previousNodes.get(component.getID());
+		RocketComponent copy;
+		// The rocket itself holds the modification IDs, so it is always copied
+		if (old != null && !(component instanceof Rocket) && !changedIDs.contains(component.getID())) {
+			copy = old.component;
+		} else {
+			copy = component.shallowCopyWithOriginalID();
+			counts[1]++;
+		}
+		counts[0]++;
+
+		Node[] children = new Node[component.children.size()];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = createNode(component.children.get(i), previousNodes, changedIDs, counts);
+		}
+
+		if (old != null && old.component == copy && old.hasChildren(children)) {
+			return old;
+		}
+		return new Node(copy, children);
+	}
+
+
+	/**
+	 * Create a new rocket corresponding to this snapshot.  The components have the original
+	 * IDs and are not shared with the snapshot or any other rocket.
+	 *
+	 * @return	a new copy of the stored rocket.
+	 */
+	public Rocket restore() {
+		Rocket rocket = (Rocket) root.materialize();
+		rocket.relinkCopy((Rocket) root.component);
+		rocket.checkComponentStructure();
+		return rocket;
+	}
+
+	/**
+	 * Return the modification ID of the rocket when the snapshot was taken.
+	 */
+	public int getModID() {
+		return modID;
+	}
+
+	/**
+	 * Return the number of components in the stored rocket.
+	 */
+	public int getComponentCount() {
+		return componentCount;
+	}
+
+	/**
+	 * Return the number of component copies made for this snapshot, that is the number of
+	 * components not shared with the previous snapshot.
+	 */
+	public int getCopyCount() {
+		return copyCount;
+	}
+
+	/**
+	 * Return whether the stored copy of a component is shared with another snapshot.
+	 */
+	boolean isShared(RocketSnapshot other, String componentID) {
+		Map<String, Node> nodes = new HashMap<String, Node>();
+		root.collect(nodes);
+		Map<String, Node> otherNodes = new HashMap<String, Node>();
+		other.root.collect(otherNodes);
+		Node node = nodes.get(componentID);
+		Node otherNode = otherNodes.get(componentID);
+		return node != null && otherNode != null && node.component == otherNode.component;
+	}
+
+
+	private static final class Node {
+		private final RocketComponent component;
+		private final Node[] children;
+
+		Node(RocketComponent component, Node[] children) {
+			this.component = component;
+			this.children = children;
+		}
+
+		void collect(Map<String, Node> nodes) {
+			nodes.put(component.getID(), this);
+			for (Node child : children) {
+				child.collect(nodes);
+			}
+		}
+
+		boolean hasChildren(Node[] others) {
+			if (children.length != others.length) {
+				return false;
+			}
+			for (int i = 0; i < children.length; i++) {
+				if (children[i] != others[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		RocketComponent materialize() {
+			RocketComponent copy = component.shallowCopyWithOriginalID();
+			for (Node child : children) {
+				RocketComponent childCopy = child.materialize();
+				// Don't use addChild(...) method since it fires events
+				copy.children.add(childCopy);
+				childCopy.parent = copy;
+			}
+			return copy;
+		}
+	}
+}
@@ -119,8 +119,13 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return structureMass;
 		}
 		
-		structureMass = MassCalculator.calculateStructure( status.getConfiguration() );  
-						
+		MassCalculator calculator = status.getSimulationConditions().getMassCalculator();
+		if (calculator != null) {
+			structureMass = calculator.getStructure( status.getConfiguration() );
+		} else {
+			structureMass = MassCalculator.calculateStructure( status.getConfiguration() );
+		}
+		
 		// Call post-listener
 		structureMass = SimulationListenerHelper.firePostMassCalculation(status, structureMass);
 		
@@ -140,9 +145,13 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return motorMass;
 		}
 		
-		motorMass = MassCalculator.calculateMotor( status );  
-
-				
+		MassCalculator calculator = status.getSimulationConditions().getMassCalculator();
+		if (calculator != null) {
+			motorMass = calculator.getMotor( status );
+		} else {
+			motorMass = MassCalculator.calculateMotor( status );
+		}
+		
 		// Call post-listener
 		motorMass = SimulationListenerHelper.firePostMassCalculation(status, motorMass);
 		
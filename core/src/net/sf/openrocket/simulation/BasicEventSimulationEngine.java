@@ -19,6 +19,7 @@ import net.sf.openrocket.rocketcomponent.RecoveryDevice;
 import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.rocketcomponent.StageSeparationConfiguration;
 import net.sf.openrocket.simulation.exception.MotorIgnitionException;
+import net.sf.openrocket.simulation.exception.SimulationCancelledException;
 import net.sf.openrocket.simulation.exception.SimulationException;
 import net.sf.openrocket.simulation.exception.SimulationLaunchException;
 import net.sf.openrocket.simulation.listeners.SimulationListenerHelper;
@@ -85,6 +86,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 				break;
 			}
 			currentStatus = toSimulate.pop();
+			currentStatus.getSimulationConditions().getCancellationToken().check();
 			log.info(">>Starting simulation of branch: "+currentStatus.getFlightData().getBranchName());
 			
 			FlightDataBranch dataBranch = simulateLoop();
@@ -95,6 +97,12 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 							dataBranch.getBranchName(),
 							currentStatus.getSimulationTime(),
 							dataBranch.getLast(FlightDataType.TYPE_TIME)));
+			
+			// With an end event only the main branch is simulated
+			if (simulationConditions.getEndEvent() != null && !toSimulate.isEmpty()) {
+				log.info("Skipping " + toSimulate.size() + " branches after end event " + simulationConditions.getEndEvent());
+				toSimulate.clear();
+			}
 		}while( ! toSimulate.isEmpty());
 		
 		SimulationListenerHelper.fireEndSimulation(currentStatus, null);
@@ -106,7 +114,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		return flightData;
 	}
 	
-	private FlightDataBranch simulateLoop() {
+	private FlightDataBranch simulateLoop() throws SimulationCancelledException {
 		
 		// Initialize the simulation.  We'll use the flight stepper unless we're already on the ground
 		if (currentStatus.isLanded())
@@ -120,10 +128,14 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		Coordinate origin = currentStatus.getRocketPosition();
 		Coordinate originVelocity = currentStatus.getRocketVelocity();
 		
+		CancellationToken cancellation = currentStatus.getSimulationConditions().getCancellationToken();
+		
 		try {
 			
 			// Start the simulation
 			while (handleEvents()) {
+				cancellation.check();
+				
 				// Take the step
 				double oldAlt = currentStatus.getRocketPosition().z;
 				
@@ -241,6 +253,10 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 					addEvent(new FlightEvent(FlightEvent.Type.SIMULATION_END, currentStatus.getSimulationTime()));
 			}
 			
+		} catch (SimulationCancelledException e) {
+			// Cancellation stops the whole simulation
+			SimulationListenerHelper.fireEndSimulation(currentStatus, e);
+			throw e;
 		} catch (SimulationException e) {
 			SimulationListenerHelper.fireEndSimulation(currentStatus, e);
 			// Add FlightEvent for Abort.
@@ -259,6 +275,7 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 	private boolean handleEvents() throws SimulationException {
 		boolean ret = true;
 		FlightEvent event;
+		final FlightEvent.Type endEvent = currentStatus.getSimulationConditions().getEndEvent();
 		
 		log.trace("HandleEvents: current branch = " + currentStatus.getFlightData().getBranchName());
 		for (event = nextEvent(); event != null; event = nextEvent()) {
@@ -487,11 +504,16 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 					
 					// If we haven't already reached apogee, then we need to compute the actual coast time
 					// to determine the optimum altitude.
-					if (currentStatus.getSimulationConditions().isCalculateExtras() && !currentStatus.isApogeeReached()) {
+					// The coast is computed at the first deployment only, later deployments
+					// cannot change the coast trajectory up to that point.
+					if (currentStatus.getSimulationConditions().isCalculateExtras() && !currentStatus.isApogeeReached() &&
+							Double.isNaN(currentStatus.getFlightData().getOptimumAltitude())) {
 						FlightData coastStatus = computeCoastTime();
-
-						currentStatus.getFlightData().setOptimumAltitude(coastStatus.getMaxAltitude());
-						currentStatus.getFlightData().setTimeToOptimumAltitude(coastStatus.getTimeToApogee());
+						
+						if (coastStatus != null) {
+							currentStatus.getFlightData().setOptimumAltitude(coastStatus.getMaxAltitude());
+							currentStatus.getFlightData().setTimeToOptimumAltitude(coastStatus.getTimeToApogee());
+						}
 					}
 
 					// switch to landing stepper (unless we're already on the ground)
@@ -531,6 +553,14 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 				break;
 			}
 			
+			// End the simulation once the end event has been recorded (ignored events are not)
+			if (event.getType() == endEvent && ret &&
+					currentStatus.getFlightData().getLastEvent(endEvent) == event) {
+				ret = false;
+				log.debug("End event " + endEvent + " reached at t=" + currentStatus.getSimulationTime());
+				currentStatus.getFlightData().addEvent(new FlightEvent(FlightEvent.Type.SIMULATION_END, currentStatus.getSimulationTime()));
+			}
+			
 		}
 		
 		if( 1200 < currentStatus.getSimulationTime() ){
@@ -612,13 +642,25 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		}
 	}
 	
+	/**
+	 * Compute the flight from the current status to apogee without deploying any
+	 * recovery devices.  The coast is simulated on a fork of the current status, so
+	 * only the remaining part of the ascent is integrated.
+	 * 
+	 * @return	the flight data of the coast, or <code>null</code> if it could not be computed.
+	 */
 	private FlightData computeCoastTime() {
 		try {
-			SimulationConditions conds = currentStatus.getSimulationConditions().clone();
-			conds.getSimulationListenerList().add(OptimumCoastListener.INSTANCE);
+			SimulationStatus coastStatus = currentStatus.fork();
+			coastStatus.getDeployedRecoveryDevices().clear();
+			coastStatus.getSimulationConditions().getSimulationListenerList().add(OptimumCoastListener.INSTANCE);
+			
 			BasicEventSimulationEngine e = new BasicEventSimulationEngine();
-		
-			FlightData d = e.simulate(conds);
+			e.fcid = this.fcid;
+			e.currentStatus = coastStatus;
+			
+			FlightData d = new FlightData();
+			d.addBranch(e.simulateLoop());
 			return d;
 		} catch (Exception e) {
 			log.warn("Exception computing coast time: ", e);
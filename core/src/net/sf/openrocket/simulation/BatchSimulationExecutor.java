@@ -0,0 +1,280 @@
+package net.sf.openrocket.simulation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.exception.SimulationCancelledException;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.simulation.listeners.AbstractSimulationListener;
+
+/**
+ * Runs a batch of simulations in parallel.  This class does not depend on the user
+ * interface and can be used in headless environments.
+ * <p>
+ * Each submitted simulation is run on a private copy of its simulation and rocket, which
+ * is created in the submitting thread.  The worker threads therefore never access the
+ * component tree of the document, and the safety mutexes of the original rocket and
+ * simulation are not touched while the batch is running.  The results are returned
+ * through the {@link Task} futures; the submitted simulations themselves are not modified.
+ * <p>
+ * The simulations are executed in a work-stealing pool whose parallelism bounds the
+ * number of concurrently running simulations.
+ */
+public class BatchSimulationExecutor {
+
+	private static final Logger log = LoggerFactory.getLogger(BatchSimulationExecutor.class);
+
+	private final ExecutorService executor;
+
+	/**
+	 * Construct an executor that runs as many simulations concurrently as there are
+	 * processors available.
+	 */
+	public BatchSimulationExecutor() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct an executor that runs at most the specified number of simulations
+	 * concurrently.  The worker threads are daemon threads.
+	 *
+	 * @param maxConcurrency	the maximum number of concurrently running simulations.
+	 */
+	public BatchSimulationExecutor(int maxConcurrency) {
+		this(new ForkJoinPool(maxConcurrency));
+	}
+
+	/**
+	 * Construct an executor that uses the specified ExecutorService for running the
+	 * simulations.
+	 *
+	 * @param executor	the executor to use.
+	 */
+	public BatchSimulationExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+
+	/**
+	 * Submit a batch of simulations for execution.
+	 *
+	 * @param simulations	the simulations to run.
+	 * @return				the tasks of the simulations, in the same order as the simulations.
+	 */
+	public List<Task> submit(Collection<Simulation> simulations) {
+		return submit(simulations, null);
+	}
+
+	/**
+	 * Submit a batch of simulations for execution.  This method must be called from the
+	 * thread that owns the simulations (for example the event dispatch thread), since the
+	 * simulations and their rockets are copied before this method returns.
+	 *
+	 * @param simulations	the simulations to run.
+	 * @param listener		the listener to notify of progress, or <code>null</code>.
+	 * @return				the tasks of the simulations, in the same order as the simulations.
+	 */
+	public List<Task> submit(Collection<Simulation> simulations, BatchSimulationListener listener) {
+		List<Task> tasks = new ArrayList<Task>(simulations.size());
+		for (Simulation simulation : simulations) {
+			tasks.add(new Task(simulation, listener));
+		}
+		for (Task task : tasks) {
+			executor.execute(task);
+		}
+		log.info("Submitted " + tasks.size() + " simulations for batch execution");
+		return tasks;
+	}
+
+	/**
+	 * Submit a batch of simulations and wait until all of them have completed.  Failed and
+	 * cancelled simulations do not interrupt the batch; their failures are available from
+	 * the returned tasks.
+	 *
+	 * @param simulations	the simulations to run.
+	 * @param listener		the listener to notify of progress, or <code>null</code>.
+	 * @return				the completed tasks, in the same order as the simulations.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting, in
+	 * 								which case the remaining simulations are cancelled.
+	 */
+	public List<Task> runAll(Collection<Simulation> simulations, BatchSimulationListener listener)
+			throws InterruptedException {
+		List<Task> tasks = submit(simulations, listener);
+		try {
+			for (Task task : tasks) {
+				task.await();
+			}
+		} catch (InterruptedException e) {
+			for (Task task : tasks) {
+				task.cancel(true);
+			}
+			throw e;
+		}
+		return tasks;
+	}
+
+	/**
+	 * Initiate an orderly shutdown of the executor.  Previously submitted simulations
+	 * are run, but no new simulations are accepted.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Block until all simulations have completed after a shutdown request, or the timeout occurs.
+	 *
+	 * @return	<code>true</code> if the executor terminated, <code>false</code> if the timeout elapsed.
+	 */
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return executor.awaitTermination(timeout, unit);
+	}
+
+
+
+	/**
+	 * A future of the flight data of a single simulation of a batch.  Cancelling the task
+	 * stops the simulation at the next simulation step.
+	 */
+	public static class Task extends FutureTask<FlightData> {
+
+		private final Simulation simulation;
+		private final BatchSimulationListener listener;
+
+		private Task(Simulation simulation, BatchSimulationListener listener) {
+			this(simulation, listener, new SimulationCallable(simulation, listener));
+		}
+
+		private Task(Simulation simulation, BatchSimulationListener listener, SimulationCallable callable) {
+			super(callable);
+			this.simulation = simulation;
+			this.listener = listener;
+			callable.task = this;
+		}
+
+		/**
+		 * Return the submitted simulation of this task.
+		 */
+		public Simulation getSimulation() {
+			return simulation;
+		}
+
+		/**
+		 * Wait until the simulation has completed, failed or been cancelled.
+		 *
+		 * @throws InterruptedException	if the current thread is interrupted while waiting.
+		 */
+		public void await() throws InterruptedException {
+			try {
+				get();
+			} catch (ExecutionException ignore) {
+				// Failure is available through getFailure()
+			} catch (CancellationException ignore) {
+				// Cancellation is available through isCancelled()
+			}
+		}
+
+		/**
+		 * Return the reason why the simulation failed, a {@link SimulationCancelledException}
+		 * if it was cancelled, or <code>null</code> if it has not completed or succeeded.
+		 */
+		public Throwable getFailure() {
+			if (!isDone()) {
+				return null;
+			}
+			if (isCancelled()) {
+				return new SimulationCancelledException("The simulation was cancelled.");
+			}
+			try {
+				get();
+				return null;
+			} catch (ExecutionException e) {
+				return e.getCause();
+			} catch (InterruptedException e) {
+				// Cannot happen, the task is done
+				Thread.currentThread().interrupt();
+				return e;
+			}
+		}
+
+		@Override
+		protected void done() {
+			if (listener == null) {
+				return;
+			}
+			Throwable failure = getFailure();
+			if (failure == null) {
+				try {
+					listener.simulationDone(simulation, get());
+				} catch (Exception e) {
+					log.warn("Unable to obtain result of completed simulation", e);
+				}
+			} else {
+				listener.simulationFailed(simulation, failure);
+			}
+		}
+	}
+
+
+	/**
+	 * Runs a copy of a simulation, which is stopped when the task is cancelled.
+	 */
+	private static class SimulationCallable implements Callable<FlightData> {
+
+		private final Simulation original;
+		private final Simulation copy;
+		private final boolean external;
+		private final BatchSimulationListener listener;
+		private Task task;
+
+		SimulationCallable(Simulation simulation, BatchSimulationListener listener) {
+			this.original = simulation;
+			this.listener = listener;
+			this.external = (simulation.getStatus() == Simulation.Status.EXTERNAL);
+			Rocket rocket = simulation.getRocket().copyWithOriginalID();
+			this.copy = simulation.duplicateSimulation(rocket);
+		}
+
+		@Override
+		public FlightData call() throws SimulationException {
+			if (external) {
+				throw new SimulationException("Cannot simulate imported simulation.");
+			}
+			if (listener != null) {
+				listener.simulationStarted(original);
+			}
+			copy.simulate(new TaskCancellationToken(), new BatchListener());
+			return copy.getSimulatedData();
+		}
+
+		private class TaskCancellationToken extends CancellationToken {
+			@Override
+			public boolean isCancelled() {
+				return task.isCancelled();
+			}
+		}
+
+		private class BatchListener extends AbstractSimulationListener {
+			@Override
+			public void postStep(SimulationStatus status) throws SimulationException {
+				if (listener != null) {
+					listener.simulationStep(original, status);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package net.sf.openrocket.simulation;
+
+import net.sf.openrocket.document.Simulation;
+
+/**
+ * A listener for the progress of simulations run by a {@link BatchSimulationExecutor}.
+ * <p>
+ * All methods are called from the worker threads of the executor, so implementations
+ * must be thread-safe.  The simulation passed to the methods is the original simulation
+ * that was submitted, which must not be modified while the batch is running.
+ */
+public interface BatchSimulationListener {
+
+	/**
+	 * Called when a worker thread starts running a simulation.
+	 *
+	 * @param simulation	the submitted simulation.
+	 */
+	public void simulationStarted(Simulation simulation);
+
+	/**
+	 * Called after every simulation step.
+	 *
+	 * @param simulation	the submitted simulation.
+	 * @param status		the current status of the simulation, only valid during the call.
+	 */
+	public void simulationStep(Simulation simulation, SimulationStatus status);
+
+	/**
+	 * Called when a simulation has completed successfully.
+	 *
+	 * @param simulation	the submitted simulation.
+	 * @param data			the simulated flight data.
+	 */
+	public void simulationDone(Simulation simulation, FlightData data);
+
+	/**
+	 * Called when a simulation has failed or been cancelled.  A cancelled simulation is
+	 * reported with a {@link net.sf.openrocket.simulation.exception.SimulationCancelledException}.
+	 *
+	 * @param simulation	the submitted simulation.
+	 * @param cause			the reason of the failure.
+	 */
+	public void simulationFailed(Simulation simulation, Throwable cause);
+
+}
@@ -0,0 +1,43 @@
+package net.sf.openrocket.simulation;
+
+import net.sf.openrocket.simulation.exception.SimulationCancelledException;
+
+/**
+ * A token used to cancel a running simulation.  The simulation engine checks the token
+ * of the {@link SimulationConditions} before every step and every flight branch, so a
+ * cancelled simulation stops within one step by throwing a {@link SimulationCancelledException}.
+ * <p>
+ * A simulation is also cancelled if the simulating thread is interrupted.  Subclasses may
+ * override {@link #isCancelled()} to tie the cancellation to another object, for example
+ * a task whose simulation is run.
+ */
+public class CancellationToken {
+
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Cancel the simulations using this token.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Return whether the simulations using this token have been cancelled.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Check whether the simulation has been cancelled, either by this token or by
+	 * interrupting the current thread.  The interrupted status of the thread is not cleared.
+	 *
+	 * @throws SimulationCancelledException	if the simulation has been cancelled.
+	 */
+	public void check() throws SimulationCancelledException {
+		if (isCancelled() || Thread.currentThread().isInterrupted()) {
+			throw new SimulationCancelledException("The simulation was cancelled.");
+		}
+	}
+}
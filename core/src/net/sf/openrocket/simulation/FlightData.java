@@ -52,6 +52,8 @@ public class FlightData {
 	private double launchRodVelocity = Double.NaN;
 	private double deploymentVelocity = Double.NaN;
 	
+	private boolean approximate = false;
+	
 	
 	/**
 	 * Create a FlightData object with no content.  The resulting object is mutable.
@@ -105,6 +107,36 @@ public class FlightData {
 	}
 	
 	
+	/**
+	 * Create a FlightData object with the specified branches and summary information.
+	 * Unlike {@link #FlightData(FlightDataBranch...)} the summary is not calculated from
+	 * the branches, so branches with deferred data points are not read.  The resulting
+	 * object is mutable.
+	 * 
+	 * @param branches				the branches.
+	 * @param maxAltitude			maximum altitude.
+	 * @param maxVelocity			maximum velocity.
+	 * @param maxAcceleration		maximum acceleration.
+	 * @param maxMachNumber			maximum Mach number.
+	 * @param timeToApogee			time to apogee.
+	 * @param flightTime			total flight time.
+	 * @param groundHitVelocity		ground hit velocity.
+	 * @param launchRodVelocity     velocity at launch rod clearance
+	 * @param deploymentVelocity    velocity at deployment
+	 */
+	public FlightData(FlightDataBranch[] branches, double maxAltitude, double maxVelocity,
+			double maxAcceleration, double maxMachNumber, double timeToApogee, double flightTime,
+			double groundHitVelocity, double launchRodVelocity, double deploymentVelocity) {
+		this(maxAltitude, maxVelocity, maxAcceleration, maxMachNumber, timeToApogee, flightTime,
+				groundHitVelocity, launchRodVelocity, deploymentVelocity);
+		
+		for (FlightDataBranch b : branches) {
+			b.immute();
+			this.branches.add(b);
+		}
+	}
+	
+	
 
 
 	/**
@@ -256,6 +288,20 @@ public class FlightData {
 	}
 	
 	
+	/**
+	 * Return whether this data is the approximate result of a preview simulation,
+	 * see {@link net.sf.openrocket.document.Simulation#simulatePreview}.
+	 */
+	public boolean isApproximate() {
+		return approximate;
+	}
+	
+	public void setApproximate(boolean approximate) {
+		mutable.check();
+		this.approximate = approximate;
+	}
+	
+	
 	public void immute() {
 		mutable.immute();
 		warnings.immute();
@@ -1,12 +1,11 @@
 package net.sf.openrocket.simulation;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
 import net.sf.openrocket.util.ArrayList;
+import net.sf.openrocket.util.LinearInterpolator;
 import net.sf.openrocket.util.Monitorable;
 import net.sf.openrocket.util.Mutable;
 
@@ -22,6 +21,13 @@ import net.sf.openrocket.util.Mutable;
  * will be created and all previous values will be set to NaN.
  * <p>
  * After populating a FlightDataBranch object it can be made immutable by calling {@link #immute()}.
+ * <p>
+ * The values are stored column-wise in primitive arrays indexed by {@link FlightDataType#getOrdinal()},
+ * so adding and setting values does not box.  {@link #getColumn(FlightDataType)} provides a view of
+ * a column without copying it.
+ * <p>
+ * The data points of a branch may be read only when first needed, see
+ * {@link #setDeferredPoints(Supplier)}.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
@@ -30,11 +36,23 @@ public class FlightDataBranch implements Monitorable {
 	/** The name of this flight data branch. */
 	private final String branchName;
 	
-	private final Map<FlightDataType, ArrayList<Double>> values =
-			new LinkedHashMap<FlightDataType, ArrayList<Double>>();
+	/** Initial number of data points allocated for each column. */
+	private static final int INITIAL_CAPACITY = 64;
+	
+	/** The columns in the order the types were added. */
+	private Column[] columns = new Column[0];
+	
+	/** Column index (+1) for each type ordinal, zero if the type is not present. */
+	private int[] columnIndex = new int[0];
+	
+	/** Number of data points in each column. */
+	private int length = 0;
 	
-	private final Map<FlightDataType, Double> maxValues = new HashMap<FlightDataType, Double>();
-	private final Map<FlightDataType, Double> minValues = new HashMap<FlightDataType, Double>();
+	/** Number of data points allocated in each column. */
+	private int capacity = INITIAL_CAPACITY;
+	
+	/** Number of leading data points known to have non-decreasing times. */
+	private int orderedLength = 0;
 	
 	/**
 	 * time for the rocket to reach apogee if the flight had been no recovery deployment
@@ -51,6 +69,9 @@ public class FlightDataBranch implements Monitorable {
 	
 	private int modID = 0;
 	
+	/** Source of the data points not read yet, or <code>null</code> if read. */
+	private volatile Supplier<FlightDataBranch> deferredPoints = null;
+	
 	/**
 	 * Sole constructor.  Defines the name of the FlightDataBranch and at least one variable type.
 	 * 
@@ -65,14 +86,12 @@ public class FlightDataBranch implements Monitorable {
 		this.branchName = name;
 		
 		for (FlightDataType t : types) {
-			if (values.containsKey(t)) {
+			if (getColumnFor(t) != null) {
 				throw new IllegalArgumentException("Value type " + t + " specified multiple " +
 						"times in constructor.");
 			}
 			
-			values.put(t, new ArrayList<Double>());
-			minValues.put(t, Double.NaN);
-			maxValues.put(t, Double.NaN);
+			addColumn(t, Double.NaN);
 		}
 	}
 	
@@ -87,6 +106,38 @@ public class FlightDataBranch implements Monitorable {
 		this.immute();
 	}
 	
+	/**
+	 * Copy constructor, see {@link #copy()}.
+	 */
+	private FlightDataBranch(FlightDataBranch orig) {
+		orig.loadPoints();
+		this.branchName = orig.branchName;
+		this.length = orig.length;
+		this.capacity = Math.max(orig.length, INITIAL_CAPACITY);
+		this.columnIndex = orig.columnIndex.clone();
+		this.columns = new Column[orig.columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			Column c = orig.columns[i];
+			Column copy = new Column(c.type, capacity);
+			System.arraycopy(c.data, 0, copy.data, 0, length);
+			copy.min = c.min;
+			copy.max = c.max;
+			columns[i] = copy;
+		}
+		this.orderedLength = orig.orderedLength;
+		this.events.addAll(orig.events);
+		this.timeToOptimumAltitude = orig.timeToOptimumAltitude;
+		this.optimumAltitude = orig.optimumAltitude;
+	}
+	
+	/**
+	 * Return a mutable copy of this branch, containing the data points and events
+	 * recorded so far.  Later modifications of either branch do not affect the other.
+	 */
+	public FlightDataBranch copy() {
+		return new FlightDataBranch(this);
+	}
+	
 	/**
 	 * Adds a new point into the data branch.  The value for all types is set to NaN by default.
 	 * 
@@ -94,14 +145,46 @@ public class FlightDataBranch implements Monitorable {
 	 */
 	public void addPoint() {
 		mutable.check();
+		loadPoints();
 		
-		for (FlightDataType t : values.keySet()) {
-			values.get(t).add(Double.NaN);
+		if (columns.length == 0) {
+			return;
 		}
+		
+		if (length == capacity) {
+			capacity *= 2;
+			for (Column c : columns) {
+				c.data = Arrays.copyOf(c.data, capacity);
+			}
+		}
+		for (Column c : columns) {
+			c.data[length] = Double.NaN;
+		}
+		length++;
 		modID++;
 	}
 	
 	
+	/**
+	 * Allocate space for the specified number of data points, for adding a known number
+	 * of points without growing the columns repeatedly.
+	 * 
+	 * @param points	the total number of data points.
+	 * @throws IllegalStateException	if this object has been made immutable.
+	 */
+	public void ensureCapacity(int points) {
+		mutable.check();
+		loadPoints();
+		
+		if (points > capacity) {
+			capacity = points;
+			for (Column c : columns) {
+				c.data = Arrays.copyOf(c.data, capacity);
+			}
+		}
+	}
+	
+	
 	/**
 	 * Set the value for a specific data type at the latest point.  New variable types can be
 	 * added to the FlightDataBranch transparently.
@@ -112,32 +195,22 @@ public class FlightDataBranch implements Monitorable {
 	 */
 	public void setValue(FlightDataType type, double value) {
 		mutable.check();
+		loadPoints();
 		
-		ArrayList<Double> list = values.get(type);
-		
-		if (list == null) {
-			list = new ArrayList<Double>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				list.add(Double.NaN);
-			}
-			values.put(type, list);
-			minValues.put(type, value);
-			maxValues.put(type, value);
+		Column column = getColumnFor(type);
+		if (column == null) {
+			column = addColumn(type, value);
 		}
 		
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
+		if (length > 0) {
+			column.data[length - 1] = value;
 		}
 		
-		double min = minValues.get(type);
-		double max = maxValues.get(type);
-		
-		if (Double.isNaN(min) || (value < min)) {
-			minValues.put(type, value);
+		if (Double.isNaN(column.min) || (value < column.min)) {
+			column.min = value;
 		}
-		if (Double.isNaN(max) || (value > max)) {
-			maxValues.put(type, value);
+		if (Double.isNaN(column.max) || (value > column.max)) {
+			column.max = value;
 		}
 		modID++;
 	}
@@ -155,19 +228,27 @@ public class FlightDataBranch implements Monitorable {
 	 * natural order.
 	 */
 	public FlightDataType[] getTypes() {
-		FlightDataType[] array = values.keySet().toArray(new FlightDataType[0]);
+		FlightDataType[] array = new FlightDataType[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			array[i] = columns[i].type;
+		}
 		Arrays.sort(array);
 		return array;
 	}
 	
+	/**
+	 * Return whether the specified variable type has been added to this branch.
+	 */
+	public boolean contains(FlightDataType type) {
+		return getColumnFor(type) != null;
+	}
+	
 	/**
 	 * Return the number of data points in this branch.
 	 */
 	public int getLength() {
-		for (FlightDataType t : values.keySet()) {
-			return values.get(t).size();
-		}
-		return 0;
+		loadPoints();
+		return length;
 	}
 	
 	/**
@@ -178,10 +259,31 @@ public class FlightDataBranch implements Monitorable {
 	 * 				the variable type hasn't been added to this branch.
 	 */
 	public List<Double> get(FlightDataType type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null)
+		loadPoints();
+		Column column = getColumnFor(type);
+		if (column == null)
 			return null;
-		return list.clone();
+		ArrayList<Double> list = new ArrayList<Double>(length);
+		for (int i = 0; i < length; i++) {
+			list.add(column.data[i]);
+		}
+		return list;
+	}
+	
+	/**
+	 * Return a read-only view of the values for the specified variable type.  Unlike
+	 * {@link #get(FlightDataType)} the values are neither copied nor boxed.
+	 * 
+	 * @param type	the variable type.
+	 * @return		a view of the variable values, or <code>null</code> if
+	 * 				the variable type hasn't been added to this branch.
+	 */
+	public FlightDataColumn getColumn(FlightDataType type) {
+		loadPoints();
+		Column column = getColumnFor(type);
+		if (column == null)
+			return null;
+		return new FlightDataColumn(column.type, column, length);
 	}
 	
 	/**
@@ -192,10 +294,11 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the last value in this branch, or NaN.
 	 */
 	public double getLast(FlightDataType type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null || list.isEmpty())
+		loadPoints();
+		Column column = getColumnFor(type);
+		if (column == null || length == 0)
 			return Double.NaN;
-		return list.get(list.size() - 1);
+		return column.data[length - 1];
 	}
 	
 	/**
@@ -206,10 +309,11 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the minimum value in this branch, or NaN.
 	 */
 	public double getMinimum(FlightDataType type) {
-		Double v = minValues.get(type);
-		if (v == null)
+		loadPoints();
+		Column column = getColumnFor(type);
+		if (column == null)
 			return Double.NaN;
-		return v;
+		return column.min;
 	}
 	
 	/**
@@ -220,10 +324,213 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the maximum value in this branch, or NaN.
 	 */
 	public double getMaximum(FlightDataType type) {
-		Double v = maxValues.get(type);
-		if (v == null)
+		loadPoints();
+		Column column = getColumnFor(type);
+		if (column == null)
+			return Double.NaN;
+		return column.max;
+	}
+	
+	
+	/**
+	 * Return the value of the specified type at the given time, linearly interpolated
+	 * between the data points.  Before the first and after the last data point the
+	 * first and last values are returned, and of data points having the same time the
+	 * last one is used, like a {@link net.sf.openrocket.util.LinearInterpolator} of
+	 * the time and value columns.
+	 * <p>
+	 * The data points are located by a binary search when the times are non-decreasing,
+	 * which is the case for simulated flight data.
+	 * 
+	 * @param type	the parameter type.
+	 * @param time	the time.
+	 * @return		the interpolated value, or NaN if the type or time is unavailable.
+	 */
+	public double getValueAt(FlightDataType type, double time) {
+		loadPoints();
+		Column column = getColumnFor(type);
+		Column timeColumn = getColumnFor(FlightDataType.TYPE_TIME);
+		if (column == null || timeColumn == null || length == 0)
+			return Double.NaN;
+		
+		double[] t = timeColumn.data;
+		double[] y = column.data;
+		if (!isTimeOrdered()) {
+			LinearInterpolator interpolator = new LinearInterpolator(Arrays.copyOf(t, length), Arrays.copyOf(y, length));
+			return interpolator.getValue(time);
+		}
+		
+		// NaN compares greater than any time
+		if (Double.isNaN(time)) {
+			return y[length - 1];
+		}
+		
+		int upper = upperBound(t, time);
+		if (upper == length) {
+			return y[length - 1];
+		}
+		if (upper == 0) {
+			return y[upperBound(t, t[0]) - 1];
+		}
+		if (t[upper - 1] == time) {
+			return y[upper - 1];
+		}
+		
+		double x1 = t[upper - 1];
+		double y1 = y[upper - 1];
+		double x2 = t[upper];
+		double y2 = y[upperBound(t, x2) - 1];
+		return (time - x1) / (x2 - x1) * (y2 - y1) + y1;
+	}
+	
+	/**
+	 * Return the time before which the values returned by {@link #getValueAt(FlightDataType, double)}
+	 * no longer change when the last data point is modified or new data points are added,
+	 * assuming the times stay non-decreasing.
+	 * 
+	 * @return	the time, or NaN if no values are settled yet.
+	 */
+	public double getSettledTime() {
+		loadPoints();
+		Column timeColumn = getColumnFor(FlightDataType.TYPE_TIME);
+		if (timeColumn == null || length < 3 || !isTimeOrdered())
+			return Double.NaN;
+		
+		// Only the last data point may be modified, which may end up at the time of the
+		// point before it
+		double[] t = timeColumn.data;
+		int first = length - 2;
+		while (first > 0 && t[first - 1] == t[first]) {
+			first--;
+		}
+		if (first == 0)
 			return Double.NaN;
-		return v;
+		return t[first - 1];
+	}
+	
+	/**
+	 * Defer reading the data points of this branch until they are first needed.  The
+	 * supplier is called once, when the values or the length of this branch are first
+	 * requested, and returns a branch with the data points of the same variable types.
+	 * The name, types, events and optimum values of this branch are available without
+	 * reading the data points.
+	 * 
+	 * @param points	the source of the data points.
+	 * @throws IllegalStateException	if this branch has been made immutable or already
+	 * 									contains data points.
+	 */
+	public void setDeferredPoints(Supplier<FlightDataBranch> points) {
+		mutable.check();
+		if (length > 0) {
+			throw new IllegalStateException("Branch already contains data points");
+		}
+		deferredPoints = points;
+	}
+	
+	/**
+	 * Return whether the data points of this branch are still to be read, see
+	 * {@link #setDeferredPoints(Supplier)}.
+	 */
+	public boolean hasDeferredPoints() {
+		return deferredPoints != null;
+	}
+	
+	/**
+	 * Read the deferred data points, if any.
+	 */
+	private void loadPoints() {
+		if (deferredPoints != null) {
+			loadDeferredPoints();
+		}
+	}
+	
+	private synchronized void loadDeferredPoints() {
+		Supplier<FlightDataBranch> points = deferredPoints;
+		if (points == null) {
+			return;
+		}
+		
+		FlightDataBranch loaded = points.get();
+		loaded.immute();
+		this.columns = loaded.columns;
+		this.columnIndex = loaded.columnIndex;
+		this.length = loaded.length;
+		this.capacity = loaded.capacity;
+		this.orderedLength = loaded.orderedLength;
+		
+		// Publishes the fields above to readers not holding the lock
+		deferredPoints = null;
+	}
+	
+	/**
+	 * Return whether the times of the data points are non-decreasing.  Only the last
+	 * data point can be modified, so the points before it are checked only once.
+	 */
+	private boolean isTimeOrdered() {
+		double[] t = getColumnFor(FlightDataType.TYPE_TIME).data;
+		if (orderedLength == 0 && length > 0) {
+			if (Double.isNaN(t[0]))
+				return false;
+			orderedLength = 1;
+		}
+		while (orderedLength < length - 1) {
+			if (!(t[orderedLength] >= t[orderedLength - 1]))
+				return false;
+			orderedLength++;
+		}
+		return length < 2 || t[length - 1] >= t[length - 2];
+	}
+	
+	/**
+	 * Return the index of the first data point with a time greater than the given one.
+	 */
+	private int upperBound(double[] t, double time) {
+		int low = 0;
+		int high = length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (t[mid] <= time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+	
+	/**
+	 * Return the column of the specified type, or <code>null</code> if not present.
+	 */
+	private Column getColumnFor(FlightDataType type) {
+		int ordinal = type.getOrdinal();
+		if (ordinal >= columnIndex.length) {
+			return null;
+		}
+		int index = columnIndex[ordinal];
+		if (index == 0) {
+			return null;
+		}
+		return columns[index - 1];
+	}
+	
+	/**
+	 * Add a new column filled with NaN for the existing data points.
+	 */
+	private Column addColumn(FlightDataType type, double initialExtremum) {
+		Column column = new Column(type, capacity);
+		Arrays.fill(column.data, 0, length, Double.NaN);
+		column.min = initialExtremum;
+		column.max = initialExtremum;
+		
+		columns = Arrays.copyOf(columns, columns.length + 1);
+		columns[columns.length - 1] = column;
+		
+		int ordinal = type.getOrdinal();
+		if (ordinal >= columnIndex.length) {
+			columnIndex = Arrays.copyOf(columnIndex, Math.max(ordinal + 1, columnIndex.length * 2));
+		}
+		columnIndex[ordinal] = columns.length;
+		return column;
 	}
 	
 	
@@ -327,6 +634,12 @@ public class FlightDataBranch implements Monitorable {
 	 * modify this object will after this call throw an <code>IllegalStateException</code>.
 	 */
 	public void immute() {
+		if (mutable.isMutable() && capacity > length) {
+			capacity = Math.max(length, 1);
+			for (Column c : columns) {
+				c.data = Arrays.copyOf(c.data, capacity);
+			}
+		}
 		mutable.immute();
 	}
 	
@@ -344,4 +657,20 @@ public class FlightDataBranch implements Monitorable {
 		return modID;
 	}
 	
+	
+	/**
+	 * Primitive storage of a single variable, with its running extrema.
+	 */
+	static final class Column {
+		final FlightDataType type;
+		double[] data;
+		double min;
+		double max;
+		
+		private Column(FlightDataType type, int capacity) {
+			this.type = type;
+			this.data = new double[capacity];
+		}
+	}
+	
 }
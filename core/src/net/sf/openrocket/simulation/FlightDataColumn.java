@@ -0,0 +1,85 @@
+package net.sf.openrocket.simulation;
+
+import java.util.Arrays;
+
+/**
+ * A read-only view of the values of a single variable in a {@link FlightDataBranch}.
+ * The view reads directly from the primitive storage of the branch, so obtaining
+ * and iterating it does not copy or box the values.
+ * <p>
+ * The length of the view is fixed when it is created.  Points added to the branch
+ * afterwards are not visible through the view.
+ *
+ * @see FlightDataBranch#getColumn(FlightDataType)
+ */
+public final class FlightDataColumn {
+
+	private final FlightDataType type;
+	private final FlightDataBranch.Column column;
+	private final int length;
+
+	FlightDataColumn(FlightDataType type, FlightDataBranch.Column column, int length) {
+		this.type = type;
+		this.column = column;
+		this.length = length;
+	}
+
+	/**
+	 * Return the variable type of this column.
+	 */
+	public FlightDataType getType() {
+		return type;
+	}
+
+	/**
+	 * Return the number of values in this column.
+	 */
+	public int size() {
+		return length;
+	}
+
+	/**
+	 * Return the value at the specified index.
+	 *
+	 * @param index		the index of the data point.
+	 * @return			the value, NaN if it was not set.
+	 * @throws IndexOutOfBoundsException	if the index is outside the column.
+	 */
+	public double get(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException("index=" + index + " length=" + length);
+		}
+		return column.data[index];
+	}
+
+	/**
+	 * Return the last value of this column, or NaN if the column is empty.
+	 */
+	public double getLast() {
+		if (length == 0)
+			return Double.NaN;
+		return column.data[length - 1];
+	}
+
+	/**
+	 * Copy the values of this column into an array.
+	 *
+	 * @param dest		the destination array.
+	 * @param offset	the position in the destination array to start at.
+	 */
+	public void copyInto(double[] dest, int offset) {
+		System.arraycopy(column.data, 0, dest, offset, length);
+	}
+
+	/**
+	 * Return a copy of the values of this column as a new array.
+	 */
+	public double[] toArray() {
+		return Arrays.copyOf(column.data, length);
+	}
+
+	@Override
+	public String toString() {
+		return "FlightDataColumn[type=" + type + ",length=" + length + "]";
+	}
+}
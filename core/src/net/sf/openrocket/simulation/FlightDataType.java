@@ -36,6 +36,9 @@ public class FlightDataType implements Comparable<FlightDataType> {
 	/** NOTE: The String key here is now the symbol */
 	private static final Map<String, FlightDataType> EXISTING_TYPES = new HashMap<String, FlightDataType>();
 	
+	/** Ordinals assigned to type names.  MUST BE DEFINED BEFORE ANY TYPES!! */
+	private static final Map<String, Integer> ORDINALS = new HashMap<String, Integer>();
+	
 	
 	//// Time
 	public static final FlightDataType TYPE_TIME = newType(trans.get("FlightDataType.TYPE_TIME"), "t", UnitGroup.UNITS_FLIGHT_TIME, 1);
@@ -340,6 +343,7 @@ public class FlightDataType implements Comparable<FlightDataType> {
 	private final UnitGroup units;
 	private final int priority;
 	private final int hashCode;
+	private final int ordinal;
 	
 	
 	private FlightDataType(String typeName, String symbol, UnitGroup units, int priority) {
@@ -352,6 +356,23 @@ public class FlightDataType implements Comparable<FlightDataType> {
 		this.units = units;
 		this.priority = priority;
 		this.hashCode = this.name.toLowerCase(Locale.ENGLISH).hashCode();
+		this.ordinal = ordinalOf(this.name);
+	}
+	
+	/**
+	 * Return the ordinal assigned to a type name.  Types that are equal share the same
+	 * ordinal, new names are assigned the next free one.
+	 */
+	private static int ordinalOf(String name) {
+		synchronized (ORDINALS) {
+			String key = name.toLowerCase(Locale.ENGLISH);
+			Integer ordinal = ORDINALS.get(key);
+			if (ordinal == null) {
+				ordinal = ORDINALS.size();
+				ORDINALS.put(key, ordinal);
+			}
+			return ordinal;
+		}
 	}
 	
 	/*
@@ -372,6 +393,15 @@ public class FlightDataType implements Comparable<FlightDataType> {
 		return units;
 	}
 	
+	/**
+	 * Return the ordinal of this type.  The ordinal is a small non-negative integer
+	 * that is unique per type name (case-insensitively), so it may be used to index
+	 * arrays instead of hashing the type.
+	 */
+	public int getOrdinal() {
+		return ordinal;
+	}
+	
 	@Override
 	public String toString() {
 		return name; //+" ("+symbol+") "+units.getDefaultUnit().toString();
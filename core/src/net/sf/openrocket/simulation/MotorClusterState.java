@@ -30,6 +30,24 @@ public class MotorClusterState {
 		
 		this.reset();
 	}
+	
+	/**
+	 * Copy constructor.  The copy shares the motor configuration, but has its own
+	 * ignition and thrust state.
+	 * 
+	 * @param orig	the motor state to copy
+	 */
+	public MotorClusterState(final MotorClusterState orig) {
+		this.config = orig.config;
+		this.motor = orig.motor;
+		this.motorCount = orig.motorCount;
+		this.thrustDuration = orig.thrustDuration;
+		
+		this.ignitionTime = orig.ignitionTime;
+		this.cutoffTime = orig.cutoffTime;
+		this.ejectionTime = orig.ejectionTime;
+		this.currentState = orig.currentState;
+	}
 
 	public double getIgnitionTime() {
 		return ignitionTime;
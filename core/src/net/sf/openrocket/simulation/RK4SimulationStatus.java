@@ -29,6 +29,12 @@ public class RK4SimulationStatus extends SimulationStatus implements Cloneable {
 			this.previousAtmosphericConditions = ((RK4SimulationStatus) other).previousAtmosphericConditions;
 		}
 	}
+	
+	@Override
+	protected RK4SimulationStatus copy() {
+		return new RK4SimulationStatus(this);
+	}
+	
 	public void setLaunchRodDirection(Coordinate launchRodDirection) {
 		this.launchRodDirection = launchRodDirection;
 	}
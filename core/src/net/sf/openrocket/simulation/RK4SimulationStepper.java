@@ -63,6 +63,17 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	
 	private Random random;
 	
+	/*
+	 * Scratch state reused between steps.  A stepper instance is only used by a
+	 * single simulation at a time, so these need not be thread-safe.
+	 */
+	private final DataStore store = new DataStore();
+	private final RK4Parameters k1 = new RK4Parameters();
+	private final RK4Parameters k2 = new RK4Parameters();
+	private final RK4Parameters k3 = new RK4Parameters();
+	private final RK4Parameters k4 = new RK4Parameters();
+	private final double[] dt = new double[8];
+	
 	
 	
 	
@@ -93,12 +104,11 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	public void step(SimulationStatus simulationStatus, double maxTimeStep) throws SimulationException {
 		
 		RK4SimulationStatus status = (RK4SimulationStatus) simulationStatus;
-		DataStore store = new DataStore();
+		store.reset();
 		
 		////////  Perform RK4 integration:  ////////
 		
 		RK4SimulationStatus status2;
-		RK4Parameters k1, k2, k3, k4;
 		
 		/*
 		 * Start with previous time step which is used to compute the initial thrust estimate.
@@ -121,7 +131,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// First position, k1 = f(t, y)
 		
-		k1 = computeParameters(status, store);
+		computeParameters(status, store, k1);
 		
 		/*
 		 * Select the actual time step to use.  It is the minimum of the following:
@@ -139,7 +149,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		 * 
 		 * The step is still at least 1/20th of the user-selected time step.
 		 */
-		double[] dt = new double[8];
 		Arrays.fill(dt, Double.MAX_VALUE);
 
 		// If the user selected a really small timestep, use MIN_TIME_STEP instead.
@@ -166,10 +175,12 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		double minTimeStep = status.getSimulationConditions().getTimeStep() / 20;
 		if (store.timestep < minTimeStep) {
-			log.trace("Too small time step " + store.timestep + " (limiting factor " + limitingValue + "), using " +
-					minTimeStep + " instead.");
+			if (log.isTraceEnabled()) {
+				log.trace("Too small time step " + store.timestep + " (limiting factor " + limitingValue + "), using " +
+						minTimeStep + " instead.");
+			}
 			store.timestep = minTimeStep;
-		} else {
+		} else if (log.isTraceEnabled()) {
 			log.trace("Selected time step " + store.timestep + " (limiting factor " + limitingValue + ")");
 		}
 		checkNaN(store.timestep);
@@ -182,7 +193,9 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		double thrustEstimate = store.thrustForce;
 		store.thrustForce = calculateAverageThrust(status, store.timestep, store.longitudinalAcceleration,
 				store.atmosphericConditions, true);
-		log.trace("Thrust = " + store.thrustForce);
+		if (log.isTraceEnabled()) {
+			log.trace("Thrust = " + store.thrustForce);
+		}
 		double thrustDiff = Math.abs(store.thrustForce - thrustEstimate);
 		// Log if difference over 1%, recompute if over 10%
 		if (thrustDiff > 0.01 * thrustEstimate) {
@@ -193,8 +206,8 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 						" correct=" + store.thrustForce +
 						" timestep=" + store.timestep +
 						", recomputing k1 parameters");
-				k1 = computeParameters(status, store);
-			} else {
+				computeParameters(status, store, k1);
+			} else if (log.isTraceEnabled()) {
 				log.trace("Thrust estimate differs from correct value by " +
 						(Math.rint(1000 * (thrustDiff + 0.000001) / thrustEstimate) / 10.0) + "%," +
 						" estimate=" + thrustEstimate +
@@ -213,50 +226,38 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 		status2 = status.clone();
 		status2.setSimulationTime(status.getSimulationTime() + store.timestep / 2);
-		status2.setRocketPosition(status.getRocketPosition().add(k1.v.multiply(store.timestep / 2)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k1.a.multiply(store.timestep / 2)));
-		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k1.rv.multiply(store.timestep / 2))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k1.ra.multiply(store.timestep / 2)));
+		advance(status, status2, k1, store.timestep / 2);
 		
-		k2 = computeParameters(status2, store);
+		computeParameters(status2, store, k2);
 		
 
 		//// Third position, k3 = f(t + h/2, y + k2*h/2)
 		
 		status2 = status.clone();
 		status2.setSimulationTime(status.getSimulationTime() + store.timestep / 2);
-		status2.setRocketPosition(status.getRocketPosition().add(k2.v.multiply(store.timestep / 2)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k2.a.multiply(store.timestep / 2)));
-		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k2.rv.multiply(store.timestep / 2))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k2.ra.multiply(store.timestep / 2)));
+		advance(status, status2, k2, store.timestep / 2);
 		
-		k3 = computeParameters(status2, store);
+		computeParameters(status2, store, k3);
 		
 
 		//// Fourth position, k4 = f(t + h, y + k3*h)
 		
 		status2 = status.clone();
 		status2.setSimulationTime(status.getSimulationTime() + store.timestep);
-		status2.setRocketPosition(status.getRocketPosition().add(k3.v.multiply(store.timestep)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k3.a.multiply(store.timestep)));
-		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k3.rv.multiply(store.timestep))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k3.ra.multiply(store.timestep)));
+		advance(status, status2, k3, store.timestep);
 		
-		k4 = computeParameters(status2, store);
+		computeParameters(status2, store, k4);
 		
 
 		//// Sum all together,  y(n+1) = y(n) + h*(k1 + 2*k2 + 2*k3 + k4)/6
-		Coordinate deltaV, deltaP, deltaR, deltaO;
-		deltaV = k2.a.add(k3.a).multiply(2).add(k1.a).add(k4.a).multiply(store.timestep / 6);
-		deltaP = k2.v.add(k3.v).multiply(2).add(k1.v).add(k4.v).multiply(store.timestep / 6);
-		deltaR = k2.ra.add(k3.ra).multiply(2).add(k1.ra).add(k4.ra).multiply(store.timestep / 6);
-		deltaO = k2.rv.add(k3.rv).multiply(2).add(k1.rv).add(k4.rv).multiply(store.timestep / 6);
-		
-
-		status.setRocketVelocity(status.getRocketVelocity().add(deltaV));
-		status.setRocketPosition(status.getRocketPosition().add(deltaP));
-		status.setRocketRotationVelocity(status.getRocketRotationVelocity().add(deltaR));
-		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(deltaO)).normalizeIfNecessary());
+		final double h6 = store.timestep / 6;
+		status.setRocketVelocity(addWeighted(status.getRocketVelocity(), k1.a, k2.a, k3.a, k4.a, h6));
+		status.setRocketPosition(addWeighted(status.getRocketPosition(), k1.v, k2.v, k3.v, k4.v, h6));
+		status.setRocketRotationVelocity(addWeighted(status.getRocketRotationVelocity(), k1.ra, k2.ra, k3.ra, k4.ra, h6));
+		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(
+				weightedSum(k1.rv.x, k2.rv.x, k3.rv.x, k4.rv.x, h6),
+				weightedSum(k1.rv.y, k2.rv.y, k3.rv.y, k4.rv.y, h6),
+				weightedSum(k1.rv.z, k2.rv.z, k3.rv.z, k4.rv.z, h6))).normalizeIfNecessary());
 		
 		WorldCoordinate w = status.getSimulationConditions().getLaunchSite();
 		w = status.getSimulationConditions().getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
@@ -282,13 +283,46 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 
 
-	private RK4Parameters computeParameters(RK4SimulationStatus status, DataStore dataStore)
+	/**
+	 * Set the position, velocity, orientation and rotation velocity of <code>target</code> to
+	 * the state of <code>origin</code> advanced by the derivatives <code>k</code> over time <code>h</code>.
+	 */
+	private static void advance(RK4SimulationStatus origin, RK4SimulationStatus target, RK4Parameters k, double h) {
+		target.setRocketPosition(addScaled(origin.getRocketPosition(), k.v, h));
+		target.setRocketVelocity(addScaled(origin.getRocketVelocity(), k.a, h));
+		target.setRocketOrientationQuaternion(origin.getRocketOrientationQuaternion().multiplyLeft(
+				Quaternion.rotation(k.rv.x * h, k.rv.y * h, k.rv.z * h)));
+		target.setRocketRotationVelocity(addScaled(origin.getRocketRotationVelocity(), k.ra, h));
+	}
+	
+	/**
+	 * Return <code>base + k*h</code>.  Equal to <code>base.add(k.multiply(h))</code> but without
+	 * the intermediate coordinate.
+	 */
+	private static Coordinate addScaled(Coordinate base, Coordinate k, double h) {
+		return new Coordinate(base.x + k.x * h, base.y + k.y * h, base.z + k.z * h, base.weight + k.weight * h);
+	}
+	
+	/**
+	 * Return <code>base + (k1 + 2*k2 + 2*k3 + k4)*h6</code>.  The operations are performed in the
+	 * same order as <code>k2.add(k3).multiply(2).add(k1).add(k4).multiply(h6)</code> so that the
+	 * result is identical.
+	 */
+	private static Coordinate addWeighted(Coordinate base, Coordinate k1, Coordinate k2, Coordinate k3, Coordinate k4,
+			double h6) {
+		return new Coordinate(base.x + weightedSum(k1.x, k2.x, k3.x, k4.x, h6),
+				base.y + weightedSum(k1.y, k2.y, k3.y, k4.y, h6),
+				base.z + weightedSum(k1.z, k2.z, k3.z, k4.z, h6),
+				base.weight + weightedSum(k1.weight, k2.weight, k3.weight, k4.weight, h6));
+	}
+	
+	private static double weightedSum(double k1, double k2, double k3, double k4, double h6) {
+		return ((k2 + k3) * 2 + k1 + k4) * h6;
+	}
+	
+	
+	private void computeParameters(RK4SimulationStatus status, DataStore dataStore, RK4Parameters params)
 			throws SimulationException {
-		RK4Parameters params = new RK4Parameters();
-		
-		//		if (dataStore == null) {
-		//			dataStore = new DataStore();
-		//		}
 		
 		calculateAcceleration(status, dataStore);
 		params.a = dataStore.linearAcceleration;
@@ -300,8 +334,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		checkNaN(params.ra);
 		checkNaN(params.v);
 		checkNaN(params.rv);
-		
-		return params;
 	}
 	
 	
@@ -738,6 +770,32 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 		public Rotation2D thetaRotation;
 		
+		/**
+		 * Reset all values to their initial state, so that the store can be reused
+		 * for a new step.
+		 */
+		public void reset() {
+			timestep = Double.NaN;
+			accelerationData = null;
+			atmosphericConditions = null;
+			flightConditions = null;
+			longitudinalAcceleration = Double.NaN;
+			rocketMass = null;
+			motorMass = null;
+			coriolisAcceleration = null;
+			linearAcceleration = null;
+			angularAcceleration = null;
+			forces = null;
+			windSpeed = Double.NaN;
+			gravity = Double.NaN;
+			thrustForce = Double.NaN;
+			dragForce = Double.NaN;
+			lateralPitchRate = Double.NaN;
+			rollAcceleration = Double.NaN;
+			lateralPitchAcceleration = Double.NaN;
+			thetaRotation = null;
+		}
+		
 	}
 	
 }
@@ -12,6 +12,7 @@ import net.sf.openrocket.models.wind.WindModel;
 import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
 import net.sf.openrocket.rocketcomponent.Rocket;
 import net.sf.openrocket.simulation.listeners.SimulationListener;
+import net.sf.openrocket.simulation.listeners.SimulationListenerDispatch;
 import net.sf.openrocket.util.BugException;
 import net.sf.openrocket.util.Coordinate;
 import net.sf.openrocket.util.GeodeticComputationStrategy;
@@ -62,9 +63,18 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	/* Whether to calculate additional data or only primary simulation figures */
 	private boolean calculateExtras = true;
 	
+	/* The event at which the simulation ends, or null to simulate the whole flight */
+	private FlightEvent.Type endEvent = null;
+	
 	
 	private List<SimulationListener> simulationListeners = new ArrayList<SimulationListener>();
 	
+	/* Dispatch table of the listeners, rebuilt when listeners are added or removed */
+	private SimulationListenerDispatch listenerDispatch = null;
+	
+	/* Shared with the clones, so that all branches of the simulation are cancelled */
+	private CancellationToken cancellationToken = new CancellationToken();
+	
 	
 	private int randomSeed = 0;
 	
@@ -269,6 +279,27 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	
 	
 	
+	/**
+	 * Return the event at which the simulation ends, or <code>null</code> if the whole
+	 * flight is simulated.
+	 */
+	public FlightEvent.Type getEndEvent() {
+		return endEvent;
+	}
+	
+	/**
+	 * Set the event at which the simulation ends.  When set, only the main branch of the
+	 * flight is simulated, and it ends as soon as the event has occurred.  This is used
+	 * when only part of the flight is needed, for example when optimizing the apogee.
+	 * 
+	 * @param endEvent	the event type, or <code>null</code> to simulate the whole flight.
+	 */
+	public void setEndEvent(FlightEvent.Type endEvent) {
+		this.endEvent = endEvent;
+		this.modID++;
+	}
+	
+	
 	public int getRandomSeed() {
 		return randomSeed;
 	}
@@ -287,11 +318,34 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		return this.simulation;
 	}
 	
+	/**
+	 * Return the token used to cancel the simulation.
+	 */
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+	
+	public void setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+	
 	// TODO: HIGH: Make cleaner
 	public List<SimulationListener> getSimulationListenerList() {
 		return simulationListeners;
 	}
 	
+	/**
+	 * Return the dispatch table of the simulation listeners.  The table is built on first
+	 * use, normally when the simulation starts, and rebuilt if listeners have been added
+	 * or removed since.
+	 */
+	public SimulationListenerDispatch getSimulationListenerDispatch() {
+		if (listenerDispatch == null || !listenerDispatch.isValidFor(simulationListeners)) {
+			listenerDispatch = new SimulationListenerDispatch(simulationListeners);
+		}
+		return listenerDispatch;
+	}
+	
 	
 	@Override
 	public int getModID() {
@@ -311,6 +365,7 @@ public class SimulationConditions implements Monitorable, Cloneable {
 			for (SimulationListener listener : this.simulationListeners) {
 				clone.simulationListeners.add(listener.clone());
 			}
+			clone.listenerDispatch = null;
 			
 			return clone;
 		} catch (CloneNotSupportedException e) {
@@ -401,6 +401,9 @@ public class SimulationOptions implements ChangeSource, Cloneable {
 		this.launchRodDirection = src.launchRodDirection;
 		this.launchRodLength = src.launchRodLength;
 		this.launchTemperature = src.launchTemperature;
+		this.launchIntoWind = src.launchIntoWind;
+		this.useISA = src.useISA;
+		this.geodeticComputation = src.geodeticComputation;
 		this.maximumAngle = src.maximumAngle;
 		this.timeStep = src.timeStep;
 		this.windAverage = src.windAverage;
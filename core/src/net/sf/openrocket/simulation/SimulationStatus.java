@@ -3,6 +3,7 @@ package net.sf.openrocket.simulation;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -209,6 +210,49 @@ public class SimulationStatus implements Monitorable {
 		this.modIDadd = orig.modIDadd;
 	}
 	
+	/**
+	 * Create a snapshot of this status from which the flight can be continued independently
+	 * of this status.  In addition to the copy performed by {@link #SimulationStatus(SimulationStatus)},
+	 * the motor states are deep-copied (and the queued events referring to them are updated),
+	 * the apogee tracking is retained and the flight data recorded so far is copied.
+	 * Continuing the fork therefore does not affect this status.
+	 * 
+	 * @return	a new status, of the same type as this status where supported
+	 */
+	public SimulationStatus fork() {
+		SimulationStatus fork = copy();
+		fork.setFlightData(this.flightData.copy());
+		fork.maxAlt = this.maxAlt;
+		fork.maxAltTime = this.maxAltTime;
+		
+		Map<MotorClusterState, MotorClusterState> motorStates = new IdentityHashMap<MotorClusterState, MotorClusterState>();
+		fork.motorStateList.clear();
+		for (MotorClusterState state : this.motorStateList) {
+			MotorClusterState copy = new MotorClusterState(state);
+			motorStates.put(state, copy);
+			fork.motorStateList.add(copy);
+		}
+		
+		fork.eventQueue.clear();
+		for (FlightEvent event : this.eventQueue) {
+			MotorClusterState state = motorStates.get(event.getData());
+			if (state != null) {
+				event = new FlightEvent(event, event.getSource(), state);
+			}
+			fork.eventQueue.add(event);
+		}
+		
+		return fork;
+	}
+	
+	/**
+	 * Return a copy of this status using the copy constructor of the runtime type.
+	 * Subclasses carrying additional state should override this method.
+	 */
+	protected SimulationStatus copy() {
+		return new SimulationStatus(this);
+	}
+	
 	public void setSimulationTime(double time) {
 		this.time = time;
 		this.modID++;
@@ -0,0 +1,202 @@
+package net.sf.openrocket.simulation.customexpression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.PostfixExpression;
+import de.congrace.exp4j.Variable;
+import net.sf.openrocket.logging.Markers;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.SimulationStatus;
+
+/**
+ * A custom expression compiled for evaluation at every step of a simulation.  Index
+ * and range expressions extend this class to keep their own state between steps.
+ * <p>
+ * The expression is parsed only once.  Expressions using only the built-in functions
+ * are evaluated on primitive values, with each flight data type bound to the slot of
+ * its ordinal and the index expressions bound to the slots following them.  Expressions
+ * using custom functions, range expressions or data types missing from the current
+ * branch are evaluated with variables as by {@link CustomExpression#evaluate(SimulationStatus)}.
+ * <p>
+ * Instances are not thread-safe, each simulation must compile its own.
+ */
+class CompiledExpression {
+
+	private static final Logger log = LoggerFactory.getLogger(CompiledExpression.class);
+
+	protected final CustomExpression expression;
+	protected final Calculable calc;
+	private final boolean primitive;
+	private FlightDataType type;
+
+	private final FlightDataType[] variableTypes;
+	private final String[] variableSymbols;
+	private final CompiledExpression[] subExpressions;
+	private final String[] subExpressionHashes;
+	private final Variable[] subExpressionValues;
+	private final int subExpressionSlot;
+	private final double[] values;
+
+	/**
+	 * @param expression		the expression.
+	 * @param calc				the built expression, or <code>null</code> if it could not be built.
+	 * @param types				the flight data types available to the expression by symbol.
+	 * @param subExpressions	the index and range expressions substituted in the expression.
+	 */
+	CompiledExpression(CustomExpression expression, Calculable calc, Map<String, FlightDataType> types,
+			List<CustomExpression> subExpressions) {
+		this.expression = expression;
+		this.calc = calc;
+
+		this.subExpressions = new CompiledExpression[subExpressions.size()];
+		this.subExpressionHashes = new String[subExpressions.size()];
+		for (int i = 0; i < this.subExpressions.length; i++) {
+			this.subExpressions[i] = subExpressions.get(i).compile();
+			subExpressionHashes[i] = subExpressions.get(i).hash();
+		}
+		this.subExpressionValues = new Variable[this.subExpressions.length];
+
+		// Bind the referenced data types to their ordinals
+		Map<String, Integer> slots = new HashMap<String, Integer>();
+		List<FlightDataType> variableTypes = new ArrayList<FlightDataType>();
+		List<String> variableSymbols = new ArrayList<String>();
+		int subExpressionSlot = 0;
+		if (calc instanceof PostfixExpression) {
+			for (String symbol : ((PostfixExpression) calc).getReferencedVariables()) {
+				FlightDataType t = types.get(symbol);
+				if (t != null) {
+					slots.put(symbol, t.getOrdinal());
+					variableTypes.add(t);
+					variableSymbols.add(symbol);
+					subExpressionSlot = Math.max(subExpressionSlot, t.getOrdinal() + 1);
+				}
+			}
+		}
+		this.variableTypes = variableTypes.toArray(new FlightDataType[0]);
+		this.variableSymbols = variableSymbols.toArray(new String[0]);
+
+		// Index expressions follow the data types
+		this.subExpressionSlot = subExpressionSlot;
+		for (int i = 0; i < subExpressionHashes.length; i++) {
+			slots.put(subExpressionHashes[i], subExpressionSlot + i);
+		}
+		this.values = new double[subExpressionSlot + subExpressionHashes.length];
+
+		this.primitive = (calc instanceof PostfixExpression) && ((PostfixExpression) calc).compile(slots);
+		log.debug("Compiled " + expression + (primitive ? " for primitive evaluation" : ""));
+	}
+
+	/**
+	 * Return the flight data type of the expression values.
+	 */
+	public FlightDataType getType() {
+		if (type == null) {
+			type = expression.getType();
+		}
+		return type;
+	}
+
+	/**
+	 * Return whether the expression is evaluated on primitive values when all its
+	 * variables are available.
+	 */
+	boolean isPrimitive() {
+		return primitive;
+	}
+
+	/**
+	 * Evaluate the expression using the last variable values from the simulation status.
+	 * Returns NaN on any error or an infinite result, like {@link CustomExpression#evaluateDouble(SimulationStatus)}.
+	 */
+	public double evaluate(SimulationStatus status) {
+		if (calc == null) {
+			return Double.NaN;
+		}
+
+		double result = calculateOrNaN(status);
+		if (result == Double.NEGATIVE_INFINITY || result == Double.POSITIVE_INFINITY)
+			result = Double.NaN;
+		return result;
+	}
+
+	/**
+	 * Evaluate the expression as a variable, as by {@link CustomExpression#evaluate(SimulationStatus)}.
+	 * This is used for the sub-expressions of an expression.
+	 */
+	public Variable evaluateVariable(SimulationStatus status) {
+		if (calc == null) {
+			return new Variable("Unknown");
+		}
+		return new Variable(expression.getName(), calculateOrNaN(status));
+	}
+
+	private double calculateOrNaN(SimulationStatus status) {
+		try {
+			return calculate(status);
+		} catch (java.util.EmptyStackException e) {
+			log.info(Markers.USER_MARKER, "Unable to calculate expression " + expression.getExpressionString() + " due to empty stack exception");
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Calculate the value of the expression using the last variable values from the
+	 * simulation status.  Must not be called if the expression could not be built.
+	 *
+	 * @throws java.util.EmptyStackException	if the expression is malformed.
+	 */
+	protected double calculate(SimulationStatus status) {
+		FlightDataBranch data = status.getFlightData();
+		boolean usePrimitive = primitive;
+		for (int i = 0; i < subExpressions.length; i++) {
+			Variable value = subExpressions[i].evaluateVariable(status);
+			subExpressionValues[i] = value;
+			if (value.getPrimary() == Variable.Primary.DOUBLE) {
+				values[subExpressionSlot + i] = value.getDoubleValue();
+			} else {
+				usePrimitive = false;
+			}
+		}
+		for (FlightDataType t : variableTypes) {
+			if (data.contains(t)) {
+				values[t.getOrdinal()] = data.getLast(t);
+			} else {
+				usePrimitive = false;
+			}
+		}
+
+		if (usePrimitive) {
+			return ((PostfixExpression) calc).calculate(values);
+		} else {
+			return calculateVariables(data);
+		}
+	}
+
+	private double calculateVariables(FlightDataBranch data) {
+		// The calculable is reused, so unavailable values are explicitly reset to placeholders
+		for (int i = 0; i < subExpressions.length; i++) {
+			Variable value = subExpressionValues[i];
+			if (!subExpressionHashes[i].equals(value.getName())) {
+				value = new Variable(subExpressionHashes[i]);
+			}
+			calc.setVariable(value);
+		}
+		for (int i = 0; i < variableTypes.length; i++) {
+			if (data.contains(variableTypes[i])) {
+				calc.setVariable(new Variable(variableSymbols[i], data.getLast(variableTypes[i])));
+			} else {
+				calc.setVariable(new Variable(variableSymbols[i]));
+			}
+		}
+
+		return calc.calculate().getDoubleValue();
+	}
+}
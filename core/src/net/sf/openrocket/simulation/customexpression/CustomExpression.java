@@ -1,6 +1,8 @@
 package net.sf.openrocket.simulation.customexpression;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -404,6 +406,35 @@ public class CustomExpression implements Cloneable {
 		return calc;
 	}
 	
+	/*
+	 * Builds the expression for evaluation at every step of a simulation, avoiding
+	 * parsing the expression again on each evaluation.
+	 */
+	CompiledExpression compile() {
+		return new CompiledExpression(this, buildExpression(builder), getVariableTypes(), subExpressions);
+	}
+	
+	/*
+	 * Returns the flight data types available as variables by their symbols
+	 */
+	protected Map<String, FlightDataType> getVariableTypes() {
+		Map<String, FlightDataType> types = new HashMap<String, FlightDataType>();
+		for (FlightDataType type : doc.getFlightDataTypes()) {
+			String symb = type.getSymbol();
+			if (!symb.equals(this.getSymbol()) && !types.containsKey(symb)) {
+				types.put(symb, type);
+			}
+		}
+		return types;
+	}
+	
+	/*
+	 * Returns the index and range expressions substituted in this expression
+	 */
+	protected List<CustomExpression> getSubExpressions() {
+		return subExpressions;
+	}
+	
 	/*
 	 * Evaluate the expression using the last variable values from the simulation status.
 	 * Returns NaN on any error.
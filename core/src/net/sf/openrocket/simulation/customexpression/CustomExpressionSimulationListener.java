@@ -14,6 +14,7 @@ public class CustomExpressionSimulationListener extends AbstractSimulationListen
 	
 	private static final Logger log = LoggerFactory.getLogger(CustomExpressionSimulationListener.class);
 	private final List<CustomExpression> expressions;
+	private CompiledExpression[] compiled;
 	
 	public CustomExpressionSimulationListener(List<CustomExpression> expressions) {
 		super();
@@ -21,14 +22,27 @@ public class CustomExpressionSimulationListener extends AbstractSimulationListen
 	}
 	
 	@Override
-	public void postStep(SimulationStatus status) throws SimulationException {
+	public void startSimulation(SimulationStatus status) throws SimulationException {
 		if (expressions == null || expressions.size() == 0) {
+			compiled = null;
+			return;
+		}
+		// Parse the expressions once for the whole simulation
+		compiled = new CompiledExpression[expressions.size()];
+		for (int i = 0; i < compiled.length; i++) {
+			compiled[i] = expressions.get(i).compile();
+		}
+	}
+	
+	@Override
+	public void postStep(SimulationStatus status) throws SimulationException {
+		if (compiled == null) {
 			return;
 		}
 		// Calculate values for custom expressions
 		FlightDataBranch data = status.getFlightData();
-		for (CustomExpression expression : expressions) {
-			double value = expression.evaluateDouble(status);
+		for (CompiledExpression expression : compiled) {
+			double value = expression.evaluate(status);
 			//log.debug("Setting value of custom expression "+expression.toString()+" = "+value);
 			data.setValue(expression.getType(), value);
 		}
@@ -89,6 +89,9 @@ public class Functions {
 		CustomFunction meanFn = new CustomFunction("mean") {
 			@Override
 			public Variable applyFunction(List<Variable> vars) {
+		    	if (vars.get(0) instanceof RangeVariable) {
+		    		return new Variable("double MEAN result, ", ((RangeVariable) vars.get(0)).getSamples().mean());
+		    	}
 		    	double[] vals;
 		    	try{
 		    		vals = vars.get(0).getArrayValue();
@@ -103,6 +106,9 @@ public class Functions {
 		CustomFunction minFn = new CustomFunction("min") {
 			@Override
 			public Variable applyFunction(List<Variable> vars) {
+		    	if (vars.get(0) instanceof RangeVariable) {
+		    		return new Variable("double MIN result, ", ((RangeVariable) vars.get(0)).getSamples().min());
+		    	}
 		    	double[] vals;
 		    	try{
 		    		vals = vars.get(0).getArrayValue();
@@ -117,6 +123,9 @@ public class Functions {
 		CustomFunction maxFn = new CustomFunction("max") {
 			@Override
 			public Variable applyFunction(List<Variable> vars) {
+		    	if (vars.get(0) instanceof RangeVariable) {
+		    		return new Variable("double MAX result, ", ((RangeVariable) vars.get(0)).getSamples().max());
+		    	}
 		    	double[] vals;
 		    	try{
 		    		vals = vars.get(0).getArrayValue();
@@ -233,6 +242,9 @@ public class Functions {
 		CustomFunction rombintFn = new CustomFunction("trapz") {
 			@Override
 			public Variable applyFunction(List<Variable> vars) {
+				if (vars.get(0) instanceof RangeVariable) {
+					return new Variable("double TRAPZ result", ((RangeVariable) vars.get(0)).getSamples().trapz());
+				}
 				double[] range;
 				double dt = 0;
 				try{
@@ -4,21 +4,21 @@
 
 package net.sf.openrocket.simulation.customexpression;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import de.congrace.exp4j.Calculable;
 import de.congrace.exp4j.ExpressionBuilder;
 import de.congrace.exp4j.Variable;
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.logging.Markers;
 import net.sf.openrocket.simulation.customexpression.CustomExpression;
+import net.sf.openrocket.simulation.FlightDataBranch;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.SimulationStatus;
-import net.sf.openrocket.util.ArrayUtils;
-import net.sf.openrocket.util.LinearInterpolator;
 import net.sf.openrocket.util.MathUtil;
 import net.sf.openrocket.util.StringUtil;
 
@@ -60,61 +60,55 @@ public class RangeExpression extends CustomExpression {
 	
 	@Override
 	public Variable evaluate(SimulationStatus status){
+		return compile().evaluateVariable(status);
+	}
+	
+	/*
+	 * The start and end times are compiled like any expression.  The samples of the
+	 * range are kept between the steps of a simulation, so that only the samples near
+	 * the end of the flight data are computed on each step.
+	 */
+	@Override
+	CompiledExpression compile() {
+		Map<String, FlightDataType> types = getVariableTypes();
+		List<CustomExpression> none = Collections.emptyList();
+		final CompiledExpression startExpression = new CompiledExpression(this, buildExpression(startBuilder), types, none);
+		final CompiledExpression endExpression = new CompiledExpression(this, buildExpression(endBuilder), types, none);
 		
-		Calculable startCalc = buildExpression(startBuilder);
-		Calculable endCalc = buildExpression(endBuilder);
-		if (startCalc == null || endCalc == null){
-			return new Variable("Unknown");
-		}
-		
-		// Set the variables in the start and end calculators
-		for (FlightDataType type : status.getFlightData().getTypes()){
-			double value = status.getFlightData().getLast(type); 
-			startCalc.setVariable( new Variable(type.getSymbol(), value ) );
-			endCalc.setVariable( new Variable(type.getSymbol(), value ) );
-		}		
-		
-		// From the given datatype, get the time and function values and make an interpolator
-
 		//Note: must get in a way that flight data system will figure out units. Otherwise there will be a type conflict when we get the new data.
-		FlightDataType type = FlightDataType.getType(null, getSymbol(), null);
+		final FlightDataType type = FlightDataType.getType(null, getSymbol(), null);
+		final String hash = hash();
+		final RangeSamples samples = new RangeSamples();
 		
-		List<Double> data = status.getFlightData().get(type);
-		List<Double> time = status.getFlightData().get(FlightDataType.TYPE_TIME);
-		LinearInterpolator interp = new LinearInterpolator(time, data); 
-		
-		// Evaluate the expression to get the start and end of the range
-		double startTime, endTime;
-		try{
-			startTime = startCalc.calculate().getDoubleValue();
-			startTime = MathUtil.clamp(startTime, 0, Double.MAX_VALUE);
-			
-			endTime = endCalc.calculate().getDoubleValue();
-			endTime = MathUtil.clamp(endTime, 0, time.get(time.size()-1));
-		}
-		catch (java.util.EmptyStackException e){
-			log.info(Markers.USER_MARKER, "Unable to calculate time index for range expression "+getSymbol()+" due to empty stack exception");
-			return new Variable("Unknown");
-		}
-		
-		// generate an array representing the range
-		double step = status.getSimulationConditions().getSimulation().getOptions().getTimeStep();
-		double[] t = ArrayUtils.range(startTime, endTime,  step);
-		double[] y = new double[t.length]; 
-		int i = 0;
-		for (double tval : t){
-			y[i] = interp.getValue( tval );
-			i++;
-		}
+		return new CompiledExpression(this, null, types, none) {
+			@Override
+			public Variable evaluateVariable(SimulationStatus status) {
+				if (startExpression.calc == null || endExpression.calc == null){
+					return new Variable("Unknown");
+				}
 				
-		Variable result;
-		if (y.length == 0){
-			result = new Variable("Unknown");
-		}
-		else {
-			result = new Variable(hash(), y, startTime, step);
-		}
-		
-		return result;
+				// Evaluate the expression to get the start and end of the range
+				FlightDataBranch data = status.getFlightData();
+				double startTime, endTime;
+				try{
+					startTime = startExpression.calculate(status);
+					startTime = MathUtil.clamp(startTime, 0, Double.MAX_VALUE);
+					
+					endTime = endExpression.calculate(status);
+					endTime = MathUtil.clamp(endTime, 0, data.getLast(FlightDataType.TYPE_TIME));
+				}
+				catch (java.util.EmptyStackException e){
+					log.info(Markers.USER_MARKER, "Unable to calculate time index for range expression "+getSymbol()+" due to empty stack exception");
+					return new Variable("Unknown");
+				}
+				
+				// sample the range
+				double step = status.getSimulationConditions().getSimulation().getOptions().getTimeStep();
+				if (!samples.update(data, type, startTime, endTime, step)){
+					return new Variable("Unknown");
+				}
+				return new RangeVariable(hash, samples);
+			}
+		};
 	}
 }
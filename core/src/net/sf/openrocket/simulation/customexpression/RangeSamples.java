@@ -0,0 +1,213 @@
+package net.sf.openrocket.simulation.customexpression;
+
+import java.util.Arrays;
+
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+
+/**
+ * The values of a flight data type sampled at regular time steps over a range of a
+ * flight data branch, updated incrementally during a simulation.
+ * <p>
+ * The sample times are those of {@link net.sf.openrocket.util.ArrayUtils#range(double, double, double)}
+ * and the values are interpolated as by {@link FlightDataBranch#getValueAt(FlightDataType, double)}.
+ * Samples before the settled time of the branch are kept between updates together with
+ * running sums, extrema and trapezoidal integrals, so that only the samples near the
+ * end of the flight data are computed on each step, and the mean, minimum, maximum and
+ * integral of the range take constant time.  The results are identical to those of the
+ * functions in {@link net.sf.openrocket.util.ArrayUtils} applied to the sample array.
+ */
+final class RangeSamples {
+
+	private FlightDataBranch branch;
+	private FlightDataType type;
+	private double start = Double.NaN;
+	private double step = Double.NaN;
+
+	/** Number of samples in the current range. */
+	private int count = 0;
+	/** Number of leading samples which no longer change. */
+	private int settled = 0;
+	/** Number of sample times computed. */
+	private int timeCount = 0;
+
+	private double[] times = new double[0];
+	private double[] values = new double[0];
+
+	// Running aggregates of the settled samples, index i covers samples 0...i
+	private double[] sums = new double[0];
+	private double[] mins = new double[0];
+	private double[] maxs = new double[0];
+	private double[] trapzTimes = new double[0];
+	private double[] trapzSums = new double[0];
+
+
+	/**
+	 * Update the samples to a range of a flight data branch.  The samples are kept when
+	 * the branch, type, start time and step are the same as in the previous update.
+	 *
+	 * @return	whether the range contains any samples.
+	 */
+	public boolean update(FlightDataBranch branch, FlightDataType type, double start, double end, double step) {
+		if (branch != this.branch || type != this.type || Double.compare(start, this.start) != 0 ||
+				Double.compare(step, this.step) != 0) {
+			this.branch = branch;
+			this.type = type;
+			this.start = start;
+			this.step = step;
+			settled = 0;
+			timeCount = 0;
+		}
+
+		// Same length as ArrayUtils.range(start, end, step)
+		double size = Math.floor((end - start) / step) + 1;
+		if (!(size >= 1)) {
+			count = 0;
+			return false;
+		}
+		count = (int) size;
+		ensureCapacity(count);
+
+		while (timeCount < count) {
+			times[timeCount] = (timeCount == 0) ? start : times[timeCount - 1] + step;
+			trapzTimes[timeCount] = (timeCount == 0) ? 0 : trapzTimes[timeCount - 1] + step;
+			timeCount++;
+		}
+
+		double settledTime = branch.getSettledTime();
+		for (int i = settled; i < count; i++) {
+			values[i] = branch.getValueAt(type, times[i]);
+			if (i == settled && times[i] < settledTime) {
+				settle(i);
+				settled++;
+			}
+		}
+		return true;
+	}
+
+	private void settle(int i) {
+		// Accumulated in the same order as ArrayUtils, starting from zero
+		double value = values[i];
+		double sum = (i == 0) ? 0 : sums[i - 1];
+		sums[i] = Double.isNaN(value) ? sum : sum + value;
+		if (i == 0) {
+			mins[0] = value;
+			maxs[0] = value;
+			trapzSums[0] = 0;
+		} else {
+			mins[i] = Math.min(mins[i - 1], value);
+			maxs[i] = Math.max(maxs[i - 1], value);
+			double term = trapzTerm(i);
+			trapzSums[i] = Double.isNaN(term) ? trapzSums[i - 1] : trapzSums[i - 1] + term;
+		}
+	}
+
+	private double trapzTerm(int i) {
+		return (trapzTimes[i] - trapzTimes[i - 1]) * (values[i] + values[i - 1]);
+	}
+
+	private void ensureCapacity(int n) {
+		if (values.length >= n) {
+			return;
+		}
+		int capacity = Math.max(n, 2 * values.length);
+		times = Arrays.copyOf(times, capacity);
+		values = Arrays.copyOf(values, capacity);
+		sums = Arrays.copyOf(sums, capacity);
+		mins = Arrays.copyOf(mins, capacity);
+		maxs = Arrays.copyOf(maxs, capacity);
+		trapzTimes = Arrays.copyOf(trapzTimes, capacity);
+		trapzSums = Arrays.copyOf(trapzSums, capacity);
+	}
+
+
+	/**
+	 * Return the number of samples in the current range.
+	 */
+	public int size() {
+		return count;
+	}
+
+	public double getStart() {
+		return start;
+	}
+
+	public double getStep() {
+		return step;
+	}
+
+	/**
+	 * Return the sample values of the current range as a new array.
+	 */
+	public double[] toArray() {
+		return Arrays.copyOf(values, count);
+	}
+
+	/**
+	 * Return the value of the first sample.
+	 */
+	public double getFirst() {
+		return values[0];
+	}
+
+	/**
+	 * Return the mean of the samples, see {@link net.sf.openrocket.util.ArrayUtils#mean(double[])}.
+	 */
+	public double mean() {
+		int n = Math.min(settled, count);
+		double subtotal = (n > 0) ? sums[n - 1] : 0;
+		for (int i = n; i < count; i++) {
+			if (!Double.isNaN(values[i])) {
+				subtotal += values[i];
+			}
+		}
+		return subtotal / count;
+	}
+
+	/**
+	 * Return the minimum of the samples, see {@link net.sf.openrocket.util.ArrayUtils#min(double[])}.
+	 */
+	public double min() {
+		int n = Math.max(Math.min(settled, count), 1);
+		double m = (n <= settled) ? mins[n - 1] : values[0];
+		for (int i = n; i < count; i++) {
+			m = Math.min(m, values[i]);
+		}
+		return m;
+	}
+
+	/**
+	 * Return the maximum of the samples, see {@link net.sf.openrocket.util.ArrayUtils#max(double[])}.
+	 */
+	public double max() {
+		int n = Math.max(Math.min(settled, count), 1);
+		double m = (n <= settled) ? maxs[n - 1] : values[0];
+		for (int i = n; i < count; i++) {
+			m = Math.max(m, values[i]);
+		}
+		return m;
+	}
+
+	/**
+	 * Return the trapezoidal integral of the samples, see
+	 * {@link net.sf.openrocket.util.ArrayUtils#trapz(double[], double)}.
+	 */
+	public double trapz() {
+		double dt = step;
+		double stop = (count - 1) * dt;
+		if (count <= 1 || dt <= 0)
+			return 0;
+
+		// Number of points of ArrayUtils.range(0, stop, dt)
+		int n = (int) Math.floor((stop - 0) / dt) + 1;
+		int s = Math.min(settled, n);
+		double sum = (s > 0) ? trapzSums[s - 1] : 0;
+		for (int i = Math.max(s, 1); i < n; i++) {
+			double temp = trapzTerm(i);
+			if (!Double.isNaN(temp)) {
+				sum += temp;
+			}
+		}
+		return sum * 0.5;
+	}
+}
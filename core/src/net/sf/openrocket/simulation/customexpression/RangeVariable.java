@@ -0,0 +1,38 @@
+package net.sf.openrocket.simulation.customexpression;
+
+import de.congrace.exp4j.Variable;
+
+/**
+ * An array variable holding the samples of a range expression.  The array is only
+ * copied out of the {@link RangeSamples} when it is requested, the functions in
+ * {@link Functions} use the running aggregates of the samples instead where possible.
+ * <p>
+ * The variable is only valid until the samples are next updated.
+ */
+final class RangeVariable extends Variable {
+
+	private final RangeSamples samples;
+	private double[] array;
+
+	RangeVariable(String name, RangeSamples samples) {
+		super(name, new double[] { samples.getFirst() }, samples.getStart(), samples.getStep());
+		this.samples = samples;
+	}
+
+	@Override
+	public double[] getArrayValue() {
+		if (array == null) {
+			array = samples.toArray();
+		}
+		return array;
+	}
+
+	RangeSamples getSamples() {
+		return samples;
+	}
+
+	@Override
+	public String toString() {
+		return getName() + " is Array (length " + samples.size() + ")";
+	}
+}
@@ -0,0 +1,159 @@
+package net.sf.openrocket.simulation.listeners;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.openrocket.aerodynamics.AerodynamicForces;
+import net.sf.openrocket.aerodynamics.FlightConditions;
+import net.sf.openrocket.masscalc.RigidBody;
+import net.sf.openrocket.models.atmosphere.AtmosphericConditions;
+import net.sf.openrocket.motor.MotorConfigurationId;
+import net.sf.openrocket.rocketcomponent.MotorMount;
+import net.sf.openrocket.rocketcomponent.RecoveryDevice;
+import net.sf.openrocket.simulation.AccelerationData;
+import net.sf.openrocket.simulation.FlightEvent;
+import net.sf.openrocket.simulation.MotorClusterState;
+import net.sf.openrocket.simulation.SimulationStatus;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.util.Coordinate;
+
+/**
+ * A table of the simulation listeners to call for each listener hook.
+ * <p>
+ * A listener is registered only for the hooks it implements.  Methods inherited from
+ * {@link AbstractSimulationListener} have no effect on the simulation, so listeners are
+ * not called for them, and hooks of the event and computation listener interfaces are
+ * called only on listeners implementing the interface.  The implemented hooks of each
+ * listener class are determined by reflection once.
+ * <p>
+ * The table is built from the listener list of the simulation conditions, and must be
+ * rebuilt when listeners are added or removed, see {@link #isValidFor(List)}.
+ */
+public final class SimulationListenerDispatch {
+
+	/**
+	 * The listener hooks.
+	 */
+	enum Hook {
+		START_SIMULATION(SimulationListener.class, "startSimulation"),
+		END_SIMULATION(SimulationListener.class, "endSimulation", SimulationException.class),
+		PRE_STEP(SimulationListener.class, "preStep"),
+		POST_STEP(SimulationListener.class, "postStep"),
+
+		ADD_FLIGHT_EVENT(SimulationEventListener.class, "addFlightEvent", FlightEvent.class),
+		HANDLE_FLIGHT_EVENT(SimulationEventListener.class, "handleFlightEvent", FlightEvent.class),
+		MOTOR_IGNITION(SimulationEventListener.class, "motorIgnition", MotorConfigurationId.class,
+				MotorMount.class, MotorClusterState.class),
+		RECOVERY_DEVICE_DEPLOYMENT(SimulationEventListener.class, "recoveryDeviceDeployment",
+				RecoveryDevice.class),
+
+		PRE_ATMOSPHERIC_MODEL(SimulationComputationListener.class, "preAtmosphericModel"),
+		POST_ATMOSPHERIC_MODEL(SimulationComputationListener.class, "postAtmosphericModel",
+				AtmosphericConditions.class),
+		PRE_WIND_MODEL(SimulationComputationListener.class, "preWindModel"),
+		POST_WIND_MODEL(SimulationComputationListener.class, "postWindModel", Coordinate.class),
+		PRE_GRAVITY_MODEL(SimulationComputationListener.class, "preGravityModel"),
+		POST_GRAVITY_MODEL(SimulationComputationListener.class, "postGravityModel", double.class),
+		PRE_FLIGHT_CONDITIONS(SimulationComputationListener.class, "preFlightConditions"),
+		POST_FLIGHT_CONDITIONS(SimulationComputationListener.class, "postFlightConditions",
+				FlightConditions.class),
+		PRE_AERODYNAMIC_CALCULATION(SimulationComputationListener.class, "preAerodynamicCalculation"),
+		POST_AERODYNAMIC_CALCULATION(SimulationComputationListener.class, "postAerodynamicCalculation",
+				AerodynamicForces.class),
+		PRE_MASS_CALCULATION(SimulationComputationListener.class, "preMassCalculation"),
+		POST_MASS_CALCULATION(SimulationComputationListener.class, "postMassCalculation", RigidBody.class),
+		PRE_SIMPLE_THRUST_CALCULATION(SimulationComputationListener.class, "preSimpleThrustCalculation"),
+		POST_SIMPLE_THRUST_CALCULATION(SimulationComputationListener.class, "postSimpleThrustCalculation",
+				double.class),
+		PRE_ACCELERATION_CALCULATION(SimulationComputationListener.class, "preAccelerationCalculation"),
+		POST_ACCELERATION_CALCULATION(SimulationComputationListener.class, "postAccelerationCalculation",
+				AccelerationData.class);
+
+		private final Class<?> listenerInterface;
+		private final String methodName;
+		private final Class<?>[] parameterTypes;
+
+		Hook(Class<?> listenerInterface, String methodName, Class<?>... parameterTypes) {
+			this.listenerInterface = listenerInterface;
+			this.methodName = methodName;
+			this.parameterTypes = new Class<?>[parameterTypes.length + 1];
+			this.parameterTypes[0] = SimulationStatus.class;
+			System.arraycopy(parameterTypes, 0, this.parameterTypes, 1, parameterTypes.length);
+		}
+
+		/**
+		 * Return whether instances of a listener class must be called for this hook.
+		 */
+		boolean isImplementedBy(Class<?> listenerClass) {
+			if (!listenerInterface.isAssignableFrom(listenerClass)) {
+				return false;
+			}
+			try {
+				Method m = listenerClass.getMethod(methodName, parameterTypes);
+				return m.getDeclaringClass() != AbstractSimulationListener.class;
+			} catch (NoSuchMethodException e) {
+				// Cannot happen for classes implementing the interface, call to be safe
+				return true;
+			}
+		}
+	}
+
+	private static final Hook[] HOOKS = Hook.values();
+
+	/** The hooks implemented by each listener class, indexed by hook ordinal. */
+	private static final ClassValue<boolean[]> IMPLEMENTED_HOOKS = new ClassValue<boolean[]>() {
+		@Override
+		protected boolean[] computeValue(Class<?> type) {
+			boolean[] implemented = new boolean[HOOKS.length];
+			for (Hook hook : HOOKS) {
+				implemented[hook.ordinal()] = hook.isImplementedBy(type);
+			}
+			return implemented;
+		}
+	};
+
+
+	private final List<SimulationListener> source;
+	private final int sourceSize;
+	private final SimulationListener[][] table = new SimulationListener[HOOKS.length][];
+
+
+	/**
+	 * Build the dispatch table of a listener list.
+	 *
+	 * @param listeners		the simulation listeners, in calling order.
+	 */
+	public SimulationListenerDispatch(List<SimulationListener> listeners) {
+		this.source = listeners;
+		this.sourceSize = listeners.size();
+
+		List<SimulationListener> hookListeners = new ArrayList<SimulationListener>(sourceSize);
+		for (Hook hook : HOOKS) {
+			hookListeners.clear();
+			for (SimulationListener l : listeners) {
+				if (IMPLEMENTED_HOOKS.get(l.getClass())[hook.ordinal()]) {
+					hookListeners.add(l);
+				}
+			}
+			table[hook.ordinal()] = hookListeners.toArray(new SimulationListener[0]);
+		}
+	}
+
+
+	/**
+	 * Return whether this table is still valid for a listener list, i.e. the table was
+	 * built from the same list and no listeners have been added or removed since.
+	 */
+	public boolean isValidFor(List<SimulationListener> listeners) {
+		return listeners == source && listeners.size() == sourceSize;
+	}
+
+	/**
+	 * Return the listeners to call for a hook, in calling order.  The listeners implement
+	 * the interface declaring the hook.
+	 */
+	SimulationListener[] getListeners(Hook hook) {
+		return table[hook.ordinal()];
+	}
+}
@@ -17,6 +17,7 @@ import net.sf.openrocket.simulation.FlightEvent;
 import net.sf.openrocket.simulation.MotorClusterState;
 import net.sf.openrocket.simulation.SimulationStatus;
 import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.simulation.listeners.SimulationListenerDispatch.Hook;
 import net.sf.openrocket.util.Coordinate;
 import net.sf.openrocket.util.MathUtil;
 
@@ -39,7 +40,7 @@ public class SimulationListenerHelper {
 			throws SimulationException {
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : getListeners(status, Hook.START_SIMULATION)) {
 			l.startSimulation(status);
 			if (modID != status.getModID()) {
 				warn(status, l);
@@ -55,7 +56,7 @@ public class SimulationListenerHelper {
 	public static void fireEndSimulation(SimulationStatus status, SimulationException exception) {
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : getListeners(status, Hook.END_SIMULATION)) {
 			l.endSimulation(status, exception);
 			if (modID != status.getModID()) {
 				warn(status, l);
@@ -77,7 +78,7 @@ public class SimulationListenerHelper {
 		boolean b;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : getListeners(status, Hook.PRE_STEP)) {
 			b = l.preStep(status);
 			if (modID != status.getModID()) {
 				warn(status, l);
@@ -99,7 +100,7 @@ public class SimulationListenerHelper {
 			throws SimulationException {
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : getListeners(status, Hook.POST_STEP)) {
 			l.postStep(status);
 			if (modID != status.getModID()) {
 				warn(status, l);
@@ -121,17 +122,15 @@ public class SimulationListenerHelper {
 		boolean b;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				b = ((SimulationEventListener) l).addFlightEvent(status, event);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (b == false) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : getListeners(status, Hook.ADD_FLIGHT_EVENT)) {
+			b = ((SimulationEventListener) l).addFlightEvent(status, event);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (b == false) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -146,17 +145,15 @@ public class SimulationListenerHelper {
 		boolean b;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				b = ((SimulationEventListener) l).handleFlightEvent(status, event);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (b == false) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : getListeners(status, Hook.HANDLE_FLIGHT_EVENT)) {
+			b = ((SimulationEventListener) l).handleFlightEvent(status, event);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (b == false) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -172,17 +169,15 @@ public class SimulationListenerHelper {
 		boolean result;
 		int modID = status.getModID(); // Contains also motor instance
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				result = ((SimulationEventListener) l).motorIgnition(status, motorId, mount, instance);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if ( false == result ) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : getListeners(status, Hook.MOTOR_IGNITION)) {
+			result = ((SimulationEventListener) l).motorIgnition(status, motorId, mount, instance);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if ( false == result ) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -199,17 +194,15 @@ public class SimulationListenerHelper {
 		boolean result;
 		int modID = status.getModID(); // Contains also motor instance
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				result = ((SimulationEventListener) l).recoveryDeviceDeployment(status, device);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (false == result) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : getListeners(status, Hook.RECOVERY_DEVICE_DEPLOYMENT)) {
+			result = ((SimulationEventListener) l).recoveryDeviceDeployment(status, device);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (false == result) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -228,17 +221,15 @@ public class SimulationListenerHelper {
 		AtmosphericConditions conditions;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				conditions = ((SimulationComputationListener) l).preAtmosphericModel(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (conditions != null) {
-					warn(status, l);
-					return conditions;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_ATMOSPHERIC_MODEL)) {
+			conditions = ((SimulationComputationListener) l).preAtmosphericModel(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (conditions != null) {
+				warn(status, l);
+				return conditions;
 			}
 		}
 		return null;
@@ -255,18 +246,16 @@ public class SimulationListenerHelper {
 		AtmosphericConditions clone = conditions.clone();
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				c = ((SimulationComputationListener) l).postAtmosphericModel(status, clone);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (c != null && !c.equals(conditions)) {
-					warn(status, l);
-					conditions = c;
-					clone = conditions.clone();
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_ATMOSPHERIC_MODEL)) {
+			c = ((SimulationComputationListener) l).postAtmosphericModel(status, clone);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (c != null && !c.equals(conditions)) {
+				warn(status, l);
+				conditions = c;
+				clone = conditions.clone();
 			}
 		}
 		return conditions;
@@ -284,17 +273,15 @@ public class SimulationListenerHelper {
 		Coordinate wind;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				wind = ((SimulationComputationListener) l).preWindModel(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (wind != null) {
-					warn(status, l);
-					return wind;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_WIND_MODEL)) {
+			wind = ((SimulationComputationListener) l).preWindModel(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (wind != null) {
+				warn(status, l);
+				return wind;
 			}
 		}
 		return null;
@@ -309,17 +296,15 @@ public class SimulationListenerHelper {
 		Coordinate w;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				w = ((SimulationComputationListener) l).postWindModel(status, wind);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (w != null && !w.equals(wind)) {
-					warn(status, l);
-					wind = w;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_WIND_MODEL)) {
+			w = ((SimulationComputationListener) l).postWindModel(status, wind);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (w != null && !w.equals(wind)) {
+				warn(status, l);
+				wind = w;
 			}
 		}
 		return wind;
@@ -337,17 +322,15 @@ public class SimulationListenerHelper {
 		double gravity;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				gravity = ((SimulationComputationListener) l).preGravityModel(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(gravity)) {
-					warn(status, l);
-					return gravity;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_GRAVITY_MODEL)) {
+			gravity = ((SimulationComputationListener) l).preGravityModel(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(gravity)) {
+				warn(status, l);
+				return gravity;
 			}
 		}
 		return Double.NaN;
@@ -362,17 +345,15 @@ public class SimulationListenerHelper {
 		double g;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				g = ((SimulationComputationListener) l).postGravityModel(status, gravity);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(g) && !MathUtil.equals(g, gravity)) {
-					warn(status, l);
-					gravity = g;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_GRAVITY_MODEL)) {
+			g = ((SimulationComputationListener) l).postGravityModel(status, gravity);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(g) && !MathUtil.equals(g, gravity)) {
+				warn(status, l);
+				gravity = g;
 			}
 		}
 		return gravity;
@@ -391,17 +372,15 @@ public class SimulationListenerHelper {
 		FlightConditions conditions;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				conditions = ((SimulationComputationListener) l).preFlightConditions(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (conditions != null) {
-					warn(status, l);
-					return conditions;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_FLIGHT_CONDITIONS)) {
+			conditions = ((SimulationComputationListener) l).preFlightConditions(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (conditions != null) {
+				warn(status, l);
+				return conditions;
 			}
 		}
 		return null;
@@ -419,18 +398,16 @@ public class SimulationListenerHelper {
 		FlightConditions clone = conditions.clone();
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				c = ((SimulationComputationListener) l).postFlightConditions(status, clone);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (c != null && !c.equals(conditions)) {
-					warn(status, l);
-					conditions = c;
-					clone = conditions.clone();
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_FLIGHT_CONDITIONS)) {
+			c = ((SimulationComputationListener) l).postFlightConditions(status, clone);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (c != null && !c.equals(conditions)) {
+				warn(status, l);
+				conditions = c;
+				clone = conditions.clone();
 			}
 		}
 		return conditions;
@@ -449,17 +426,15 @@ public class SimulationListenerHelper {
 		AerodynamicForces forces;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				forces = ((SimulationComputationListener) l).preAerodynamicCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (forces != null) {
-					warn(status, l);
-					return forces;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_AERODYNAMIC_CALCULATION)) {
+			forces = ((SimulationComputationListener) l).preAerodynamicCalculation(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (forces != null) {
+				warn(status, l);
+				return forces;
 			}
 		}
 		return null;
@@ -476,18 +451,16 @@ public class SimulationListenerHelper {
 		AerodynamicForces clone = forces.clone();
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				f = ((SimulationComputationListener) l).postAerodynamicCalculation(status, clone);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (f != null && !f.equals(forces)) {
-					warn(status, l);
-					forces = f;
-					clone = forces.clone();
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_AERODYNAMIC_CALCULATION)) {
+			f = ((SimulationComputationListener) l).postAerodynamicCalculation(status, clone);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (f != null && !f.equals(forces)) {
+				warn(status, l);
+				forces = f;
+				clone = forces.clone();
 			}
 		}
 		return forces;
@@ -507,17 +480,15 @@ public class SimulationListenerHelper {
 		RigidBody mass;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				mass = ((SimulationComputationListener) l).preMassCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (mass != null) {
-					warn(status, l);
-					return mass;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_MASS_CALCULATION)) {
+			mass = ((SimulationComputationListener) l).preMassCalculation(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (mass != null) {
+				warn(status, l);
+				return mass;
 			}
 		}
 		return null;
@@ -532,17 +503,15 @@ public class SimulationListenerHelper {
 		RigidBody m;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				m = ((SimulationComputationListener) l).postMassCalculation(status, mass);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (m != null && !m.equals(mass)) {
-					warn(status, l);
-					mass = m;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_MASS_CALCULATION)) {
+			m = ((SimulationComputationListener) l).postMassCalculation(status, mass);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (m != null && !m.equals(mass)) {
+				warn(status, l);
+				mass = m;
 			}
 		}
 		return mass;
@@ -561,17 +530,15 @@ public class SimulationListenerHelper {
 		double thrust;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				thrust = ((SimulationComputationListener) l).preSimpleThrustCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(thrust)) {
-					warn(status, l);
-					return thrust;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_SIMPLE_THRUST_CALCULATION)) {
+			thrust = ((SimulationComputationListener) l).preSimpleThrustCalculation(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(thrust)) {
+				warn(status, l);
+				return thrust;
 			}
 		}
 		return Double.NaN;
@@ -586,17 +553,15 @@ public class SimulationListenerHelper {
 		double t;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				t = ((SimulationComputationListener) l).postSimpleThrustCalculation(status, thrust);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(t) && !MathUtil.equals(t, thrust)) {
-					warn(status, l);
-					thrust = t;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_SIMPLE_THRUST_CALCULATION)) {
+			t = ((SimulationComputationListener) l).postSimpleThrustCalculation(status, thrust);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(t) && !MathUtil.equals(t, thrust)) {
+				warn(status, l);
+				thrust = t;
 			}
 		}
 		return thrust;
@@ -615,17 +580,15 @@ public class SimulationListenerHelper {
 		AccelerationData acceleration;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				acceleration = ((SimulationComputationListener) l).preAccelerationCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (acceleration != null) {
-					warn(status, l);
-					return acceleration;
-				}
+		for (SimulationListener l : getListeners(status, Hook.PRE_ACCELERATION_CALCULATION)) {
+			acceleration = ((SimulationComputationListener) l).preAccelerationCalculation(status);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (acceleration != null) {
+				warn(status, l);
+				return acceleration;
 			}
 		}
 		return null;
@@ -641,17 +604,15 @@ public class SimulationListenerHelper {
 		AccelerationData a;
 		int modID = status.getModID();
 		
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				a = ((SimulationComputationListener) l).postAccelerationCalculation(status, acceleration);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (a != null && !a.equals(acceleration)) {
-					warn(status, l);
-					acceleration = a;
-				}
+		for (SimulationListener l : getListeners(status, Hook.POST_ACCELERATION_CALCULATION)) {
+			a = ((SimulationComputationListener) l).postAccelerationCalculation(status, acceleration);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (a != null && !a.equals(acceleration)) {
+				warn(status, l);
+				acceleration = a;
 			}
 		}
 		return acceleration;
@@ -660,6 +621,13 @@ public class SimulationListenerHelper {
 	
 
 
+	/**
+	 * Return the listeners to call for a hook, from the dispatch table of the simulation conditions.
+	 */
+	private static SimulationListener[] getListeners(SimulationStatus status, Hook hook) {
+		return status.getSimulationConditions().getSimulationListenerDispatch().getListeners(hook);
+	}
+	
 	private static void warn(SimulationStatus status, SimulationListener listener) {
 		if (!listener.isSystemListener()) {
 			log.info("Non-system listener " + listener + " affected the simulation");
@@ -0,0 +1,121 @@
+package net.sf.openrocket.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.function.Function;
+
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+
+/**
+ * A registry of the handlers of the rocket component classes, such as the methods
+ * drawing or saving each type of component.
+ * <p>
+ * The handler of a component class is looked up from the handler classes named
+ * <code>pack + "." + simple name + suffix</code> of the component class and its
+ * superclasses, as by {@link Reflection#findMethod(String, Class, String, String, Class...)}.
+ * The lookup is done only once for each component class, and the result is cached in
+ * a <code>ClassValue</code>.  Missing handler classes and methods are detected without
+ * exceptions.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <T>	the type of the handlers.
+ */
+public final class ComponentHandlerRegistry<T> {
+
+	private final ClassValue<Optional<T>> handlers;
+
+
+	private ComponentHandlerRegistry(final Function<Class<?>, T> resolver) {
+		this.handlers = new ClassValue<Optional<T>>() {
+			@Override
+			protected Optional<T> computeValue(Class<?> type) {
+				return Optional.ofNullable(resolver.apply(type));
+			}
+		};
+	}
+
+
+	/**
+	 * Create a registry of static handler methods.
+	 *
+	 * @param pack		the package of the handler classes.
+	 * @param suffix	the suffix of the handler class names.
+	 * @param method	the name of the handler method.
+	 * @param params	the parameter types of the handler method.
+	 */
+	public static ComponentHandlerRegistry<Reflection.Method> forMethod(final String pack, final String suffix,
+			final String method, final Class<?>... params) {
+		final Class<?>[] paramsCopy = params.clone();
+		return new ComponentHandlerRegistry<Reflection.Method>(componentClass -> {
+			for (Class<?> c = componentClass; c != null && c != Object.class; c = c.getSuperclass()) {
+				Class<?> handlerClass = Reflection.findClass(Reflection.handlerClassName(pack, c, suffix));
+				if (handlerClass != null) {
+					java.lang.reflect.Method m = Reflection.findPublicMethod(handlerClass, method, paramsCopy);
+					if (m != null) {
+						return new Reflection.Method(m);
+					}
+				}
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Create a registry of handler factories.  The factory of a component class calls
+	 * the constructor of its handler class taking the component as the only argument.
+	 * Abstract handler classes are skipped.
+	 *
+	 * @param pack		the package of the handler classes.
+	 * @param suffix	the suffix of the handler class names.
+	 */
+	public static ComponentHandlerRegistry<Function<RocketComponent, Object>> forConstructor(final String pack,
+			final String suffix) {
+		return new ComponentHandlerRegistry<Function<RocketComponent, Object>>(componentClass -> {
+			for (Class<?> c = componentClass; c != null && c != Object.class; c = c.getSuperclass()) {
+				Class<?> handlerClass = Reflection.findClass(Reflection.handlerClassName(pack, c, suffix));
+				if (handlerClass == null || Modifier.isAbstract(handlerClass.getModifiers())) {
+					continue;
+				}
+				for (Constructor<?> constructor : handlerClass.getConstructors()) {
+					Class<?>[] parameterTypes = constructor.getParameterTypes();
+					if (parameterTypes.length == 1 && parameterTypes[0].isAssignableFrom(componentClass)) {
+						return component -> newInstance(constructor, component);
+					}
+				}
+			}
+			return null;
+		});
+	}
+
+	private static Object newInstance(Constructor<?> constructor, RocketComponent component) {
+		try {
+			return constructor.newInstance(component);
+		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException e) {
+			throw new BugException("Construction of " + constructor.getDeclaringClass().getName() + " failed", e);
+		} catch (InvocationTargetException e) {
+			throw Reflection.handleWrappedException(e);
+		}
+	}
+
+
+	/**
+	 * Return the handler of a component class.
+	 *
+	 * @return	the handler, or <code>null</code> if the component class has no handler.
+	 */
+	public T get(Class<? extends RocketComponent> componentClass) {
+		return handlers.get(componentClass).orElse(null);
+	}
+
+	/**
+	 * Return the handler of a component.
+	 *
+	 * @return	the handler, or <code>null</code> if the component has no handler.
+	 */
+	public T get(RocketComponent component) {
+		return handlers.get(component.getClass()).orElse(null);
+	}
+}
@@ -1,13 +1,27 @@
 package net.sf.openrocket.util;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
+/**
+ * A piecewise linear function through a set of points.  Before the first and after the
+ * last point the function is constant.  Adding a point with the same x-coordinate as
+ * an existing point replaces it.
+ * <p>
+ * The points are stored in sorted primitive arrays and located by binary search.  The
+ * segment of the previous lookup is remembered, so that consecutive lookups with
+ * increasing x-coordinates, as when sweeping over a range, usually need no search at all.
+ * An interpolator may be used from multiple threads once all the points have been added.
+ */
 public class LinearInterpolator implements Cloneable {
 
-	private TreeMap<Double, Double> sortMap = new TreeMap<Double,Double>();
+	private double[] xPoints = new double[8];
+	private double[] yPoints = new double[8];
+	private int size = 0;
+	
+	/** Index of the segment of the previous lookup, only a hint for the next lookup. */
+	private int hint = 0;
 
 	/**
 	 * Construct a <code>LinearInterpolator</code> with no points.  Some points must be
@@ -40,7 +54,43 @@ public class LinearInterpolator implements Cloneable {
 	 * @param y		the y-coordinate of the point.
 	 */
 	public void addPoint(double x, double y) {
-		sortMap.put(x, y);
+		// Points are usually added in order, which appends them
+		if (size > 0) {
+			int c = Double.compare(x, xPoints[size - 1]);
+			if (c == 0) {
+				yPoints[size - 1] = y;
+				return;
+			}
+			if (c < 0) {
+				insertPoint(x, y);
+				return;
+			}
+		}
+		if (size == xPoints.length) {
+			xPoints = Arrays.copyOf(xPoints, size * 2);
+			yPoints = Arrays.copyOf(yPoints, size * 2);
+		}
+		xPoints[size] = x;
+		yPoints[size] = y;
+		size++;
+	}
+
+	private void insertPoint(double x, double y) {
+		int index = Arrays.binarySearch(xPoints, 0, size, x);
+		if (index >= 0) {
+			yPoints[index] = y;
+			return;
+		}
+		index = -index - 1;
+		if (size == xPoints.length) {
+			xPoints = Arrays.copyOf(xPoints, size * 2);
+			yPoints = Arrays.copyOf(yPoints, size * 2);
+		}
+		System.arraycopy(xPoints, index, xPoints, index + 1, size - index);
+		System.arraycopy(yPoints, index, yPoints, index + 1, size - index);
+		xPoints[index] = x;
+		yPoints[index] = y;
+		size++;
 	}
 
 	/**
@@ -57,7 +107,7 @@ public class LinearInterpolator implements Cloneable {
 					" y="+y.length);
 		}
 		for (int i=0; i < x.length; i++) {
-			sortMap.put(x[i],y[i]);
+			addPoint(x[i], y[i]);
 		}
 	}
 
@@ -66,85 +116,107 @@ public class LinearInterpolator implements Cloneable {
 			throw new IllegalArgumentException("Array lengths do not match, x="+x.size() +
 					" y="+y.size());
 		}
-		for (int i=0; i < x.size(); i++) {
-			sortMap.put( (Double) x.toArray()[i], (Double) y.toArray()[i]);
+		Iterator<Double> xi = x.iterator();
+		Iterator<Double> yi = y.iterator();
+		while (xi.hasNext()) {
+			addPoint(xi.next(), yi.next());
 		}
 	}
 
 
+	/**
+	 * Return the value of the function at the given x-coordinate.  A NaN coordinate
+	 * is considered to be after all the points.
+	 * 
+	 * @param x		the x-coordinate.
+	 * @return		the interpolated value.
+	 * @throws IllegalStateException	if no points have been added.
+	 */
 	public double getValue(double x) {
-		double x1, x2;
-		Double y1, y2;
-		// Froyo does not support floorEntry, firstEntry or higherEntry.  We instead have to
-		// resort to using other more awkward methods.
-
-		y1 = sortMap.get(x);
-
-		if ( y1 != null ) {
-			// Wow, x was a key in the map.  Such luck.
-			return y1.doubleValue();
+		final int n = size;
+		if (n == 0) {
+			throw new IllegalStateException("No points added yet to the interpolator.");
 		}
-
-		// we now know that x is not in the map, so we need to find the lower and higher keys.
+		final double[] xs = xPoints;
+		final double[] ys = yPoints;
 		
-		// let's just make certain that our map is not empty.
-		if ( sortMap.isEmpty() ) {
-			throw new IllegalStateException("No points added yet to the interpolator.");
+		if (x < xs[0]) {
+			return ys[0];
+		}
+		if (!(x < xs[n - 1])) {
+			return ys[n - 1];
 		}
 		
-		// firstKey in the map - cannot be null since the map is not empty.
-		Double firstKey = sortMap.firstKey();
-
-		// x is smaller than the first entry in the map.
-		if ( x < firstKey.doubleValue() ) {
-			y1 = sortMap.get(firstKey);
-			return y1.doubleValue();
+		// Now xs[0] <= x < xs[n-1], find the segment xs[i] <= x < xs[i+1]
+		int i = hint;
+		if (i >= n - 1 || !(xs[i] <= x && x < xs[i + 1])) {
+			if (i + 2 < n && xs[i + 1] <= x && x < xs[i + 2]) {
+				i++;
+			} else {
+				i = findSegment(xs, n, x);
+			}
+			hint = i;
 		}
 		
-		// floor key is the largest key smaller than x - since we have at least one key,
-		// and x>=firstKey, we know that floorKey != null.
-		Double floorKey = sortMap.subMap(firstKey, x).lastKey();
-
-		x1 = floorKey.doubleValue();
-		y1 = sortMap.get(floorKey);
-
-		// Now we need to find the key that is greater or equal to x
-		SortedMap<Double,Double> tailMap = sortMap.tailMap(x);
+		double x1 = xs[i];
+		double y1 = ys[i];
+		if (x == x1) {
+			return y1;
+		}
+		double x2 = xs[i + 1];
+		double y2 = ys[i + 1];
+		return (x - x1)/(x2-x1) * (y2-y1) + y1;
+	}
 
-		// Check if x is bigger than all the entries.
-		if ( tailMap.isEmpty() ) {
-			return y1.doubleValue();
+	/**
+	 * Return the values of the function at the given x-coordinates, as by
+	 * {@link #getValue(double)}.  Lookups are fastest when the coordinates are
+	 * increasing.
+	 * 
+	 * @param x		the x-coordinates.
+	 * @param out	the array in which to store the values, may be <code>x</code> itself.
+	 * @throws IllegalArgumentException		if <code>out</code> is shorter than <code>x</code>.
+	 * @throws IllegalStateException		if no points have been added.
+	 */
+	public void getValues(double[] x, double[] out) {
+		if (out.length < x.length) {
+			throw new IllegalArgumentException("Output array too short, x=" + x.length +
+					" out=" + out.length);
 		}
-		Double ceilKey = tailMap.firstKey();
-		
-		// Check if x is bigger than all the entries.
-		if ( ceilKey == null ) {
-			return y1.doubleValue();
+		for (int i = 0; i < x.length; i++) {
+			out[i] = getValue(x[i]);
 		}
-		
-		x2 = ceilKey.doubleValue();
-		y2 = sortMap.get(ceilKey);
+	}
 
-		return (x - x1)/(x2-x1) * (y2-y1) + y1;
+	/**
+	 * Return the largest index i < n-1 with xs[i] <= x, given xs[0] <= x < xs[n-1].
+	 */
+	private static int findSegment(double[] xs, int n, double x) {
+		int low = 0;
+		int high = n - 1;
+		while (high - low > 1) {
+			int mid = (low + high) >>> 1;
+			if (xs[mid] <= x) {
+				low = mid;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
 	}
 
 
 	public double[] getXPoints() {
-		double[] x = new double[sortMap.size()];
-		Iterator<Double> iter = sortMap.keySet().iterator();
-		for (int i=0; iter.hasNext(); i++) {
-			x[i] = iter.next();
-		}
-		return x;
+		return Arrays.copyOf(xPoints, size);
 	}
 
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public LinearInterpolator clone() {
 		try {
 			LinearInterpolator other = (LinearInterpolator)super.clone();
-			other.sortMap = (TreeMap<Double,Double>)this.sortMap.clone();
+			other.xPoints = this.xPoints.clone();
+			other.yPoints = this.yPoints.clone();
 			return other;
 		} catch (CloneNotSupportedException e) {
 			throw new BugException("CloneNotSupportedException?!",e);
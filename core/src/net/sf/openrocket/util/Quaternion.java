@@ -85,14 +85,28 @@ public class Quaternion {
 	 * @return			the quaternion corresponding to the rotation vector
 	 */
 	public static Quaternion rotation(Coordinate rotation) {
-		double length = rotation.length();
+		return rotation(rotation.x, rotation.y, rotation.z);
+	}
+	
+	/**
+	 * Create a rotation quaternion corresponding to the rotation vector (x,y,z).  This is
+	 * equivalent to {@link #rotation(Coordinate)} but does not require constructing the
+	 * rotation vector.
+	 * 
+	 * @param x			the x component of the rotation vector
+	 * @param y			the y component of the rotation vector
+	 * @param z			the z component of the rotation vector
+	 * @return			the quaternion corresponding to the rotation vector
+	 */
+	public static Quaternion rotation(double x, double y, double z) {
+		double length = MathUtil.safeSqrt(x * x + y * y + z * z);
 		if (length < 0.000001) {
 			return new Quaternion(1, 0, 0, 0);
 		}
 		double sin = Math.sin(length / 2);
 		double cos = Math.cos(length / 2);
 		return new Quaternion(cos,
-				sin * rotation.x / length, sin * rotation.y / length, sin * rotation.z / length);
+				sin * x / length, sin * y / length, sin * z / length);
 	}
 	
 	/**
@@ -117,25 +117,29 @@ public class Reflection {
 	}
 	
 	
+	/**
+	 * Find a method from the handler classes of a component class.  The handler class of a
+	 * component class is named <code>pack + "." + simple name + suffix</code>.  The handler
+	 * classes of the component class and its superclasses are searched in order.
+	 * <p>
+	 * The search is repeated on every call, see {@link ComponentHandlerRegistry} for
+	 * resolving the handlers only once.
+	 * 
+	 * @return	the method, or <code>null</code> if not found.
+	 */
 	public static Reflection.Method findMethod(String pack,
 			Class<? extends RocketComponent> componentClass,
 			String suffix, String method, Class<?>... params) {
 		Class<?> currentclass;
-		String name;
 		
 		currentclass = componentClass;
 		while ((currentclass != null) && (currentclass != Object.class)) {
-			name = currentclass.getCanonicalName();
-			if (name.lastIndexOf('.') >= 0)
-				name = name.substring(name.lastIndexOf(".") + 1);
-			name = pack + "." + name + suffix;
-			
-			try {
-				Class<?> c = Class.forName(name);
-				java.lang.reflect.Method m = c.getMethod(method, params);
-				return new Reflection.Method(m);
-			} catch (ClassNotFoundException ignore) {
-			} catch (NoSuchMethodException ignore) {
+			Class<?> c = findClass(handlerClassName(pack, currentclass, suffix));
+			if (c != null) {
+				java.lang.reflect.Method m = findPublicMethod(c, method, params);
+				if (m != null) {
+					return new Reflection.Method(m);
+				}
 			}
 			
 			currentclass = currentclass.getSuperclass();
@@ -144,6 +148,44 @@ public class Reflection {
 	}
 	
 	
+	/**
+	 * Return the name of the handler class of a component class.
+	 */
+	static String handlerClassName(String pack, Class<?> componentClass, String suffix) {
+		return pack + "." + componentClass.getSimpleName() + suffix;
+	}
+	
+	/**
+	 * Return the class of the given name, or <code>null</code> if no such class exists.
+	 * The class file is looked up before loading the class, so that missing classes are
+	 * detected without an exception.
+	 */
+	static Class<?> findClass(String name) {
+		ClassLoader loader = Reflection.class.getClassLoader();
+		if (loader.getResource(name.replace('.', '/') + ".class") == null) {
+			return null;
+		}
+		try {
+			return Class.forName(name, true, loader);
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Return the public method of a class with the given name and parameter types, like
+	 * Class.getMethod(), or <code>null</code> if no such method exists.
+	 */
+	static java.lang.reflect.Method findPublicMethod(Class<?> c, String method, Class<?>... params) {
+		for (java.lang.reflect.Method m : c.getMethods()) {
+			if (m.getName().equals(method) && Arrays.equals(m.getParameterTypes(), params)) {
+				return m;
+			}
+		}
+		return null;
+	}
+	
+	
 	public static Object construct(String pack, RocketComponent component, String suffix,
 			Object... params) {
 		
@@ -152,39 +194,32 @@ public class Reflection {
 		
 		currentclass = component.getClass();
 		while ((currentclass != null) && (currentclass != Object.class)) {
-			name = currentclass.getCanonicalName();
-			if (name.lastIndexOf('.') >= 0)
-				name = name.substring(name.lastIndexOf(".") + 1);
-			name = pack + "." + name + suffix;
+			name = handlerClassName(pack, currentclass, suffix);
+			Class<?> c = findClass(name);
 			
-			try {
-				Class<?> c = Class.forName(name);
-				Class<?>[] paramClasses = new Class<?>[params.length];
-				for (int i = 0; i < params.length; i++) {
-					paramClasses[i] = params[i].getClass();
-				}
-				
-				// Constructors must be searched manually.  Why?!
-				main: for (Constructor<?> constructor : c.getConstructors()) {
-					Class<?>[] parameterTypes = constructor.getParameterTypes();
-					if (params.length != parameterTypes.length)
-						continue;
-					for (int i = 0; i < params.length; i++) {
-						if (!parameterTypes[i].isInstance(params[i]))
-							continue main;
+			if (c != null) {
+				try {
+					// Constructors must be searched manually.  Why?!
+					main: for (Constructor<?> constructor : c.getConstructors()) {
+						Class<?>[] parameterTypes = constructor.getParameterTypes();
+						if (params.length != parameterTypes.length)
+							continue;
+						for (int i = 0; i < params.length; i++) {
+							if (!parameterTypes[i].isInstance(params[i]))
+								continue main;
+						}
+						// Matching constructor found
+						return constructor.newInstance(params);
 					}
-					// Matching constructor found
-					return constructor.newInstance(params);
+				} catch (IllegalArgumentException e) {
+					throw new BugException("Construction of " + name + " failed", e);
+				} catch (InstantiationException e) {
+					throw new BugException("Construction of " + name + " failed", e);
+				} catch (IllegalAccessException e) {
+					throw new BugException("Construction of " + name + " failed", e);
+				} catch (InvocationTargetException e) {
+					throw Reflection.handleWrappedException(e);
 				}
-			} catch (ClassNotFoundException ignore) {
-			} catch (IllegalArgumentException e) {
-				throw new BugException("Construction of " + name + " failed", e);
-			} catch (InstantiationException e) {
-				throw new BugException("Construction of " + name + " failed", e);
-			} catch (IllegalAccessException e) {
-				throw new BugException("Construction of " + name + " failed", e);
-			} catch (InvocationTargetException e) {
-				throw Reflection.handleWrappedException(e);
 			}
 			
 			currentclass = currentclass.getSuperclass();
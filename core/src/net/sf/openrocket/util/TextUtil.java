@@ -50,46 +50,65 @@ public class TextUtil {
 	 * @return		a representation with suitable precision.
 	 */
 	public static final String doubleToString(double d) {
+		StringBuilder sb = new StringBuilder(12);
+		appendDouble(sb, d);
+		return sb.toString();
+	}
+	
+	/**
+	 * Append the representation of the double value returned by {@link #doubleToString(double)}
+	 * to a string builder.  This avoids creating intermediate strings when writing large
+	 * amounts of data.
+	 * 
+	 * @param sb	the string builder to append to.
+	 * @param d		the value to present.
+	 * @return		the string builder.
+	 */
+	public static final StringBuilder appendDouble(StringBuilder sb, double d) {
 		
 		// Check for special cases
 		if (MathUtil.equals(d, 0))
-			return "0";
+			return sb.append('0');
 		
 		if (Double.isNaN(d))
-			return "NaN";
+			return sb.append("NaN");
 		
 		if (Double.isInfinite(d)) {
 			if (d < 0)
-				return "-Inf";
+				return sb.append("-Inf");
 			else
-				return "Inf";
+				return sb.append("Inf");
 		}
 		
 		
-		final String sign = (d < 0) ? "-" : "";
+		if (d < 0)
+			sb.append('-');
 		double abs = Math.abs(d);
 		
 		// Small and large values always in exponential notation
 		if (abs < 0.001 || abs >= 100000000) {
-			return sign + exponentialFormat(abs);
+			return appendExponential(sb, abs);
 		}
 		
 		// Check whether decimal or exponential notation is shorter
 		
-		String exp = exponentialFormat(abs);
-		String dec = decimalFormat(abs);
+		int expStart = sb.length();
+		appendExponential(sb, abs);
+		int decStart = sb.length();
+		appendDecimal(sb, abs);
 		
-		if (dec.length() <= exp.length())
-			return sign + dec;
+		if (sb.length() - decStart <= decStart - expStart)
+			sb.delete(expStart, decStart);
 		else
-			return sign + exp;
+			sb.setLength(decStart);
+		return sb;
 	}
 	
 	
 	/*
 	 * value must be positive and not zero!
 	 */
-	private static String exponentialFormat(double value) {
+	private static StringBuilder appendExponential(StringBuilder sb, double value) {
 		int exp;
 		
 		exp = 0;
@@ -102,16 +121,17 @@ public class TextUtil {
 			exp++;
 		}
 		
-		return shortDecimal(value, 4) + "e" + exp;
+		appendShortDecimal(sb, value, 4);
+		return sb.append('e').append(exp);
 	}
 	
 	
 	/*
 	 * value must be positive and not zero!
 	 */
-	private static String decimalFormat(double value) {
+	private static StringBuilder appendDecimal(StringBuilder sb, double value) {
 		if (value >= 10000)
-			return "" + (int) (value + 0.5);
+			return sb.append((int) (value + 0.5));
 		
 		int decimals = 1;
 		double v = value;
@@ -120,7 +140,7 @@ public class TextUtil {
 			decimals++;
 		}
 		
-		return shortDecimal(value, decimals);
+		return appendShortDecimal(sb, value, decimals);
 	}
 	
 	
@@ -129,7 +149,7 @@ public class TextUtil {
 	/*
 	 * value must be positive!
 	 */
-	private static String shortDecimal(double value, int decimals) {
+	private static StringBuilder appendShortDecimal(StringBuilder sb, double value, int decimals) {
 		
 		// Calculate rounding and limit values (rounding slightly smaller)
 		int rounding = 1;
@@ -148,11 +168,10 @@ public class TextUtil {
 		
 		
 		if (value < limit)
-			return "" + whole;
+			return sb.append(whole);
 		limit *= 10;
 		
-		StringBuilder sb = new StringBuilder();
-		sb.append("" + whole);
+		sb.append(whole);
 		sb.append('.');
 		
 		
@@ -164,12 +183,12 @@ public class TextUtil {
 			sb.append((char) ('0' + whole));
 			
 			if (value < limit)
-				return sb.toString();
+				return sb;
 			limit *= 10;
 			
 		}
 		
-		return sb.toString();
+		return sb;
 	}
 	
 	/**
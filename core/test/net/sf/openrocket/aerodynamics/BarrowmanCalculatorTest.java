@@ -347,4 +347,44 @@ public class BarrowmanCalculatorTest {
 		assertEquals(" Alpha III With Pods rocket cp z value is incorrect:", cpNoPods.z, cpPods.z, EPSILON);
 		assertEquals(" Alpha III With Pods rocket CNa value is incorrect:", cpPods.weight, cpNoPods.weight - 3.91572, EPSILON);
 	}
+
+	@Test
+	public void testCachedForcesFollowConfiguration() {
+		final Rocket rocket = TestRockets.makeFalcon9Heavy();
+		final FlightConfiguration config = rocket.getSelectedConfiguration();
+		final BarrowmanCalculator calc = new BarrowmanCalculator();
+		final FlightConditions conditions = new FlightConditions(config);
+		conditions.setMach(0.3);
+		conditions.setAOA(0.1);
+		final WarningSet warnings = new WarningSet();
+
+		final AerodynamicForces allStages = calc.getAerodynamicForces(config, conditions, warnings);
+		assertForcesEqual(new BarrowmanCalculator().getAerodynamicForces(config, conditions, warnings),
+				calc.getAerodynamicForces(config, conditions, warnings));
+
+		// Toggling a stage does not change the modification ID of the configuration
+		config.toggleStage(1);
+		final AerodynamicForces coreOnly = calc.getAerodynamicForces(config, conditions, warnings);
+		assertForcesEqual(new BarrowmanCalculator().getAerodynamicForces(config, conditions, warnings), coreOnly);
+		assertTrue(" Falcon 9 Heavy boosters should add drag:", allStages.getCD() > coreOnly.getCD());
+
+		config.toggleStage(1);
+		assertForcesEqual(allStages, calc.getAerodynamicForces(config, conditions, warnings));
+
+		// Modifying the rocket rebuilds the cached data
+		final NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		nose.setLength(2 * nose.getLength());
+		assertForcesEqual(new BarrowmanCalculator().getAerodynamicForces(config, conditions, warnings),
+				calc.getAerodynamicForces(config, conditions, warnings));
+	}
+
+	private static void assertForcesEqual(AerodynamicForces expected, AerodynamicForces actual) {
+		assertEquals(expected.getCP().x, actual.getCP().x, 0);
+		assertEquals(expected.getCNa(), actual.getCNa(), 0);
+		assertEquals(expected.getCm(), actual.getCm(), 0);
+		assertEquals(expected.getFrictionCD(), actual.getFrictionCD(), 0);
+		assertEquals(expected.getPressureCD(), actual.getPressureCD(), 0);
+		assertEquals(expected.getBaseCD(), actual.getBaseCD(), 0);
+		assertEquals(expected.getCD(), actual.getCD(), 0);
+	}
 }
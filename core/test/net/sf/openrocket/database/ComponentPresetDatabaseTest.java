@@ -0,0 +1,140 @@
+package net.sf.openrocket.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import net.sf.openrocket.motor.Manufacturer;
+import net.sf.openrocket.preset.ComponentPreset;
+import net.sf.openrocket.preset.ComponentPresetFactory;
+import net.sf.openrocket.preset.TypedKey;
+import net.sf.openrocket.preset.TypedPropertyMap;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+import org.junit.Test;
+
+public class ComponentPresetDatabaseTest extends BaseTestCase {
+
+	private static ComponentPreset preset(ComponentPreset.Type type, String manufacturer, String partNo,
+			double length, double od, double id) throws Exception {
+		TypedPropertyMap presetspec = new TypedPropertyMap();
+		presetspec.put(ComponentPreset.TYPE, type);
+		presetspec.put(ComponentPreset.MANUFACTURER, Manufacturer.getManufacturer(manufacturer));
+		presetspec.put(ComponentPreset.PARTNO, partNo);
+		presetspec.put(ComponentPreset.LENGTH, length);
+		presetspec.put(ComponentPreset.OUTER_DIAMETER, od);
+		presetspec.put(ComponentPreset.INNER_DIAMETER, id);
+		return ComponentPresetFactory.create(presetspec);
+	}
+
+	private static ComponentPresetDatabase database(Random rnd, int count) throws Exception {
+		ComponentPresetDatabase db = new ComponentPresetDatabase();
+		for (int i = 0; i < count; i++) {
+			ComponentPreset.Type type = rnd.nextBoolean() ? ComponentPreset.Type.BODY_TUBE : ComponentPreset.Type.TUBE_COUPLER;
+			double od = 0.01 + rnd.nextInt(20) * 0.005;
+			db.insert(preset(type, "M" + rnd.nextInt(3), "P" + rnd.nextInt(count / 2), 0.1 + rnd.nextInt(10) * 0.05, od, od * 0.9));
+		}
+		return db;
+	}
+
+	@Test
+	public void testIndexedLookups() throws Exception {
+		Random rnd = new Random(0);
+		ComponentPresetDatabase db = database(rnd, 200);
+		checkIndexes(db, rnd);
+
+		// Sorted insertion and removal through the set interface rebuild the indexes
+		db.add(preset(ComponentPreset.Type.BODY_TUBE, "M0", "Added", 0.3, 0.05, 0.04));
+		Iterator<ComponentPreset> iterator = db.iterator();
+		for (int i = 0; i < 10; i++) {
+			iterator.next();
+		}
+		iterator.remove();
+		checkIndexes(db, rnd);
+	}
+
+	@Test
+	public void testBulkLoad() throws Exception {
+		Random rnd = new Random(1);
+		List<ComponentPreset> presets = new ArrayList<ComponentPreset>(database(rnd, 500).listAll());
+		Collections.shuffle(presets, rnd);
+
+		ComponentPresetDatabase db = new ComponentPresetDatabase();
+		db.insert(presets.get(0));
+		db.addAll(presets.subList(1, presets.size()));
+		// Equal presets are added only once
+		assertTrue(db.containsAll(presets));
+		checkIndexes(db, rnd);
+
+		// Inserting after the bulk load keeps the indexes up to date
+		db.insert(preset(ComponentPreset.Type.BODY_TUBE, "M1", "Inserted", 0.2, 0.03, 0.02));
+		checkIndexes(db, rnd);
+		assertEquals(1, db.find("M1", "Inserted").size());
+		assertTrue(db.find(null, "Inserted").isEmpty());
+	}
+
+	private static void checkIndexes(ComponentPresetDatabase db, Random rnd) {
+		for (ComponentPreset.Type type : ComponentPreset.Type.values()) {
+			assertEquals(scan(db, type, null), db.listForType(type));
+		}
+		assertEquals(scan(db, ComponentPreset.Type.BODY_TUBE, ComponentPreset.Type.TUBE_COUPLER),
+				db.listForTypes(ComponentPreset.Type.TUBE_COUPLER, ComponentPreset.Type.BODY_TUBE));
+		assertEquals(db.listForType(ComponentPreset.Type.BODY_TUBE),
+				db.listForTypes(ComponentPreset.Type.BODY_TUBE, ComponentPreset.Type.NOSE_CONE));
+
+		for (ComponentPreset preset : db) {
+			List<ComponentPreset> expected = new ArrayList<ComponentPreset>();
+			for (ComponentPreset p : db) {
+				if (p.getManufacturer() == preset.getManufacturer() && p.getPartNo().equals(preset.getPartNo())) {
+					expected.add(p);
+				}
+			}
+			assertEquals(expected, db.find(preset.getManufacturer().getSimpleName(), preset.getPartNo()));
+		}
+		assertTrue(db.find("M0", "None").isEmpty());
+		assertTrue(db.find(null, null).isEmpty());
+
+		for (int i = 0; i < 20; i++) {
+			double min = rnd.nextDouble() * 0.1;
+			double max = min + rnd.nextDouble() * 0.05;
+			checkRange(db, ComponentPreset.OUTER_DIAMETER, min, max);
+			checkRange(db, ComponentPreset.INNER_DIAMETER, min, max);
+			checkRange(db, ComponentPreset.LENGTH, 10 * min, 10 * max);
+			checkRange(db, ComponentPreset.THICKNESS, min / 10, max / 10);
+		}
+		checkRange(db, ComponentPreset.OUTER_DIAMETER, 0.05, 0.05);
+	}
+
+	private static void checkRange(ComponentPresetDatabase db, final TypedKey<Double> key, double min, double max) {
+		List<ComponentPreset> expected = new ArrayList<ComponentPreset>();
+		for (ComponentPreset preset : db.listForType(ComponentPreset.Type.BODY_TUBE)) {
+			if (preset.has(key) && preset.get(key) >= min && preset.get(key) <= max) {
+				expected.add(preset);
+			}
+		}
+		// Stable, so equal values are kept in database order
+		Collections.sort(expected, new Comparator<ComponentPreset>() {
+			@Override
+			public int compare(ComponentPreset a, ComponentPreset b) {
+				return Double.compare(a.get(key), b.get(key));
+			}
+		});
+		assertEquals(expected, db.listForType(ComponentPreset.Type.BODY_TUBE, key, min, max));
+	}
+
+	private static List<ComponentPreset> scan(ComponentPresetDatabase db, ComponentPreset.Type a, ComponentPreset.Type b) {
+		List<ComponentPreset> result = new ArrayList<ComponentPreset>();
+		for (ComponentPreset preset : db) {
+			if (preset.getType() == a || preset.getType() == b) {
+				result.add(preset);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,104 @@
+package net.sf.openrocket.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.openrocket.database.motor.ThrustCurveMotorSetDatabase;
+import net.sf.openrocket.motor.Manufacturer;
+import net.sf.openrocket.motor.Motor;
+import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.util.Coordinate;
+
+import org.junit.Test;
+
+public class ThrustCurveMotorSetDatabaseTest {
+
+	private static ThrustCurveMotor motor(String manufacturer, String designation, String description,
+			double diameter, String digest) {
+		return new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer(manufacturer))
+				.setDesignation(designation)
+				.setDescription(description)
+				.setMotorType(Motor.Type.SINGLE)
+				.setStandardDelays(new double[] { 5 })
+				.setDiameter(diameter)
+				.setLength(0.07)
+				.setTimePoints(new double[] { 0, 1, 2 })
+				.setThrustPoints(new double[] { 0, 1, 0 })
+				.setCGPoints(new Coordinate[] { Coordinate.NUL, Coordinate.NUL, Coordinate.NUL })
+				.setDigest(digest)
+				.build();
+	}
+
+	private final ThrustCurveMotor f12a = motor("A", "F12", "", 0.024, "digestA");
+	private final ThrustCurveMotor f12b = motor("A", "F12J", "Desc", 0.024, "digestB");
+	private final ThrustCurveMotor g40 = motor("A", "G40", "", 0.029, "digestC");
+	private final ThrustCurveMotor f12c = motor("Cesaroni", "F12", "", 0.024, "digestD");
+
+	private ThrustCurveMotorSetDatabase createDatabase() {
+		ThrustCurveMotorSetDatabase db = new ThrustCurveMotorSetDatabase();
+		db.addMotor(f12a);
+		db.addMotor(g40);
+		db.addMotor(f12b);
+		db.addMotor(f12c);
+		return db;
+	}
+
+	@Test
+	public void testSets() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+		assertEquals(3, db.getMotorSets().size());
+		assertEquals(Arrays.asList(f12a, f12b), db.getMotorSets().get(0).getMotors());
+		assertEquals(Arrays.asList(g40), db.getMotorSets().get(1).getMotors());
+		assertEquals(Arrays.asList(f12c), db.getMotorSets().get(2).getMotors());
+	}
+
+	@Test
+	public void testFindByDescription() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+
+		List<ThrustCurveMotor> list = db.findMotors(null, null, null, "f12", Double.NaN, Double.NaN);
+		assertEquals(Arrays.asList(f12a, f12c), list);
+
+		list = db.findMotors(null, Motor.Type.SINGLE, "A", null, Double.NaN, Double.NaN);
+		assertEquals(Arrays.asList(f12a, f12b, g40), list);
+
+		list = db.findMotors(null, null, null, null, 0.031, 0.074);
+		assertEquals(Arrays.asList(g40), list);
+
+		list = db.findMotors(null, Motor.Type.RELOAD, null, "F12", Double.NaN, Double.NaN);
+		assertTrue(list.isEmpty());
+	}
+
+	@Test
+	public void testFindByDigest() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+
+		// Digest matches take precedence over description matches
+		List<ThrustCurveMotor> list = db.findMotors(new String("digestD"), null, "A", "F12", Double.NaN, Double.NaN);
+		assertEquals(Arrays.asList(f12c), list);
+
+		list = db.findMotors("digestA", null, "A", "F12", Double.NaN, Double.NaN);
+		assertEquals(Arrays.asList(f12a), list);
+
+		list = db.findMotors("unknown", null, null, "F12", Double.NaN, Double.NaN);
+		assertEquals(Arrays.asList(f12a, f12c), list);
+	}
+
+	@Test
+	public void testReplacedMotorIsUnindexed() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+		ThrustCurveMotor replacement = motor("A", "F12", "New description", 0.024, "digestA");
+		db.addMotor(replacement);
+
+		assertEquals(3, db.getMotorSets().size());
+		List<ThrustCurveMotor> list = db.findMotors("digestA", null, null, null, Double.NaN, Double.NaN);
+		assertEquals(Arrays.asList(replacement), list);
+		list = db.findMotors(null, null, null, "F12", Double.NaN, Double.NaN);
+		assertEquals(Arrays.asList(replacement, f12c), list);
+	}
+
+}
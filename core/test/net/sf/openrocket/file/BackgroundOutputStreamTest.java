@@ -0,0 +1,61 @@
+package net.sf.openrocket.file;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BackgroundOutputStreamTest {
+
+	@Test
+	public void testContentIsPreserved() throws IOException {
+		byte[] data = new byte[1000000];
+		new Random(42).nextBytes(data);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BackgroundOutputStream background = new BackgroundOutputStream(out);
+		background.write(data, 0, 10);
+		background.write(data[10]);
+		background.write(data, 11, 300000);
+		background.flush();
+		assertEquals(300011, out.size());
+
+		background.write(data, 300011, data.length - 300011);
+		background.finish();
+		assertArrayEquals(data, out.toByteArray());
+	}
+
+	@Test
+	public void testErrorIsReported() throws IOException {
+		OutputStream failing = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("disk full");
+			}
+		};
+
+		BackgroundOutputStream background = new BackgroundOutputStream(failing);
+		try {
+			for (int i = 0; i < 100; i++) {
+				background.write(new byte[100000]);
+			}
+			background.finish();
+			fail("Error was not reported");
+		} catch (IOException expected) {
+		}
+		try {
+			background.close();
+			fail("Error was not reported");
+		} catch (IOException expected) {
+		}
+		// Once finished, further calls have no effect
+		background.finish();
+	}
+
+}
@@ -1,7 +1,9 @@
 package net.sf.openrocket.file.openrocket;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
@@ -19,6 +21,7 @@ import net.sf.openrocket.database.ComponentPresetDatabase;
 import net.sf.openrocket.database.motor.MotorDatabase;
 import net.sf.openrocket.database.motor.ThrustCurveMotorSetDatabase;
 import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.document.StorageOptions;
 import net.sf.openrocket.file.GeneralRocketLoader;
 import net.sf.openrocket.file.RocketLoadException;
@@ -29,6 +32,12 @@ import net.sf.openrocket.motor.Manufacturer;
 import net.sf.openrocket.motor.Motor;
 import net.sf.openrocket.motor.ThrustCurveMotor;
 import net.sf.openrocket.plugin.PluginModule;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.FlightEvent;
+import net.sf.openrocket.simulation.SimulationOptions;
 import net.sf.openrocket.simulation.extension.impl.ScriptingExtension;
 import net.sf.openrocket.simulation.extension.impl.ScriptingUtil;
 import net.sf.openrocket.startup.Application;
@@ -170,6 +179,67 @@ public class OpenRocketSaverTest {
 	}
 	
 	
+	@Test
+	public void testLazyFlightDataLoading() {
+		OpenRocketDocument rocketDoc = TestRockets.makeTestRocket_v104_withSimulationData();
+		Rocket rocket = rocketDoc.getRocket();
+		FlightDataBranch branch = new FlightDataBranch("Sustainer", FlightDataType.TYPE_TIME,
+				FlightDataType.TYPE_ALTITUDE, FlightDataType.TYPE_VELOCITY_TOTAL, FlightDataType.TYPE_ACCELERATION_TOTAL);
+		for (int i = 0; i < 100; i++) {
+			double t = i * 0.1;
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, t);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 50 * t - 5 * t * t);
+			branch.setValue(FlightDataType.TYPE_VELOCITY_TOTAL, Math.abs(50 - 10 * t));
+			branch.setValue(FlightDataType.TYPE_ACCELERATION_TOTAL, 10);
+		}
+		branch.addEvent(new FlightEvent(FlightEvent.Type.LAUNCHROD, 0.2));
+		branch.addEvent(new FlightEvent(FlightEvent.Type.GROUND_HIT, 9.9));
+		rocketDoc.addSimulation(new Simulation(rocket, Simulation.Status.UPTODATE, "Simulated",
+				new SimulationOptions(), null, new FlightData(branch)));
+		
+		StorageOptions options = new StorageOptions();
+		options.setSimulationTimeSkip(StorageOptions.SIMULATION_DATA_ALL);
+		File file = saveRocket(rocketDoc, options);
+		
+		OpenRocketDocument eagerDoc = loadRocket(file.getPath());
+		GeneralRocketLoader loader = new GeneralRocketLoader(file);
+		loader.setLazyFlightData(true);
+		OpenRocketDocument lazyDoc = null;
+		try {
+			lazyDoc = loader.load();
+		} catch (RocketLoadException e) {
+			fail("RocketLoadException while loading file " + file + " : " + e.getMessage());
+		}
+		
+		FlightData eager = eagerDoc.getSimulations().get(2).getSimulatedData();
+		FlightData lazy = lazyDoc.getSimulations().get(2).getSimulatedData();
+		assertEquals(eagerDoc.getDefaultStorageOptions().getSimulationTimeSkip(),
+				lazyDoc.getDefaultStorageOptions().getSimulationTimeSkip(), 0);
+		assertEquals(0.1, lazyDoc.getDefaultStorageOptions().getSimulationTimeSkip(), 0);
+		
+		// The summary and events are available without reading the data points
+		assertEquals(1, lazy.getBranchCount());
+		FlightDataBranch lazyBranch = lazy.getBranch(0);
+		assertTrue(lazyBranch.hasDeferredPoints());
+		assertEquals(eager.getMaxAltitude(), lazy.getMaxAltitude(), 1e-6);
+		assertEquals(eager.getTimeToApogee(), lazy.getTimeToApogee(), 1e-6);
+		assertEquals(eager.getLaunchRodVelocity(), lazy.getLaunchRodVelocity(), 1e-6);
+		assertEquals(eager.getGroundHitVelocity(), lazy.getGroundHitVelocity(), 1e-6);
+		assertEquals(eager.getBranch(0).getEvents().size(), lazyBranch.getEvents().size());
+		assertEquals(eager.getBranch(0).getTypes().length, lazyBranch.getTypes().length);
+		assertTrue(lazyBranch.hasDeferredPoints());
+		
+		FlightDataBranch eagerBranch = eager.getBranch(0);
+		assertEquals(100, lazyBranch.getLength());
+		assertFalse(lazyBranch.hasDeferredPoints());
+		for (FlightDataType type : eagerBranch.getTypes()) {
+			assertEquals(eagerBranch.get(type), lazyBranch.get(type));
+			assertEquals(eagerBranch.getMaximum(type), lazyBranch.getMaximum(type), 0);
+		}
+	}
+	
+	
 	/*
 	 * Test how accurate estimatedFileSize is.
 	 * 
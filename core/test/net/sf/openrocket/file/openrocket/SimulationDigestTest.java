@@ -0,0 +1,47 @@
+package net.sf.openrocket.file.openrocket;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
+import net.sf.openrocket.rocketcomponent.NoseCone;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class SimulationDigestTest extends BaseTestCase {
+
+	@Test
+	public void testDigestDependsOnContent() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfigurationId fcid = rocket.getFlightConfigurationByIndex(0, false).getFlightConfigurationID();
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(fcid);
+		SimulationOptions options = simulation.getOptions();
+
+		String digest = SimulationDigest.digest(rocket, fcid, options, simulation.getSimulationExtensions());
+		assertEquals(digest, SimulationDigest.digest(rocket.copyWithOriginalID(), fcid, options.clone(), null));
+
+		// Changing and restoring the design
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		double length = nose.getLength();
+		nose.setLength(2 * length);
+		assertFalse(digest.equals(SimulationDigest.digest(rocket, fcid, options, null)));
+		nose.setLength(length);
+		assertEquals(digest, SimulationDigest.digest(rocket, fcid, options, null));
+
+		// Changing the options or the configuration
+		SimulationOptions other = options.clone();
+		other.setLaunchRodLength(options.getLaunchRodLength() + 0.1);
+		assertFalse(digest.equals(SimulationDigest.digest(rocket, fcid, other, null)));
+		other = options.clone();
+		other.setRandomSeed(options.getRandomSeed() + 1);
+		assertFalse(digest.equals(SimulationDigest.digest(rocket, fcid, other, null)));
+		assertFalse(digest.equals(SimulationDigest.digest(rocket, new FlightConfigurationId(), options, null)));
+	}
+
+}
@@ -0,0 +1,72 @@
+package net.sf.openrocket.file.openrocket.importt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.sf.openrocket.util.TextUtil;
+
+public class DataPointTokenizerTest {
+
+	private static double parse(String s) {
+		return DataPointTokenizer.parseValue(s.toCharArray(), 0, s.length());
+	}
+
+	private static void assertParsed(String s) {
+		assertEquals(s, Double.doubleToLongBits(DocumentConfig.stringToDouble(s)), Double.doubleToLongBits(parse(s)));
+	}
+
+	@Test
+	public void testValues() {
+		String[] values = { "0", "-0", "1", "-1", "+2.5", "123.456", "0.001", ".5", "5.", "1e3", "1.2345e-5",
+				"-9.8765E+10", "123456789012345", "1234567890123456789", "0.1234567890123456789", "1e22", "1e23",
+				"1e-22", "1e-23", "4.9e-324", "1.7976931348623157e308", "1e400", "007.50", " 3.25\n", "NaN", "nan",
+				"Inf", "-Inf", "Infinity", "1d", "0x1p3" };
+		for (String s : values) {
+			assertParsed(s);
+		}
+	}
+
+	@Test
+	public void testRandomValues() {
+		Random rnd = new Random(0);
+		for (int i = 0; i < 100000; i++) {
+			double d = (rnd.nextDouble() - 0.5) * Math.pow(10, rnd.nextInt(30) - 15);
+			assertParsed(TextUtil.doubleToString(d));
+			assertParsed(Double.toString(d));
+		}
+	}
+
+	@Test
+	public void testInvalidValues() {
+		String[] values = { "", " ", "-", ".", "e5", "1e", "1e-", "1.2.3", "1,2", "abc", "1 2" };
+		for (String s : values) {
+			try {
+				parse(s);
+				fail("Parsed invalid value '" + s + "'");
+			} catch (NumberFormatException expected) {
+			}
+		}
+	}
+
+	@Test
+	public void testDataPoint() {
+		char[] chars = "<datapoint>0.5,12.25,-3e-2,NaN</datapoint>".toCharArray();
+		int start = 11;
+		int end = chars.length - 12;
+		assertEquals(4, DataPointTokenizer.countValues(chars, start, end));
+
+		double[] values = new double[4];
+		DataPointTokenizer.parseValues(chars, start, end, values);
+		assertArrayEquals(new double[] { 0.5, 12.25, -0.03, Double.NaN }, values, 0);
+
+		assertEquals(0.5, DataPointTokenizer.parseValue(chars, start, end, 0), 0);
+		assertEquals(-0.03, DataPointTokenizer.parseValue(chars, start, end, 2), 0);
+		assertEquals(Double.NaN, DataPointTokenizer.parseValue(chars, start, end, 3), 0);
+		assertEquals(1, DataPointTokenizer.countValues(chars, start, start));
+	}
+}
@@ -0,0 +1,213 @@
+package net.sf.openrocket.file.openrocket.importt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.document.StorageOptions;
+import net.sf.openrocket.file.GeneralRocketLoader;
+import net.sf.openrocket.file.openrocket.OpenRocketSaver;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.FlightEvent;
+import net.sf.openrocket.simulation.SimulationOptions;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+/**
+ * Measures the time and heap allocation of loading a generated document with stored
+ * simulation data, by default 100 simulations of 5000 data points of 20 variables, both
+ * eagerly and with lazily loaded flight data.  The parsing of the data points by
+ * {@link DataPointTokenizer} is also compared to the previous implementation splitting
+ * the strings of the data points.  This is not run as part of the unit tests; run it
+ * manually with the test classpath:
+ * <pre>
+ *   java net.sf.openrocket.file.openrocket.importt.OpenRocketLoaderBenchmark [iterations] [simulations] [points] [types]
+ * </pre>
+ * The allocation is measured with the per-thread allocation counter of the HotSpot VM.
+ */
+public class OpenRocketLoaderBenchmark {
+
+	private static final int WARMUP = 2;
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	public static void main(String[] args) throws Exception {
+		int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 5;
+		int simulations = (args.length > 1) ? Integer.parseInt(args[1]) : 100;
+		int points = (args.length > 2) ? Integer.parseInt(args[2]) : 5000;
+		int types = (args.length > 3) ? Integer.parseInt(args[3]) : 20;
+
+		BaseTestCase.setUp();
+
+		byte[] document = createDocument(simulations, points, types);
+		long totalPoints = (long) simulations * points;
+		System.out.printf("Document:                %d simulations x %d points x %d types, %.1f MB%n",
+				simulations, points, types, document.length / 1e6);
+
+		System.out.printf("%-24s %12s %14s%n", "", "Time ms", "Alloc. B/pt");
+		report("Eager load", time(document, false, false, iterations), totalPoints);
+		report("Lazy load", time(document, true, false, iterations), totalPoints);
+		report("Lazy load + read all", time(document, true, true, iterations), totalPoints);
+
+		List<String> lines = datapoints(document);
+		char[][] chars = new char[lines.size()][];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = lines.get(i).toCharArray();
+		}
+		report("Split data points", timeSplit(lines, types, iterations), lines.size());
+		report("Tokenize data points", timeTokenizer(chars, types, iterations), lines.size());
+	}
+
+	private static void report(String name, double[] result, long points) {
+		System.out.printf("%-24s %12.1f %14.1f%n", name, result[0] / 1e6, result[1] / points);
+	}
+
+
+	/**
+	 * Return the time in nanoseconds and the allocated bytes per load.
+	 */
+	private static double[] time(byte[] document, boolean lazy, boolean readAll, int iterations) throws Exception {
+		long threadId = Thread.currentThread().getId();
+		long nanos = 0;
+		long bytes = 0;
+		double sum = 0;
+		for (int i = 0; i < WARMUP + iterations; i++) {
+			if (i == WARMUP) {
+				bytes = THREADS.getThreadAllocatedBytes(threadId);
+				nanos = System.nanoTime();
+			}
+			GeneralRocketLoader loader = new GeneralRocketLoader((File) null);
+			loader.setLazyFlightData(lazy);
+			OpenRocketDocument doc = loader.load(new ByteArrayInputStream(document));
+			for (Simulation sim : doc.getSimulations()) {
+				FlightData data = sim.getSimulatedData();
+				if (data == null || data.getBranchCount() == 0) {
+					continue;
+				}
+				sum += data.getMaxAltitude();
+				if (readAll) {
+					sum += data.getBranch(0).getLength();
+				}
+			}
+		}
+		nanos = System.nanoTime() - nanos;
+		bytes = THREADS.getThreadAllocatedBytes(threadId) - bytes;
+		consume(sum);
+		return new double[] { (double) nanos / iterations, (double) bytes / iterations };
+	}
+
+	private static double[] timeSplit(List<String> lines, int types, int iterations) {
+		long threadId = Thread.currentThread().getId();
+		long nanos = 0;
+		long bytes = 0;
+		double sum = 0;
+		for (int i = 0; i < WARMUP + iterations; i++) {
+			if (i == WARMUP) {
+				bytes = THREADS.getThreadAllocatedBytes(threadId);
+				nanos = System.nanoTime();
+			}
+			for (String line : lines) {
+				String[] split = line.split(",");
+				double[] values = new double[split.length];
+				for (int j = 0; j < values.length; j++) {
+					values[j] = DocumentConfig.stringToDouble(split[j]);
+				}
+				sum += values[types - 1];
+			}
+		}
+		nanos = System.nanoTime() - nanos;
+		bytes = THREADS.getThreadAllocatedBytes(threadId) - bytes;
+		consume(sum);
+		return new double[] { (double) nanos / iterations, (double) bytes / iterations };
+	}
+
+	private static double[] timeTokenizer(char[][] lines, int types, int iterations) {
+		long threadId = Thread.currentThread().getId();
+		long nanos = 0;
+		long bytes = 0;
+		double sum = 0;
+		double[] values = new double[types];
+		for (int i = 0; i < WARMUP + iterations; i++) {
+			if (i == WARMUP) {
+				bytes = THREADS.getThreadAllocatedBytes(threadId);
+				nanos = System.nanoTime();
+			}
+			for (char[] line : lines) {
+				if (DataPointTokenizer.countValues(line, 0, line.length) == types) {
+					DataPointTokenizer.parseValues(line, 0, line.length, values);
+					sum += values[types - 1];
+				}
+			}
+		}
+		nanos = System.nanoTime() - nanos;
+		bytes = THREADS.getThreadAllocatedBytes(threadId) - bytes;
+		consume(sum);
+		return new double[] { (double) nanos / iterations, (double) bytes / iterations };
+	}
+
+	private static void consume(double sum) {
+		if (sum == 0.123456789) {
+			System.out.println();
+		}
+	}
+
+
+	/**
+	 * Create a document with the specified amount of simulation data.
+	 */
+	private static byte[] createDocument(int simulations, int points, int types) throws Exception {
+		OpenRocketDocument doc = TestRockets.makeTestRocket_v104_withSimulationData();
+		FlightDataType[] branchTypes = Arrays.copyOf(FlightDataType.ALL_TYPES, types);
+
+		for (int s = 0; s < simulations; s++) {
+			FlightDataBranch branch = new FlightDataBranch("Sustainer", branchTypes);
+			for (int i = 0; i < points; i++) {
+				double t = i * 0.01;
+				branch.addPoint();
+				branch.setValue(FlightDataType.TYPE_TIME, t);
+				branch.setValue(FlightDataType.TYPE_ALTITUDE, (100 + s) * t - 4.9 * t * t);
+				for (int j = 0; j < branchTypes.length; j++) {
+					FlightDataType type = branchTypes[j];
+					if (type != FlightDataType.TYPE_TIME && type != FlightDataType.TYPE_ALTITUDE) {
+						branch.setValue(type, Math.sin(t * (j + 1) + s) * Math.pow(10, j % 7 - 3));
+					}
+				}
+			}
+			branch.addEvent(new FlightEvent(FlightEvent.Type.LAUNCH, 0));
+			branch.addEvent(new FlightEvent(FlightEvent.Type.GROUND_HIT, (points - 1) * 0.01));
+			doc.addSimulation(new Simulation(doc.getRocket(), Simulation.Status.UPTODATE, "Simulation " + s,
+					new SimulationOptions(), null, new FlightData(branch)));
+		}
+
+		StorageOptions options = new StorageOptions();
+		options.setSimulationTimeSkip(StorageOptions.SIMULATION_DATA_ALL);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new OpenRocketSaver().save(out, doc, options);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Return the contents of the datapoint elements of a document.
+	 */
+	private static List<String> datapoints(byte[] document) {
+		String xml = new String(document, StandardCharsets.UTF_8);
+		List<String> lines = new ArrayList<String>();
+		int index = 0;
+		while ((index = xml.indexOf("<datapoint>", index)) >= 0) {
+			int start = index + "<datapoint>".length();
+			index = xml.indexOf("</datapoint>", start);
+			lines.add(xml.substring(start, index));
+		}
+		return lines;
+	}
+}
@@ -1,6 +1,7 @@
 package net.sf.openrocket.masscalc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
@@ -1145,4 +1146,63 @@ public class MassCalculatorTest extends BaseTestCase {
  
 	}
 	
+	@Test
+	public void testCachedMotorMassMatchesCalculation() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		rocket.setName("Falcon9Heavy." + Thread.currentThread().getStackTrace()[1].getMethodName());
+
+		FlightConfiguration config = rocket.getFlightConfiguration(new FlightConfigurationId(TestRockets.FALCON_9H_FCID_1));
+		config.setAllStages();
+		SimulationStatus status = new SimulationStatus(config, new SimulationConditions());
+		for (MotorClusterState motorState : status.getMotors()) {
+			motorState.ignite(0.5);
+		}
+
+		MassCalculator calculator = new MassCalculator();
+		for (double simTime = 0; simTime < 4.0; simTime += 0.37) {
+			status.setSimulationTime(simTime);
+			RigidBody expected = MassCalculator.calculateMotor(status);
+			RigidBody actual = calculator.getMotor(status);
+			assertEquals("Motor mass at t=" + simTime, expected.getMass(), actual.getMass(), EPSILON);
+			assertEquals("Motor CM.x at t=" + simTime, expected.cm.x, actual.cm.x, EPSILON);
+			assertEquals("Motor CM.y at t=" + simTime, expected.cm.y, actual.cm.y, EPSILON);
+			assertEquals("Motor CM.z at t=" + simTime, expected.cm.z, actual.cm.z, EPSILON);
+			assertEquals("Motor Ixx at t=" + simTime, expected.getIxx(), actual.getIxx(), EPSILON);
+			assertEquals("Motor Iyy at t=" + simTime, expected.getIyy(), actual.getIyy(), EPSILON);
+		}
+
+		// dropping the boosters must not reuse the clusters of the full stack
+		config.clearStage(TestRockets.FALCON_9H_BOOSTER_STAGE_NUMBER);
+		status.setSimulationTime(2.0);
+		assertEquals(MassCalculator.calculateMotor(status).getMass(), calculator.getMotor(status).getMass(), EPSILON);
+	}
+
+	@Test
+	public void testCachedStructureInvalidation() {
+		Rocket rocket = TestRockets.makeSimple2Stage();
+		rocket.setName("Simple2Stage." + Thread.currentThread().getStackTrace()[1].getMethodName());
+		final AxialStage boosterStage = (AxialStage) rocket.getChild(1);
+		final FlightConfiguration config = rocket.getSelectedConfiguration();
+
+		MassCalculator calculator = new MassCalculator();
+		final RigidBody fullStack = calculator.getStructure(config);
+		assertEquals(MassCalculator.calculateStructure(config).getMass(), fullStack.getMass(), EPSILON);
+		assertTrue(fullStack == calculator.getStructure(config));
+
+		// stage activation changes the result
+		config.clearStage(boosterStage.getStageNumber());
+		final RigidBody sustainerOnly = calculator.getStructure(config);
+		assertEquals(MassCalculator.calculateStructure(config).getMass(), sustainerOnly.getMass(), EPSILON);
+		assertTrue(sustainerOnly.getMass() < fullStack.getMass());
+
+		// component changes invalidate the cache
+		config.setAllStages();
+		boosterStage.setOverrideSubcomponents(true);
+		boosterStage.setMassOverridden(true);
+		boosterStage.setOverrideMass(1.0);
+		final RigidBody overridden = calculator.getStructure(config);
+		assertEquals(MassCalculator.calculateStructure(config).getMass(), overridden.getMass(), EPSILON);
+		assertTrue(overridden.getMass() > fullStack.getMass());
+	}
+	
 }
@@ -0,0 +1,116 @@
+package net.sf.openrocket.motor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.openrocket.util.Coordinate;
+
+public class ThrustCurveMotorFileTest {
+
+	private final ThrustCurveMotor motorX6 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("foo"))
+			.setDesignation("X6")
+			.setDescription("Description of X6")
+			.setMotorType(Motor.Type.RELOAD)
+			.setStandardDelays(new double[] { 0, 2, Motor.PLUGGED_DELAY })
+			.setDiameter(0.05)
+			.setLength(0.10)
+			.setTimePoints(new double[] { 0, 1, 3, 4 })
+			.setThrustPoints(new double[] { 0, 2, 3, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.03, 0, 0, 0.03) })
+			.setDigest("digestA")
+			.build();
+
+	private final ThrustCurveMotor motorA8 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("Estes"))
+			.setDesignation("A8")
+			.setMotorType(Motor.Type.SINGLE)
+			.setCaseInfo(null)
+			.setDiameter(0.018)
+			.setLength(0.07)
+			.setTimePoints(new double[] { 0, 0.2, 0.7 })
+			.setThrustPoints(new double[] { 0, 10, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.035, 0, 0, 0.016),
+					new Coordinate(0.035, 0, 0, 0.014),
+					new Coordinate(0.04, 0, 0, 0.01) })
+			.setAvailablity(false)
+			.build();
+
+	private List<ThrustCurveMotor> writeAndRead() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ThrustCurveMotorFile.write(Arrays.asList(motorX6, motorA8), out);
+		return ThrustCurveMotorFile.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	@Test
+	public void testMetadata() throws IOException {
+		List<ThrustCurveMotor> motors = writeAndRead();
+		assertEquals(2, motors.size());
+
+		ThrustCurveMotor x6 = motors.get(0);
+		assertTrue(x6.getManufacturer() == motorX6.getManufacturer());
+		assertEquals("X6", x6.getDesignation());
+		assertEquals("Description of X6", x6.getDescription());
+		assertEquals("digestA", x6.getDigest());
+		assertEquals(Motor.Type.RELOAD, x6.getMotorType());
+		assertArrayEquals(motorX6.getStandardDelays(), x6.getStandardDelays(), 0);
+		assertEquals(motorX6.getTotalImpulseEstimate(), x6.getTotalImpulseEstimate(), 0);
+		assertEquals(motorX6.getAverageThrustEstimate(), x6.getAverageThrustEstimate(), 0);
+		assertEquals(motorX6.getUnitIxx(), x6.getUnitIxx(), 0);
+		assertEquals(4, x6.getSampleSize());
+		assertTrue(x6.isAvailable());
+
+		ThrustCurveMotor a8 = motors.get(1);
+		assertNull(a8.getCaseInfo());
+		assertFalse(a8.isAvailable());
+		assertEquals(0, a8.getStandardDelays().length);
+
+		// Nothing above requires the thrust curve
+		assertFalse(x6.isCurveLoaded());
+		assertFalse(a8.isCurveLoaded());
+	}
+
+	@Test
+	public void testCurveLoadedOnFirstUse() throws IOException {
+		List<ThrustCurveMotor> motors = writeAndRead();
+		ThrustCurveMotor x6 = motors.get(0);
+
+		assertEquals(motorX6.getThrust(2.0), x6.getThrust(2.0), 0);
+		assertTrue(x6.isCurveLoaded());
+		assertFalse(motors.get(1).isCurveLoaded());
+
+		assertArrayEquals(motorX6.getTimePoints(), x6.getTimePoints(), 0);
+		assertArrayEquals(motorX6.getThrustPoints(), x6.getThrustPoints(), 0);
+		assertArrayEquals(motorX6.getCGPoints(), x6.getCGPoints());
+		assertEquals(motorX6.getCMx(3.5), x6.getCMx(3.5), 0);
+		assertEquals(motorX6.getTotalMass(3.5), x6.getTotalMass(3.5), 0);
+		assertEquals(motorX6.getBurnoutMass(), x6.getBurnoutMass(), 0);
+	}
+
+	@Test
+	public void testInvalidFile() {
+		try {
+			ThrustCurveMotorFile.read(new ByteArrayInputStream("not a motor file".getBytes()));
+			fail("Invalid file was read");
+		} catch (IOException expected) {
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package net.sf.openrocket.optimization.rocketoptimization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+import org.junit.Test;
+
+import net.sf.openrocket.optimization.general.Point;
+
+public class EvaluationStoreTest {
+
+	@Test
+	public void testQuantizedLookup() {
+		EvaluationStore store = new EvaluationStore(10);
+		store.put("f", new Point(0.25, 0.5), 3.0);
+
+		assertEquals(3.0, store.get("f", new Point(0.25, 0.5)), 0);
+		assertEquals(3.0, store.get("f", new Point(0.25 + 1e-9, 0.5 - 1e-9)), 0);
+		assertNull(store.get("f", new Point(0.25 + 1e-5, 0.5)));
+		assertNull(store.get("g", new Point(0.25, 0.5)));
+		assertNull(store.get("f", new Point(0.25)));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		EvaluationStore store = new EvaluationStore(2);
+		store.put("f", new Point(0.1), 1.0);
+		store.put("f", new Point(0.2), 2.0);
+		store.get("f", new Point(0.1));
+		store.put("f", new Point(0.3), 3.0);
+
+		assertEquals(2, store.size());
+		assertEquals(1.0, store.get("f", new Point(0.1)), 0);
+		assertNull(store.get("f", new Point(0.2)));
+		assertEquals(3.0, store.get("f", new Point(0.3)), 0);
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		File file = File.createTempFile("evaluations", ".dat");
+		try {
+			EvaluationStore store = new EvaluationStore(10);
+			store.put("f", new Point(0.1, 0.2), 1.0);
+			store.put("f", new Point(0.3, 0.4), Double.NaN);
+			store.put("g", new Point(0.5), 3.0);
+			store.get("f", new Point(0.1, 0.2));
+			assertTrue(store.isModified());
+			store.save(file);
+			assertFalse(store.isModified());
+
+			EvaluationStore loaded = EvaluationStore.load(file, 10);
+			assertEquals(3, loaded.size());
+			assertFalse(loaded.isModified());
+			assertEquals(1.0, loaded.get("f", new Point(0.1, 0.2)), 0);
+			assertTrue(Double.isNaN(loaded.get("f", new Point(0.3, 0.4))));
+			assertEquals(3.0, loaded.get("g", new Point(0.5)), 0);
+
+			// The recency order is preserved, the least recently used value is dropped
+			EvaluationStore smaller = EvaluationStore.load(file, 2);
+			assertEquals(2, smaller.size());
+			assertNull(smaller.get("f", new Point(0.3, 0.4)));
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testLoadInvalidFile() throws IOException {
+		File file = File.createTempFile("evaluations", ".dat");
+		try {
+			assertEquals(0, EvaluationStore.load(new File(file.getPath() + ".missing"), 10).size());
+
+			try (OutputStream out = new FileOutputStream(file)) {
+				out.write("not an evaluation store".getBytes("UTF-8"));
+			}
+			assertEquals(0, EvaluationStore.load(file, 10).size());
+
+			EvaluationStore store = new EvaluationStore(10);
+			store.put("f", new Point(0.1), 1.0);
+			store.save(file);
+			long length = file.length();
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				raf.setLength(length - 4);
+			}
+			assertEquals(0, EvaluationStore.load(file, 10).size());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testCreateKey() {
+		assertEquals(EvaluationStore.createKey("a", "b"), EvaluationStore.createKey("a", "b"));
+		assertNotEquals(EvaluationStore.createKey("a", "b"), EvaluationStore.createKey("ab"));
+		assertNotEquals(EvaluationStore.createKey("a", "b"), EvaluationStore.createKey("b", "a"));
+	}
+}
@@ -0,0 +1,71 @@
+package net.sf.openrocket.optimization.rocketoptimization.parameters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.AxialStage;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.rocketcomponent.StageSeparationConfiguration;
+import net.sf.openrocket.simulation.CancellationToken;
+import net.sf.openrocket.simulation.FlightData;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.FlightEvent;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class TestSimulationBasedParameter extends BaseTestCase {
+	
+	@Test
+	public void testSimulationEndsAtEndEvent() throws Exception {
+		// Two-stage configuration, with the booster separating at sustainer ignition
+		Rocket rocket = TestRockets.makeBeta();
+		StageSeparationConfiguration separation = new StageSeparationConfiguration();
+		separation.setSeparationEvent(StageSeparationConfiguration.SeparationEvent.UPPER_IGNITION);
+		((AxialStage) rocket.getChild(1)).getSeparationConfigurations().setDefault(separation);
+		
+		Simulation simulation = createSimulation(rocket, 1);
+		simulation.getOptions().setTimeStep(0.01);
+		simulation.simulate();
+		FlightData full = simulation.getSimulatedData();
+		assertTrue(full.getBranchCount() > 1);
+		
+		simulation.simulate(new CancellationToken(), FlightEvent.Type.APOGEE);
+		FlightData partial = simulation.getSimulatedData();
+		
+		// The booster branches are skipped and the main branch ends at apogee
+		assertEquals(1, partial.getBranchCount());
+		FlightDataBranch branch = partial.getBranch(0);
+		FlightEvent apogee = branch.getLastEvent(FlightEvent.Type.APOGEE);
+		assertEquals(apogee.getTime(), branch.getLastEvent(FlightEvent.Type.SIMULATION_END).getTime(), 0);
+		assertEquals(apogee.getTime(), full.getBranch(0).getLastEvent(FlightEvent.Type.APOGEE).getTime(), 0);
+		assertNull(branch.getLastEvent(FlightEvent.Type.GROUND_HIT));
+		assertEquals(full.getBranch(0).getMaximum(FlightDataType.TYPE_ALTITUDE),
+				branch.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertTrue(branch.getLength() < full.getBranch(0).getLength());
+	}
+	
+	@Test
+	public void testParameterValues() throws Exception {
+		Simulation simulation = createSimulation(TestRockets.makeEstesAlphaIII(), 0);
+		simulation.getOptions().setTimeStep(0.01);
+		simulation.simulate();
+		FlightDataBranch full = simulation.getSimulatedData().getBranch(0);
+		
+		assertEquals(full.getMaximum(FlightDataType.TYPE_ALTITUDE),
+				new MaximumAltitudeParameter().computeValue(simulation), 0);
+		assertEquals(full.getMaximum(FlightDataType.TYPE_VELOCITY_TOTAL),
+				new MaximumVelocityParameter().computeValue(simulation), 0);
+		
+		// The value at ground hit is the impact velocity, not that of the rocket on the ground
+		double groundHit = full.getLastEvent(FlightEvent.Type.GROUND_HIT).getTime();
+		double velocity = new GroundHitVelocityParameter().computeValue(simulation);
+		assertTrue(velocity > 1);
+		assertEquals(groundHit, simulation.getSimulatedData().getBranch(0).getLast(FlightDataType.TYPE_TIME), 0.1);
+		assertEquals(groundHit, new TotalFlightTimeParameter().computeValue(simulation), 0.1);
+	}
+}
@@ -0,0 +1,134 @@
+package net.sf.openrocket.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+
+public class PluginIndexTest {
+
+	private static byte[] classBytes(Class<?> c) throws IOException {
+		try (InputStream in = c.getResourceAsStream(c.getSimpleName() + ".class")) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				out.write(buffer, 0, n);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	private static void writeJar(File jar, String index, Class<?>... classes) throws IOException {
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+			for (Class<?> c : classes) {
+				out.putNextEntry(new ZipEntry(c.getName().replace('.', '/') + ".class"));
+				out.write(classBytes(c));
+				out.closeEntry();
+			}
+			if (index != null) {
+				out.putNextEntry(new ZipEntry(PluginIndex.INDEX_RESOURCE));
+				out.write(index.getBytes(StandardCharsets.UTF_8));
+				out.closeEntry();
+			}
+		}
+	}
+
+	@Test
+	public void testScanAndRead() throws IOException {
+		File jar = File.createTempFile("plugins", ".jar");
+		File dir = File.createTempFile("plugins", "");
+		try {
+			writeJar(jar, null, ExamplePluginImpl.class, NotAnExamplePluginImpl.class);
+			assertNull(PluginIndex.read(jar));
+			assertEquals(Collections.singleton(ExamplePluginImpl.class.getName()), PluginIndex.scan(jar));
+
+			writeJar(jar, "# comment\n\nfoo.Bar\n", ExamplePluginImpl.class);
+			assertEquals(Arrays.asList("foo.Bar"), PluginIndex.read(jar));
+
+			dir.delete();
+			assertTrue(dir.mkdir());
+			assertNull(PluginIndex.read(dir));
+			PluginIndex.write(Arrays.asList("a.B", "c.D"), new File(dir, PluginIndex.INDEX_RESOURCE));
+			assertEquals(Arrays.asList("a.B", "c.D"), PluginIndex.read(dir));
+		} finally {
+			jar.delete();
+			new File(dir, PluginIndex.INDEX_RESOURCE).delete();
+			new File(dir, "META-INF/openrocket").delete();
+			new File(dir, "META-INF").delete();
+			dir.delete();
+		}
+	}
+
+	@Test
+	public void testScanCache() throws IOException {
+		File jar = File.createTempFile("plugins", ".jar");
+		File other = File.createTempFile("plugins", ".jar");
+		File cacheFile = File.createTempFile("plugins", ".properties");
+		cacheFile.delete();
+		try {
+			writeJar(jar, null, ExamplePluginImpl.class);
+			writeJar(other, null, MultiPluginImpl.class);
+
+			PluginScanCache cache = PluginScanCache.load(cacheFile);
+			assertNull(cache.get(jar));
+			cache.put(jar, Arrays.asList("a.B", "c.D"));
+			cache.put(other, Collections.<String> emptyList());
+			assertTrue(cache.isModified());
+			cache.save();
+
+			cache = PluginScanCache.load(cacheFile);
+			assertEquals(Arrays.asList("a.B", "c.D"), cache.get(jar));
+			assertEquals(Collections.<String> emptyList(), cache.get(other));
+			assertFalse(cache.isModified());
+
+			// The entry of a JAR not looked up is dropped when saving
+			cache = PluginScanCache.load(cacheFile);
+			assertEquals(Arrays.asList("a.B", "c.D"), cache.get(jar));
+			assertTrue(cache.isModified());
+			cache.save();
+			cache = PluginScanCache.load(cacheFile);
+			assertNull(cache.get(other));
+			assertEquals(Arrays.asList("a.B", "c.D"), cache.get(jar));
+
+			// A changed JAR is rescanned
+			writeJar(jar, null, ExamplePluginImpl.class, MultiPluginImpl.class);
+			assertNull(cache.get(jar));
+		} finally {
+			jar.delete();
+			other.delete();
+			cacheFile.delete();
+		}
+	}
+
+	@Test
+	public void testFinderUsesCache() throws IOException {
+		File cacheFile = File.createTempFile("plugins", ".properties");
+		cacheFile.delete();
+		try {
+			List<Class<?>> uncached = new AnnotationFinderImpl().findAnnotatedTypes(Plugin.class);
+			assertTrue(uncached.contains(ExamplePluginImpl.class));
+			assertFalse(uncached.contains(NotAnExamplePluginImpl.class));
+
+			List<Class<?>> classes = new AnnotationFinderImpl(cacheFile).findAnnotatedTypes(Plugin.class);
+			assertEquals(uncached, classes);
+			assertEquals(uncached, new AnnotationFinderImpl(cacheFile).findAnnotatedTypes(Plugin.class));
+		} finally {
+			cacheFile.delete();
+		}
+	}
+}
@@ -3,8 +3,12 @@ package net.sf.openrocket.rocketcomponent;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -560,6 +564,53 @@ public class FlightConfigurationTest extends BaseTestCase {
 		assertThat(components.get(1).getName(), equalTo("Core Stage Body"));
 
 	}
-}
 
+	@Test
+	public void testActiveInstancesCached() {
+		Rocket rocket = TestRockets.makeFalcon9Heavy();
+		FlightConfiguration selected = rocket.getSelectedConfiguration();
+		selected.setAllStages();
+
+		final InstanceMap instances = selected.getActiveInstances();
+		assertTrue(instances.isFrozen());
+		assertSame(instances, selected.getActiveInstances());
+		assertEquals(instances.size(), instances.getComponents().size());
+		assertSame(rocket, instances.getComponents().get(0));
 
+		try {
+			instances.emplace(rocket, true, 1, null);
+			fail("frozen map was modified");
+		} catch (IllegalStateException expected) {
+		}
+		try {
+			instances.getInstanceContexts(rocket).clear();
+			fail("frozen context list was modified");
+		} catch (UnsupportedOperationException expected) {
+		}
+		try {
+			instances.keySet().remove(rocket);
+			fail("frozen map was modified");
+		} catch (UnsupportedOperationException expected) {
+		}
+
+		// stage flags, also those changed without a change event
+		selected.toggleStage(2);
+		final InstanceMap coreOnly = selected.getActiveInstances();
+		assertNotSame(instances, coreOnly);
+		assertTrue(coreOnly.size() < instances.size());
+		assertTrue(instances.containsKey(rocket.getStage(2)));
+		assertFalse(coreOnly.containsKey(rocket.getStage(2)));
+		assertSame(coreOnly, selected.getActiveInstances());
+
+		// component changes
+		final BodyTube body = (BodyTube) rocket.getChild(0).getChild(1);
+		final double x = coreOnly.getInstanceContexts(body).get(0).getLocation().x;
+		body.setLength(body.getLength() + 0.1);
+		final InstanceMap modified = selected.getActiveInstances();
+		assertNotSame(coreOnly, modified);
+		assertEquals(x, modified.getInstanceContexts(body).get(0).getLocation().x, EPSILON);
+		final RocketComponent next = rocket.getChild(0).getChild(2);
+		assertEquals(coreOnly.getInstanceContexts(next).get(0).getLocation().x + 0.1,
+				modified.getInstanceContexts(next).get(0).getLocation().x, EPSILON);
+	}
+}
@@ -0,0 +1,129 @@
+package net.sf.openrocket.rocketcomponent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.OpenRocketDocument;
+import net.sf.openrocket.document.OpenRocketDocumentFactory;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class RocketSnapshotTest extends BaseTestCase {
+
+	private static NoseCone nose(Rocket rocket) {
+		return (NoseCone) rocket.getChild(0).getChild(0);
+	}
+
+	private static BodyTube body(Rocket rocket) {
+		return (BodyTube) rocket.getChild(0).getChild(1);
+	}
+
+	@Test
+	public void testUnchangedComponentsAreShared() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		NoseCone nose = nose(rocket);
+		BodyTube body = body(rocket);
+		double noseLength = nose.getLength();
+
+		RocketSnapshot first = RocketSnapshot.create(rocket, null, null);
+		assertEquals(first.getComponentCount(), first.getCopyCount());
+
+		nose.setLength(2 * noseLength);
+		RocketSnapshot second = RocketSnapshot.create(rocket, first, Collections.singleton(nose.getID()));
+		assertEquals(first.getComponentCount(), second.getComponentCount());
+		assertEquals(2, second.getCopyCount());
+		assertFalse(second.isShared(first, nose.getID()));
+		assertTrue(second.isShared(first, body.getID()));
+		assertTrue(second.isShared(first, body.getChild(0).getID()));
+
+		Rocket restored = first.restore();
+		assertNotSame(rocket, restored);
+		assertEquals(rocket.getID(), restored.getID());
+		assertEquals(noseLength, restored.getChild(0).getChild(0).getLength(), 0);
+		assertEquals(2 * noseLength, second.restore().getChild(0).getChild(0).getLength(), 0);
+		assertEquals(rocket.getStageCount(), restored.getStageCount());
+		assertEquals(rocket.getSelectedConfiguration().getId(), restored.getSelectedConfiguration().getId());
+
+		// Restoring creates new components every time
+		assertNotSame(restored.getChild(0).getChild(1), first.restore().getChild(0).getChild(1));
+	}
+
+	@Test
+	public void testUndoRedo() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		double noseLength = rocket.getChild(0).getChild(0).getLength();
+		double bodyLength = rocket.getChild(0).getChild(1).getLength();
+
+		document.addUndoPosition("Modify nose cone");
+		nose(rocket).setLength(0.5);
+		document.addUndoPosition("Modify body tube");
+		body(rocket).setLength(0.7);
+		document.addUndoPosition("Remove body tube");
+		rocket.getChild(0).removeChild(1);
+
+		assertEquals(1, rocket.getChild(0).getChildCount());
+
+		document.undo();
+		assertEquals(2, rocket.getChild(0).getChildCount());
+		assertEquals(0.7, rocket.getChild(0).getChild(1).getLength(), 0);
+
+		document.undo();
+		assertEquals(0.5, rocket.getChild(0).getChild(0).getLength(), 0);
+		assertEquals(bodyLength, rocket.getChild(0).getChild(1).getLength(), 0);
+
+		document.undo();
+		assertEquals(noseLength, rocket.getChild(0).getChild(0).getLength(), 0);
+		assertFalse(document.isUndoAvailable());
+
+		document.redo();
+		document.redo();
+		assertEquals(0.5, rocket.getChild(0).getChild(0).getLength(), 0);
+		assertEquals(0.7, rocket.getChild(0).getChild(1).getLength(), 0);
+
+		// Changes after undo are stored relative to the restored state
+		document.undo();
+		document.addUndoPosition("Modify body tube again");
+		body(rocket).setLength(0.9);
+		assertFalse(document.isRedoAvailable());
+		document.undo();
+		assertEquals(bodyLength, rocket.getChild(0).getChild(1).getLength(), 0);
+		assertEquals(0.5, rocket.getChild(0).getChild(0).getLength(), 0);
+		document.redo();
+		assertEquals(0.9, rocket.getChild(0).getChild(1).getLength(), 0);
+	}
+
+	@Test
+	public void testUndoBudget() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		int components = 0;
+		for (RocketComponent c : rocket) {
+			components++;
+		}
+		document.setUndoBudget(components + 6);
+
+		NoseCone nose = nose(rocket);
+		for (int i = 1; i <= 10; i++) {
+			document.addUndoPosition("Modify nose cone " + i);
+			nose.setLength(0.1 * i);
+		}
+		document.addUndoPosition("Done");
+
+		// Each modification copies the rocket and the nose cone, so only three positions fit in the budget
+		int undos = 0;
+		while (document.isUndoAvailable()) {
+			document.undo();
+			undos++;
+		}
+		assertEquals(3, undos);
+		assertEquals(0.7, nose(rocket).getLength(), 1e-10);
+	}
+
+}
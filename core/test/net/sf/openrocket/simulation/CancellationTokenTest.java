@@ -0,0 +1,65 @@
+package net.sf.openrocket.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.simulation.exception.SimulationCancelledException;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.simulation.listeners.AbstractSimulationListener;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class CancellationTokenTest extends BaseTestCase {
+
+	@Test
+	public void testCancelWithinOneStep() throws Exception {
+		Simulation simulation = createSimulation(TestRockets.makeEstesAlphaIII(), 0);
+		final CancellationToken token = new CancellationToken();
+		final int[] steps = new int[1];
+		final SimulationException[] ended = new SimulationException[1];
+
+		try {
+			simulation.simulate(token, new AbstractSimulationListener() {
+				@Override
+				public void postStep(SimulationStatus status) {
+					steps[0]++;
+					if (steps[0] == 10) {
+						token.cancel();
+					}
+				}
+
+				@Override
+				public void endSimulation(SimulationStatus status, SimulationException exception) {
+					ended[0] = exception;
+				}
+			});
+			fail("Expected cancellation");
+		} catch (SimulationCancelledException e) {
+		}
+		assertEquals(10, steps[0]);
+		assertTrue(ended[0] instanceof SimulationCancelledException);
+		assertTrue(token.isCancelled());
+	}
+
+	@Test
+	public void testInterruptCancels() throws Exception {
+		Simulation simulation = createSimulation(TestRockets.makeEstesAlphaIII(), 0);
+		Thread.currentThread().interrupt();
+		try {
+			simulation.simulate();
+			fail("Expected cancellation");
+		} catch (SimulationCancelledException e) {
+		} finally {
+			assertTrue(Thread.interrupted());
+		}
+
+		// Not cancelled
+		simulation.simulate(new CancellationToken());
+		assertFalse(simulation.getSimulatedData().getBranch(0).getLength() == 0);
+	}
+}
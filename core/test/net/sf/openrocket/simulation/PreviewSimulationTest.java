@@ -0,0 +1,39 @@
+package net.sf.openrocket.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class PreviewSimulationTest extends BaseTestCase {
+
+	@Test
+	public void testPreviewApproximatesSimulation() throws Exception {
+		for (Rocket rocket : new Rocket[] { TestRockets.makeEstesAlphaIII(), TestRockets.makeFalcon9Heavy() }) {
+			Simulation simulation = createSimulation(rocket, 0);
+			simulation.getOptions().setTimeStep(0.01);
+			Simulation.Status status = simulation.getStatus();
+
+			FlightData preview = simulation.simulatePreview(new CancellationToken());
+			assertTrue(preview.isApproximate());
+
+			// The simulation itself is not modified
+			assertNull(simulation.getSimulatedData());
+			assertEquals(status, simulation.getStatus());
+			assertEquals(0.01, simulation.getOptions().getTimeStep(), 0);
+
+			simulation.simulate();
+			FlightData data = simulation.getSimulatedData();
+			assertFalse(data.isApproximate());
+			assertEquals(data.getMaxAltitude(), preview.getMaxAltitude(), 0.05 * data.getMaxAltitude());
+			assertTrue(preview.getBranch(0).getLength() < data.getBranch(0).getLength());
+		}
+	}
+}
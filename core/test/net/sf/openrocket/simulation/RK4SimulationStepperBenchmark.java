@@ -0,0 +1,67 @@
+package net.sf.openrocket.simulation;
+
+import java.lang.management.ManagementFactory;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+/**
+ * Measures the heap allocation and time of the RK4 simulation stepper per simulated
+ * second of flight.  This is not run as part of the unit tests; run it manually with
+ * the test classpath:
+ * <pre>
+ *   java net.sf.openrocket.simulation.RK4SimulationStepperBenchmark [iterations]
+ * </pre>
+ * The allocation is measured with the per-thread allocation counter of the HotSpot VM.
+ */
+public class RK4SimulationStepperBenchmark {
+
+	private static final int WARMUP = 20;
+
+	public static void main(String[] args) throws Exception {
+		int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 50;
+
+		BaseTestCase.setUp();
+
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		Simulation simulation = BaseTestCase.createSimulation(rocket, 0);
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		for (int i = 0; i < WARMUP; i++) {
+			simulate(simulation);
+		}
+
+		double simulatedTime = 0;
+		long steps = 0;
+		long bytes = threads.getThreadAllocatedBytes(threadId);
+		long nanos = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			FlightData data = simulate(simulation);
+			for (int b = 0; b < data.getBranchCount(); b++) {
+				FlightDataBranch branch = data.getBranch(b);
+				simulatedTime += branch.getLast(FlightDataType.TYPE_TIME) - branch.getMinimum(FlightDataType.TYPE_TIME);
+				steps += branch.getLength();
+			}
+		}
+		nanos = System.nanoTime() - nanos;
+		bytes = threads.getThreadAllocatedBytes(threadId) - bytes;
+
+		System.out.printf("Simulations:             %d%n", iterations);
+		System.out.printf("Steps:                   %d%n", steps);
+		System.out.printf("Simulated time:          %.1f s%n", simulatedTime);
+		System.out.printf("Allocation per sim. s:   %.1f kB%n", bytes / simulatedTime / 1024);
+		System.out.printf("Allocation per step:     %.1f B%n", (double) bytes / steps);
+		System.out.printf("Wall time per sim. s:    %.3f ms%n", nanos / simulatedTime / 1e6);
+	}
+
+	private static FlightData simulate(Simulation simulation) throws SimulationException {
+		SimulationConditions conditions = simulation.getOptions().toSimulationConditions();
+		conditions.setSimulation(simulation);
+		return new BasicEventSimulationEngine().simulate(conditions);
+	}
+}
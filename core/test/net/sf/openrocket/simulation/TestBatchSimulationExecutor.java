@@ -0,0 +1,133 @@
+package net.sf.openrocket.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.exception.SimulationCancelledException;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class TestBatchSimulationExecutor extends BaseTestCase {
+
+	@Test
+	public void testBatchOfConfigurations() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		List<Simulation> simulations = new ArrayList<Simulation>();
+		for (int i = 0; i < rocket.getConfigurationCount(); i++) {
+			simulations.add(createSimulation(rocket, i));
+		}
+
+		final AtomicInteger started = new AtomicInteger();
+		final AtomicInteger steps = new AtomicInteger();
+		final AtomicInteger done = new AtomicInteger();
+		BatchSimulationListener listener = new BatchSimulationListener() {
+			@Override
+			public void simulationStarted(Simulation simulation) {
+				started.incrementAndGet();
+			}
+
+			@Override
+			public void simulationStep(Simulation simulation, SimulationStatus status) {
+				steps.incrementAndGet();
+			}
+
+			@Override
+			public void simulationDone(Simulation simulation, FlightData data) {
+				done.incrementAndGet();
+			}
+
+			@Override
+			public void simulationFailed(Simulation simulation, Throwable cause) {
+			}
+		};
+
+		BatchSimulationExecutor executor = new BatchSimulationExecutor(3);
+		List<BatchSimulationExecutor.Task> tasks = executor.runAll(simulations, listener);
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(simulations.size(), tasks.size());
+		assertEquals(simulations.size(), started.get());
+		assertEquals(simulations.size(), done.get());
+		assertTrue(steps.get() > 0);
+
+		for (int i = 0; i < tasks.size(); i++) {
+			BatchSimulationExecutor.Task task = tasks.get(i);
+			assertTrue(task.getSimulation() == simulations.get(i));
+			assertNull(task.getFailure());
+
+			// The submitted simulation is not modified
+			assertNull(simulations.get(i).getSimulatedData());
+
+			// Compare with running the same simulation serially
+			Simulation serial = simulations.get(i).duplicateSimulation(rocket.copyWithOriginalID());
+			serial.simulate();
+			double expected = serial.getSimulatedData().getMaxAltitude();
+			assertEquals(expected, task.get().getMaxAltitude(), expected * 0.01);
+		}
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		final CountDownLatch running = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+
+		BatchSimulationListener listener = new BatchSimulationListener() {
+			@Override
+			public void simulationStarted(Simulation simulation) {
+			}
+
+			@Override
+			public void simulationStep(Simulation simulation, SimulationStatus status) {
+				running.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					// Cancelled while waiting
+				}
+			}
+
+			@Override
+			public void simulationDone(Simulation simulation, FlightData data) {
+			}
+
+			@Override
+			public void simulationFailed(Simulation simulation, Throwable cause) {
+				failures.add(cause);
+			}
+		};
+
+		BatchSimulationExecutor executor = new BatchSimulationExecutor(1);
+		List<BatchSimulationExecutor.Task> tasks = executor.submit(Collections.singletonList(createSimulation(rocket, 0)), listener);
+		BatchSimulationExecutor.Task task = tasks.get(0);
+
+		assertTrue(running.await(10, TimeUnit.SECONDS));
+		task.cancel(false);
+		release.countDown();
+		task.await();
+
+		assertTrue(task.isCancelled());
+		assertTrue(task.getFailure() instanceof SimulationCancelledException);
+		assertEquals(1, failures.size());
+		assertNotNull(failures.get(0));
+
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+}
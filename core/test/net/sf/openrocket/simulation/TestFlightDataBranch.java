@@ -0,0 +1,181 @@
+package net.sf.openrocket.simulation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.openrocket.unit.UnitGroup;
+import net.sf.openrocket.util.LinearInterpolator;
+
+/**
+ * Tests the FlightDataBranch column storage.
+ */
+public class TestFlightDataBranch {
+
+	@Test
+	public void testValuesAndExtrema() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		for (int i = 0; i < 200; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.1);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 100 - (i - 50) * (i - 50) / 10.0);
+		}
+
+		assertEquals(200, branch.getLength());
+		assertEquals(19.9, branch.getLast(FlightDataType.TYPE_TIME), 1e-10);
+		assertEquals(0.0, branch.getMinimum(FlightDataType.TYPE_TIME), 0);
+		assertEquals(100.0, branch.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(100 - 149 * 149 / 10.0, branch.getMinimum(FlightDataType.TYPE_ALTITUDE), 1e-10);
+
+		List<Double> time = branch.get(FlightDataType.TYPE_TIME);
+		assertEquals(200, time.size());
+		assertEquals(5.0, time.get(50), 1e-10);
+
+		assertNull(branch.get(FlightDataType.TYPE_MASS));
+		assertEquals(Double.NaN, branch.getLast(FlightDataType.TYPE_MASS), 0);
+		assertEquals(Double.NaN, branch.getMaximum(FlightDataType.TYPE_MASS), 0);
+	}
+
+	@Test
+	public void testTypeAddedLater() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 0);
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 1);
+		branch.setValue(FlightDataType.TYPE_MASS, 2.5);
+
+		List<Double> mass = branch.get(FlightDataType.TYPE_MASS);
+		assertEquals(2, mass.size());
+		assertEquals(Double.NaN, mass.get(0), 0);
+		assertEquals(2.5, mass.get(1), 0);
+		assertEquals(2.5, branch.getMinimum(FlightDataType.TYPE_MASS), 0);
+		assertArrayEquals(new FlightDataType[] { FlightDataType.TYPE_TIME, FlightDataType.TYPE_MASS }, branch.getTypes());
+	}
+
+	@Test
+	public void testCustomTypeSharesOrdinal() {
+		FlightDataType custom = FlightDataType.getType("Branch test variable", "btv", UnitGroup.UNITS_NONE);
+		FlightDataType renamed = FlightDataType.getType("BRANCH TEST VARIABLE", "btv", UnitGroup.UNITS_NONE);
+		assertEquals(custom, renamed);
+		assertEquals(custom.getOrdinal(), renamed.getOrdinal());
+
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		branch.addPoint();
+		branch.setValue(custom, 3.0);
+		assertEquals(3.0, branch.getLast(renamed), 0);
+	}
+
+	@Test
+	public void testColumnView() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		for (int i = 0; i < 100; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i);
+		}
+
+		FlightDataColumn column = branch.getColumn(FlightDataType.TYPE_TIME);
+		assertEquals(FlightDataType.TYPE_TIME, column.getType());
+		assertEquals(100, column.size());
+		assertEquals(42.0, column.get(42), 0);
+		assertEquals(99.0, column.getLast(), 0);
+
+		// Growing the branch must not affect existing views
+		for (int i = 100; i < 300; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i);
+		}
+		assertEquals(100, column.size());
+		assertEquals(99.0, column.get(99), 0);
+		assertEquals(300, branch.getColumn(FlightDataType.TYPE_TIME).size());
+
+		try {
+			column.get(100);
+			fail("Expected IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+
+		branch.immute();
+		double[] values = branch.getColumn(FlightDataType.TYPE_TIME).toArray();
+		assertEquals(300, values.length);
+		assertEquals(299.0, values[299], 0);
+		assertNull(branch.getColumn(FlightDataType.TYPE_MASS));
+	}
+
+	@Test
+	public void testCopyIsIndependent() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		for (int i = 0; i < 3; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 10 * i);
+		}
+		branch.addEvent(new FlightEvent(FlightEvent.Type.LAUNCH, 0));
+		branch.immute();
+
+		FlightDataBranch copy = branch.copy();
+		copy.addPoint();
+		copy.setValue(FlightDataType.TYPE_TIME, 3);
+		copy.setValue(FlightDataType.TYPE_ALTITUDE, 50);
+		copy.setValue(FlightDataType.TYPE_MASS, 1.0);
+		copy.addEvent(new FlightEvent(FlightEvent.Type.APOGEE, 3));
+
+		assertEquals(4, copy.getLength());
+		assertEquals(50.0, copy.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(20.0, copy.get(FlightDataType.TYPE_ALTITUDE).get(2), 0);
+		assertEquals(2, copy.getEvents().size());
+
+		assertEquals(3, branch.getLength());
+		assertEquals(20.0, branch.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertNull(branch.get(FlightDataType.TYPE_MASS));
+		assertEquals(1, branch.getEvents().size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testImmutable() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME);
+		branch.immute();
+		branch.addPoint();
+	}
+
+	@Test
+	public void testValueAtMatchesInterpolator() {
+		FlightDataBranch branch = new FlightDataBranch("test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		// Irregular steps with repeated times
+		double[] times = { 0, 0, 0.05, 0.1, 0.1, 0.1, 0.3, 0.35, 0.6, 0.6, 1.0 };
+		for (int i = 0; i < times.length; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, times[i]);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, i * i + 1);
+		}
+
+		LinearInterpolator interpolator = new LinearInterpolator(branch.get(FlightDataType.TYPE_TIME),
+				branch.get(FlightDataType.TYPE_ALTITUDE));
+		for (double t = -0.2; t < 1.3; t += 0.0125) {
+			assertEquals("t=" + t, interpolator.getValue(t), branch.getValueAt(FlightDataType.TYPE_ALTITUDE, t), 0);
+		}
+		for (double t : times) {
+			assertEquals("t=" + t, interpolator.getValue(t), branch.getValueAt(FlightDataType.TYPE_ALTITUDE, t), 0);
+		}
+		assertEquals(interpolator.getValue(Double.NaN), branch.getValueAt(FlightDataType.TYPE_ALTITUDE, Double.NaN), 0);
+		assertEquals(Double.NaN, branch.getValueAt(FlightDataType.TYPE_MASS, 0.5), 0);
+
+		// Only times before the points which may still change are settled
+		assertEquals(0.35, branch.getSettledTime(), 0);
+
+		// Out of order times fall back to sorting the points
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 0.2);
+		branch.setValue(FlightDataType.TYPE_ALTITUDE, -5);
+		interpolator.addPoint(0.2, -5);
+		assertEquals(interpolator.getValue(0.25), branch.getValueAt(FlightDataType.TYPE_ALTITUDE, 0.25), 0);
+		assertEquals(Double.NaN, branch.getSettledTime(), 0);
+	}
+
+}
@@ -1,8 +1,20 @@
 package net.sf.openrocket.simulation.customexpression;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.document.OpenRocketDocumentFactory;
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataType;
+import net.sf.openrocket.simulation.SimulationConditions;
+import net.sf.openrocket.simulation.SimulationStatus;
+import net.sf.openrocket.util.ArrayUtils;
 import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.LinearInterpolator;
+import net.sf.openrocket.util.MathUtil;
 
 import org.junit.Test;
 
@@ -20,4 +32,113 @@ public class TestExpressions extends BaseTestCase {
 		//System.out.println(exp.getExpressionString());
 		
 	}
+	
+	@Test
+	public void testCompiledExpressions() {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+		SimulationConditions conditions = new SimulationConditions();
+		Simulation simulation = new Simulation(doc.getRocket());
+		simulation.getOptions().setTimeStep(0.01);
+		conditions.setSimulation(simulation);
+		SimulationStatus status = new SimulationStatus(doc.getRocket().getSelectedConfiguration(), conditions);
+		FlightDataBranch data = new FlightDataBranch("Test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE,
+				FlightDataType.TYPE_VELOCITY_TOTAL, FlightDataType.TYPE_MASS);
+		status.setFlightData(data);
+		
+		// Custom functions operate on variables, missing data types (Al) fall back to variables when evaluated
+		String[] strings = { ".5*m*Vt^2", "sqrt(h) + abs(-2) % 3 - -t", "-h/t", "round(m*10)/10 + +2", "m[0.25]*2 + h",
+				"round(Al)", "Al^0 + h", "mean(m[0:t])" };
+		
+		CustomExpression[] expressions = new CustomExpression[strings.length];
+		CompiledExpression[] compiled = new CompiledExpression[strings.length];
+		for (int i = 0; i < strings.length; i++) {
+			expressions[i] = new CustomExpression(doc, "Expression " + i, "E" + i, "", strings[i]);
+			compiled[i] = expressions[i].compile();
+			assertEquals(strings[i], i < strings.length - 1, compiled[i].isPrimitive());
+		}
+		
+		for (int step = 0; step < 10; step++) {
+			double t = step * 0.1;
+			data.addPoint();
+			data.setValue(FlightDataType.TYPE_TIME, t);
+			data.setValue(FlightDataType.TYPE_ALTITUDE, 20 * t - 4.9 * t * t);
+			data.setValue(FlightDataType.TYPE_VELOCITY_TOTAL, 20 - 9.8 * t);
+			data.setValue(FlightDataType.TYPE_MASS, 0.1 - 0.003 * step);
+			
+			for (int i = 0; i < expressions.length; i++) {
+				double expected = expressions[i].evaluateDouble(status);
+				assertEquals(expressions[i].getExpressionString(), expected, compiled[i].evaluate(status), 0);
+			}
+		}
+		
+		// Invalid values propagate as NaN
+		assertTrue(Double.isNaN(compiled[5].evaluate(status)));
+		assertFalse(Double.isNaN(compiled[0].evaluate(status)));
+	}
+	
+	@Test
+	public void testIncrementalRanges() {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+		SimulationConditions conditions = new SimulationConditions();
+		Simulation simulation = new Simulation(doc.getRocket());
+		simulation.getOptions().setTimeStep(0.01);
+		conditions.setSimulation(simulation);
+		SimulationStatus status = new SimulationStatus(doc.getRocket().getSelectedConfiguration(), conditions);
+		FlightDataBranch data = new FlightDataBranch("Test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE,
+				FlightDataType.TYPE_MASS);
+		status.setFlightData(data);
+		
+		String[] strings = { "mean(m[0:t])", "min(h[:])", "max(h[0:t])", "trapz(h[0:t])", "stdev(m[0:t])",
+				"mean(h[t-0.1:t])", "max(h[0.05:0.2])", "h[t/2]" };
+		CompiledExpression[] compiled = new CompiledExpression[strings.length];
+		for (int i = 0; i < strings.length; i++) {
+			compiled[i] = new CustomExpression(doc, "Expression " + i, "E" + i, "", strings[i]).compile();
+		}
+		
+		double t = 0;
+		for (int step = 0; step < 60; step++) {
+			// Irregular time steps, some repeated
+			if (step % 7 != 3) {
+				t += 0.004 + 0.003 * (step % 4);
+			}
+			data.addPoint();
+			data.setValue(FlightDataType.TYPE_TIME, t);
+			data.setValue(FlightDataType.TYPE_ALTITUDE, 30 * t - 4.9 * t * t + 0.01 * (step % 3));
+			data.setValue(FlightDataType.TYPE_MASS, (step % 10 == 5) ? Double.NaN : 0.1 - 0.01 * t);
+			
+			double[] m = range(data, FlightDataType.TYPE_MASS, 0, t);
+			double[] h = range(data, FlightDataType.TYPE_ALTITUDE, 0, t);
+			double[] window = range(data, FlightDataType.TYPE_ALTITUDE, t - 0.1, t);
+			double[] fixed = range(data, FlightDataType.TYPE_ALTITUDE, 0.05, 0.2);
+			LinearInterpolator interpolator = new LinearInterpolator(data.get(FlightDataType.TYPE_TIME),
+					data.get(FlightDataType.TYPE_ALTITUDE));
+			
+			assertEquals(ArrayUtils.mean(m), compiled[0].evaluate(status), 0);
+			assertEquals(ArrayUtils.min(h), compiled[1].evaluate(status), 0);
+			assertEquals(ArrayUtils.max(h), compiled[2].evaluate(status), 0);
+			assertEquals(ArrayUtils.trapz(h, 0.01), compiled[3].evaluate(status), 0);
+			assertEquals(ArrayUtils.stdev(m), compiled[4].evaluate(status), 0);
+			assertEquals(ArrayUtils.mean(window), compiled[5].evaluate(status), 0);
+			assertEquals((fixed == null) ? Double.NaN : ArrayUtils.max(fixed), compiled[6].evaluate(status), 0);
+			assertEquals(interpolator.getValue(t / 2), compiled[7].evaluate(status), 0);
+		}
+	}
+	
+	/*
+	 * Resamples the data over a range as RangeExpression did before sampling incrementally.
+	 */
+	private static double[] range(FlightDataBranch data, FlightDataType type, double start, double end) {
+		start = MathUtil.clamp(start, 0, Double.MAX_VALUE);
+		end = MathUtil.clamp(end, 0, data.getLast(FlightDataType.TYPE_TIME));
+		if (Math.floor((end - start) / 0.01) + 1 < 1) {
+			return null;
+		}
+		LinearInterpolator interpolator = new LinearInterpolator(data.get(FlightDataType.TYPE_TIME), data.get(type));
+		double[] t = ArrayUtils.range(start, end, 0.01);
+		double[] y = new double[t.length];
+		for (int i = 0; i < t.length; i++) {
+			y[i] = interpolator.getValue(t[i]);
+		}
+		return y;
+	}
 }
@@ -0,0 +1,99 @@
+package net.sf.openrocket.simulation.listeners;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.sf.openrocket.simulation.SimulationStatus;
+import net.sf.openrocket.simulation.exception.SimulationException;
+import net.sf.openrocket.simulation.listeners.SimulationListenerDispatch.Hook;
+import net.sf.openrocket.simulation.listeners.system.ApogeeEndListener;
+import net.sf.openrocket.simulation.listeners.system.InterruptListener;
+import net.sf.openrocket.util.Coordinate;
+
+public class SimulationListenerDispatchTest {
+
+	private static class WindListener extends AbstractSimulationListener {
+		@Override
+		public Coordinate preWindModel(SimulationStatus status) throws SimulationException {
+			return Coordinate.NUL;
+		}
+	}
+
+	private static class WindStepListener extends WindListener {
+		@Override
+		public void postStep(SimulationStatus status) throws SimulationException {
+		}
+	}
+
+	private static class PlainListener implements SimulationListener {
+		@Override
+		public void startSimulation(SimulationStatus status) throws SimulationException {
+		}
+
+		@Override
+		public void endSimulation(SimulationStatus status, SimulationException exception) {
+		}
+
+		@Override
+		public boolean preStep(SimulationStatus status) throws SimulationException {
+			return true;
+		}
+
+		@Override
+		public void postStep(SimulationStatus status) throws SimulationException {
+		}
+
+		@Override
+		public boolean isSystemListener() {
+			return false;
+		}
+
+		@Override
+		public SimulationListener clone() {
+			return this;
+		}
+	}
+
+	@Test
+	public void testListenersRegisteredForImplementedHooks() {
+		SimulationListener wind = new WindListener();
+		SimulationListener windStep = new WindStepListener();
+		SimulationListener plain = new PlainListener();
+		List<SimulationListener> listeners = Arrays.asList(InterruptListener.INSTANCE, ApogeeEndListener.INSTANCE,
+				wind, windStep, plain);
+
+		SimulationListenerDispatch dispatch = new SimulationListenerDispatch(listeners);
+
+		assertArrayEquals(new SimulationListener[] { InterruptListener.INSTANCE, windStep, plain },
+				dispatch.getListeners(Hook.POST_STEP));
+		assertArrayEquals(new SimulationListener[] { ApogeeEndListener.INSTANCE },
+				dispatch.getListeners(Hook.HANDLE_FLIGHT_EVENT));
+		assertArrayEquals(new SimulationListener[] { wind, windStep },
+				dispatch.getListeners(Hook.PRE_WIND_MODEL));
+		assertArrayEquals(new SimulationListener[] { plain }, dispatch.getListeners(Hook.PRE_STEP));
+		assertArrayEquals(new SimulationListener[] { plain }, dispatch.getListeners(Hook.START_SIMULATION));
+		assertArrayEquals(new SimulationListener[0], dispatch.getListeners(Hook.ADD_FLIGHT_EVENT));
+		assertArrayEquals(new SimulationListener[0], dispatch.getListeners(Hook.POST_WIND_MODEL));
+		assertArrayEquals(new SimulationListener[0], dispatch.getListeners(Hook.PRE_ACCELERATION_CALCULATION));
+	}
+
+	@Test
+	public void testValidity() {
+		List<SimulationListener> listeners = new ArrayList<SimulationListener>();
+		listeners.add(InterruptListener.INSTANCE);
+		SimulationListenerDispatch dispatch = new SimulationListenerDispatch(listeners);
+
+		assertTrue(dispatch.isValidFor(listeners));
+		assertFalse(dispatch.isValidFor(new ArrayList<SimulationListener>(listeners)));
+
+		listeners.add(ApogeeEndListener.INSTANCE);
+		assertFalse(dispatch.isValidFor(listeners));
+	}
+}
@@ -1,9 +1,13 @@
 package net.sf.openrocket.util.BaseTestCase;
 
 import net.sf.openrocket.ServicesForTesting;
+import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.l10n.DebugTranslator;
 import net.sf.openrocket.l10n.Translator;
 import net.sf.openrocket.plugin.PluginModule;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.simulation.RK4SimulationStepper;
+import net.sf.openrocket.simulation.SimulationOptions;
 import net.sf.openrocket.startup.Application;
 
 import org.junit.BeforeClass;
@@ -31,4 +35,31 @@ public class BaseTestCase {
 		Injector injector = Guice.createInjector(Modules.override(applicationModule).with(debugTranslator), pluginModule);
 		Application.setInjector(injector);
 	}
+	
+	/**
+	 * Create a simulation of a flight configuration of a rocket.  The test preferences do
+	 * not provide defaults for the simulation options, so the launch conditions are set
+	 * explicitly, with a fixed random seed.
+	 * 
+	 * @param rocket		the rocket.
+	 * @param configIndex	the index of the flight configuration.
+	 * @return				the simulation.
+	 */
+	public static Simulation createSimulation(Rocket rocket, int configIndex) {
+		Simulation simulation = new Simulation(rocket);
+		simulation.setFlightConfigurationId(rocket.getFlightConfigurationByIndex(configIndex, false).getFlightConfigurationID());
+		
+		SimulationOptions options = simulation.getOptions();
+		options.setLaunchRodLength(1.0);
+		options.setLaunchRodAngle(0);
+		options.setLaunchLatitude(28.61);
+		options.setLaunchLongitude(-80.60);
+		options.setISAAtmosphere(true);
+		options.setWindSpeedAverage(2.0);
+		options.setWindTurbulenceIntensity(0.1);
+		options.setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP);
+		options.setMaximumStepAngle(RK4SimulationStepper.RECOMMENDED_ANGLE_STEP);
+		options.setRandomSeed(1);
+		return simulation;
+	}
 }
@@ -0,0 +1,69 @@
+package net.sf.openrocket.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import net.sf.openrocket.aerodynamics.barrowman.SymmetricComponentCalc;
+import net.sf.openrocket.rocketcomponent.BodyTube;
+import net.sf.openrocket.rocketcomponent.MassComponent;
+import net.sf.openrocket.rocketcomponent.RocketComponent;
+import net.sf.openrocket.rocketcomponent.TrapezoidFinSet;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+
+public class ComponentHandlerRegistryTest extends BaseTestCase {
+
+	private static final String SAVER_PACKAGE = "net.sf.openrocket.file.openrocket.savers";
+	private static final String CALC_PACKAGE = "net.sf.openrocket.aerodynamics.barrowman";
+
+	/** A component class without a handler class of its own. */
+	private static class CustomBodyTube extends BodyTube {
+	}
+
+	@Test
+	public void testMethodLookup() {
+		ComponentHandlerRegistry<Reflection.Method> registry = ComponentHandlerRegistry.forMethod(SAVER_PACKAGE, "Saver",
+				"getElements", RocketComponent.class);
+
+		Reflection.Method m = registry.get(BodyTube.class);
+		assertNotNull(m);
+		assertTrue(m.toString().contains(SAVER_PACKAGE + ".BodyTubeSaver.getElements"));
+		assertSame(m, registry.get(new BodyTube()));
+
+		// Subclasses resolve to the handler of the nearest superclass
+		assertEquals(m.toString(), registry.get(CustomBodyTube.class).toString());
+		assertEquals(m.toString(), Reflection.findMethod(SAVER_PACKAGE, CustomBodyTube.class, "Saver", "getElements",
+				RocketComponent.class).toString());
+	}
+
+	@Test
+	public void testMissingHandler() {
+		ComponentHandlerRegistry<Reflection.Method> registry = ComponentHandlerRegistry.forMethod(SAVER_PACKAGE, "Saver",
+				"noSuchMethod", RocketComponent.class);
+		assertNull(registry.get(BodyTube.class));
+		assertNull(Reflection.findMethod(SAVER_PACKAGE, BodyTube.class, "Saver", "noSuchMethod", RocketComponent.class));
+
+		registry = ComponentHandlerRegistry.forMethod("net.sf.openrocket.nosuchpackage", "Saver",
+				"getElements", RocketComponent.class);
+		assertNull(registry.get(BodyTube.class));
+	}
+
+	@Test
+	public void testConstructorLookup() {
+		ComponentHandlerRegistry<Function<RocketComponent, Object>> registry =
+				ComponentHandlerRegistry.forConstructor(CALC_PACKAGE, "Calc");
+
+		BodyTube tube = new CustomBodyTube();
+		Object calc = registry.get(tube).apply(tube);
+		assertTrue(calc instanceof SymmetricComponentCalc);
+
+		assertNotNull(registry.get(TrapezoidFinSet.class));
+		assertNull(registry.get(MassComponent.class));
+	}
+}
@@ -0,0 +1,144 @@
+package net.sf.openrocket.util;
+
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Compares the lookup time of {@link LinearInterpolator} to the previous implementation
+ * based on a sorted map, for random lookups, increasing lookups and batch lookups.  This
+ * is not run as part of the unit tests; run it manually with the test classpath:
+ * <pre>
+ *   java net.sf.openrocket.util.LinearInterpolatorBenchmark [iterations]
+ * </pre>
+ */
+public class LinearInterpolatorBenchmark {
+
+	private static final int WARMUP = 20;
+	private static final int LOOKUPS = 100000;
+	private static final int[] SIZES = { 10, 100, 1000 };
+
+	public static void main(String[] args) {
+		int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 50;
+
+		Random rnd = new Random(0);
+		System.out.printf("%-8s %-12s %12s %12s%n", "Points", "Lookups", "TreeMap ns", "Array ns");
+		for (int n : SIZES) {
+			double[] x = new double[n];
+			double[] y = new double[n];
+			for (int i = 0; i < n; i++) {
+				x[i] = i;
+				y[i] = rnd.nextDouble();
+			}
+			LinearInterpolator interpolator = new LinearInterpolator(x, y);
+			TreeMapInterpolator reference = new TreeMapInterpolator(x, y);
+
+			double[] random = new double[LOOKUPS];
+			double[] increasing = new double[LOOKUPS];
+			for (int i = 0; i < LOOKUPS; i++) {
+				random[i] = rnd.nextDouble() * n;
+				increasing[i] = (double) i * n / LOOKUPS;
+			}
+
+			report(n, "random", time(reference, random, iterations), time(interpolator, random, iterations, false));
+			report(n, "increasing", time(reference, increasing, iterations), time(interpolator, increasing, iterations, false));
+			report(n, "batch", time(reference, increasing, iterations), time(interpolator, increasing, iterations, true));
+		}
+	}
+
+	private static void report(int n, String lookups, double reference, double interpolator) {
+		System.out.printf("%-8d %-12s %12.1f %12.1f%n", n, lookups, reference, interpolator);
+	}
+
+	/**
+	 * Return the time per lookup in nanoseconds.
+	 */
+	private static double time(TreeMapInterpolator interpolator, double[] x, int iterations) {
+		double sum = 0;
+		for (int i = 0; i < WARMUP; i++) {
+			for (double v : x) {
+				sum += interpolator.getValue(v);
+			}
+		}
+		long nanos = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			for (double v : x) {
+				sum += interpolator.getValue(v);
+			}
+		}
+		nanos = System.nanoTime() - nanos;
+		consume(sum);
+		return (double) nanos / iterations / x.length;
+	}
+
+	/**
+	 * Return the time per lookup in nanoseconds.
+	 */
+	private static double time(LinearInterpolator interpolator, double[] x, int iterations, boolean batch) {
+		double[] out = new double[x.length];
+		double sum = 0;
+		long nanos = 0;
+		for (int i = 0; i < WARMUP + iterations; i++) {
+			if (i == WARMUP) {
+				nanos = System.nanoTime();
+			}
+			if (batch) {
+				interpolator.getValues(x, out);
+				sum += out[i % out.length];
+			} else {
+				for (double v : x) {
+					sum += interpolator.getValue(v);
+				}
+			}
+		}
+		nanos = System.nanoTime() - nanos;
+		consume(sum);
+		return (double) nanos / iterations / x.length;
+	}
+
+	private static void consume(double sum) {
+		if (sum == 0.123456789) {
+			System.out.println();
+		}
+	}
+
+
+	/**
+	 * The previous implementation of {@link LinearInterpolator}, for comparison.
+	 */
+	private static class TreeMapInterpolator {
+
+		private final TreeMap<Double, Double> sortMap = new TreeMap<Double, Double>();
+
+		TreeMapInterpolator(double[] x, double[] y) {
+			for (int i = 0; i < x.length; i++) {
+				sortMap.put(x[i], y[i]);
+			}
+		}
+
+		double getValue(double x) {
+			Double y1 = sortMap.get(x);
+			if (y1 != null) {
+				return y1.doubleValue();
+			}
+			if (sortMap.isEmpty()) {
+				throw new IllegalStateException("No points added yet to the interpolator.");
+			}
+			Double firstKey = sortMap.firstKey();
+			if (x < firstKey.doubleValue()) {
+				return sortMap.get(firstKey);
+			}
+			Double floorKey = sortMap.subMap(firstKey, x).lastKey();
+			double x1 = floorKey.doubleValue();
+			y1 = sortMap.get(floorKey);
+			SortedMap<Double, Double> tailMap = sortMap.tailMap(x);
+			if (tailMap.isEmpty()) {
+				return y1.doubleValue();
+			}
+			Double ceilKey = tailMap.firstKey();
+			double x2 = ceilKey.doubleValue();
+			Double y2 = sortMap.get(ceilKey);
+			return (x - x1) / (x2 - x1) * (y2 - y1) + y1;
+		}
+	}
+}
@@ -1,6 +1,11 @@
 package net.sf.openrocket.util;
 
 import static org.junit.Assert.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
 import org.junit.Test;
 
 public class LinearInterpolatorTest {
@@ -29,4 +34,100 @@ public class LinearInterpolatorTest {
 		}
 
 	}
+
+	@Test
+	public void testMatchesSortedMap() {
+		Random rnd = new Random(0);
+		for (int n = 1; n < 40; n++) {
+			LinearInterpolator interpolator = new LinearInterpolator();
+			TreeMap<Double, Double> points = new TreeMap<Double, Double>();
+			for (int i = 0; i < n; i++) {
+				// Unordered points on a coarse grid, so that some of them are replaced
+				double x = rnd.nextInt(3 * n) * 0.5;
+				double y = rnd.nextGaussian();
+				interpolator.addPoint(x, y);
+				points.put(x, y);
+			}
+			
+			double[] keys = new double[points.size()];
+			int k = 0;
+			for (double x : points.keySet()) {
+				keys[k++] = x;
+			}
+			assertArrayEquals(keys, interpolator.getXPoints(), 0);
+			
+			// Random, increasing and exact coordinates
+			for (int i = 0; i < 100; i++) {
+				double x = rnd.nextDouble() * 2 * n - 1;
+				assertEquals(expected(points, x), interpolator.getValue(x), 0);
+			}
+			for (double x = -1; x < 2 * n; x += 0.1) {
+				assertEquals(expected(points, x), interpolator.getValue(x), 0);
+			}
+			for (double x : keys) {
+				assertEquals(points.get(x), interpolator.getValue(x), 0);
+			}
+			assertEquals(points.lastEntry().getValue(), interpolator.getValue(Double.NaN), 0);
+		}
+	}
+
+	@Test
+	public void testGetValues() {
+		LinearInterpolator interpolator = new LinearInterpolator(
+				new double[] {1, 1.5, 2, 4, 5},
+				new double[] {0, 1,   0, 2, 2}
+		);
+		
+		double[] x = new double[] { 6, 0, 1.25, 1.75, 1.75, 3, 1, 4.5 };
+		double[] values = new double[x.length];
+		interpolator.getValues(x, values);
+		for (int i = 0; i < x.length; i++) {
+			assertEquals(interpolator.getValue(x[i]), values[i], 0);
+		}
+		
+		// In place
+		interpolator.getValues(x, x);
+		assertArrayEquals(values, x, 0);
+		
+		try {
+			interpolator.getValues(x, new double[1]);
+			fail("Expected exception");
+		} catch (IllegalArgumentException e) {
+		}
+		try {
+			new LinearInterpolator().getValues(x, values);
+			fail("Expected exception");
+		} catch (IllegalStateException e) {
+		}
+	}
+
+	@Test
+	public void testClone() {
+		LinearInterpolator interpolator = new LinearInterpolator(new double[] { 0, 1 }, new double[] { 0, 1 });
+		LinearInterpolator copy = interpolator.clone();
+		interpolator.addPoint(0.5, 1);
+		assertEquals(1, interpolator.getValue(0.5), 0);
+		assertEquals(0.5, copy.getValue(0.5), 0);
+	}
+
+	/**
+	 * The interpolation of the original sorted map based implementation.
+	 */
+	private static double expected(TreeMap<Double, Double> points, double x) {
+		Double y = points.get(x);
+		if (y != null) {
+			return y;
+		}
+		Map.Entry<Double, Double> floor = points.floorEntry(x);
+		Map.Entry<Double, Double> ceiling = points.ceilingEntry(x);
+		if (floor == null) {
+			return ceiling.getValue();
+		}
+		if (ceiling == null) {
+			return floor.getValue();
+		}
+		double x1 = floor.getKey(), y1 = floor.getValue();
+		double x2 = ceiling.getKey(), y2 = ceiling.getValue();
+		return (x - x1) / (x2 - x1) * (y2 - y1) + y1;
+	}
 }
@@ -45,5 +45,20 @@ public class QuaternionTest {
 		
 	}
 	
+	@Test
+	public void rotationFromComponents() {
+		Coordinate rot = new Coordinate(0.3, -1.2, 0.05);
+		Quaternion a = Quaternion.rotation(rot);
+		Quaternion b = Quaternion.rotation(rot.x, rot.y, rot.z);
+		assertEquals(a.getW(), b.getW(), 0);
+		assertEquals(a.getX(), b.getX(), 0);
+		assertEquals(a.getY(), b.getY(), 0);
+		assertEquals(a.getZ(), b.getZ(), 0);
+		
+		Quaternion id = Quaternion.rotation(0, 0, 0);
+		assertEquals(1.0, id.getW(), 0);
+		assertEquals(0.0, id.getX(), 0);
+	}
+	
 	
 }
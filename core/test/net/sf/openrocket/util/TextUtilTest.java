@@ -69,6 +69,15 @@ public class TextUtilTest {
 		assertEquals("0", TextUtil.doubleToString(-MathUtil.EPSILON / 3));
 	}
 	
+	@Test
+	public void appendDoubleTest() {
+		StringBuilder sb = new StringBuilder("x=");
+		TextUtil.appendDouble(sb, 1.0001500001e-3).append(',');
+		TextUtil.appendDouble(sb, -PI * 1e5).append(',');
+		TextUtil.appendDouble(sb, Double.NaN);
+		assertEquals("x=0.0010002,-314159,NaN", sb.toString());
+	}
+	
 	@Test
 	public void longTest() {
 		
@@ -5,7 +5,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -18,6 +17,7 @@ import net.sf.openrocket.file.motor.GeneralMotorLoader;
 import net.sf.openrocket.gui.util.SimpleFileFilter;
 import net.sf.openrocket.gui.util.SwingPreferences;
 import net.sf.openrocket.motor.ThrustCurveMotor;
+import net.sf.openrocket.motor.ThrustCurveMotorFile;
 import net.sf.openrocket.startup.Application;
 import net.sf.openrocket.util.BugException;
 import net.sf.openrocket.util.Pair;
@@ -49,7 +49,7 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	
 	@Override
 	protected void loadDatabase() {
-		loadSerializedMotorDatabase();
+		loadMotorDatabaseFiles();
 		loadUserDefinedMotors();
 	}
 
@@ -76,31 +76,31 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 
 	/**
-	 * Loads the default, with established serialized manufacturing and data
-	 * uses directory "datafiles/thrustcurves" for data  
+	 * Loads the default motor database files from directory "datafiles/thrustcurves".
+	 * The thrust curves of the motors are read when they are first used.
 	 */
-	private void loadSerializedMotorDatabase() {
-		log.info("Starting reading serialized motor database");
-		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
+	private void loadMotorDatabaseFiles() {
+		log.info("Starting reading motor database");
+		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+				new SimpleFileFilter("", false, ThrustCurveMotorFile.EXTENSION));
 		while (iterator.hasNext()) {
 			Pair<String, InputStream> f = iterator.next();
-			loadSerialized(f);
+			loadMotorDatabaseFile(f);
 		}
-		log.info("Ending reading serialized motor database, motorCount=" + motorCount);
+		log.info("Ending reading motor database, motorCount=" + motorCount);
 	}
 	
 	
 	/**
-	 * loads a serailized motor data from an stream
+	 * loads a motor database file from a stream
 	 * 
 	 * @param f	the pair of a String with the filename (for logging) and the input stream
 	 */
-	@SuppressWarnings("unchecked")
-	private void loadSerialized(Pair<String, InputStream> f) {
+	private void loadMotorDatabaseFile(Pair<String, InputStream> f) {
 		try {
 			log.debug("Reading motors from file " + f.getU());
-			ObjectInputStream ois = new ObjectInputStream(f.getV());
-			List<ThrustCurveMotor> motors = (List<ThrustCurveMotor>) ois.readObject();
+			List<ThrustCurveMotor> motors = ThrustCurveMotorFile.read(f.getV());
+			f.getV().close();
 			addMotors(motors);
 		} catch (Exception ex) {
 			throw new BugException(ex);
@@ -57,6 +57,7 @@ import org.slf4j.LoggerFactory;
 import com.itextpdf.text.Font;
 
 import net.miginfocom.swing.MigLayout;
+import net.sf.openrocket.arch.SystemInfo;
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.formatting.RocketDescriptor;
@@ -78,6 +79,7 @@ import net.sf.openrocket.l10n.Translator;
 import net.sf.openrocket.logging.Markers;
 import net.sf.openrocket.optimization.general.OptimizationException;
 import net.sf.openrocket.optimization.general.Point;
+import net.sf.openrocket.optimization.rocketoptimization.EvaluationStore;
 import net.sf.openrocket.optimization.rocketoptimization.OptimizableParameter;
 import net.sf.openrocket.optimization.rocketoptimization.OptimizationGoal;
 import net.sf.openrocket.optimization.rocketoptimization.SimulationDomain;
@@ -118,6 +120,9 @@ public class GeneralOptimizationDialog extends JDialog {
 	private static final String START_TEXT = trans.get("btn.start");
 	private static final String STOP_TEXT = trans.get("btn.stop");
 	
+	/** File storing the parameter values evaluated by earlier optimization runs */
+	private static final String EVALUATION_STORE_FILE = "OptimizationEvaluations.dat";
+	
 	private final RocketDescriptor descriptor = Application.getInjector().getInstance(RocketDescriptor.class);
 	
 	
@@ -173,6 +178,8 @@ public class GeneralOptimizationDialog extends JDialog {
 	private boolean running = false;
 	/** The optimization worker that is running */
 	private OptimizationWorker worker = null;
+	/** Parameter values evaluated by earlier optimization runs */
+	private final EvaluationStore evaluationStore;
 	
 	private double bestValue = Double.NaN;
 	private Unit bestValueUnit = Unit.NOUNIT;
@@ -196,6 +203,7 @@ public class GeneralOptimizationDialog extends JDialog {
 		
 		this.baseDocument = document;
 		this.documentCopy = document.copy();
+		this.evaluationStore = EvaluationStore.load(getEvaluationStoreFile(), EvaluationStore.DEFAULT_MAX_SIZE);
 		
 		loadOptimizationParameters();
 		loadSimulationModifiers();
@@ -728,6 +736,7 @@ public class GeneralOptimizationDialog extends JDialog {
 				
 				worker = null;
 				stopOptimization();
+				saveEvaluationStore();
 				
 				// Disable the start/stop button for a short while after ending the simulation
 				// to prevent accidentally starting a new optimization when trying to stop it
@@ -794,6 +803,7 @@ public class GeneralOptimizationDialog extends JDialog {
 				updateCounters();
 			}
 		};
+		worker.setEvaluationStore(evaluationStore);
 		worker.start();
 		
 		clearHistory();
@@ -801,6 +811,21 @@ public class GeneralOptimizationDialog extends JDialog {
 		updateComponents();
 	}
 	
+	private static File getEvaluationStoreFile() {
+		return new File(SystemInfo.getUserApplicationDirectory(), EVALUATION_STORE_FILE);
+	}
+	
+	private void saveEvaluationStore() {
+		if (!evaluationStore.isModified()) {
+			return;
+		}
+		try {
+			evaluationStore.save(getEvaluationStoreFile());
+		} catch (IOException e) {
+			log.warn("Unable to save optimization evaluations", e);
+		}
+	}
+	
 	private void stopOptimization() {
 		if (!running) {
 			log.info("Optimization not running");
@@ -18,6 +18,7 @@ import net.sf.openrocket.optimization.general.ParallelFunctionCache;
 import net.sf.openrocket.optimization.general.Point;
 import net.sf.openrocket.optimization.general.multidim.MultidirectionalSearchOptimizer;
 import net.sf.openrocket.optimization.general.onedim.GoldenSectionSearchOptimizer;
+import net.sf.openrocket.optimization.rocketoptimization.EvaluationStore;
 import net.sf.openrocket.optimization.rocketoptimization.OptimizableParameter;
 import net.sf.openrocket.optimization.rocketoptimization.OptimizationGoal;
 import net.sf.openrocket.optimization.rocketoptimization.RocketOptimizationFunction;
@@ -120,6 +121,16 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		}
 	}
 	
+	/**
+	 * Set the store used to share parameter values with other optimization runs.
+	 * Must be called before starting the worker.
+	 * 
+	 * @param store		the evaluation store, or <code>null</code> for none.
+	 */
+	public void setEvaluationStore(EvaluationStore store) {
+		function.setEvaluationStore(store);
+	}
+	
 	/**
 	 * This method is called after the optimization has ended, either normally, when interrupted
 	 * or by throwing an exception.  This method is called on the EDT, like the done() method of SwingWorker.
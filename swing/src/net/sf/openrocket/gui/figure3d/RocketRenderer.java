@@ -5,6 +5,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -179,10 +180,10 @@ public abstract class RocketRenderer {
 		// output buffer
 		final Collection<Geometry> treeGeometry = new ArrayList<Geometry>();
 
-		for(Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry: imap.entrySet() ) {
+		for(Map.Entry<RocketComponent, List<InstanceContext>> entry: imap.entrySet() ) {
 			final RocketComponent comp = entry.getKey();
 			
-			final ArrayList<InstanceContext> contextList = entry.getValue();
+			final List<InstanceContext> contextList = entry.getValue();
 
 			for(InstanceContext context: contextList ) {
 				Geometry instanceGeometry = cr.getComponentGeometry( comp, context.transform );
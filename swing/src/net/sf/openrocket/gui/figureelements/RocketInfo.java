@@ -362,8 +362,9 @@ public class RocketInfo implements FigureElement {
 		double height = drawFlightData();
 		
 		if (calculatingData) {
-			//// Calculating...
-			GlyphVector calculating = createText(trans.get("RocketInfo.Calculating"));
+			//// Calculating... or Approximate, refining...
+			boolean approximate = (flightData != null && flightData.isApproximate());
+			GlyphVector calculating = createText(trans.get(approximate ? "RocketInfo.Approximate" : "RocketInfo.Calculating"));
 			g2.setColor(Color.BLACK);
 			g2.drawGlyphVector(calculating, x1, (float)(y2-height));
 		}
@@ -22,6 +22,7 @@ import java.util.List;
 import net.sf.openrocket.document.Simulation;
 import net.sf.openrocket.gui.simulation.SimulationPlotPanel;
 import net.sf.openrocket.simulation.FlightDataBranch;
+import net.sf.openrocket.simulation.FlightDataColumn;
 import net.sf.openrocket.simulation.FlightDataType;
 import net.sf.openrocket.simulation.FlightEvent;
 import net.sf.openrocket.unit.Unit;
@@ -166,8 +167,8 @@ public class SimulationPlot {
 				int branchIndex = 0;
 				FlightDataBranch thisBranch = simulation.getSimulatedData().getBranch(branchIndex);
 				// Store data in provided units
-				List<Double> plotx = thisBranch.get(domainType);
-				List<Double> ploty = thisBranch.get(type);
+				FlightDataColumn plotx = thisBranch.getColumn(domainType);
+				FlightDataColumn ploty = thisBranch.getColumn(type);
 				XYSeries series = new XYSeries(seriesCount++, false, true);
 				series.setDescription(name);
 				int pointCount = plotx.size();
@@ -182,15 +183,15 @@ public class SimulationPlot {
 				FlightDataBranch thisBranch = simulation.getSimulatedData().getBranch(branchIndex);
 				
 				// Get first time index used in secondary branch;
-				double firstSampleTime = thisBranch.get(FlightDataType.TYPE_TIME).get(0);
+				double firstSampleTime = thisBranch.getColumn(FlightDataType.TYPE_TIME).get(0);
 				
 				XYSeries series = new XYSeries(seriesCount++, false, true);
 				series.setDescription(thisBranch.getBranchName() + ": " + name);
 				
 				// Copy the first points from the primaryBranch.
-				List<Double> primaryT = primaryBranch.get(FlightDataType.TYPE_TIME);
-				List<Double> primaryx = primaryBranch.get(domainType);
-				List<Double> primaryy = primaryBranch.get(type);
+				FlightDataColumn primaryT = primaryBranch.getColumn(FlightDataType.TYPE_TIME);
+				FlightDataColumn primaryx = primaryBranch.getColumn(domainType);
+				FlightDataColumn primaryy = primaryBranch.getColumn(type);
 				
 				for (int j = 0; j < primaryT.size(); j++) {
 					if (primaryT.get(j) >= firstSampleTime) {
@@ -200,8 +201,8 @@ public class SimulationPlot {
 				}
 				
 				// Now copy all the data from the secondary branch
-				List<Double> plotx = thisBranch.get(domainType);
-				List<Double> ploty = thisBranch.get(type);
+				FlightDataColumn plotx = thisBranch.getColumn(domainType);
+				FlightDataColumn ploty = thisBranch.getColumn(type);
 				
 				int pointCount = plotx.size();
 				for (int j = 0; j < pointCount; j++) {
@@ -16,6 +16,7 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map.Entry;
 
 import org.slf4j.Logger;
@@ -36,6 +37,7 @@ import net.sf.openrocket.rocketcomponent.RocketComponent;
 import net.sf.openrocket.startup.Application;
 import net.sf.openrocket.util.BoundingBox;
 import net.sf.openrocket.util.BugException;
+import net.sf.openrocket.util.ComponentHandlerRegistry;
 import net.sf.openrocket.util.Coordinate;
 import net.sf.openrocket.util.LineStyle;
 import net.sf.openrocket.util.MathUtil;
@@ -57,6 +59,11 @@ public class RocketFigure extends AbstractScaleFigure {
 	private static final String ROCKET_FIGURE_PACKAGE = "net.sf.openrocket.gui.rocketfigure";
 	private static final String ROCKET_FIGURE_SUFFIX = "Shapes";
 	
+	private static final ComponentHandlerRegistry<Reflection.Method> SIDE_SHAPES = ComponentHandlerRegistry.forMethod(
+			ROCKET_FIGURE_PACKAGE, ROCKET_FIGURE_SUFFIX, "getShapesSide", RocketComponent.class, Transformation.class);
+	private static final ComponentHandlerRegistry<Reflection.Method> BACK_SHAPES = ComponentHandlerRegistry.forMethod(
+			ROCKET_FIGURE_PACKAGE, ROCKET_FIGURE_SUFFIX, "getShapesBack", RocketComponent.class, Transformation.class);
+	
 	public static final int VIEW_SIDE=0;
 	public static final int VIEW_BACK=1;
 	
@@ -346,10 +353,10 @@ public class RocketFigure extends AbstractScaleFigure {
 		// allShapes is an output buffer -- it stores all the generated shapes
 		allShapes.clear();
 		
-		for(Entry<RocketComponent, ArrayList<InstanceContext>> entry: config.getActiveInstances().entrySet() ) {
+		for(Entry<RocketComponent, List<InstanceContext>> entry: config.getActiveInstances().entrySet() ) {
 			final RocketComponent comp = entry.getKey();
 			
-			final ArrayList<InstanceContext> contextList = entry.getValue();
+			final List<InstanceContext> contextList = entry.getValue();
 
 			for(InstanceContext context: contextList ) {
 				final Transformation currentTransform = this.axialRotation.applyTransformation(context.transform);
@@ -384,13 +391,11 @@ public class RocketFigure extends AbstractScaleFigure {
 		// Find the appropriate method
 		switch (viewType) {
 		case SideView:
-			m = Reflection.findMethod(ROCKET_FIGURE_PACKAGE, component, ROCKET_FIGURE_SUFFIX, "getShapesSide",
-					RocketComponent.class, Transformation.class);
+			m = SIDE_SHAPES.get(component);
 			break;
 		
 		case BackView:
-			m = Reflection.findMethod(ROCKET_FIGURE_PACKAGE, component, ROCKET_FIGURE_SUFFIX, "getShapesBack",
-					RocketComponent.class, Transformation.class);
+			m = BACK_SHAPES.get(component);
 			break;
 		
 		default:
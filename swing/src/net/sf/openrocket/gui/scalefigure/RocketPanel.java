@@ -11,7 +11,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EventListener;
 import java.util.EventObject;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -38,6 +40,7 @@ import net.sf.openrocket.aerodynamics.FlightConditions;
 import net.sf.openrocket.aerodynamics.WarningSet;
 import net.sf.openrocket.document.OpenRocketDocument;
 import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.file.openrocket.SimulationDigest;
 import net.sf.openrocket.gui.adaptors.DoubleModel;
 import net.sf.openrocket.gui.components.BasicSlider;
 import net.sf.openrocket.gui.components.ConfigurationComboBox;
@@ -65,6 +68,8 @@ import net.sf.openrocket.rocketcomponent.SymmetricComponent;
 import net.sf.openrocket.simulation.FlightData;
 import net.sf.openrocket.simulation.customexpression.CustomExpression;
 import net.sf.openrocket.simulation.customexpression.CustomExpressionSimulationListener;
+import net.sf.openrocket.simulation.exception.SimulationCancelledException;
+import net.sf.openrocket.simulation.exception.SimulationException;
 import net.sf.openrocket.simulation.listeners.SimulationListener;
 import net.sf.openrocket.simulation.listeners.system.ApogeeEndListener;
 import net.sf.openrocket.simulation.listeners.system.InterruptListener;
@@ -146,6 +151,20 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 
 	private SimulationWorker backgroundSimulationWorker = null;
 
+	private static final int SIMULATION_CACHE_SIZE = 32;
+
+	/**
+	 * The most recently used results of the background simulations by the digest of the
+	 * simulation inputs, so that returning to an earlier design, for example by undo,
+	 * does not simulate it again.
+	 */
+	private final Map<String, FlightData> simulationCache = new LinkedHashMap<String, FlightData>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, FlightData> eldest) {
+			return size() > SIMULATION_CACHE_SIZE;
+		}
+	};
+
 	private List<EventListener> listeners = new ArrayList<EventListener>();
 
 
@@ -684,10 +703,6 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 
 		// Start calculation process
 		if(((SwingPreferences) Application.getPreferences()).computeFlightInBackground()){ 
-			extraText.setCalculatingData(true);
-
-			Rocket duplicate = (Rocket) document.getRocket().copy();
-
 			// find a Simulation based on the current flight configuration
 			FlightConfigurationId curID = curConfig.getFlightConfigurationID();
 			Simulation simulation = null;
@@ -703,12 +718,24 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 			// default simulation conditions
 			if (simulation == null) {
 				System.out.println("creating new simulation");
+				Rocket duplicate = (Rocket) document.getRocket().copy();
 				simulation = ((SwingPreferences) Application.getPreferences()).getBackgroundSimulation(duplicate);
 				simulation.setFlightConfigurationId( document.getSelectedConfiguration().getId());
 			} else
 				System.out.println("using pre-existing simulation");
 			
-			backgroundSimulationWorker = new BackgroundSimulationWorker(document, simulation);
+			// Use the result of an earlier simulation of the same design if available
+			String digest = SimulationDigest.digest(document.getRocket(), simulation.getFlightConfigurationId(),
+					simulation.getOptions(), simulation.getSimulationExtensions());
+			FlightData cached = simulationCache.get(digest);
+			if (cached != null) {
+				extraText.setFlightData(cached);
+				extraText.setCalculatingData(false);
+				return;
+			}
+
+			extraText.setCalculatingData(true);
+			backgroundSimulationWorker = new BackgroundSimulationWorker(document, simulation, digest);
 			backgroundSimulationExecutor.execute(backgroundSimulationWorker);
 		}
 	}
@@ -731,9 +758,11 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 	private class BackgroundSimulationWorker extends SimulationWorker {
 
 		private final CustomExpressionSimulationListener exprListener;
+		private final String digest;
 
-		public BackgroundSimulationWorker(OpenRocketDocument doc, Simulation sim) {
+		public BackgroundSimulationWorker(OpenRocketDocument doc, Simulation sim, String digest) {
 			super(sim);
+			this.digest = digest;
 			List<CustomExpression> exprs = doc.getCustomExpressions();
 			exprListener = new CustomExpressionSimulationListener(exprs);
 		}
@@ -749,6 +778,28 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 			if (isCancelled() || backgroundSimulationWorker != this)
 				return null;
 
+			// Show an approximate result first, then refine it with the full simulation
+			try {
+				final FlightData preview = simulation.simulatePreview(getCancellationToken(),
+						InterruptListener.INSTANCE, ApogeeEndListener.INSTANCE);
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (isCancelled() || backgroundSimulationWorker != BackgroundSimulationWorker.this)
+							return;
+						extraText.setFlightData(preview);
+						figure.repaint();
+						figure3d.repaint();
+					}
+				});
+			} catch (SimulationCancelledException e) {
+				return null;
+			} catch (SimulationException e) {
+				// The full simulation reports the problem
+			}
+			if (isCancelled() || backgroundSimulationWorker != this)
+				return null;
+
 			return super.doInBackground();
 		}
 
@@ -759,6 +810,7 @@ public class RocketPanel extends JPanel implements TreeSelectionListener, Change
 				return;
 
 			backgroundSimulationWorker = null;
+			simulationCache.put(digest, simulation.getSimulatedData());
 			extraText.setFlightData(simulation.getSimulatedData());
 			extraText.setCalculatingData(false);
 			figure.repaint();
@@ -1,21 +1,19 @@
 package net.sf.openrocket.gui.simulation;
 
-import java.util.Arrays;
-
 import javax.swing.SwingWorker;
 
 import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.simulation.CancellationToken;
 import net.sf.openrocket.simulation.FlightData;
 import net.sf.openrocket.simulation.SimulationStatus;
 import net.sf.openrocket.simulation.exception.SimulationCancelledException;
-import net.sf.openrocket.simulation.listeners.AbstractSimulationListener;
 import net.sf.openrocket.simulation.listeners.SimulationListener;
 
 
 
 /**
  * A SwingWorker that runs a simulation in a background thread.  The simulation
- * always includes a listener that checks whether this SwingWorked has been cancelled,
+ * is run with a cancellation token that checks whether this SwingWorker has been cancelled,
  * and throws a {@link SimulationCancelledException} if it has.  This allows the
  * {@link #cancel(boolean)} method to be used to cancel the simulation.
  * 
@@ -24,6 +22,7 @@ import net.sf.openrocket.simulation.listeners.SimulationListener;
 public abstract class SimulationWorker extends SwingWorker<FlightData, SimulationStatus> {
 	
 	protected final Simulation simulation;
+	private final CancellationToken cancellationToken = new WorkerCancellationToken();
 	private Throwable throwable = null;
 	
 	public SimulationWorker(Simulation sim) {
@@ -43,16 +42,12 @@ public abstract class SimulationWorker extends SwingWorker<FlightData, Simulatio
 		
 		SimulationListener[] listeners = getExtraListeners();
 		
-		if (listeners != null) {
-			listeners = Arrays.copyOf(listeners, listeners.length + 1);
-		} else {
-			listeners = new SimulationListener[1];
+		if (listeners == null) {
+			listeners = new SimulationListener[0];
 		}
 		
-		listeners[listeners.length - 1] = new CancelListener();
-		
 		try {
-			simulation.simulate(listeners);
+			simulation.simulate(cancellationToken, listeners);
 		} catch (Throwable e) {
 			throwable = e;
 			return null;
@@ -61,6 +56,14 @@ public abstract class SimulationWorker extends SwingWorker<FlightData, Simulatio
 	}
 	
 	
+	/**
+	 * Return the token that cancels the simulation when this worker is cancelled.
+	 */
+	protected CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+	
+	
 	/**
 	 * Return additional listeners to use during the simulation.  The default
 	 * implementation returns an empty array.
@@ -101,21 +104,14 @@ public abstract class SimulationWorker extends SwingWorker<FlightData, Simulatio
 	
 	
 	/**
-	 * A simulation listener that throws a {@link SimulationCancelledException} if
-	 * this SwingWorker has been cancelled.  The conditions is checked every time a step
-	 * is taken.
-	 * 
-	 * @author Sampo Niskanen <sampo.niskanen@iki.fi>
+	 * A cancellation token that cancels the simulation when this SwingWorker has been
+	 * cancelled.  The simulation engine checks it every time a step is taken.
 	 */
-	private class CancelListener extends AbstractSimulationListener {
+	private class WorkerCancellationToken extends CancellationToken {
 		
 		@Override
-		public void postStep(SimulationStatus status) throws SimulationCancelledException {
-			
-			if (isCancelled()) {
-				throw new SimulationCancelledException("The simulation was interrupted.");
-			}
-			
+		public boolean isCancelled() {
+			return SimulationWorker.this.isCancelled();
 		}
 	}
 }
@@ -70,6 +70,11 @@ public class SwingPreferences extends net.sf.openrocket.startup.Preferences {
 	 */
 	private static final String NODENAME = (DEBUG ? "OpenRocket-debug" : "OpenRocket");
 	
+	/**
+	 * The random seed of the background simulations.
+	 */
+	private static final int BACKGROUND_SIMULATION_SEED = 0;
+	
 	private final Preferences PREFNODE;
 	
 	
@@ -429,6 +434,8 @@ public class SwingPreferences extends net.sf.openrocket.startup.Preferences {
 		SimulationOptions cond = s.getOptions();
 		
 		cond.setTimeStep(RK4SimulationStepper.RECOMMENDED_TIME_STEP * 2);
+		// Fixed seed, so that the results of an unchanged design can be reused
+		cond.setRandomSeed(BACKGROUND_SIMULATION_SEED);
 		return s;
 	}
 	
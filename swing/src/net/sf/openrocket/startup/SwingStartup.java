@@ -25,6 +25,7 @@ import net.sf.openrocket.gui.util.GUIUtil;
 import net.sf.openrocket.gui.util.SwingPreferences;
 import net.sf.openrocket.logging.LoggingSystemSetup;
 import net.sf.openrocket.logging.PrintStreamToSLF4J;
+import net.sf.openrocket.plugin.AnnotationFinderImpl;
 import net.sf.openrocket.plugin.PluginModule;
 import net.sf.openrocket.util.BuildProperties;
 
@@ -44,6 +45,9 @@ public class SwingStartup {
 	
 	private final static Logger log = LoggerFactory.getLogger(SwingStartup.class);
 	
+	/** File caching the plugin classes found in JARs without a plugin index */
+	private static final String PLUGIN_SCAN_CACHE_FILE = "PluginScanCache.properties";
+	
 	/**
 	 * OpenRocket startup main method.
 	 */
@@ -139,7 +143,8 @@ public class SwingStartup {
 		log.info("Loading databases");
 		
 		GuiModule guiModule = new GuiModule();
-		Module pluginModule = new PluginModule();
+		File pluginScanCache = new File(SystemInfo.getUserApplicationDirectory(), PLUGIN_SCAN_CACHE_FILE);
+		Module pluginModule = new PluginModule(new AnnotationFinderImpl(pluginScanCache));
 		Injector injector = Guice.createInjector(guiModule, pluginModule);
 		Application.setInjector(injector);
 		
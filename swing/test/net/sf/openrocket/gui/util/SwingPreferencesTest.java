@@ -0,0 +1,29 @@
+package net.sf.openrocket.gui.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import net.sf.openrocket.document.Simulation;
+import net.sf.openrocket.file.openrocket.SimulationDigest;
+import net.sf.openrocket.rocketcomponent.FlightConfigurationId;
+import net.sf.openrocket.rocketcomponent.Rocket;
+import net.sf.openrocket.util.BaseTestCase.BaseTestCase;
+import net.sf.openrocket.util.TestRockets;
+
+public class SwingPreferencesTest extends BaseTestCase {
+
+	@Test
+	public void testBackgroundSimulationDigest() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfigurationId fcid = rocket.getFlightConfigurationByIndex(0, false).getFlightConfigurationID();
+		SwingPreferences preferences = new SwingPreferences();
+
+		// Background simulations of an unchanged design reuse the cached results
+		Simulation first = preferences.getBackgroundSimulation(rocket);
+		Simulation second = preferences.getBackgroundSimulation(rocket);
+		assertEquals(SimulationDigest.digest(rocket, fcid, first.getOptions(), first.getSimulationExtensions()),
+				SimulationDigest.digest(rocket, fcid, second.getOptions(), second.getSimulationExtensions()));
+	}
+
+}